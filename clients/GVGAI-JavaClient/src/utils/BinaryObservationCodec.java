@@ -0,0 +1,261 @@
+package utils;
+
+import serialization.Observation;
+import serialization.SerializableStateObservation;
+import serialization.Types;
+import serialization.Vector2d;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Client side of the binary protocol of the server (see BinaryObservationCodec in the server code),
+ * used instead of the text one when the server offers it and USE_BINARY_PROTOCOL is true.
+ *
+ * Every message is a frame: an int with the number of bytes that follow, a byte with the kind
+ * of frame, and its content. Text frames carry the same "id#message" lines of the text protocol,
+ * in UTF-8. Observation frames carry the message id (long) and the fields of the observation, as
+ * primitives. Enums are received by their ordinal, so Types and SerializableStateObservation.Phase
+ * must declare them in the same order the server does.
+ *
+ * The observation grid is received complete at the start of each game, and then only the cells
+ * that changed since the previous observation. The cells that did not change are the same arrays
+ * of observations of the previous grid, shared by both observations.
+ */
+public class BinaryObservationCodec {
+
+    /**
+     * Kinds of frame.
+     */
+    public static final byte FRAME_TEXT = 0;
+    public static final byte FRAME_OBSERVATION = 1;
+
+    /**
+     * How the observation grid is sent: not at all (null), complete, or the cells changed.
+     */
+    private static final byte GRID_NONE = 0;
+    private static final byte GRID_FULL = 1;
+
+    /**
+     * Marks the end of the cells of a grid sent as changes.
+     */
+    private static final int END_OF_CELLS = -1;
+
+    /**
+     * Flags of an observation, telling which of its fields are not null.
+     */
+    private static final byte OBS_PRESENT = 1;
+    private static final byte OBS_POSITION = 2;
+    private static final byte OBS_REFERENCE = 4;
+
+    /**
+     * Last grid received, whose unchanged cells are kept in the next one.
+     */
+    private Observation[][][] previousGrid;
+
+    /**
+     * Message received: a line of text, or an observation.
+     */
+    public static class Frame {
+        public String line;
+        public long messageId;
+        public SerializableStateObservation observation;
+    }
+
+    /**
+     * Sends a frame with a line of text.
+     * @param out stream to write to.
+     * @param line line of the message, without line separator.
+     */
+    public static void writeTextFrame(DataOutputStream out, String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[bytes.length + 5];
+        int length = bytes.length + 1;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        frame[4] = FRAME_TEXT;
+        System.arraycopy(bytes, 0, frame, 5, bytes.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * Reads the next frame.
+     * @param in stream to read from.
+     * @return the frame, with its line if it is a text frame or its observation otherwise.
+     */
+    public Frame readFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte kind = in.readByte();
+        Frame frame = new Frame();
+        if (kind == FRAME_TEXT) {
+            byte[] bytes = new byte[length - 1];
+            in.readFully(bytes);
+            frame.line = new String(bytes, StandardCharsets.UTF_8);
+        } else if (kind == FRAME_OBSERVATION) {
+            frame.messageId = in.readLong();
+            frame.observation = readObservation(in);
+        } else {
+            throw new IOException("BinaryObservationCodec: unknown kind of frame " + kind);
+        }
+        return frame;
+    }
+
+    /**
+     * Decodes an observation.
+     * @param in stream to read from.
+     * @return the observation decoded.
+     */
+    public SerializableStateObservation readObservation(DataInputStream in) throws IOException {
+        SerializableStateObservation sso = new SerializableStateObservation();
+        sso.phase = fromOrdinal(SerializableStateObservation.Phase.values(), in.readByte());
+        sso.isValidation = in.readBoolean();
+        sso.gameScore = in.readFloat();
+        sso.gameTick = in.readInt();
+        sso.gameWinner = fromOrdinal(Types.WINNER.values(), in.readByte());
+        sso.isGameOver = in.readBoolean();
+        sso.worldDimension = readDoubles(in);
+        sso.blockSize = in.readInt();
+
+        sso.noOfPlayers = in.readInt();
+        sso.avatarSpeed = in.readFloat();
+        sso.avatarOrientation = readDoubles(in);
+        sso.avatarPosition = readDoubles(in);
+        sso.avatarLastAction = fromOrdinal(Types.ACTIONS.values(), in.readByte());
+        sso.avatarType = in.readInt();
+        sso.avatarHealthPoints = in.readInt();
+        sso.avatarMaxHealthPoints = in.readInt();
+        sso.avatarLimitHealthPoints = in.readInt();
+        sso.isAvatarAlive = in.readBoolean();
+
+        int nActions = in.readInt();
+        if (nActions >= 0) {
+            sso.availableActions = new ArrayList<Types.ACTIONS>(nActions);
+            for (int i = 0; i < nActions; i++) {
+                sso.availableActions.add(fromOrdinal(Types.ACTIONS.values(), in.readByte()));
+            }
+        }
+
+        int nResources = in.readInt();
+        if (nResources >= 0) {
+            sso.avatarResources = new HashMap<Integer, Integer>();
+            for (int i = 0; i < nResources; i++) {
+                int resource = in.readInt();
+                sso.avatarResources.put(resource, in.readInt());
+            }
+        }
+
+        int imageLength = in.readInt();
+        if (imageLength >= 0) {
+            sso.imageArray = new byte[imageLength];
+            in.readFully(sso.imageArray);
+        }
+
+        sso.observationGrid = readGrid(in);
+
+        sso.NPCPositions = readObservations(in);
+        sso.immovablePositions = readObservations(in);
+        sso.movablePositions = readObservations(in);
+        sso.resourcesPositions = readObservations(in);
+        sso.portalsPositions = readObservations(in);
+        sso.fromAvatarSpritesPositions = readObservations(in);
+        return sso;
+    }
+
+    private Observation[][][] readGrid(DataInputStream in) throws IOException {
+        byte mode = in.readByte();
+        if (mode == GRID_NONE) {
+            previousGrid = null;
+            return null;
+        }
+
+        Observation[][][] grid;
+        if (mode == GRID_FULL) {
+            int width = in.readInt();
+            int height = in.readInt();
+            grid = new Observation[width][height][];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    grid[x][y] = readCell(in);
+                }
+            }
+        } else {
+            if (previousGrid == null) {
+                throw new IOException("BinaryObservationCodec: grid changes received without a previous grid");
+            }
+            grid = new Observation[previousGrid.length][][];
+            for (int x = 0; x < grid.length; x++) {
+                grid[x] = previousGrid[x].clone();
+            }
+            int height = (grid.length > 0) ? grid[0].length : 0;
+            int cell = in.readInt();
+            while (cell != END_OF_CELLS) {
+                grid[cell / height][cell % height] = readCell(in);
+                cell = in.readInt();
+            }
+        }
+        previousGrid = grid;
+        return grid;
+    }
+
+    private static Observation[] readCell(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        Observation[] cell = new Observation[length];
+        for (int i = 0; i < length; i++) {
+            cell[i] = readObs(in);
+        }
+        return cell;
+    }
+
+    private static Observation[][] readObservations(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        Observation[][] observations = new Observation[length][];
+        for (int i = 0; i < length; i++) {
+            observations[i] = readCell(in);
+        }
+        return observations;
+    }
+
+    private static Observation readObs(DataInputStream in) throws IOException {
+        byte flags = in.readByte();
+        if ((flags & OBS_PRESENT) == 0) {
+            return null;
+        }
+        Observation obs = new Observation();
+        obs.category = in.readInt();
+        obs.itype = in.readInt();
+        obs.obsID = in.readInt();
+        obs.position = ((flags & OBS_POSITION) != 0) ? new Vector2d(in.readDouble(), in.readDouble()) : null;
+        obs.reference = ((flags & OBS_REFERENCE) != 0) ? new Vector2d(in.readDouble(), in.readDouble()) : null;
+        obs.sqDist = in.readDouble();
+        return obs;
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    private static <T> T fromOrdinal(T[] values, byte ordinal) {
+        return (ordinal < 0) ? null : values[ordinal];
+    }
+}
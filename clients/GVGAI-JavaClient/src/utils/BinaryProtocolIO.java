@@ -0,0 +1,25 @@
+package utils;
+
+import java.io.IOException;
+
+/**
+ * Communications with the server that can switch to the binary protocol (see BinaryObservationCodec).
+ * ClientComm only accepts it when the communication implements this interface and supports it.
+ */
+public interface BinaryProtocolIO {
+
+    /**
+     * Indicates if the binary protocol can be used.
+     */
+    boolean supportsBinaryProtocol();
+
+    /**
+     * Switches to the binary protocol, once the client accepted it.
+     */
+    void startBinaryProtocol() throws IOException;
+
+    /**
+     * Reads the next message from the server in the binary protocol.
+     */
+    BinaryObservationCodec.Frame readFrame() throws IOException;
+}
@@ -62,6 +62,22 @@ public class ClientComm {
      */
     private LEARNING_SSO_TYPE lastSsoType = LEARNING_SSO_TYPE.JSON;
 
+    /**
+     * Tag of the START message of the servers that offer the binary protocol, and of the
+     * START_DONE response that accepts it (see BinaryObservationCodec).
+     */
+    public static final String BINARY_PROTOCOL = "BINARY";
+
+    /**
+     * True if the server offered the binary protocol in its START message.
+     */
+    private boolean binaryProtocolOffered = false;
+
+    /**
+     * Communication with the server once it is switched to the binary protocol, null before.
+     */
+    private BinaryProtocolIO binaryIO = null;
+
     /**
      * Creates the client.
      */
@@ -98,11 +114,16 @@ public class ClientComm {
         // Continuously listen for messages
         while (line != null) {
 
-            // Read a line from System.in and save it as a String
-            line = io.readLine();
+            if (binaryIO != null) {
+                // Read and process a frame of the binary protocol
+                processFrame(binaryIO.readFrame());
+            } else {
+                // Read a line from System.in and save it as a String
+                line = io.readLine();
 
-            // Process the line
-            processLine(line);
+                // Process the line
+                processLine(line);
+            }
             //io.writeToFile("line: " + line);
 
             if(sso.phase == SerializableStateObservation.Phase.START)
@@ -167,6 +188,7 @@ public class ClientComm {
             // Happens only on one-time setup
             if (json.equals("START")) {
                 this.sso.phase = SerializableStateObservation.Phase.START;
+                binaryProtocolOffered = message.length > 2 && message[2].equals(BINARY_PROTOCOL);
                 return;
             }
 
@@ -178,14 +200,7 @@ public class ClientComm {
             // Else, deserialize the json using GSon
             this.sso = gson.fromJson(json, SerializableStateObservation.class);
 
-            // If expect image
-            if (lastSsoType == LEARNING_SSO_TYPE.IMAGE || lastSsoType == LEARNING_SSO_TYPE.BOTH) {
-                if ((sso.phase != SerializableStateObservation.Phase.INIT
-                    && sso.phase != SerializableStateObservation.Phase.ABORT)) {
-                    // If an image has been received, then save its PNG equivalent
-                    sso.convertBytesToPng(sso.imageArray);
-                }
-            }
+            saveImage();
             // Used for debugging
 //            io.writeToFile(sso.toString());
         } catch (Exception e){
@@ -194,6 +209,43 @@ public class ClientComm {
 
     }
 
+    /***
+     * Method that interprets the frames received in the binary protocol. Text frames
+     * are processed as the lines of the text protocol; observation frames are already
+     * decoded into a local state observation instance.
+     * @param frame Frame received from server to be interpreted.
+     * @throws IOException
+     */
+    public void processFrame(BinaryObservationCodec.Frame frame) throws IOException{
+
+        if (frame.line != null) {
+            processLine(frame.line);
+            return;
+        }
+
+        try {
+            lastMessageId = frame.messageId;
+            this.sso = frame.observation;
+            saveImage();
+        } catch (Exception e){
+            io.logStackTrace(e);
+        }
+    }
+
+    /**
+     * Saves the image of the observation received as PNG, if images are expected.
+     */
+    private void saveImage() throws Exception {
+        // If expect image
+        if (lastSsoType == LEARNING_SSO_TYPE.IMAGE || lastSsoType == LEARNING_SSO_TYPE.BOTH) {
+            if ((sso.phase != SerializableStateObservation.Phase.INIT
+                && sso.phase != SerializableStateObservation.Phase.ABORT)) {
+                // If an image has been received, then save its PNG equivalent
+                sso.convertBytesToPng(sso.imageArray);
+            }
+        }
+    }
+
 
     /// Specific state functions
 
@@ -219,7 +271,20 @@ public class ClientComm {
             io.writeToServer(lastMessageId, "START_FAILED", LOG);
         }else {
             //io.writeToFile("start done");
-            io.writeToServer(lastMessageId, "START_DONE" + TOKEN_SEP + player.lastSsoType, LOG);
+            boolean useBinaryProtocol = binaryProtocolOffered && CompetitionParameters.USE_BINARY_PROTOCOL
+                    && (io instanceof BinaryProtocolIO) && ((BinaryProtocolIO) io).supportsBinaryProtocol();
+            String response = "START_DONE" + TOKEN_SEP + player.lastSsoType;
+            io.writeToServer(lastMessageId, useBinaryProtocol ? response + TOKEN_SEP + BINARY_PROTOCOL : response, LOG);
+
+            // The server switches to the binary protocol once it receives our response.
+            if (useBinaryProtocol) {
+                try {
+                    ((BinaryProtocolIO) io).startBinaryProtocol();
+                    binaryIO = (BinaryProtocolIO) io;
+                } catch (IOException e) {
+                    io.logStackTrace(e);
+                }
+            }
         }
 
     }
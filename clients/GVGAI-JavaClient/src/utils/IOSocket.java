@@ -8,13 +8,20 @@ import java.util.Scanner;
 /**
  * Created by dperez on 23/05/2017.
  */
-public class IOSocket extends IO {
+public class IOSocket extends IO implements BinaryProtocolIO {
 
 
     private Socket socket;
     private Scanner in;
     private PrintStream out;
 
+    /**
+     * Streams and codec of the binary protocol, null until it is started.
+     */
+    private DataInputStream binaryIn;
+    private DataOutputStream binaryOut;
+    private BinaryObservationCodec codec;
+
     private String hostname = "localhost";
     private int port;
 
@@ -44,6 +51,9 @@ public class IOSocket extends IO {
                 }
             }
 
+            //Messages are answered before the next one is sent: don't delay sending them.
+            socket.setTcpNoDelay(true);
+
             out = new PrintStream(socket.getOutputStream());
             in = new Scanner(socket.getInputStream());
 
@@ -74,6 +84,27 @@ public class IOSocket extends IO {
         return in.nextLine();
     }
 
+    @Override
+    public boolean supportsBinaryProtocol() {
+        return true;
+    }
+
+    /**
+     * Switches to the binary protocol. Messages alternate between server and client, so
+     * nothing else has been received after the START line when it is called.
+     */
+    @Override
+    public void startBinaryProtocol() throws IOException {
+        binaryIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        binaryOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        codec = new BinaryObservationCodec();
+    }
+
+    @Override
+    public BinaryObservationCodec.Frame readFrame() throws IOException {
+        return codec.readFrame(binaryIn);
+    }
+
     /**
      * Writes a line to the server, adding a line separator at the end.
      * @param line to write
@@ -82,8 +113,12 @@ public class IOSocket extends IO {
     protected void writeToServer(String line)
     {
         try {
-            out.print(line + lineSep);
-            out.flush();
+            if (binaryOut != null) {
+                BinaryObservationCodec.writeTextFrame(binaryOut, line);
+            } else {
+                out.print(line + lineSep);
+                out.flush();
+            }
         }catch(Exception e)
         {
             System.out.println("Error trying to write " + line + " to the server.");
@@ -81,6 +81,13 @@ public class CompetitionParameters
      */
     public static final int SOCKET_PORT = 8080;
 
+    /**
+     * Offer the binary protocol to the clients connected through sockets? It is used only if the client accepts it
+     * (NOTE: see USE_BINARY_PROTOCOL in the client code). Off by default, as the clients that only know the text
+     * protocol do not expect the offer in the START message.
+     */
+    public static final boolean USE_BINARY_PROTOCOL = false;
+
     /**
      * Indicates if the overspend should be taken into account or not.
      *  Time limits are WALL TIME on Windows, because CPU TIME is not accurate enough
@@ -2,16 +2,18 @@ package core.game;
 
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Random;
 
 import core.competition.CompetitionParameters;
+import core.vgdl.GameCache;
 import core.vgdl.VGDLFactory;
 import core.vgdl.VGDLRegistry;
 import core.vgdl.VGDLSprite;
 import core.logging.Logger;
 import core.logging.Message;
 import core.content.GameContent;
-import tools.IO;
 import tools.Vector2d;
 import tools.pathfinder.PathFinder;
 
@@ -39,6 +41,9 @@ public class BasicGame extends Game {
 	// List of IDs of the sprites should not be traversable for the pathfinder.
 	private ArrayList<Integer> obstacles;
 
+	// Layout of the last level built from a string, reused when the same level is built again.
+	private LevelLayout levelLayout;
+
 	/**
 	 * Default constructor for a basic game.
 	 *
@@ -70,7 +75,7 @@ public class BasicGame extends Game {
 	 *            file name containing the level.
 	 */
 	public void buildLevel(String gamelvl, int randomSeed) {
-		String[] lines = new IO().readFile(gamelvl);
+		String[] lines = GameCache.readLines(gamelvl);
 
 		// Pathfinder
 		obstacles = new ArrayList<>();
@@ -130,61 +135,43 @@ public class BasicGame extends Game {
 			}
 		}
 
+		// The sprites of each position only depend on the level and the char mapping of the game,
+		// so they are only worked out again when the level is different from the last one built.
+		if (levelLayout == null || !levelLayout.isLayoutOf(desc_lines, charMapping)) {
+			levelLayout = new LevelLayout(desc_lines, size.width, size.height, charMapping);
+		}
+
 		ArrayList<VGDLSprite> avatars = new ArrayList<VGDLSprite>();
 		// All sprites are created and placed here:
-		for (int i = 0; i < size.height; ++i) {
-			String line = desc_lines[i];
-
-			// For each character
-			for (int j = 0; j < size.width; ++j) {
-				Character c = line.charAt(j);
-
-				// If this character is defined in the array of mappings.
-				if (charMapping.containsKey(c)) {
-					for (String obj : charMapping.get(c)) {
-						int similarTiles = 0;
-						for (int x = -1; x <= 1; x++) {
-							for (int y = -1; y <= 1; y++) {
-								if (Math.abs(x) != Math.abs(y)
-										&& (j + x >= 0 && j + x < size.width && i + y >= 0 && i + y < size.height)) {
-									if (charMapping.containsKey(desc_lines[i + y].charAt(j + x))) {
-										ArrayList<String> neighborTiles = charMapping
-												.get(desc_lines[i + y].charAt(j + x));
-										if (neighborTiles.contains(obj)) {
-											similarTiles += Math.floor(Math.abs(x) * (x + 3) / 2)
-													+ Math.abs(y) * (y + 3) * 2;
-										}
-									}
-								}
-							}
-						}
+		for (int k = 0; k < levelLayout.size(); ++k) {
+			String obj = levelLayout.sprites.get(k);
+			int i = levelLayout.rows[k];
+			int j = levelLayout.columns[k];
+			if (obj == null) {
+				Logger.getInstance().addMessage(new Message(Message.WARNING, "\"" + desc_lines[i].charAt(j) + "\" is not defined in the level mapping."));
+				continue;
+			}
 
-						// Get its position and add it to the game.
-						Vector2d position = new Vector2d(j * block_size, i * block_size);
-						VGDLSprite s = addSpriteIn(obj, position);
-						if(s == null){
-							continue;
-						}
-						if (s.is_avatar) {
-							avatars.add(s);
-						}
-						if (s.autotiling) {
+			// Get its position and add it to the game.
+			Vector2d position = new Vector2d(j * block_size, i * block_size);
+			VGDLSprite s = addSpriteIn(obj, position);
+			if(s == null){
+				continue;
+			}
+			if (s.is_avatar) {
+				avatars.add(s);
+			}
+			if (s.autotiling) {
 
-							ArrayList<Image> images = s.images.get("NONE");
-							if(images.size() > 0)
-								s.image = images.get(similarTiles);
-						}
-						if (s.randomtiling >= 0) {
-							Random random = new Random(randomSeed);
-							ArrayList<Image> allImages = s.images.get("NONE");
-							if (random.nextDouble() > s.randomtiling && allImages.size() > 0) {
-								s.image = allImages.get(random.nextInt(allImages.size()));
-							}
-						}
-					}
-				}
-				else if(c != ' '){
-					Logger.getInstance().addMessage(new Message(Message.WARNING, "\"" + c + "\" is not defined in the level mapping."));
+				ArrayList<Image> images = s.images.get("NONE");
+				if(images != null && images.size() > 0)
+					s.image = images.get(levelLayout.similarTiles[k]);
+			}
+			if (s.randomtiling >= 0) {
+				Random random = new Random(randomSeed);
+				ArrayList<Image> allImages = s.images.get("NONE");
+				if (random.nextDouble() > s.randomtiling && allImages != null && allImages.size() > 0) {
+					s.image = allImages.get(random.nextInt(allImages.size()));
 				}
 			}
 		}
@@ -281,4 +268,88 @@ public class BasicGame extends Game {
 	public int getSquareSize() {
 		return square_size;
 	}
+	/**
+	 * Sprites to create for a level, in the order they are created: the sprite of each one and
+	 * its position in the grid, and the number used to pick its image when it is autotiled. A
+	 * null sprite stands for a character of the level that is not in the char mapping.
+	 */
+	private static class LevelLayout {
+		private final String[] lines;
+		private final HashMap<Character, ArrayList<String>> charMapping;
+		private final ArrayList<String> sprites;
+		private int[] rows;
+		private int[] columns;
+		private int[] similarTiles;
+
+		LevelLayout(String[] lines, int width, int height, HashMap<Character, ArrayList<String>> charMapping) {
+			this.lines = lines.clone();
+			this.charMapping = new HashMap<Character, ArrayList<String>>();
+			for (Character c : charMapping.keySet()) {
+				this.charMapping.put(c, new ArrayList<String>(charMapping.get(c)));
+			}
+			this.sprites = new ArrayList<String>();
+			this.rows = new int[width * height];
+			this.columns = new int[width * height];
+			this.similarTiles = new int[width * height];
+
+			for (int i = 0; i < height; ++i) {
+				String line = lines[i];
+
+				// For each character
+				for (int j = 0; j < width; ++j) {
+					Character c = line.charAt(j);
+
+					// If this character is defined in the array of mappings.
+					if (charMapping.containsKey(c)) {
+						for (String obj : charMapping.get(c)) {
+							int similar = 0;
+							for (int x = -1; x <= 1; x++) {
+								for (int y = -1; y <= 1; y++) {
+									if (Math.abs(x) != Math.abs(y)
+											&& (j + x >= 0 && j + x < width && i + y >= 0 && i + y < height)) {
+										if (charMapping.containsKey(lines[i + y].charAt(j + x))) {
+											ArrayList<String> neighborTiles = charMapping
+													.get(lines[i + y].charAt(j + x));
+											if (neighborTiles.contains(obj)) {
+												similar += Math.floor(Math.abs(x) * (x + 3) / 2)
+														+ Math.abs(y) * (y + 3) * 2;
+											}
+										}
+									}
+								}
+							}
+							add(obj, i, j, similar);
+						}
+					}
+					else if(c != ' '){
+						add(null, i, j, 0);
+					}
+				}
+			}
+		}
+
+		private void add(String obj, int row, int column, int similar) {
+			int k = sprites.size();
+			if (k == rows.length) {
+				rows = Arrays.copyOf(rows, Math.max(16, 2 * k));
+				columns = Arrays.copyOf(columns, Math.max(16, 2 * k));
+				similarTiles = Arrays.copyOf(similarTiles, Math.max(16, 2 * k));
+			}
+			sprites.add(obj);
+			rows[k] = row;
+			columns[k] = column;
+			similarTiles[k] = similar;
+		}
+
+		int size() {
+			return sprites.size();
+		}
+
+		/**
+		 * @return if this is the layout of the level given, with the char mapping given.
+		 */
+		boolean isLayoutOf(String[] lines, HashMap<Character, ArrayList<String>> charMapping) {
+			return Arrays.equals(this.lines, lines) && this.charMapping.equals(charMapping);
+		}
+	}
 }
@@ -0,0 +1,211 @@
+package core.game;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import core.vgdl.VGDLSprite;
+
+/**
+ * Grid of the level that indexes a list of sprites by the cells their rectangles cover,
+ * so the sprites that may intersect with another one are found without checking them all.
+ * Cells are of the size of a block of the level. Sprites outside of the level are indexed
+ * in the cells of its border.
+ *
+ * The grid is built for the positions the sprites have at that moment, so it must be
+ * built again if any of them moves. The version given when building it tells the
+ * owner of the grid when it was built.
+ */
+class CollisionGrid
+{
+    /**
+     * Tells if the intersection of sprites of a class is the intersection of their
+     * rectangles, the only one the grid can be used for. Some sprites override
+     * VGDLSprite.intersects() with side effects, which must be called for every pair.
+     */
+    private static final ClassValue<Boolean> plainIntersection = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> spriteClass) {
+            try {
+                return spriteClass.getMethod("intersects", VGDLSprite.class).getDeclaringClass() == VGDLSprite.class;
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private int blockSize;
+    private int cols;
+    private int rows;
+
+    /**
+     * Version given when the grid was last built.
+     */
+    private int version;
+
+    /**
+     * Sprites indexed.
+     */
+    private ArrayList<VGDLSprite> sprites;
+
+    /**
+     * Indexes (in sprites) of the sprites of each cell are in cellSprites, from
+     * cellStart[cell] to cellStart[cell+1] (excluded).
+     */
+    private int[] cellStart = new int[0];
+    private int[] cellSprites = new int[0];
+
+    /**
+     * Candidates found in a query, and the query they were last found in (to avoid
+     * repeating those that cover several cells).
+     */
+    private int[] candidates = new int[0];
+    private int[] foundInQuery = new int[0];
+    private int query;
+
+    /**
+     * Checks if the grid can be used to find the sprites that intersect with a given one.
+     * @param sprite sprite to check the intersections of.
+     * @return true if its intersections are those of its rectangle.
+     */
+    static boolean canFindIntersections(VGDLSprite sprite)
+    {
+        return plainIntersection.get(sprite.getClass());
+    }
+
+    /**
+     * Gets the version given when the grid was last built.
+     * @return the version.
+     */
+    int getVersion()
+    {
+        return version;
+    }
+
+    /**
+     * Indexes a list of sprites, in their current positions.
+     * @param sprites sprites to index. The list must not change while the grid is used.
+     * @param blockSize size of the cells, in pixels.
+     * @param cols number of columns of the level.
+     * @param rows number of rows of the level.
+     * @param version version of the sprites indexed, as given by the owner of the grid.
+     */
+    void build(ArrayList<VGDLSprite> sprites, int blockSize, int cols, int rows, int version)
+    {
+        this.version = version;
+        this.sprites = sprites;
+        this.blockSize = Math.max(1, blockSize);
+        this.cols = Math.max(1, cols);
+        this.rows = Math.max(1, rows);
+
+        int nCells = this.cols * this.rows;
+        if (cellStart.length < nCells + 1)
+            cellStart = new int[nCells + 1];
+        Arrays.fill(cellStart, 0, nCells + 1, 0);
+
+        int nSprites = sprites.size();
+        if (foundInQuery.length < nSprites)
+        {
+            foundInQuery = new int[nSprites];
+            candidates = new int[nSprites];
+            query = 0;
+        }
+
+        // Count the sprites of each cell, shifted by one.
+        int nEntries = 0;
+        for (int i = 0; i < nSprites; ++i)
+        {
+            Rectangle r = sprites.get(i).rect;
+            if (r.width <= 0 || r.height <= 0)
+                continue; // Never intersects.
+            int x0 = col(r.x), x1 = col(r.x + r.width - 1);
+            int y0 = row(r.y), y1 = row(r.y + r.height - 1);
+            for (int y = y0; y <= y1; ++y)
+                for (int x = x0; x <= x1; ++x)
+                    cellStart[y * this.cols + x + 1]++;
+            nEntries += (x1 - x0 + 1) * (y1 - y0 + 1);
+        }
+
+        // Start of each cell in cellSprites.
+        for (int c = 0; c < nCells; ++c)
+            cellStart[c + 1] += cellStart[c];
+
+        if (cellSprites.length < nEntries)
+            cellSprites = new int[nEntries];
+
+        // Fill the cells, in the order of the list. cellStart[c] is used as the next free
+        // position of cell c, so it ends up at the start of cell c+1 and is shifted back.
+        for (int i = 0; i < nSprites; ++i)
+        {
+            Rectangle r = sprites.get(i).rect;
+            if (r.width <= 0 || r.height <= 0)
+                continue;
+            int x0 = col(r.x), x1 = col(r.x + r.width - 1);
+            int y0 = row(r.y), y1 = row(r.y + r.height - 1);
+            for (int y = y0; y <= y1; ++y)
+                for (int x = x0; x <= x1; ++x)
+                    cellSprites[cellStart[y * this.cols + x]++] = i;
+        }
+        for (int c = nCells; c > 0; --c)
+            cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Finds the indexed sprites that intersect with a given one, other than itself.
+     * They are returned in the same order they have in the list indexed.
+     * @param sprite sprite to check.
+     * @return sprites that intersect with sprite.
+     */
+    ArrayList<VGDLSprite> findIntersections(VGDLSprite sprite)
+    {
+        ArrayList<VGDLSprite> intersections = new ArrayList<VGDLSprite>();
+        Rectangle r = sprite.rect;
+        if (r.width <= 0 || r.height <= 0)
+            return intersections;
+
+        if (++query == 0)
+        {
+            // Counter overflow, forget all previous queries.
+            Arrays.fill(foundInQuery, 0);
+            query = 1;
+        }
+
+        int nCandidates = 0;
+        int x0 = col(r.x), x1 = col(r.x + r.width - 1);
+        int y0 = row(r.y), y1 = row(r.y + r.height - 1);
+        for (int y = y0; y <= y1; ++y)
+            for (int x = x0; x <= x1; ++x)
+            {
+                int cell = y * cols + x;
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; ++e)
+                {
+                    int i = cellSprites[e];
+                    if (foundInQuery[i] != query)
+                    {
+                        foundInQuery[i] = query;
+                        candidates[nCandidates++] = i;
+                    }
+                }
+            }
+
+        Arrays.sort(candidates, 0, nCandidates);
+        for (int c = 0; c < nCandidates; ++c)
+        {
+            VGDLSprite other = sprites.get(candidates[c]);
+            if (other != sprite && sprite.intersects(other))
+                intersections.add(other);
+        }
+        return intersections;
+    }
+
+    private int col(int x)
+    {
+        return Math.min(cols - 1, Math.max(0, x / blockSize));
+    }
+
+    private int row(int y)
+    {
+        return Math.min(rows - 1, Math.max(0, y / blockSize));
+    }
+}
@@ -0,0 +1,188 @@
+package core.game;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Historic of events happened during a game, ordered asc. by game step (and the rest
+ * of tie breaks of Event.compareTo). As in a TreeSet, events that compare equal are
+ * only kept once.
+ *
+ * The history is an append-only linked list, from the last event to the first one.
+ * Copies share all the events with the history they are copied from, and only the
+ * events added afterwards are their own, so copying a history takes constant time
+ * regardless of how long the game has been running. Events in a history are shared,
+ * so they must not be modified.
+ */
+public class EventHistory
+{
+    /**
+     * Last event of the history (null if there are no events).
+     */
+    private Node last;
+
+    /**
+     * Number of events in the history.
+     */
+    private int size;
+
+    /**
+     * Events of the history as a TreeSet, built when requested. Null if not built since
+     * the last change.
+     */
+    private TreeSet<Event> eventsSet;
+
+    /**
+     * Creates an empty history.
+     */
+    public EventHistory()
+    {
+        this.last = null;
+        this.size = 0;
+    }
+
+    /**
+     * Creates a copy of this history. The events are shared with this one.
+     * @return the copy.
+     */
+    public EventHistory copy()
+    {
+        EventHistory copy = new EventHistory();
+        copy.last = this.last;
+        copy.size = this.size;
+        return copy;
+    }
+
+    /**
+     * Adds an event to the history. Events are expected to be added in game step order,
+     * so this takes time proportional to the number of events of the last game step.
+     * @param event event to add.
+     * @return true if the event was added, false if there was an equal event already.
+     */
+    public boolean add(Event event)
+    {
+        // Events that go after the new one are all in the last steps of the history.
+        ArrayList<Event> after = new ArrayList<Event>();
+        Node node = last;
+        while (node != null)
+        {
+            int comparison = node.event.compareTo(event);
+            if (comparison == 0)
+                return false;
+            if (comparison < 0)
+                break;
+            after.add(node.event);
+            node = node.previous;
+        }
+
+        // The nodes after the new event are created again, the old ones may be shared.
+        node = new Node(event, node);
+        for (int i = after.size() - 1; i >= 0; --i)
+            node = new Node(after.get(i), node);
+
+        last = node;
+        size++;
+        eventsSet = null;
+        return true;
+    }
+
+    /**
+     * Removes all the events of the history.
+     */
+    public void clear()
+    {
+        last = null;
+        size = 0;
+        eventsSet = null;
+    }
+
+    /**
+     * Returns the number of events in the history.
+     * @return number of events.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Checks if there are no events in the history.
+     * @return true if the history is empty.
+     */
+    public boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+    /**
+     * Returns the events happened since a given game step (included), ordered asc. by
+     * game step. Takes time proportional to the number of events returned.
+     * @param gameStep first game step of the events to return.
+     * @return list of events happened since gameStep.
+     */
+    public ArrayList<Event> getEventsSince(int gameStep)
+    {
+        ArrayList<Event> events = new ArrayList<Event>();
+        for (Node node = last; node != null && node.event.gameStep >= gameStep; node = node.previous)
+            events.add(node.event);
+
+        // Reverse, to have them in asc. order.
+        for (int i = 0, j = events.size() - 1; i < j; ++i, --j)
+        {
+            Event event = events.get(i);
+            events.set(i, events.get(j));
+            events.set(j, event);
+        }
+        return events;
+    }
+
+    /**
+     * Gives the events happened at a given game step to an action, the latest first, without
+     * building a list. The events of the last game step are the last ones of the history, so
+     * this takes time proportional to the number of events given when the step is the last one.
+     * @param gameStep game step of the events.
+     * @param action action to perform on each event.
+     */
+    public void forEachEventAt(int gameStep, Consumer<Event> action)
+    {
+        for (Node node = last; node != null && node.event.gameStep >= gameStep; node = node.previous)
+        {
+            if (node.event.gameStep == gameStep)
+                action.accept(node.event);
+        }
+    }
+
+    /**
+     * Returns all the events of the history as a TreeSet. It takes time proportional to
+     * the length of the history the first time it is called after a change; use
+     * getEventsSince() to get only the last events. Changes to the set returned are not
+     * reflected in the history.
+     * @return set with all the events of the history.
+     */
+    public TreeSet<Event> getEvents()
+    {
+        if (eventsSet == null)
+        {
+            eventsSet = new TreeSet<Event>();
+            for (Node node = last; node != null; node = node.previous)
+                eventsSet.add(node.event);
+        }
+        return eventsSet;
+    }
+
+    /**
+     * Event in the history, and link to the previous one.
+     */
+    private static class Node
+    {
+        final Event event;
+        final Node previous;
+
+        Node(Event event, Node previous)
+        {
+            this.event = event;
+            this.previous = previous;
+        }
+    }
+}
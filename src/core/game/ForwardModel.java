@@ -2,6 +2,7 @@ package core.game;
 
 import java.awt.Dimension;
 import java.util.*;
+import java.util.function.Consumer;
 
 import core.competition.CompetitionParameters;
 import core.logging.Logger;
@@ -100,12 +101,20 @@ public class ForwardModel extends Game
      */
     private ArrayList<Observation>[][] observationGrid;
 
+    /**
+     * Sprites of the game that the sprites of this forward model are copies of, by sprite
+     * type and in the same order. Only kept when updated with updateChanges().
+     */
+    private ArrayList<VGDLSprite>[] copiedSprites;
+
     /**
      * Constructor for StateObservation. Initializes everything
      * @param a_gameState
      */
     public ForwardModel(Game a_gameState, int playerID)
     {
+        //The copy belongs to the engine context of the game it is created from.
+        super(a_gameState.context);
         this.playerID = playerID;
 
         //All static elements of the game are assigned from the game we create the copy from.
@@ -125,9 +134,13 @@ public class ForwardModel extends Game
     final public void update(Game a_gameState)
     {
         int numSpriteTypes = a_gameState.spriteGroups.length;
+        // Sprites that are never modified are shared between forward models, instead of copied.
+        // Those of the game are always copied, as the game keeps updating them on every cycle.
+        boolean shareImmutableSprites = (a_gameState instanceof ForwardModel);
+        copiedSprites = null;
+        avatars = new MovingAvatar[no_players];
         kill_list = new ArrayList<VGDLSprite>();
         bucketList = new Bucket[numSpriteTypes];
-        historicEvents = new TreeSet<Event>();
         shieldedEffects = new ArrayList[numSpriteTypes];
 
         //Copy of sprites from the game.
@@ -148,19 +161,11 @@ public class ForwardModel extends Game
             if(spriteIt != null) while(spriteIt.hasNext())
             {
                 VGDLSprite sp = spriteIt.next();
-                VGDLSprite spCopy = sp.copy();
+                VGDLSprite spCopy = (shareImmutableSprites && isImmutableSprite(sp)) ? sp : sp.copy();
 
                 spriteGroups[i].addSprite(spCopy.spriteID, spCopy);
 
-                String hidden = "False";
-                if (spCopy.hidden != null) {
-                    String[] split = spCopy.hidden.split(",");
-                    if (playerID > split.length - 1)
-                        hidden = split[split.length - 1];
-                    else
-                        hidden = split[playerID];
-                }
-                if(!Boolean.parseBoolean(hidden)) {
+                if(!isHiddenForPlayer(spCopy)) {
                     checkSpriteFeatures(spCopy, i);
                     updateObservation(spCopy);
                 }
@@ -175,11 +180,17 @@ public class ForwardModel extends Game
                 shieldedEffects[i].add(p.copy());
         }
 
-        //events:
-        for (Event historicEvent : a_gameState.historicEvents) {
-            historicEvents.add(historicEvent.copy());
+        //avatars that were not found among the sprites (in which case, they were not copied)
+        for (int i = 0; i < no_players; i++) {
+            if(avatars[i] == null && a_gameState.avatars[i] != null){
+                avatars[i] = (MovingAvatar) a_gameState.avatars[i].copy();
+                avatars[i].setKeyHandler(a_gameState.avatars[i].getKeyHandler());
+            }
         }
 
+        //events (shared with the game state, only the new ones are added to this copy):
+        historicEvents = a_gameState.historicEvents.copy();
+
         //copy the time effects:
         this.timeEffects = new TreeSet<TimeEffect>();
         Iterator<TimeEffect> timeEffects = a_gameState.timeEffects.descendingIterator();
@@ -198,6 +209,159 @@ public class ForwardModel extends Game
         this.nextSpriteID = a_gameState.nextSpriteID;
     }
 
+    /**
+     * Dumps the changes of the game state since the last call into 'this' object, so it
+     * ends up the same as after update(a_gameState). Used to keep the forward model of the
+     * game up to date every game cycle without copying all of its sprites again.
+     *
+     * The sprites changed in a game cycle are those updated in the tick (all but the
+     * immutable ones, see Game.isImmutableSprite()), those created when handling the
+     * events, and those removed when clearing the killed ones. Only those are copied
+     * and have their observations updated; the copies of the immutable sprites that
+     * are still in the game are kept.
+     * @param a_gameState game to take the state from. It must always be the same game.
+     */
+    @SuppressWarnings("unchecked")
+    final public void updateChanges(Game a_gameState)
+    {
+        int numSpriteTypes = a_gameState.spriteGroups.length;
+        if(copiedSprites == null)
+        {
+            //First update, nothing to keep.
+            copiedSprites = newListArray(numSpriteTypes);
+            spriteGroups = new SpriteGroup[numSpriteTypes];
+            bucketList = new Bucket[numSpriteTypes];
+            shieldedEffects = newListArray(numSpriteTypes);
+            for(int i = 0; i < numSpriteTypes; ++i)
+            {
+                copiedSprites[i] = new ArrayList<VGDLSprite>();
+                spriteGroups[i] = new SpriteGroup(i);
+                bucketList[i] = new Bucket();
+                shieldedEffects[i] = new ArrayList<>();
+            }
+            kill_list = new ArrayList<VGDLSprite>();
+        }
+
+        avatars = new MovingAvatar[no_players];
+        num_sprites = 0;
+
+        for(int i = 0; i < numSpriteTypes; ++i)
+        {
+            ArrayList<VGDLSprite> gameSprites = a_gameState.spriteGroups[i].getSprites();
+            if(!hasChanged(gameSprites, copiedSprites[i]))
+            {
+                num_sprites += spriteGroups[i].numSprites();
+            }else
+            {
+                //Sprites are only appended to or removed from the groups of the game, so the
+                //previous copies are found in the same order.
+                ArrayList<VGDLSprite> previousSprites = copiedSprites[i];
+                ArrayList<VGDLSprite> previousCopies = spriteGroups[i].getSprites();
+                int nPrevious = previousSprites.size();
+                int next = 0;
+
+                ArrayList<VGDLSprite> sprites = new ArrayList<VGDLSprite>(gameSprites.size());
+                SpriteGroup group = new SpriteGroup(i);
+                for(VGDLSprite sp : gameSprites)
+                {
+                    int previous = next;
+                    while(previous < nPrevious && previousSprites.get(previous) != sp)
+                        previous++;
+
+                    VGDLSprite spCopy;
+                    if(previous < nPrevious && isImmutableSprite(sp))
+                    {
+                        //Same copy, same observation.
+                        spCopy = previousCopies.get(previous);
+                        next = previous + 1;
+                    }else
+                    {
+                        if(previous < nPrevious)
+                            next = previous + 1;
+                        spCopy = sp.copy();
+                        if(!isHiddenForPlayer(spCopy)) {
+                            checkSpriteFeatures(spCopy, i);
+                            updateObservation(spCopy);
+                        }
+                    }
+
+                    sprites.add(sp);
+                    group.addSprite(spCopy.spriteID, spCopy);
+                }
+
+                copiedSprites[i] = sprites;
+                spriteGroups[i] = group;
+                num_sprites += group.numSprites();
+            }
+
+            //copy the shields
+            shieldedEffects[i].clear();
+            for(Pair<Integer, Long> p : a_gameState.shieldedEffects[i])
+                shieldedEffects[i].add(p.copy());
+        }
+
+        //avatars that were not found among the sprites (in which case, they were not copied)
+        for (int i = 0; i < no_players; i++) {
+            if(avatars[i] == null && a_gameState.avatars[i] != null){
+                avatars[i] = (MovingAvatar) a_gameState.avatars[i].copy();
+                avatars[i].setKeyHandler(a_gameState.avatars[i].getKeyHandler());
+            }
+        }
+
+        //events (shared with the game state, only the new ones are added to this copy):
+        historicEvents = a_gameState.historicEvents.copy();
+
+        //copy the time effects:
+        if(!a_gameState.timeEffects.isEmpty() || !this.timeEffects.isEmpty())
+        {
+            this.timeEffects = new TreeSet<TimeEffect>();
+            Iterator<TimeEffect> timeEffects = a_gameState.timeEffects.descendingIterator();
+            while(timeEffects.hasNext())
+            {
+                TimeEffect tef = timeEffects.next().copy();
+                this.timeEffects.add(tef);
+            }
+        }
+
+        //Game state variables:
+        this.gameTick = a_gameState.gameTick;
+        this.isEnded = a_gameState.isEnded;
+        System.arraycopy(a_gameState.avatarLastAction, 0, avatarLastAction, 0, no_players);
+        this.nextSpriteID = a_gameState.nextSpriteID;
+    }
+
+    /**
+     * Checks if a group of sprites of the game may have changed since it was copied: it has
+     * sprites that are not immutable, or sprites have been added or removed.
+     * @param gameSprites sprites of the group in the game.
+     * @param copiedSprites sprites of the group copied last time.
+     * @return true if the sprites of the group have to be copied again.
+     */
+    private boolean hasChanged(ArrayList<VGDLSprite> gameSprites, ArrayList<VGDLSprite> copiedSprites)
+    {
+        int nSprites = gameSprites.size();
+        if(nSprites != copiedSprites.size())
+            return true;
+        for(int j = 0; j < nSprites; ++j)
+        {
+            VGDLSprite sp = gameSprites.get(j);
+            if(sp != copiedSprites.get(j) || !isImmutableSprite(sp))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates an array of lists, as arrays of a generic type cannot be created directly.
+     * @param length length of the array.
+     * @return array of the length given, without any list.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> ArrayList<T>[] newListArray(int length)
+    {
+        return new ArrayList[length];
+    }
+
     /**
      * Updates the persistent observation of this sprite, or creates it if the
      * observation is new.
@@ -404,15 +568,23 @@ public class ForwardModel extends Game
         }
         unknownList[itype] = true;
 
-        String hidden = "False";
-        if (sp.hidden != null) {
-            String[] split = sp.hidden.split(",");
-            if (playerID > split.length - 1)
-                hidden = split[split.length - 1];
-            else
-                hidden = split[playerID];
-        }
-        visibleList[playerID][itype] = !Boolean.parseBoolean(hidden);
+        visibleList[playerID][itype] = !isHiddenForPlayer(sp);
+    }
+
+    /**
+     * Checks if a sprite is hidden for the player of this forward model.
+     * @param sp sprite to check.
+     * @return true if the sprite is hidden to this player.
+     */
+    private boolean isHiddenForPlayer(VGDLSprite sp)
+    {
+        if (sp.hidden == null)
+            return false;
+
+        String[] split = sp.hidden.split(",");
+        if (playerID > split.length - 1)
+            return Boolean.parseBoolean(split[split.length - 1]);
+        return Boolean.parseBoolean(split[playerID]);
     }
 
     private int getSpriteCategory(VGDLSprite sp)
@@ -443,6 +615,13 @@ public class ForwardModel extends Game
         return Types.TYPE_MOVABLE;
     }
 
+    /**
+     * The default sprites (walls, avatar) are already registered by the game this
+     * is a copy of, so there is no need to access the registry again.
+     */
+    @Override
+    public void loadDefaultConstr() {}
+
     /**
      * Initializes the variables of this game that have always a determined value at the beginning
      * of any game.
@@ -478,19 +657,17 @@ public class ForwardModel extends Game
         this.resources_limits = a_gameState.resources_limits;
         this.screenSize = a_gameState.screenSize;
         this.size = a_gameState.size;
+        this.keyHandler = a_gameState.keyHandler;
+        this.context = a_gameState.context;
+        this.immutableSpriteTypes = a_gameState.getImmutableSpriteTypes();
         this.block_size = a_gameState.block_size;
         this.MAX_SPRITES = a_gameState.MAX_SPRITES;
         this.no_players = a_gameState.no_players;
         this.no_counters = a_gameState.no_counters;
         this.avatarLastAction = new Types.ACTIONS[no_players];
         System.arraycopy(a_gameState.avatarLastAction, 0, avatarLastAction, 0, no_players);
+        //avatars are copied in update(), together with the rest of sprites.
         this.avatars = new MovingAvatar[no_players];
-        for (int i = 0; i < no_players; i++) {
-            if(a_gameState.avatars[i] != null){
-                avatars[i] = (MovingAvatar) a_gameState.avatars[i].copy();
-                avatars[i].setKeyHandler(a_gameState.avatars[i].getKeyHandler());
-            }
-        }
         this.counter = new int[no_counters];
         System.arraycopy(a_gameState.counter, 0, this.counter, 0, no_counters);
 
@@ -579,7 +756,9 @@ public class ForwardModel extends Game
             {
                 VGDLSprite sp = spriteIt.next();
 
-                if(!(sp instanceof MovingAvatar) && ! sp.is_disabled())
+                //Immutable sprites do not change when updated (only their animation and the
+                //record of their last position, which stays the same), so they are skipped.
+                if(!(sp instanceof MovingAvatar) && ! sp.is_disabled() && !isImmutableSprite(sp))
                 {
                     sp.preMovement();
                     sp.update(this);
@@ -663,6 +842,8 @@ public class ForwardModel extends Game
     final public ForwardModel copy() {
         ForwardModel copyObs = new ForwardModel(this, this.playerID);
         copyObs.update(this);
+        // The seed of the copy comes from this model, so copies of a seeded model are seeded too.
+        copyObs.randomObs = new Random(randomObs.nextLong());
         return copyObs;
     }
 
@@ -1013,7 +1194,27 @@ public class ForwardModel extends Game
      */
     public TreeSet<Event> getEventsHistory()
     {
-        return historicEvents;
+        return historicEvents.getEvents();
+    }
+
+    /**
+     * Returns the list of events happened in this game since a given game step (included).
+     * @param gameStep first game step of the events to return.
+     * @return list of events happened since gameStep, ordered asc. by game step.
+     */
+    public ArrayList<Event> getEventsSince(int gameStep)
+    {
+        return historicEvents.getEventsSince(gameStep);
+    }
+
+    /**
+     * Gives the events happened in this game at a given game step to an action, the latest first.
+     * @param gameStep game step of the events.
+     * @param action action to perform on each event.
+     */
+    public void forEachEventAt(int gameStep, Consumer<Event> action)
+    {
+        historicEvents.forEachEventAt(gameStep, action);
     }
 
     /**
@@ -17,6 +17,13 @@ import ontology.Types;
 import ontology.avatar.MovingAvatar;
 import ontology.effects.Effect;
 import ontology.effects.TimeEffect;
+import ontology.effects.binary.KillBoth;
+import ontology.effects.unary.CloneSprite;
+import ontology.effects.unary.FlipDirection;
+import ontology.effects.unary.KillSprite;
+import ontology.effects.unary.StepBack;
+import ontology.effects.unary.TransformTo;
+import ontology.sprites.Immovable;
 import ontology.sprites.Resource;
 import tools.*;
 import tools.pathfinder.Node;
@@ -96,6 +103,30 @@ public abstract class Game {
 	 */
 	protected TreeSet<TimeEffect> timeEffects;
 
+	/**
+	 * Sprite types whose Immovable sprites are never modified while the game is played
+	 * (see findImmutableSpriteTypes). Calculated the first time it is needed.
+	 */
+	protected boolean[] immutableSpriteTypes;
+
+	/**
+	 * Grids used to find the sprites that collide with those of each sprite type, when
+	 * there are many of them (see eventHandling()). Created when first needed.
+	 */
+	private CollisionGrid[] collisionGrids;
+
+	/**
+	 * Changes every time the grids may be outdated: on every cycle, and every time an
+	 * effect is executed (as effects may move, create or destroy sprites).
+	 */
+	private int collisionGridsVersion;
+
+	/**
+	 * Minimum number of sprites to use a grid to find those a sprite collides with,
+	 * instead of checking them all.
+	 */
+	private static final int MIN_SPRITES_FOR_GRID = 8;
+
 	/**
 	 * List of types that can trigger an EOS effect.
 	 */
@@ -105,7 +136,7 @@ public abstract class Game {
 	 * Historic of events related to the avatar happened during the game. The
 	 * entries are ordered asc. by game step.
 	 */
-	protected TreeSet<Event> historicEvents;
+	protected EventHistory historicEvents;
 
 	/**
 	 * For each entry, int identifier of sprite type, a list with all the itypes
@@ -256,15 +287,36 @@ public abstract class Game {
 	public static KeyHandler ki;
 
 	/**
-	 * Default constructor.
+	 * Key handler of the avatars of this game. Game.ki references the one of the
+	 * last game parsed, so it is only reliable for human players.
+	 */
+	protected KeyHandler keyHandler;
+
+	/**
+	 * Engine context (sprite registry, logger) this game was created in.
+	 */
+	protected VGDLContext context;
+
+	/**
+	 * Default constructor. The game belongs to the engine context of the current thread.
 	 */
 	public Game() {
+		this(VGDLContext.current());
+	}
+
+	/**
+	 * Constructor of a game that belongs to the engine context given, e.g. a copy of
+	 * another game, which does not need to look the context of the thread up.
+	 *
+	 * @param context engine context of the game.
+	 */
+	protected Game(VGDLContext context) {
 		// data structures to hold the game definition.
 		definedEffects = new ArrayList<Pair<Integer, Integer>>();
 		definedEOSEffects = new ArrayList<Integer>();
 		charMapping = new HashMap<Character, ArrayList<String>>();
 		terminations = new ArrayList<Termination>();
-		historicEvents = new TreeSet<Event>();
+		historicEvents = new EventHistory();
 		timeEffects = new TreeSet<TimeEffect>();
 
 		// Game attributes:
@@ -273,6 +325,7 @@ public abstract class Game {
 		disqualified = false;
 		num_sprites = 0;
 		nextSpriteID = 0;
+		this.context = context;
 
 		loadDefaultConstr();
 	}
@@ -764,7 +817,7 @@ public abstract class Game {
 	 */
 	public void initForwardModel() {
 		fwdModel = new ForwardModel(this, 0);
-		fwdModel.update(this);
+		fwdModel.updateChanges(this);
 	}
 
 	/**
@@ -790,8 +843,9 @@ public abstract class Game {
 		if (key_handler != null && key_handler.equalsIgnoreCase("Pulse"))
 			CompetitionParameters.KEY_HANDLER = CompetitionParameters.KEY_PULSE;
 
-		ki = CompetitionParameters.KEY_HANDLER == CompetitionParameters.KEY_INPUT ? new KeyInput()
+		keyHandler = CompetitionParameters.KEY_HANDLER == CompetitionParameters.KEY_INPUT ? new KeyInput()
 				: new KeyPulse(no_players);
+		ki = keyHandler;
 	}
 
 	/**
@@ -874,7 +928,7 @@ public abstract class Game {
 		}
 
 		// Update the forward model for the game state sent to the controller.
-		fwdModel.update(this);
+		fwdModel.updateChanges(this);
 
 		return handleResult();
 	}
@@ -970,7 +1024,7 @@ public abstract class Game {
 		}
 
 		// Update the forward model for the game state sent to the controller.
-		fwdModel.update(this);
+		fwdModel.updateChanges(this);
 
 		return handleResult();
 	}
@@ -1018,7 +1072,7 @@ public abstract class Game {
 
 
 		// Update the forward model for the game state sent to the controller.
-		fwdModel.update(this);
+		fwdModel.updateChanges(this);
 
 		return handleResult();
 	}
@@ -1081,7 +1135,9 @@ public abstract class Game {
 		assignPlayer(players);
 
 		// Initialize state observation (sets all non-volatile references).
+		// Its random generator is seeded too, so the simulations of the players are repeated with the seed.
 		initForwardModel();
+		fwdModel.setNewSeed(randomSeed);
 	}
 
 	/**
@@ -1093,8 +1149,8 @@ public abstract class Game {
 		gameTick++; // next game tick.
 
 		// Update our state observation (forward model) with the information of
-		// the current game state.
-		fwdModel.update(this);
+		// the current game state (only what changed in the last cycle).
+		fwdModel.updateChanges(this);
 		// System.out.println(avatars[0].rect);
 
 		// Execute a game cycle:
@@ -1301,7 +1357,7 @@ public abstract class Game {
 				if (numAvatarSprites > i) { // check if there's enough avatars
 					// just in case
 					avatars[i] = avSprites.get(i);
-					avatars[i].setKeyHandler(ki);
+					avatars[i].setKeyHandler(keyHandler);
 					avatars[i].setPlayerID(i);
 				}
 			}
@@ -1392,6 +1448,9 @@ public abstract class Game {
 		// collisions.
 		boolean noSprites[] = new boolean[spriteGroups.length];
 
+		// Sprites have moved since the last cycle.
+		collisionGridsVersion++;
+
 		// First, check the effects that are triggered in a timely manner.
 		while (timeEffects.size() > 0 && timeEffects.first().nextExecution <= gameTick) {
 			TimeEffect ef = timeEffects.pollFirst();
@@ -1502,12 +1561,19 @@ public abstract class Game {
 
 					ArrayList<VGDLSprite> new_secondx = new ArrayList<VGDLSprite>();
 
-					for (VGDLSprite s1 : firstx) {
-						new_secondx = new ArrayList<VGDLSprite>();
+					// With many sprites, those that intersect are found in a grid of the level.
+					boolean useGrid = secondx.size() >= MIN_SPRITES_FOR_GRID;
 
-						for (VGDLSprite s2 : secondx) {
-							if ((s1 != s2 && s1.intersects(s2))) {
-								new_secondx.add(s2);
+					for (VGDLSprite s1 : firstx) {
+						if (useGrid && CollisionGrid.canFindIntersections(s1)) {
+							new_secondx = getCollisionGrid(p.second, secondx).findIntersections(s1);
+						} else {
+							new_secondx = new ArrayList<VGDLSprite>();
+
+							for (VGDLSprite s2 : secondx) {
+								if ((s1 != s2 && s1.intersects(s2))) {
+									new_secondx.add(s2);
+								}
 							}
 						}
 
@@ -1531,7 +1597,31 @@ public abstract class Game {
 	}
 
 
+	/**
+	 * Gets the grid with the sprites of a type (and its subtypes) in their current
+	 * positions, building it if it is outdated.
+	 *
+	 * @param itype
+	 *            type of the sprites.
+	 * @param sprites
+	 *            all the sprites of the type and its subtypes.
+	 * @return the grid.
+	 */
+	private CollisionGrid getCollisionGrid(int itype, ArrayList<VGDLSprite> sprites) {
+		if (collisionGrids == null || collisionGrids.length != spriteGroups.length)
+			collisionGrids = new CollisionGrid[spriteGroups.length];
+		if (collisionGrids[itype] == null)
+			collisionGrids[itype] = new CollisionGrid();
+
+		CollisionGrid grid = collisionGrids[itype];
+		if (grid.getVersion() != collisionGridsVersion)
+			grid.build(sprites, block_size, size.width, size.height, collisionGridsVersion);
+		return grid;
+	}
+
 	private void executeEffectBatch(Effect ef, VGDLSprite s1, ArrayList<VGDLSprite> s2list) {
+		collisionGridsVersion++;
+
 		// There is a collision. Apply the effect.
 		int batchCount = ef.executeBatch(s1, s2list, this);
 		if(batchCount == -1)
@@ -1570,6 +1660,8 @@ public abstract class Game {
 	}
 
 	private void executeEffect(Effect ef, VGDLSprite s1, VGDLSprite s2) {
+		collisionGridsVersion++;
+
 		// There is a collision. Apply the effect.
 		ef.execute(s1, s2, this);
 
@@ -2110,10 +2202,100 @@ public abstract class Game {
 	 */
 	public abstract boolean isGameOver();
 
+	/**
+	 * Returns the sprite types whose Immovable sprites are never modified while the game is
+	 * played. Calculated the first time it is requested, after the game is parsed.
+	 *
+	 * @return array indexed by sprite type, true if the type is immutable.
+	 */
+	public boolean[] getImmutableSpriteTypes() {
+		if (immutableSpriteTypes == null)
+			immutableSpriteTypes = findImmutableSpriteTypes();
+		return immutableSpriteTypes;
+	}
+
+	/**
+	 * Indicates if a sprite is never modified while the game is played: it is an Immovable
+	 * (which does not move or change by itself) of an immutable type, with no time to live.
+	 * These sprites can be shared by forward model copies instead of copied.
+	 *
+	 * @param sprite
+	 *            sprite to check.
+	 * @return true if the sprite is never modified.
+	 */
+	public boolean isImmutableSprite(VGDLSprite sprite) {
+		return immutableSpriteTypes != null && immutableSpriteTypes[sprite.getType()]
+				&& sprite.getClass() == Immovable.class && sprite.timeToLive == -1 && !sprite.is_avatar;
+	}
+
+	/**
+	 * A sprite type is immutable if none of the effects of the game can modify its sprites.
+	 * Only games whose effects just change the sprites they are applied to (and not others
+	 * through their parameters) are considered; in those, a type is immutable if it is never
+	 * modified as first or second sprite of the collisions or EOS effects it takes part of.
+	 * Effects not known to behave like this make all types mutable.
+	 *
+	 * @return array indexed by sprite type, true if the type is immutable.
+	 */
+	private boolean[] findImmutableSpriteTypes() {
+		boolean[] immutableTypes = new boolean[spriteGroups.length];
+		if (!timeEffects.isEmpty())
+			return immutableTypes;
+
+		Arrays.fill(immutableTypes, true);
+		for (Pair<Integer, Integer> p : definedEffects) {
+			for (Effect ef : collisionEffects[p.first][p.second]) {
+				if (!keepsFirstSprite(ef) && !modifiesFirstSpriteOnly(ef))
+					return new boolean[spriteGroups.length];
+				if (!keepsFirstSprite(ef))
+					for (int itype : iSubTypes[p.first])
+						immutableTypes[itype] = false;
+				if (!keepsSecondSprite(ef))
+					for (int itype : iSubTypes[p.second])
+						immutableTypes[itype] = false;
+			}
+		}
+
+		for (Integer intId : definedEOSEffects) {
+			for (Effect ef : eosEffects[intId]) {
+				if (!keepsFirstSprite(ef) && !modifiesFirstSpriteOnly(ef))
+					return new boolean[spriteGroups.length];
+				if (!keepsFirstSprite(ef))
+					for (int itype : iSubTypes[intId])
+						immutableTypes[itype] = false;
+			}
+		}
+
+		return immutableTypes;
+	}
+
+	/**
+	 * Effects that kill, clone or replace the first sprite, but never modify it.
+	 */
+	private static boolean keepsFirstSprite(Effect ef) {
+		return ef.getClass() == KillSprite.class || ef.getClass() == KillBoth.class
+				|| ef.getClass() == TransformTo.class || ef.getClass() == CloneSprite.class;
+	}
+
+	/**
+	 * Effects that, at most, modify the first sprite of the collision.
+	 */
+	private static boolean modifiesFirstSpriteOnly(Effect ef) {
+		return ef.getClass() == StepBack.class || ef.getClass() == FlipDirection.class;
+	}
+
+	/**
+	 * Effects that never modify the second sprite of the collision.
+	 */
+	private static boolean keepsSecondSprite(Effect ef) {
+		return keepsFirstSprite(ef) || modifiesFirstSpriteOnly(ef);
+	}
+
 	/**
 	 * clear all the interactions and termination in the current game
 	 */
 	public void clearInteractionTerminationData() {
+		this.immutableSpriteTypes = null;
 		this.setStochastic(false);
 		this.terminations.clear();
 
@@ -2219,6 +2401,15 @@ public abstract class Game {
 		return MAX_SPRITES;
 	}
 
+	/**
+	 * Returns the engine context (sprite registry, logger) this game was created in.
+	 *
+	 * @return the engine context of the game.
+	 */
+	public VGDLContext getContext() {
+		return context;
+	}
+
 	/**
 	 * Indicates how many pixels form a block in the game.
 	 *
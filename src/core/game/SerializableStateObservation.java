@@ -5,7 +5,13 @@ import tools.com.google.gson.Gson;
 import ontology.Types;
 import tools.ElapsedCpuTimer;
 
+import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
@@ -26,6 +32,11 @@ public class SerializableStateObservation {
         START, INIT, ACT, ABORT, END
     }
 
+    /**
+     * Compression quality of the PNG images, the one of the fastest compression level.
+     */
+    private static final float PNG_COMPRESSION_QUALITY = 0.9f;
+
     // State Observation variables
     public byte[] imageArray;
     public boolean isValidation;
@@ -72,22 +83,31 @@ public class SerializableStateObservation {
     public int fromAvatarSpritesPositionsNum;
     public int fromAvatarSpritesPositionsMaxRow;
 
+    /**
+     * Creates an empty observation, to be filled in with one received (see BinaryObservationCodec).
+     */
+    public SerializableStateObservation(){}
+
     public SerializableStateObservation(StateObservation s, Boolean both){
+        this(s, both, null);
+    }
+
+    /**
+     * Creates the observation with the image of the game, encoded as PNG.
+     * @param s state observation of the game
+     * @param both true to include the rest of the data of the game, not only the image
+     * @param frame image of the game as rendered by the viewer (see VGDLViewer.captureFrame()).
+     *              If null, the image is read from the screenshot file saved by the viewer.
+     */
+    public SerializableStateObservation(StateObservation s, Boolean both, BufferedImage frame){
         try {
-            if (!both) {
-                // Fill in the persistent variables (Score, tick)
-                buildGameData(s);
-                if(phase != Phase.START) {
-                    // Create the image bytearray
-                    imageArray = imageToByteArray();
-                }
-            } else {
-                // Fill in the persistent variables (Score, tick)
-                buildGameData(s);
-                if(phase != Phase.START) {
-                    // Create the image bytearray
-                    imageArray = imageToByteArray();
-                }
+            // Fill in the persistent variables (Score, tick)
+            buildGameData(s);
+            if(phase != Phase.START) {
+                // Create the image bytearray
+                imageArray = (frame != null) ? imageToByteArray(frame) : imageToByteArray();
+            }
+            if (both) {
                 // Fill in the simple data variables
                 buildDataVariables(s);
 
@@ -286,6 +306,32 @@ public class SerializableStateObservation {
 
 
 
+    /**
+     * Encodes an image as PNG, with the fastest compression. Filtering the rows of the image
+     * takes most of the time of the encoding, so the image is barely bigger than with the
+     * default compression.
+     * @param image image to encode
+     * @return bytes of the PNG image
+     * @throws IOException if the image could not be encoded
+     */
+    public static byte[] imageToByteArray(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        try {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(PNG_COMPRESSION_QUALITY);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 8);
+            ImageOutputStream imageOutput = new MemoryCacheImageOutputStream(output);
+            writer.setOutput(imageOutput);
+            writer.write(null, new IIOImage(image, null, null), param);
+            imageOutput.close();
+            return output.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
     public byte[] imageToByteArray() throws IOException {
         ByteArrayOutputStream output = new ByteArrayOutputStream();
         File pngfile = new File(CompetitionParameters.SCREENSHOT_FILENAME);
@@ -8,6 +8,7 @@ import java.awt.*;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.TreeSet;
+import java.util.function.Consumer;
 
 import core.competition.CompetitionParameters;
 import core.logging.Logger;
@@ -296,6 +297,32 @@ public class StateObservation {
          return model.getEventsHistory();
     }
 
+    /**
+     * This method retrieves the list of events (see getEventsHistory()) that happened since
+     * a given game step, included. Unlike getEventsHistory(), the time it takes only depends
+     * on the number of events returned, not on how long the game has been running.
+     *
+     * @param gameStep first game step of the events to retrieve.
+     * @return list of events happened since gameStep, ordered asc. by game step.
+     */
+    public ArrayList<Event> getEventsSince(int gameStep)
+    {
+        return model.getEventsSince(gameStep);
+    }
+
+    /**
+     * This method gives the events (see getEventsHistory()) that happened at a given game
+     * step to an action, the latest first, without building a list. For the last game step,
+     * the time it takes only depends on the number of events of that step.
+     *
+     * @param gameStep game step of the events.
+     * @param action action to perform on each event.
+     */
+    public void forEachEventAt(int gameStep, Consumer<Event> action)
+    {
+        model.forEachEventAt(gameStep, action);
+    }
+
     /**
      * Returns a list of observations of NPC in the game. As there can be
      * NPCs of different type, each entry in the array corresponds to a sprite type.
@@ -59,6 +59,23 @@ public abstract class StateHeuristic {
         }
     }
 
+    /**
+     * Creates a new heuristic of the same type, without any internal information, so it can be
+     * used to play a different game at the same time as this one.
+     * Heuristics whose constructor requires arguments must override this method.
+     * @return a new heuristic of the same type
+     */
+    public StateHeuristic copy() {
+        try {
+            return getClass().getConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            System.err.println("Exception copying heuristic " + getClass().getName() + ":");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        return null;
+    }
+
     abstract public double evaluateState(StateObservation stateObs);
 
     abstract public String relevantInfoStr(StateObservation stateObs);
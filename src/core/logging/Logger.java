@@ -4,7 +4,12 @@ import java.util.ArrayList;
 
 public class Logger {
 
-    private static final Logger instance = new Logger();
+    private static final ThreadLocal<Logger> instance = new ThreadLocal<Logger>() {
+        @Override
+        protected Logger initialValue() {
+            return new Logger();
+        }
+    };
     private ArrayList<Message> messages;
 
     /**
@@ -21,12 +26,23 @@ public class Logger {
     }
 
     /**
-     * Returns the instance of the singleton Logger
+     * Returns the instance of the Logger used by the current thread, so the
+     * messages of games running in different threads are not mixed
      *
      * @return the instance
      */
     public static Logger getInstance() {
-        return instance;
+        return instance.get();
+    }
+
+    /**
+     * Sets the instance of the Logger used by the current thread
+     *
+     * @param logger
+     *            the logger to be used by the current thread
+     */
+    public static void setInstance(Logger logger) {
+        instance.set(logger);
     }
 
     /**
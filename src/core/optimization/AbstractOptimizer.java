@@ -20,4 +20,14 @@ public abstract class AbstractOptimizer {
 	 * @return 		the best parameters for the optimization problem,
 	 */
 	public abstract double[][] optimize(OptimizationObjective obj);
+	/**
+	 * Evaluate a whole population of parameters at once, so the objective can test them at the same time
+	 * @param obj			optimization objective object, used to test the parameters
+	 * @param population	the sets of parameters to test
+	 * @return				the fitness against all objectives for each set of parameters,
+	 * 						null for the sets that exceed the number of allowed evaluations
+	 */
+	protected double[][] evaluate(OptimizationObjective obj, double[][] population){
+		return obj.evaluate(population);
+	}
 }
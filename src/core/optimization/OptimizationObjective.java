@@ -21,4 +21,17 @@ public interface OptimizationObjective {
 	 * @return		array of fitness against all objectives (the higher the better)
 	 */
 	double[] evaluate(double[] parameters);
+	/**
+	 * evaluate a population of parameters against the target objectives.
+	 * By default, the sets of parameters are evaluated one after the other
+	 * @param population	the sets of parameters to test
+	 * @return				array of fitness against all objectives for each set of parameters (the higher the better)
+	 */
+	default double[][] evaluate(double[][] population) {
+		double[][] results = new double[population.length][];
+		for(int i=0; i<population.length; i++){
+			results[i] = evaluate(population[i]);
+		}
+		return results;
+	}
 }
@@ -1,6 +1,12 @@
 package core.optimization.ucbOptimization;
 
+import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import tracks.ArcadeMachine;
 
 import core.optimization.OptimizationObjective;
@@ -8,6 +14,10 @@ import core.optimization.OptimizationObjective;
 /**
  * an implementation of optimization objective for any UCBEquation
  * 
+ * The games of an evaluation, and their repetitions, are played at the same time by a pool of
+ * worker threads. Each game has its own agent, with the parameters evaluated bound to it, so the
+ * parameters of a whole population can be evaluated at once.
+ * 
  * @author AhmedKhalifa
  */
 public class UCBOptimization implements OptimizationObjective {
@@ -44,6 +54,14 @@ public class UCBOptimization implements OptimizationObjective {
      * the maximum allowed number of evaluation calls
      */
     private int numberOfEvaluation;
+    /**
+     * the ucb equation to optimize
+     */
+    private UCBEquation ucb;
+    /**
+     * worker threads playing the games
+     */
+    private ExecutorService workers;
 
     /**
      * Constructor for the current ucb optimization objective
@@ -61,11 +79,38 @@ public class UCBOptimization implements OptimizationObjective {
      *            the current ucb equation to optimize
      */
     public UCBOptimization(String[] gamePaths, String[] levelPaths, int repetition, int evaluation, UCBEquation ucb) {
+	this(gamePaths, levelPaths, repetition, evaluation, ucb, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructor for the current ucb optimization objective
+     * 
+     * @param gamePaths
+     *            all game paths require to test against
+     * @param levelPaths
+     *            all level paths associated with the games
+     * @param repetition
+     *            number of repetition to play each game
+     * @param evaluation
+     *            the maximum number of calls allowed for the evaluation
+     *            function
+     * @param ucb
+     *            the current ucb equation to optimize
+     * @param numberOfWorkers
+     *            number of games played at the same time
+     */
+    public UCBOptimization(String[] gamePaths, String[] levelPaths, int repetition, int evaluation, UCBEquation ucb,
+	    int numberOfWorkers) {
 	this.gamePaths = gamePaths;
 	this.levelPaths = levelPaths;
 	this.repetition = repetition;
 	this.numberOfEvaluation = evaluation;
-	tracks.singlePlayer.tools.ucbOptimizerAgent.Agent.ucb = ucb;
+	this.ucb = ucb;
+	this.workers = Executors.newFixedThreadPool(Math.max(1, numberOfWorkers), runnable -> {
+	    Thread thread = new Thread(runnable, "ucb-evaluation");
+	    thread.setDaemon(true);
+	    return thread;
+	});
     }
 
     /**
@@ -73,7 +118,7 @@ public class UCBOptimization implements OptimizationObjective {
      */
     @Override
     public int getNumberOfParameters() {
-	return tracks.singlePlayer.tools.ucbOptimizerAgent.Agent.ucb.lengthParameters();
+	return this.ucb.lengthParameters();
     }
 
     /**
@@ -100,32 +145,88 @@ public class UCBOptimization implements OptimizationObjective {
      */
     @Override
     public double[] evaluate(double[] parameters) {
-	if (this.numberOfEvaluation <= 0) {
-	    return null;
+	return this.evaluate(new double[][] { parameters })[0];
+    }
+
+    /**
+     * evaluate a population of parameters against the target objectives, playing
+     * all their games at the same time
+     * 
+     * @param population
+     *            the sets of parameters to test
+     * @return array of fitness against all objectives for each set of parameters
+     *         (the higher the better), null for the sets that exceed the number
+     *         of allowed evaluations
+     */
+    @Override
+    public double[][] evaluate(double[][] population) {
+	double[][] results = new double[population.length][];
+	ArrayList<ArrayList<Future<double[]>>> games = new ArrayList<ArrayList<Future<double[]>>>();
+	for (int p = 0; p < population.length; p++) {
+	    if (this.numberOfEvaluation <= 0) {
+		break;
+	    }
+	    this.numberOfEvaluation -= 1;
+
+	    ArrayList<Future<double[]>> parameterGames = new ArrayList<Future<double[]>>();
+	    for (int i = 0; i < this.gamePaths.length; i++) {
+		for (int j = 0; j < this.repetition; j++) {
+		    parameterGames.add(this.playGame(this.gamePaths[i], this.levelPaths[i], population[p]));
+		}
+	    }
+	    games.add(parameterGames);
 	}
-	this.numberOfEvaluation -= 1;
-
-	tracks.singlePlayer.tools.ucbOptimizerAgent.Agent.parameters = parameters;
-
-	double[] results = new double[this.getNumberOfObjectives()];
-	for (int i = 0; i < this.gamePaths.length; i++) {
-	    double totalWins = 0;
-	    double totalScore = 0;
-	    for (int j = 0; j < this.repetition; j++) {
-		double[] gameResults = null;
-		do {
-		    gameResults = ArcadeMachine.runOneGame(this.gamePaths[i], this.levelPaths[i], false,
-			    "tracks.singlePlayer.tools.ucbOptimizerAgent.Agent", null, new Random().nextInt(), 0);
-		} while (gameResults[0] < -10);
-
-		totalWins += Math.max(gameResults[0], 0);
-		totalScore += gameResults[1];
+
+	for (int p = 0; p < games.size(); p++) {
+	    results[p] = new double[this.getNumberOfObjectives()];
+	    for (int i = 0; i < this.gamePaths.length; i++) {
+		double totalWins = 0;
+		double totalScore = 0;
+		for (int j = 0; j < this.repetition; j++) {
+		    double[] gameResults = this.getResults(games.get(p).get(i * this.repetition + j));
+		    totalWins += Math.max(gameResults[0], 0);
+		    totalScore += gameResults[1];
+		}
+		results[p][i] = (1 - SCORE_WIN) * (totalWins / this.repetition)
+			+ SCORE_WIN * this.sigmoid(totalScore / this.repetition, SIGMOID_WIDTH, SIGMOID_SHIFT);
 	    }
-	    results[i] = (1 - SCORE_WIN) * (totalWins / this.repetition)
-		    + SCORE_WIN * this.sigmoid(totalScore / this.repetition, SIGMOID_WIDTH, SIGMOID_SHIFT);
 	}
 
 	return results;
     }
 
+    /**
+     * play a game with the ucb optimizer agent in a worker thread, until it is
+     * not disqualified
+     * 
+     * @param gamePath
+     *            game to play
+     * @param levelPath
+     *            level of the game
+     * @param parameters
+     *            parameters of the ucb equation of the agent
+     * @return the result of the game (win and score)
+     */
+    private Future<double[]> playGame(String gamePath, String levelPath, double[] parameters) {
+	return this.workers.submit(() -> {
+	    tracks.singlePlayer.tools.ucbOptimizerAgent.Agent.bind(this.ucb, parameters);
+	    double[] gameResults = null;
+	    do {
+		gameResults = ArcadeMachine.runOneGame(gamePath, levelPath, false,
+			"tracks.singlePlayer.tools.ucbOptimizerAgent.Agent", null, new Random().nextInt(), 0);
+	    } while (gameResults[0] < -10);
+	    return gameResults;
+	});
+    }
+
+    private double[] getResults(Future<double[]> game) {
+	try {
+	    return game.get();
+	} catch (InterruptedException | ExecutionException e) {
+	    e.printStackTrace();
+	    System.exit(1);
+	    return null;
+	}
+    }
+
 }
@@ -20,6 +20,13 @@ public abstract class AbstractHeuristicPlayer extends AbstractPlayer {
         heuristic.initHeuristicInternalInformation(stateObs);
     }
 
+    /**
+     * Seeds the random generator of the player, so a run with the same seed takes the same decisions.
+     * By default nothing is done, for players that do not use random numbers.
+     */
+    public void setRandomSeed(int randomSeed) {
+    }
+
     /**
      * For some heuristics it would be helpful to print info in the screen
      * */
@@ -10,6 +10,7 @@ import tracks.singleLearning.utils.Comm;
 import tracks.singleLearning.utils.PipeComm;
 import tracks.singleLearning.utils.SocketComm;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
 
 
@@ -23,6 +24,11 @@ public class LearningPlayer extends Player {
      */
     private Comm comm;
 
+    /**
+     * Last image of the game rendered by the viewer, sent to the client when it observes the screen.
+     */
+    private BufferedImage frame;
+
     /**
      * Learning Player constructor.
      * Creates a new server side communication channel for every player.
@@ -63,22 +69,22 @@ public class LearningPlayer extends Player {
                 case JSON:
                     so.currentGameState = Types.GAMESTATES.ACT_STATE;
                     sso = new SerializableStateObservation(so);
-                    comm.commSend(sso.serialize(null));
+                    comm.commSend(sso);
                     break;
                 case IMAGE:
                     // Set the game state to the appropriate state and the millisecond counter, then send the serialized observation.
                     so.currentGameState = Types.GAMESTATES.ACT_STATE;
-                    sso = new SerializableStateObservation(so, false);
+                    sso = new SerializableStateObservation(so, false, frame);
 
                     // Used for debugging
 //                    System.out.println(sso.toString());
-                    comm.commSend(sso.serialize(null));
+                    comm.commSend(sso);
                     break;
                 case BOTH:
                     // Set the game state to the appropriate state and the millisecond counter, then send the serialized observation.
                     so.currentGameState = Types.GAMESTATES.ACT_STATE;
-                    sso = new SerializableStateObservation(so, true);
-                    comm.commSend(sso.serialize(null));
+                    sso = new SerializableStateObservation(so, true, frame);
+                    comm.commSend(sso);
                     break;
                 default:
                     System.err.println("LearningPlayer: act(): This should never happen.");
@@ -126,7 +132,7 @@ public class LearningPlayer extends Player {
             SerializableStateObservation sso = new SerializableStateObservation(so);
             sso.isValidation = isValidation;
 
-            comm.commSend(sso.serialize(null));
+            comm.commSend(sso);
             String initResponse = comm.commRecv();
 
             if (initResponse.equals("INIT_FAILED"))
@@ -186,4 +192,12 @@ public class LearningPlayer extends Player {
     public Types.LEARNING_SSO_TYPE getLearningSsoType() {
         return comm.getLastSsoType();
     }
+
+    /**
+     * Sets the image of the game to send to the client the next time it is asked for an action.
+     * @param frame image of the game, rendered by the viewer.
+     */
+    public void setFrame(BufferedImage frame) {
+        this.frame = frame;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package core.vgdl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import core.game.Game;
+import tools.IO;
+
+/**
+ * Caches the games parsed by the engine, so running the same game many times in the
+ * same process does not parse its description again every time.
+ *
+ * The description file is still read every time a game is requested, and the cached
+ * game is only used when its content is the same as the one it was parsed from. Reading
+ * the file is cheap compared to parsing it, and the generators rewrite their game and
+ * level files quickly, often with the same length and modification time.
+ *
+ * Parsed games are kept per thread, as the sprite registry is (see VGDLContext).
+ * A cached game is reset before being handed out again, the same way a game is
+ * reset between consecutive runs of the same level. Each game also keeps the layout
+ * of the last level built on it (see BasicGame.buildStringLevel).
+ */
+public class GameCache
+{
+    /**
+     * Games parsed in the current thread, by game description file name.
+     */
+    private static final ThreadLocal<HashMap<String, CachedGame>> games = new ThreadLocal<HashMap<String, CachedGame>>() {
+        @Override
+        protected HashMap<String, CachedGame> initialValue() {
+            return new HashMap<String, CachedGame>();
+        }
+    };
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private GameCache(){}
+
+    /**
+     * Returns the lines of a file, read from disk.
+     * @param filename file to read
+     * @return file content as String[], one line per element; null if it could not be read
+     */
+    public static String[] readLines(String filename)
+    {
+        return new IO().readFile(filename);
+    }
+
+    /**
+     * Returns a game ready to build a level on it. The game is parsed the first time it is
+     * requested in the current thread, and every time the content of its description file changes.
+     * The sprite registry of the current thread is left as it is after parsing the game.
+     * @param gamedesc_file filename of the file containing the game
+     * @return the game, null if the file could not be read
+     */
+    public static Game getGame(String gamedesc_file)
+    {
+        VGDLFactory.GetInstance().init(); // This always first thing to do.
+
+        String[] lines = readLines(gamedesc_file);
+        if(lines == null)
+            return null;
+
+        HashMap<String, CachedGame> threadGames = games.get();
+        CachedGame cachedGame = threadGames.get(gamedesc_file);
+        if(cachedGame != null && Arrays.equals(cachedGame.lines, lines))
+        {
+            // Same registry content as after parsing it, in the same order.
+            VGDLRegistry registry = VGDLRegistry.GetInstance();
+            registry.init();
+            for(String spriteKey : cachedGame.spriteKeys)
+                registry.registerSprite(spriteKey);
+
+            cachedGame.game.reset();
+            return cachedGame.game;
+        }
+
+        VGDLRegistry.GetInstance().init();
+        Game game = new VGDLParser().parseGame(lines);
+        if(game != null)
+            threadGames.put(gamedesc_file, new CachedGame(lines, game, registeredSpriteKeys()));
+        return game;
+    }
+
+    /**
+     * Removes the games of the current thread from the cache.
+     */
+    public static void clear()
+    {
+        games.get().clear();
+    }
+
+    private static String[] registeredSpriteKeys()
+    {
+        VGDLRegistry registry = VGDLRegistry.GetInstance();
+        String[] spriteKeys = new String[registry.numSpriteTypes()];
+        for(int i = 0; i < spriteKeys.length; ++i)
+            spriteKeys[i] = registry.getRegisteredSpriteKey(i);
+        return spriteKeys;
+    }
+
+    /**
+     * Game parsed, the description it was parsed from and the sprite registry it was parsed with.
+     */
+    private static class CachedGame
+    {
+        final String[] lines;
+        final Game game;
+        final String[] spriteKeys;
+
+        CachedGame(String[] lines, Game game, String[] spriteKeys)
+        {
+            this.lines = lines;
+            this.game = game;
+            this.spriteKeys = spriteKeys;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package core.vgdl;
+
+import java.awt.Image;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Caches the images of the sprites, so every sprite created does not read its image
+ * files again. Images are shared by the whole process, and by all the sprites that
+ * use them, so they (and the lists of frames of the animations) must not be modified.
+ *
+ * In headless mode, sprites don't load their images when created. Games played
+ * without graphics don't need them; a sprite loads them the first time it is drawn
+ * (see VGDLSprite.draw()). The tiles chosen for the sprites when building the level
+ * (autotiling and randomtiling) are not kept in that case.
+ */
+public class SpriteImages
+{
+    /**
+     * Images read, by file name. Files that could not be read are kept too, without image.
+     */
+    private static final ConcurrentHashMap<String, CachedImage> images = new ConcurrentHashMap<String, CachedImage>();
+
+    /**
+     * Frames of the animations read, by the common part of the file names of the frames.
+     */
+    private static final ConcurrentHashMap<String, ArrayList<Image>> animations = new ConcurrentHashMap<String, ArrayList<Image>>();
+
+    /**
+     * If true, sprites don't load their images until they are drawn.
+     */
+    private static volatile boolean headless = false;
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private SpriteImages(){}
+
+    /**
+     * Sets the headless mode, in which sprites don't load their images until they are drawn.
+     * It applies to the sprites created afterwards.
+     * @param isHeadless true to use the headless mode.
+     */
+    public static void setHeadless(boolean isHeadless)
+    {
+        headless = isHeadless;
+    }
+
+    public static boolean isHeadless()
+    {
+        return headless;
+    }
+
+    /**
+     * Returns an image, reading it only the first time it is requested. It is read
+     * from the file if it exists, or from the resources of the classpath otherwise.
+     * @param imageFile file name of the image.
+     * @return the image, null if it could not be read.
+     */
+    public static Image getImage(String imageFile)
+    {
+        CachedImage cachedImage = images.get(imageFile);
+        if(cachedImage == null)
+            cachedImage = images.computeIfAbsent(imageFile, file -> new CachedImage(readImage(file)));
+        return cachedImage.image;
+    }
+
+    /**
+     * Returns the frames of an animation, reading them only the first time they are
+     * requested. Frames are read from the files imagePath + i + ".png", starting by
+     * i = 0, until one of them does not exist.
+     * @param imagePath common part of the file names of the frames.
+     * @return list with the frames, in order (empty if there are none). It must not be modified.
+     */
+    public static ArrayList<Image> getAnimatedImages(String imagePath)
+    {
+        ArrayList<Image> frames = animations.get(imagePath);
+        if(frames == null)
+            frames = animations.computeIfAbsent(imagePath, SpriteImages::readAnimatedImages);
+        return frames;
+    }
+
+    /**
+     * Removes all the images from the cache.
+     */
+    public static void clear()
+    {
+        images.clear();
+        animations.clear();
+    }
+
+    private static Image readImage(String imageFile)
+    {
+        try {
+
+            if((new File(imageFile).exists())) {
+                return ImageIO.read(new File(imageFile));
+            }
+
+            return ImageIO.read(SpriteImages.class.getResource("/" + imageFile));
+        } catch (Exception e) {
+            //e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static ArrayList<Image> readAnimatedImages(String imagePath)
+    {
+        ArrayList<Image> frames = new ArrayList<Image>();
+        try{
+            int i = 0;
+            File currentFile = new File(imagePath + i + ".png");
+            while(currentFile.exists())
+            {
+                frames.add(ImageIO.read(currentFile));
+                i += 1;
+                currentFile = new File(imagePath + i + ".png");
+            }
+        }catch(Exception e) {}
+        return frames;
+    }
+
+    /**
+     * Image read from a file, null if it could not be read.
+     */
+    private static class CachedImage
+    {
+        final Image image;
+
+        CachedImage(Image image)
+        {
+            this.image = image;
+        }
+    }
+}
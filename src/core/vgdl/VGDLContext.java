@@ -0,0 +1,65 @@
+package core.vgdl;
+
+import core.logging.Logger;
+
+/**
+ * Engine state used by a game while it is parsed and played: the sprite registry and
+ * the logger. The factory only keeps the class caches, which do not change once
+ * initialised, so it is shared by all the games.
+ *
+ * Every thread has its own registry and logger, so games parsed and played in
+ * different threads do not interfere with each other. A game keeps the context of the
+ * thread that created it; binding that context lets a different thread continue
+ * working with the game (or its forward models).
+ */
+public class VGDLContext
+{
+    /**
+     * Registry of sprite types of the game.
+     */
+    private final VGDLRegistry registry;
+
+    /**
+     * Logger for errors and warnings of the game.
+     */
+    private final Logger logger;
+
+    /**
+     * Private constructor, use current() to obtain the context of the current thread.
+     * @param registry sprite registry.
+     * @param logger logger of errors and warnings.
+     */
+    private VGDLContext(VGDLRegistry registry, Logger logger)
+    {
+        this.registry = registry;
+        this.logger = logger;
+    }
+
+    /**
+     * Returns the context in use in the current thread.
+     * @return the context in use in the current thread.
+     */
+    public static VGDLContext current()
+    {
+        return new VGDLContext(VGDLRegistry.GetInstance(), Logger.getInstance());
+    }
+
+    /**
+     * Makes the current thread use this context.
+     */
+    public void bind()
+    {
+        VGDLRegistry.SetInstance(registry);
+        Logger.setInstance(logger);
+    }
+
+    public VGDLRegistry getRegistry()
+    {
+        return registry;
+    }
+
+    public Logger getLogger()
+    {
+        return logger;
+    }
+}
@@ -124,27 +124,27 @@ public class VGDLFactory
     /**
      * Singleton reference to game/sprite factory
      */
-    private static VGDLFactory factory;
+    private static volatile VGDLFactory factory;
 
     /**
      * Cache for registered games.
      */
-    public static HashMap<String, Class> registeredGames;
+    public static volatile HashMap<String, Class> registeredGames;
 
     /**
      * Cache for registered sprites.
      */
-    public static HashMap<String, Class> registeredSprites;
+    public static volatile HashMap<String, Class> registeredSprites;
 
     /**
      * Cache for registered effects.
      */
-    public static HashMap<String, Class> registeredEffects;
+    public static volatile HashMap<String, Class> registeredEffects;
 
     /**
      * Cache for registered effects.
      */
-    public static HashMap<String, Class> registeredTerminations;
+    public static volatile HashMap<String, Class> registeredTerminations;
 
     /**
      * Default private constructor of this singleton.
@@ -152,30 +152,42 @@ public class VGDLFactory
     private VGDLFactory(){}
 
     /**
-     * Initializes the maps for caching classes.
+     * Initializes the maps for caching classes. The maps do not change once created,
+     * so they are only built the first time and shared by all the games in the process.
      */
     public void init()
     {
-        registeredGames = new HashMap<String, Class>();
-        registeredGames.put("BasicGame", BasicGame.class);
-        registeredGames.put("GameSpace", GameSpace.class);
-
-        registeredSprites = new HashMap<String, Class>();
-        for(int i = 0;  i < spriteStrings.length; ++i)
+        synchronized (VGDLFactory.class)
         {
-            registeredSprites.put(spriteStrings[i], spriteClasses[i]);
-        }
+            if(registeredTerminations != null)
+                return;
 
-        registeredEffects  = new HashMap<String, Class>();
-        for(int i = 0;  i < effectStrings.length; ++i)
-        {
-            registeredEffects.put(effectStrings[i], effectClasses[i]);
-        }
+            HashMap<String, Class> games = new HashMap<String, Class>();
+            games.put("BasicGame", BasicGame.class);
+            games.put("GameSpace", GameSpace.class);
 
-        registeredTerminations = new HashMap<String, Class>();
-        for(int i = 0;  i < terminationStrings.length; ++i)
-        {
-            registeredTerminations.put(terminationStrings[i], terminationClasses[i]);
+            HashMap<String, Class> sprites = new HashMap<String, Class>();
+            for(int i = 0;  i < spriteStrings.length; ++i)
+            {
+                sprites.put(spriteStrings[i], spriteClasses[i]);
+            }
+
+            HashMap<String, Class> effects  = new HashMap<String, Class>();
+            for(int i = 0;  i < effectStrings.length; ++i)
+            {
+                effects.put(effectStrings[i], effectClasses[i]);
+            }
+
+            HashMap<String, Class> terminations = new HashMap<String, Class>();
+            for(int i = 0;  i < terminationStrings.length; ++i)
+            {
+                terminations.put(terminationStrings[i], terminationClasses[i]);
+            }
+
+            registeredGames = games;
+            registeredSprites = sprites;
+            registeredEffects = effects;
+            registeredTerminations = terminations;
         }
     }
 
@@ -186,7 +198,13 @@ public class VGDLFactory
     public static VGDLFactory GetInstance()
     {
         if(factory == null)
-            factory = new VGDLFactory();
+        {
+            synchronized (VGDLFactory.class)
+            {
+                if(factory == null)
+                    factory = new VGDLFactory();
+            }
+        }
         return factory;
     }
 
@@ -12,7 +12,6 @@ import core.termination.Termination;
 import ontology.Types;
 import ontology.effects.Effect;
 import ontology.effects.TimeEffect;
-import tools.IO;
 import tools.Pair;
 import core.logging.Logger;
 import core.logging.Message;
@@ -77,7 +76,17 @@ public class VGDLParser {
 	 * @return the game created
 	 */
 	public Game parseGame(String gamedesc_file) {
-		String[] desc_lines = new IO().readFile(gamedesc_file);
+		return parseGame(GameCache.readLines(gamedesc_file));
+	}
+
+	/**
+	 * Parses a game from the lines of its description.
+	 *
+	 * @param desc_lines
+	 *            lines of the game description, null if they could not be read
+	 * @return the game created
+	 */
+	public Game parseGame(String[] desc_lines) {
 		if (desc_lines != null) {
 			Node rootNode = indentTreeParser(desc_lines);
 
@@ -107,7 +116,7 @@ public class VGDLParser {
 	 * @return the game created
 	 */
 	public Game parseGameWithParameters(String gamedesc_file, HashMap<String, ParameterContent> parameters) {
-		String[] desc_lines = new IO().readFile(gamedesc_file);
+		String[] desc_lines = GameCache.readLines(gamedesc_file);
 		if (desc_lines != null) {
 			Node rootNode = indentTreeParser(desc_lines);
 
@@ -14,9 +14,10 @@ import java.util.TreeMap;
 public class VGDLRegistry
 {
     /**
-     * Singleton instance of this class.
+     * Instance of this class for the current thread. Each thread parses and plays
+     * its own games, so games running in different threads do not share their registry.
      */
-    private static VGDLRegistry registry;
+    private static final ThreadLocal<VGDLRegistry> registry = new ThreadLocal<VGDLRegistry>();
 
     /**
      * Maps strings to int. Strings are VGDL identifiers for SPRITE TYPES,
@@ -38,17 +39,29 @@ public class VGDLRegistry
     }
 
     /**
-     * Returns the unique instance of this class.
-     * @return the unique instance of this class.
+     * Returns the instance of this class used by the current thread.
+     * @return the instance of this class used by the current thread.
      */
     public static VGDLRegistry GetInstance()
     {
-        if(registry == null)
+        VGDLRegistry threadRegistry = registry.get();
+        if(threadRegistry == null)
         {
-            registry = new VGDLRegistry();
-            registry.init();
+            threadRegistry = new VGDLRegistry();
+            threadRegistry.init();
+            registry.set(threadRegistry);
         }
-        return registry;
+        return threadRegistry;
+    }
+
+    /**
+     * Sets the instance of this class used by the current thread. Used to continue
+     * a game in a different thread from the one that parsed it (see VGDLContext).
+     * @param threadRegistry registry to be used by the current thread.
+     */
+    public static void SetInstance(VGDLRegistry threadRegistry)
+    {
+        registry.set(threadRegistry);
     }
 
     /**
@@ -7,8 +7,6 @@ import java.awt.Image;
 import java.awt.Polygon;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
-import java.io.File;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,8 +14,6 @@ import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 
-import javax.imageio.ImageIO;
-
 import core.competition.CompetitionParameters;
 import core.content.SpriteContent;
 import core.game.Game;
@@ -228,6 +224,12 @@ public abstract class VGDLSprite {
      */
     public Image image;
 
+    /**
+     * Indicates if the images of this sprite have been loaded. They are not loaded when
+     * the sprite is created in headless mode (see SpriteImages), only when it is drawn.
+     */
+    public boolean imagesLoaded;
+
     /**
      * String that represents the image in VGDL.
      */
@@ -708,6 +710,9 @@ public abstract class VGDLSprite {
 
         if(show && !disabled)
         {
+            if(!imagesLoaded)
+                loadImage();
+
             Rectangle r = new Rectangle(rect);
 
             if (!is_avatar || !is_oriented)
@@ -957,7 +962,8 @@ public abstract class VGDLSprite {
      */
     public void postProcess()
     {
-    	loadImage();
+        if(!SpriteImages.isHeadless())
+            loadImage();
 
         if(!(this.orientation.equals(Types.DNONE)))
         {
@@ -985,9 +991,12 @@ public abstract class VGDLSprite {
 
     /**
      * Loads the image that represents this sprite, using its string name as reference.
+     * Images are taken from the cache shared by all the sprites (SpriteImages), so they
+     * are only read from disk the first time they are used.
      */
     public void loadImage()
     {
+        imagesLoaded = true;
         String str = (orientedImg != null) ? orientedImg : img;
         boolean isOrientedImg = (orientedImg != null);
         Direction[] directions = new Direction[]{Types.DUP,Types.DDOWN,Types.DLEFT,Types.DRIGHT};
@@ -998,6 +1007,10 @@ public abstract class VGDLSprite {
 
         if(images.size() == 0 && str != null)
         {
+            // The images are put in a new map, so sprites sharing the current one (copies of this one) are not modified
+            // if this sprite is loading its images when it is drawn.
+            HashMap<String,ArrayList<Image>> loadedImages = new HashMap<String,ArrayList<Image>>();
+
             //There is autotiling (disabled now) or animations
             if (this.autotiling || this.randomtiling >= 0 || this.frameRate >= 0){
 
@@ -1012,10 +1025,10 @@ public abstract class VGDLSprite {
                     String strDir = Types.v2DirStr(dir.getVector());
                     String imagePath = imagePathBase + strDir + "_";
                     ArrayList<Image> theImages = getAnimatedImages(imagePath);
-                    images.put(strDir, theImages);
+                    loadedImages.put(strDir, theImages);
                 }else{
                     ArrayList<Image> theImages = getAnimatedImages(imagePathBase);
-                    images.put("NONE", theImages);
+                    loadedImages.put("NONE", theImages);
                 }
 
             }
@@ -1037,7 +1050,7 @@ public abstract class VGDLSprite {
                         onlyImage = getImage(image_file);
                         theImages.add(onlyImage);
 
-                        images.put(strDir, theImages);
+                        loadedImages.put(strDir, theImages);
                         image = theImages.get(0);
                     }
                 }else {
@@ -1053,46 +1066,22 @@ public abstract class VGDLSprite {
 
             }
 
+            if(loadedImages.size() > 0)
+                images = loadedImages;
         }
     }
 
     private Image getImage(String image_file)
     {
-        try {
-
-            if((new File(image_file).exists())) {
-                return ImageIO.read(new File(image_file));
-            }
-
-            return ImageIO.read(this.getClass().getResource("/" + image_file));
-        } catch (IOException e) {
-            //e.printStackTrace();
-        } catch (Exception e) {
-            //e.printStackTrace();
-        }
-        return null;
+        return SpriteImages.getImage(image_file);
     }
 
 
     private ArrayList<Image> getAnimatedImages(String imagePath)
     {
-        ArrayList<Image> theImages = new ArrayList<>();
-        try{
-            boolean noMoreFiles = false;
-            int i = 0;
-
-            do{
-                String currentFile = imagePath + i + ".png";
-                if((new File(currentFile).exists())) {
-                    theImages.add(ImageIO.read(new File(currentFile)));
-                }
-                else {
-                    noMoreFiles = true;
-                }
-                i += 1;
-            }while(!noMoreFiles);
+        ArrayList<Image> theImages = SpriteImages.getAnimatedImages(imagePath);
+        if(theImages.size() > 0)
             image = theImages.get(0); //Default.
-        }catch(Exception e) {}
         return theImages;
     }
 
@@ -1157,6 +1146,7 @@ public abstract class VGDLSprite {
         toSprite.is_npc = this.is_npc;
         toSprite.image = this.image;
         toSprite.images = this.images;
+        toSprite.imagesLoaded = this.imagesLoaded;
         toSprite.spriteID = this.spriteID;
         toSprite.is_from_avatar = this.is_from_avatar;
         toSprite.bucket = this.bucket;
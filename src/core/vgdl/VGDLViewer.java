@@ -1,6 +1,5 @@
 package core.vgdl;
 
-import core.competition.CompetitionParameters;
 import core.game.Game;
 import core.player.LearningPlayer;
 import core.player.Player;
@@ -45,6 +44,12 @@ public class VGDLViewer extends JComponent
 
     public boolean justImage = false;
 
+    /**
+     * Image the game is rendered into for learning players that observe the screen.
+     * It is reused every game step.
+     */
+    private BufferedImage frame;
+
     /**
      * Creates the viewer for the game.
      * @param game game to be displayed
@@ -54,14 +59,7 @@ public class VGDLViewer extends JComponent
         this.game = game;
         this.size = game.getScreenSize();
         this.player = player;
-        if (player instanceof LearningPlayer) {
-            LearningPlayer learningPlayer = (LearningPlayer) player;
-            Types.LEARNING_SSO_TYPE ssoType = learningPlayer.getLearningSsoType();
-            if (ssoType == Types.LEARNING_SSO_TYPE.IMAGE ||
-                ssoType == Types.LEARNING_SSO_TYPE.BOTH) {
-                saveImage(CompetitionParameters.SCREENSHOT_FILENAME);
-            }
-        }
+        captureFrameForLearningPlayer();
     }
 
     /**
@@ -114,13 +112,20 @@ public class VGDLViewer extends JComponent
             this.spriteGroups[i].copyAllSprites(spriteGroupsGame[i].getSprites());
         }
         this.repaint();
+        captureFrameForLearningPlayer();
+    }
+
+    /**
+     * Hands the image of the game to the player, if it is a learning player that observes the screen.
+     */
+    private void captureFrameForLearningPlayer() {
         if (player instanceof LearningPlayer) {
             LearningPlayer learningPlayer = (LearningPlayer) player;
             Types.LEARNING_SSO_TYPE ssoType = learningPlayer.getLearningSsoType();
 
             if (ssoType == Types.LEARNING_SSO_TYPE.IMAGE ||
                 ssoType == Types.LEARNING_SSO_TYPE.BOTH) {
-                saveImage(CompetitionParameters.SCREENSHOT_FILENAME);
+                learningPlayer.setFrame(captureFrame());
             }
         }
     }
@@ -133,16 +138,30 @@ public class VGDLViewer extends JComponent
         return size;
     }
 
+    /**
+     * Renders the game into an image, the same one every time it is called (its content is
+     * replaced with the new rendering).
+     * @return the image of the game.
+     */
+    public BufferedImage captureFrame() {
+        if (frame == null) {
+            frame = new BufferedImage( (int) size.getWidth(), (int) size.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        }
+        Graphics2D graphics = frame.createGraphics();
+
+        // Start from a transparent image, as a new one.
+        graphics.setComposite(AlphaComposite.Clear);
+        graphics.fillRect(0, 0, frame.getWidth(), frame.getHeight());
+        graphics.setComposite(AlphaComposite.SrcOver);
+
+        paintWithGraphics(graphics);
+        graphics.dispose();
+        return frame;
+    }
+
     public void saveImage(String fileName)  {
         try {
-            BufferedImage bi = new BufferedImage( (int) size.getWidth(), (int) size.getHeight(), BufferedImage.TYPE_INT_ARGB);
-            Graphics2D graphics = bi.createGraphics();
-            paintWithGraphics(graphics);
-            File file = new File(fileName);
-            if (justImage) {
-                graphics.dispose();
-            }
-            ImageIO.write(bi, "png", file);
+            ImageIO.write(captureFrame(), "png", new File(fileName));
         } catch (IOException ie) {
             ie.printStackTrace();
         }
@@ -5,49 +5,77 @@
 
 package heuristic_diversification;
 
+import core.vgdl.SpriteImages;
+import heuristic_diversification.controllers.sampleMCTS.ParallelMCTSPlayer;
 import heuristic_diversification.framework.TeamGameplay;
 import heuristic_diversification.framework.TeamManager;
 import heuristic_diversification.heuristics.TeamBehavioursHeuristic;
 import heuristic_diversification.mapelites.Config;
 import heuristic_diversification.mapelites.Config.FrameworkConfig;
 import heuristic_diversification.mapelites.Config.MapElitesConfig;
+import heuristic_diversification.mapelites.Generator;
 import heuristic_diversification.mapelites.MapElites;
+import heuristic_diversification.mapelites.MapElitesCheckpoint;
 import heuristic_diversification.model.GameInfo;
 import heuristic_diversification.model.JSONManager;
 
 public class MapElitesGameplay {
+    private static final String RESUME_ARG = "resume";
+    private static final String OVERWRITE_ARG = "overwrite";
+
     public static void main(String[] args) {
-        // Expect config file name as argument
-        if (args.length != 1) {
-            System.out.println("Error: Please provide config file name as argument");
+        // Expect config file name as argument, followed by "resume" to continue a run that did not finish,
+        // or by "overwrite" to start again a run that already has a checkpoint
+        if ((args.length < 1) || (args.length > 2) || ((args.length == 2) && !args[1].equals(RESUME_ARG) && !args[1].equals(OVERWRITE_ARG))) {
+            System.out.println("Error: Please provide config file name as argument (and " + RESUME_ARG + " to continue a previous run, or "
+                    + OVERWRITE_ARG + " to start it again)");
             System.exit(1);
         }
         String configFile = args[0];
+        boolean resume = (args.length == 2) && args[1].equals(RESUME_ARG);
+        boolean overwrite = (args.length == 2) && args[1].equals(OVERWRITE_ARG);
 
         // Read config file and initialisations needed for the algorithm and running agents
         Config configData = new Config(configFile);
         FrameworkConfig fwConfig = configData.getFrameworkConfig();
         MapElitesConfig mapElitesConfig = configData.getMapElitesConfig();
 
+        // Sprite images are only needed if the games are displayed
+        SpriteImages.setHeadless(!fwConfig.visuals);
+
+        // Checkpoint of the run, so it can be resumed if it stops. The run resumed keeps its seed
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(configData.resultsFileName() + "_checkpoint.txt", resume, overwrite, fwConfig.getRandomSeed());
+        fwConfig.setRandomSeed(checkpoint.getRandomSeed());
+
+        // Threads searching in each decision of the parallel MCTS agents
+        ParallelMCTSPlayer.setNSearchThreads(fwConfig.nSearchThreads);
+
+        // All the random decisions of the experiment come from its seed, so it can be repeated
+        Generator.setSeed(fwConfig.getRandomSeed());
+
         // Team set up
         Double heuristicsWeightList[] = TeamManager.createTeamBehaviourWeightList();
         TeamBehavioursHeuristic teamBehaviouHeuristic = TeamManager.createTeamBehaviourHeuristic(heuristicsWeightList);
  
-        TeamGameplay gameplayFramework = new TeamGameplay(teamBehaviouHeuristic, fwConfig);
+        // Every set of weights plays the same game runs so they are compared under the same conditions
+        TeamGameplay gameplayFramework = new TeamGameplay(teamBehaviouHeuristic, fwConfig, Generator.generateSeeds(fwConfig.nGameRuns));
 
         // Print general information about the experiment before running the algorithm
         // We print temp results so it can be helpful to have the general data in case something goes
         // wrong or we need to stop the algorithm
         GameInfo gameInfo = new GameInfo(gameplayFramework);
-        JSONManager.backupGeneralExperimentInfo(configData, gameInfo);
+        if (!checkpoint.isResumed()) {
+            JSONManager.backupGeneralExperimentInfo(configData, gameInfo);
+        }
 
         // MAP elites adaptation
 
         // Initialise MAP
-        MapElites mapElites = new MapElites(mapElitesConfig.performanceCriteria, mapElitesConfig.featureX, mapElitesConfig.featureY, gameplayFramework, fwConfig.agent.getAgentFileName(), heuristicsWeightList, mapElitesConfig.nRandomInitialisations);
+        MapElites mapElites = new MapElites(mapElitesConfig.performanceCriteria, mapElitesConfig.featureX, mapElitesConfig.featureY, gameplayFramework, fwConfig.agent.getAgentFileName(), heuristicsWeightList, mapElitesConfig.nRandomInitialisations, mapElitesConfig.nEvaluationWorkers, mapElitesConfig.evaluationBatchSize, checkpoint);
 
         // MAP elites algorithm
         mapElites.runAlgorithm(mapElitesConfig.nMapElitesIterations);
+        checkpoint.close();
 
         // Log results
         String statsResultsFileName = configData.resultsFileName() + "_Stats";
@@ -0,0 +1,157 @@
+package heuristic_diversification.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import core.game.Event;
+import core.game.Game;
+import core.game.StateObservation;
+import core.vgdl.GameCache;
+import core.vgdl.VGDLRegistry;
+import heuristic_diversification.config.Games;
+import heuristic_diversification.framework.MapDimensionsManager;
+import ontology.Types;
+import tools.GridCellSet;
+import tools.TypePairSet;
+import tools.Vector2d;
+
+/**
+ * Memory allocated and time of an evaluation that counts events, before and after counting them
+ * with the primitive sets TypePairSet and GridCellSet, on the events of long games: runs of the
+ * games of the experiments (first level, random actions) played one after the other until the
+ * ticks given.
+ * - unique (active, passive) type pairs of the events, as the level and rule generators do, with
+ *   the HashMap of int codes and the HashSet of strings used before, and a TypePairSet
+ * - cells of the last events not found in the cells of all the events, as the curiosity of
+ *   SpritesData does, with the list of Vector2d used before and a GridCellSet
+ *
+ * See MicroBenchmark for the way they are measured; the memory allocated is only reported when the
+ * JVM measures it. Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: game ticks played per game, file to write the results to (CSV), file of
+ * previous results to compare with.
+ */
+public class EventCountingBenchmark {
+
+    // Last events counted as the future of an evaluation, like the ones of the rollouts of the agents
+    private static final int N_FUTURE_EVENTS = 50;
+
+    private static final int WARM_UP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 200;
+
+    public static void main(String[] args) {
+        int nTicks = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+        String resultsFile = (args.length > 1) ? args[1] : null;
+        String baselineFile = (args.length > 2) ? args[2] : null;
+
+        MicroBenchmark benchmark = new MicroBenchmark(WARM_UP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+        System.out.println("Event counting (" + WARM_UP_ITERATIONS + " warm up and " + MEASUREMENT_ITERATIONS
+                + " measurement iterations of " + ITERATION_MILLIS + " ms, " + nTicks + " ticks per game)");
+        System.out.println(MicroBenchmark.header());
+
+        for (Games game : Games.values()) {
+            benchmarkGame(benchmark, game, nTicks);
+        }
+
+        if (resultsFile != null) {
+            benchmark.writeResults(resultsFile);
+        }
+        if (baselineFile != null) {
+            System.out.println();
+            benchmark.compareWithBaseline(baselineFile);
+        }
+    }
+
+    private static void benchmarkGame(MicroBenchmark benchmark, Games game, int nTicks) {
+        Random random = new Random(0);
+        MapDimensionsManager dimensions = new MapDimensionsManager(playRun(game, 0, random));
+        ArrayList<Event> events = new ArrayList<Event>();
+        int ticks = 0;
+        while (ticks < nTicks) {
+            StateObservation state = playRun(game, nTicks - ticks, random);
+            events.addAll(state.getEventsHistory());
+            ticks += Math.max(1, state.getGameTick());
+        }
+        int nTypes = VGDLRegistry.GetInstance().numSpriteTypes();
+        String prefix = game.getGameName() + ".";
+        System.out.println(game.getGameName() + ": " + events.size() + " events");
+
+        // Unique type pairs
+        benchmark.measure(prefix + "uniqueEvents.HashMap", () -> {
+            HashMap<Integer, Boolean> uniqueEvents = new HashMap<Integer, Boolean>();
+            for (Event e : events) {
+                uniqueEvents.putIfAbsent(e.activeTypeId + 10000 * e.passiveTypeId, true);
+            }
+            return uniqueEvents.size();
+        });
+        benchmark.measure(prefix + "uniqueEvents.HashSet", () -> {
+            HashSet<String> uniqueEvents = new HashSet<String>();
+            for (Event e : events) {
+                uniqueEvents.add(e.activeTypeId + "" + e.passiveTypeId);
+            }
+            return uniqueEvents.size();
+        });
+        benchmark.measure(prefix + "uniqueEvents.TypePairSet", () -> {
+            TypePairSet uniqueEvents = new TypePairSet(nTypes);
+            for (Event e : events) {
+                uniqueEvents.add(e.activeTypeId, e.passiveTypeId);
+            }
+            return uniqueEvents.size();
+        });
+
+        // New cells of the future events
+        ArrayList<Vector2d> referenceList = new ArrayList<Vector2d>();
+        GridCellSet referenceSet = new GridCellSet();
+        for (Event e : events) {
+            Vector2d cell = new Vector2d(dimensions.getXFromVector(e.position), dimensions.getYFromVector(e.position));
+            if (!referenceList.contains(cell)) {
+                referenceList.add(cell);
+            }
+            referenceSet.add(dimensions.getXFromVector(e.position), dimensions.getYFromVector(e.position));
+        }
+        ArrayList<Event> futureEvents = new ArrayList<Event>(
+                events.subList(Math.max(0, events.size() - N_FUTURE_EVENTS), events.size()));
+
+        benchmark.measure(prefix + "newCells.ArrayList", () -> {
+            ArrayList<Vector2d> cells = new ArrayList<Vector2d>();
+            for (Event e : futureEvents) {
+                Vector2d position = e.position.copy();
+                Vector2d cell = new Vector2d(dimensions.getXFromVector(position), dimensions.getYFromVector(position));
+                if (!cells.contains(cell)) {
+                    cells.add(cell);
+                }
+            }
+            int newCells = 0;
+            for (Vector2d cell : cells) {
+                if (!referenceList.contains(cell)) {
+                    newCells++;
+                }
+            }
+            return newCells;
+        });
+        benchmark.measure(prefix + "newCells.GridCellSet", () -> {
+            GridCellSet cells = new GridCellSet();
+            for (Event e : futureEvents) {
+                cells.add(dimensions.getXFromVector(e.position), dimensions.getYFromVector(e.position));
+            }
+            return cells.countNotIn(referenceSet);
+        });
+    }
+
+    /**
+     * Plays a run of the game with random actions.
+     * @return last state of the run
+     */
+    private static StateObservation playRun(Games game, int maxTicks, Random random) {
+        Game played = GameCache.getGame(game.game());
+        played.buildLevel(game.level(0), 0);
+        StateObservation state = played.getObservation();
+        while (!state.isGameOver() && state.getGameTick() < maxTicks) {
+            ArrayList<Types.ACTIONS> actions = state.getAvailableActions();
+            state.advance(actions.get(random.nextInt(actions.size())));
+        }
+        return state;
+    }
+}
@@ -0,0 +1,225 @@
+package heuristic_diversification.benchmark;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import core.game.ForwardModel;
+import core.game.Game;
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import core.vgdl.GameCache;
+import heuristic_diversification.config.Behaviours;
+import heuristic_diversification.config.Games;
+import heuristic_diversification.framework.TeamMember;
+import heuristic_diversification.heuristics.TeamBehavioursHeuristic;
+import ontology.Types;
+
+/**
+ * Baseline times of the operations of the forward model and the heuristics that the agents run
+ * the most, on the games of the experiments (first level), to track regressions:
+ * - StateObservation.copy() and advance()
+ * - Game.eventHandling(), on a state whose sprites were just moved
+ * - StateObservation.getObservationGrid() and getNPCPositions()
+ * - evaluateState() of each behaviour heuristic and of the team of all of them, with the same weight,
+ *   on a state reached from the one of the game with an action, as the agents do
+ *
+ * The operations are run on states sampled from a run of the game with random actions, updating
+ * the heuristics with every state of the run like a player does. See MicroBenchmark for the way
+ * they are measured. Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: file to write the results to (CSV), file of previous results to compare with.
+ */
+public class ForwardModelBenchmark {
+
+    private static final int N_SAMPLED_STATES = 20;
+    private static final int SAMPLED_TICKS = 200;
+
+    private static final int WARM_UP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 200;
+
+    // The forward model is not public in the states, and the steps of advance() are not either
+    private static Field modelField;
+    private static Method updateAvatarsMethod;
+    private static Method tickMethod;
+    private static Method eventHandlingMethod;
+
+    public static void main(String[] args) throws Exception {
+        String resultsFile = (args.length > 0) ? args[0] : null;
+        String baselineFile = (args.length > 1) ? args[1] : null;
+
+        modelField = StateObservation.class.getDeclaredField("model");
+        updateAvatarsMethod = ForwardModel.class.getDeclaredMethod("updateAvatars", Types.ACTIONS.class, int.class);
+        tickMethod = ForwardModel.class.getDeclaredMethod("tick");
+        eventHandlingMethod = Game.class.getDeclaredMethod("eventHandling");
+        for (AccessibleObject member : Arrays.asList(modelField, updateAvatarsMethod, tickMethod, eventHandlingMethod)) {
+            member.setAccessible(true);
+        }
+
+        MicroBenchmark benchmark = new MicroBenchmark(WARM_UP_ITERATIONS, MEASUREMENT_ITERATIONS, ITERATION_MILLIS);
+        System.out.println("Forward model and heuristics (" + WARM_UP_ITERATIONS + " warm up and " + MEASUREMENT_ITERATIONS
+                + " measurement iterations of " + ITERATION_MILLIS + " ms, " + N_SAMPLED_STATES + " states per game)");
+        System.out.println(MicroBenchmark.header());
+
+        for (Games game : Games.values()) {
+            benchmarkGame(benchmark, game);
+        }
+
+        if (resultsFile != null) {
+            benchmark.writeResults(resultsFile);
+        }
+        if (baselineFile != null) {
+            System.out.println();
+            benchmark.compareWithBaseline(baselineFile);
+        }
+    }
+
+    private static void benchmarkGame(MicroBenchmark benchmark, Games game) {
+        String prefix = game.getGameName() + ".";
+        Random random = new Random(0);
+
+        TeamMember[] members = createMembers();
+        TeamBehavioursHeuristic team = createTeam(members);
+        ArrayList<StateObservation> states = sampleStates(game, team, random);
+        StateSampler sampler = new StateSampler(states, random);
+
+        benchmark.measure(prefix + "copy", sampler::next, state -> state.copy());
+        benchmark.measure(prefix + "advance", sampler::nextCopyAndAction, input -> input.state.advance(input.action));
+        benchmark.measure(prefix + "eventHandling", sampler::nextTicked, ForwardModelBenchmark::eventHandling);
+        benchmark.measure(prefix + "getObservationGrid", sampler::next, state -> state.getObservationGrid());
+        benchmark.measure(prefix + "getNPCPositions", sampler::next, state -> state.getNPCPositions());
+
+        for (TeamMember member : members) {
+            // The team only keeps the future state data of its enabled members
+            StateHeuristic futureData = member.isEnabled() ? team : member.heuristic;
+            benchmark.measure(prefix + member.heuristic.getClass().getSimpleName() + ".evaluateState",
+                    () -> sampler.nextFutureState(futureData), state -> member.heuristic.evaluateState(state));
+        }
+        benchmark.measure(prefix + "TeamBehavioursHeuristic.evaluateState",
+                () -> sampler.nextFutureState(team), state -> team.evaluateState(state));
+    }
+
+    /**
+     * Members of a team of all the behaviours, the disabled ones too, so all of them can be measured.
+     */
+    private static TeamMember[] createMembers() {
+        TeamMember[] members = new TeamMember[Behaviours.values().length];
+        for (int i = 0; i < members.length; i++) {
+            members[i] = new TeamMember(Behaviours.values()[i]);
+        }
+        return members;
+    }
+
+    /**
+     * Team of the members, with the same weight for the enabled ones.
+     */
+    private static TeamBehavioursHeuristic createTeam(TeamMember[] members) {
+        long nEnabled = Arrays.stream(Behaviours.values()).filter(Behaviours::isEnabled).count();
+        Double[] weights = new Double[(int) nEnabled];
+        Arrays.fill(weights, 1.0 / nEnabled);
+        return new TeamBehavioursHeuristic(members, weights);
+    }
+
+    /**
+     * Plays a run of the game with random actions, updating the heuristic with every state, and
+     * keeps some of its states, evenly spread.
+     */
+    private static ArrayList<StateObservation> sampleStates(Games game, StateHeuristic heuristic, Random random) {
+        Game played = GameCache.getGame(game.game());
+        played.buildLevel(game.level(0), 0);
+        StateObservation state = played.getObservation();
+        heuristic.initHeuristicInternalInformation(state);
+
+        ArrayList<StateObservation> states = new ArrayList<StateObservation>();
+        int sampleTicks = SAMPLED_TICKS / N_SAMPLED_STATES;
+        while (!state.isGameOver() && state.getGameTick() < SAMPLED_TICKS) {
+            heuristic.updateHeuristicInternalInformation(state);
+            if (state.getGameTick() % sampleTicks == 0) {
+                states.add(state.copy());
+            }
+            ArrayList<Types.ACTIONS> actions = state.getAvailableActions();
+            state.advance(actions.get(random.nextInt(actions.size())));
+        }
+        return states;
+    }
+
+    private static void eventHandling(ForwardModel model) {
+        try {
+            eventHandlingMethod.invoke(model);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static class CopyAndAction {
+        StateObservation state;
+        Types.ACTIONS action;
+    }
+
+    /**
+     * Gives the states sampled one after the other, or states prepared from them.
+     */
+    private static class StateSampler {
+        private final ArrayList<StateObservation> states;
+        private final Random random;
+        private int next;
+
+        StateSampler(ArrayList<StateObservation> states, Random random) {
+            this.states = states;
+            this.random = random;
+        }
+
+        StateObservation next() {
+            StateObservation state = states.get(next);
+            next = (next + 1) % states.size();
+            return state;
+        }
+
+        Types.ACTIONS randomAction(StateObservation state) {
+            ArrayList<Types.ACTIONS> actions = state.getAvailableActions();
+            return actions.get(random.nextInt(actions.size()));
+        }
+
+        CopyAndAction nextCopyAndAction() {
+            CopyAndAction input = new CopyAndAction();
+            input.state = next().copy();
+            input.action = randomAction(input.state);
+            return input;
+        }
+
+        /**
+         * @return forward model of a copy of a state, with the avatar and the rest of the sprites
+         * moved as in advance(), and the events not handled yet.
+         */
+        ForwardModel nextTicked() {
+            CopyAndAction input = nextCopyAndAction();
+            try {
+                ForwardModel model = (ForwardModel) modelField.get(input.state);
+                updateAvatarsMethod.invoke(model, input.action, 0);
+                tickMethod.invoke(model);
+                return model;
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                e.printStackTrace();
+                System.exit(1);
+                return null;
+            }
+        }
+
+        /**
+         * @return state reached from a copy of a state with a random action, with the future state data
+         * of the heuristic updated, as the agents do before evaluating it.
+         */
+        StateObservation nextFutureState(StateHeuristic heuristic) {
+            CopyAndAction input = nextCopyAndAction();
+            heuristic.restartFutureStateData(input.state);
+            input.state.advance(input.action);
+            heuristic.updateFutureStateData(input.state);
+            return input.state;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package heuristic_diversification.benchmark;
+
+import core.game.Game;
+import core.vgdl.GameCache;
+import core.vgdl.VGDLFactory;
+import core.vgdl.VGDLParser;
+import core.vgdl.VGDLRegistry;
+import heuristic_diversification.config.Games;
+
+/**
+ * Measures the time needed to have a game ready to be played (game parsed and level built)
+ * for the games of the experiments, reading and parsing the files every time vs using the
+ * GameCache. Run from the root folder of the project, where the examples folder is.
+ * Optional argument: number of repetitions per game.
+ */
+public class GameStartupBenchmark {
+    private static final int WARMUP_REPETITIONS = 20;
+
+    public static void main(String[] args) {
+        int nRepetitions = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int levelId = 0;
+
+        System.out.println("Game startup time (ms per game, " + nRepetitions + " repetitions)");
+        System.out.println("game; no cache; cache; speedup");
+
+        for (Games game : Games.values()) {
+            // Warm up the JVM on both paths before measuring
+            timeWithoutCache(game.game(), game.level(levelId), WARMUP_REPETITIONS);
+            timeWithCache(game.game(), game.level(levelId), WARMUP_REPETITIONS);
+
+            double noCacheMs = timeWithoutCache(game.game(), game.level(levelId), nRepetitions);
+            double cacheMs = timeWithCache(game.game(), game.level(levelId), nRepetitions);
+
+            System.out.println(game.getGameName() + "; " + String.format("%.3f", noCacheMs) + "; "
+                    + String.format("%.3f", cacheMs) + "; " + String.format("%.1f", noCacheMs / cacheMs) + "x");
+        }
+    }
+
+    private static double timeWithoutCache(String gameFile, String levelFile, int nRepetitions) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nRepetitions; i++) {
+            // Forget the games parsed, so nothing is reused from the cache
+            GameCache.clear();
+            VGDLFactory.GetInstance().init();
+            VGDLRegistry.GetInstance().init();
+
+            Game game = new VGDLParser().parseGame(gameFile);
+            game.buildLevel(levelFile, i);
+        }
+        return (System.nanoTime() - start) / (nRepetitions * 1e6);
+    }
+
+    private static double timeWithCache(String gameFile, String levelFile, int nRepetitions) {
+        long start = System.nanoTime();
+        for (int i = 0; i < nRepetitions; i++) {
+            Game game = GameCache.getGame(gameFile);
+            game.buildLevel(levelFile, i);
+        }
+        return (System.nanoTime() - start) / (nRepetitions * 1e6);
+    }
+}
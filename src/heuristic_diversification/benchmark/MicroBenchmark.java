@@ -0,0 +1,273 @@
+package heuristic_diversification.benchmark;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import tools.StatSummary;
+
+/**
+ * Small harness for microbenchmarks, following the scheme of JMH: each operation is run for
+ * some warm up iterations, whose times are discarded, and then for some measurement iterations
+ * of a fixed duration. The result is the average time of an operation in the measurement
+ * iterations, with its standard deviation among them.
+ *
+ * The input of each operation is prepared before it, out of the time measured, so operations
+ * changing their input (for example advancing a state) start every time from a fresh one.
+ * The inputs are prepared in batches and the operations of a batch are timed together, so
+ * reading the clock does not add to the time of short operations.
+ *
+ * The memory allocated by the operations is measured too, as the bytes allocated by the thread
+ * while the operations of the batches run. It is read from the JVM (getThreadAllocatedBytes of
+ * com.sun.management.ThreadMXBean); when the JVM does not provide it, it is not reported.
+ *
+ * The results can be written to a file (CSV) and compared with the ones of a previous file,
+ * to track regressions.
+ */
+public class MicroBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final String SEPARATOR = ";";
+
+    // Bytes allocated by the current thread, null when the JVM does not provide them
+    private static final Method threadAllocatedBytes = findThreadAllocatedBytes();
+    // Bytes allocated by reading the bytes allocated, subtracted from the ones measured
+    private static final long readAllocatedBytesOverhead = measureReadOverhead();
+
+    private final int warmUpIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final ArrayList<Result> results;
+
+    // Results of the operations measured, so they are not optimised away
+    private Object sink;
+    private long intSink;
+
+    public static class Result {
+        public final String name;
+        public final double nanosPerOp;
+        public final double sdNanosPerOp;
+        public final long nOps;
+        // NaN when the allocation can not be measured
+        public final double bytesPerOp;
+
+        private Result(String name, double nanosPerOp, double sdNanosPerOp, long nOps, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.sdNanosPerOp = sdNanosPerOp;
+            this.nOps = nOps;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+
+    /**
+     * @param warmUpIterations iterations run before measuring.
+     * @param measurementIterations iterations measured.
+     * @param iterationMillis duration of each iteration.
+     */
+    public MicroBenchmark(int warmUpIterations, int measurementIterations, long iterationMillis) {
+        this.warmUpIterations = warmUpIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1000000;
+        this.results = new ArrayList<Result>();
+    }
+
+    /**
+     * Measures an operation without input.
+     */
+    public Result measure(String name, Supplier<?> operation) {
+        return measure(name, () -> null, input -> sink = operation.get());
+    }
+
+    /**
+     * Measures an operation without input that gives an int, which is not boxed so it does not
+     * add to the memory allocated.
+     */
+    public Result measure(String name, IntSupplier operation) {
+        return measure(name, () -> null, input -> intSink += operation.getAsInt());
+    }
+
+    /**
+     * @return if the memory allocated by the operations is measured.
+     */
+    public static boolean isAllocationMeasured() {
+        return threadAllocatedBytes != null;
+    }
+
+    /**
+     * Measures an operation, preparing its input every time.
+     * @param setup prepares the input of an operation, not measured.
+     * @param operation operation measured.
+     */
+    public <T> Result measure(String name, Supplier<T> setup, Consumer<T> operation) {
+        for (int i = 0; i < warmUpIterations; i++) {
+            runIteration(setup, operation);
+        }
+
+        StatSummary nanosPerOp = new StatSummary(name);
+        long nOps = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < measurementIterations; i++) {
+            long[] iteration = runIteration(setup, operation);
+            nanosPerOp.add((double) iteration[0] / iteration[1]);
+            nOps += iteration[1];
+            allocatedBytes += iteration[2];
+        }
+
+        double bytesPerOp = isAllocationMeasured() ? Math.max(0, (double) allocatedBytes / nOps) : Double.NaN;
+        Result result = new Result(name, nanosPerOp.mean(), (nanosPerOp.n() > 1) ? nanosPerOp.sd() : 0, nOps, bytesPerOp);
+        results.add(result);
+        System.out.println(name + SEPARATOR + " " + String.format("%.1f", result.nanosPerOp) + SEPARATOR + " "
+                + String.format("%.1f", result.sdNanosPerOp) + SEPARATOR + " " + result.nOps + SEPARATOR + " "
+                + formatBytes(result.bytesPerOp));
+        return result;
+    }
+
+    /**
+     * Runs batches of the operation until the duration of the iteration is reached.
+     * @return time measured (ns), number of operations and bytes allocated by them.
+     */
+    private <T> long[] runIteration(Supplier<T> setup, Consumer<T> operation) {
+        ArrayList<T> inputs = new ArrayList<T>(BATCH_SIZE);
+        long measured = 0;
+        long nOps = 0;
+        long allocated = 0;
+        long end = System.nanoTime() + iterationNanos;
+
+        while (System.nanoTime() < end) {
+            inputs.clear();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                inputs.add(setup.get());
+            }
+
+            long startBytes = currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                operation.accept(inputs.get(i));
+            }
+            measured += System.nanoTime() - start;
+            allocated += currentThreadAllocatedBytes() - startBytes - readAllocatedBytesOverhead;
+            nOps += BATCH_SIZE;
+        }
+
+        return new long[]{measured, nOps, allocated};
+    }
+
+    public static String header() {
+        return "benchmark" + SEPARATOR + " ns/op" + SEPARATOR + " sd ns/op" + SEPARATOR + " ops" + SEPARATOR + " bytes/op";
+    }
+
+    private static String formatBytes(double bytesPerOp) {
+        return Double.isNaN(bytesPerOp) ? "n/a" : String.format("%.1f", bytesPerOp);
+    }
+
+    /**
+     * getThreadAllocatedBytes(long) is only in the ThreadMXBean of com.sun.management, so it is looked
+     * up, instead of used directly, for the JVMs without it.
+     * @return the method, or null if the JVM does not measure the memory allocated by the threads.
+     */
+    private static Method findThreadAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        try {
+            Class<?> beanInterface = Class.forName("com.sun.management.ThreadMXBean");
+            if (!beanInterface.isInstance(threadBean)) {
+                return null;
+            }
+            if (!(Boolean) beanInterface.getMethod("isThreadAllocatedMemorySupported").invoke(threadBean)) {
+                return null;
+            }
+            beanInterface.getMethod("setThreadAllocatedMemoryEnabled", boolean.class).invoke(threadBean, true);
+            return beanInterface.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return bytes allocated by the current thread until now, 0 if they are not measured.
+     */
+    private static long currentThreadAllocatedBytes() {
+        if (threadAllocatedBytes == null) {
+            return 0;
+        }
+        try {
+            return (Long) threadAllocatedBytes.invoke(ManagementFactory.getThreadMXBean(), Thread.currentThread().getId());
+        } catch (ReflectiveOperationException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        return 0;
+    }
+
+    /**
+     * @return bytes allocated by a read of the bytes allocated (boxing of the arguments and the result).
+     */
+    private static long measureReadOverhead() {
+        if (threadAllocatedBytes == null) {
+            return 0;
+        }
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long start = currentThreadAllocatedBytes();
+            overhead = Math.min(overhead, currentThreadAllocatedBytes() - start);
+        }
+        return overhead;
+    }
+
+    /**
+     * Writes the results measured until now.
+     */
+    public void writeResults(String fileName) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(fileName)))) {
+            writer.write(header() + "\n");
+            for (Result result : results) {
+                writer.write(result.name + SEPARATOR + result.nanosPerOp + SEPARATOR + result.sdNanosPerOp + SEPARATOR + result.nOps
+                        + SEPARATOR + result.bytesPerOp + "\n");
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Prints the change of the results measured until now with respect to the ones in a file
+     * written before.
+     */
+    public void compareWithBaseline(String fileName) {
+        HashMap<String, Double> baseline = new HashMap<String, Double>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(SEPARATOR);
+                baseline.put(fields[0], Double.parseDouble(fields[1]));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        System.out.println("benchmark" + SEPARATOR + " baseline ns/op" + SEPARATOR + " ns/op" + SEPARATOR + " change %");
+        for (Result result : results) {
+            Double baselineNanos = baseline.get(result.name);
+            if (baselineNanos == null) {
+                continue;
+            }
+            double change = 100 * (result.nanosPerOp - baselineNanos) / baselineNanos;
+            System.out.println(result.name + SEPARATOR + " " + String.format("%.1f", baselineNanos) + SEPARATOR + " "
+                    + String.format("%.1f", result.nanosPerOp) + SEPARATOR + " " + String.format("%+.1f", change));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package heuristic_diversification.benchmark;
+
+import java.util.Random;
+
+import core.competition.CompetitionParameters;
+import core.game.Game;
+import core.game.StateObservation;
+import core.vgdl.GameCache;
+import heuristic_diversification.config.Games;
+import heuristic_diversification.controllers.sampleMCTS.Agent;
+import heuristic_diversification.controllers.sampleMCTS.ParallelMCTSPlayer;
+import heuristic_diversification.controllers.sampleMCTS.RootParallelAgent;
+import heuristic_diversification.controllers.sampleMCTS.SingleMCTSPlayer;
+import heuristic_diversification.controllers.sampleMCTS.TreeParallelAgent;
+import heuristic_diversification.heuristics.WinningAndScoreHeuristic;
+import ontology.Types;
+import tools.ElapsedCpuTimer;
+
+/**
+ * Compares the MCTS agent searching with a single thread with the parallel ones, with root
+ * parallelisation and tree parallelisation, using 1, 2, 4 and 8 threads, on the games of the
+ * experiments, maximising the score (WinningAndScoreHeuristic). For each one it reports the
+ * MCTS iterations run per second of decision and per decision, and the score, wins and game
+ * ticks reached. Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: number of runs per game and agent, maximum game ticks per run.
+ */
+public class ParallelMCTSBenchmark {
+
+    private static final int[] N_THREADS = {1, 2, 4, 8};
+
+    public static void main(String[] args) {
+        int nRuns = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : 300;
+        int levelId = 0;
+
+        System.out.println("Parallel MCTS (" + nRuns + " runs, up to " + maxTicks + " ticks each, "
+                + Runtime.getRuntime().availableProcessors() + " processors)");
+        System.out.println("game; agent; threads; iterations/s; iterations/decision; score; wins; ticks");
+
+        for (Games game : Games.values()) {
+            printResult(game, "single", 1, nRuns, maxTicks, levelId, null);
+            for (boolean treeParallel : new boolean[]{false, true}) {
+                for (int nThreads : N_THREADS) {
+                    printResult(game, treeParallel ? "tree parallel" : "root parallel", nThreads, nRuns, maxTicks, levelId, treeParallel);
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays the runs of the game with an agent and prints the averages.
+     * @param treeParallel null for the agent searching with a single thread
+     */
+    private static void printResult(Games game, String agentName, int nThreads, int nRuns, int maxTicks, int levelId, Boolean treeParallel) {
+        double iterationsPerSecond = 0, iterations = 0, score = 0, wins = 0, ticks = 0;
+        for (int run = 0; run < nRuns; run++) {
+            RunResult result = playRun(game.game(), game.level(levelId), run, maxTicks, nThreads, treeParallel);
+            iterationsPerSecond += result.iterationsPerSecond;
+            iterations += result.iterationsPerDecision;
+            score += result.score;
+            wins += result.win ? 1 : 0;
+            ticks += result.ticks;
+        }
+
+        System.out.println(game.getGameName() + "; " + agentName + "; " + nThreads + "; "
+                + String.format("%.0f", iterationsPerSecond / nRuns) + "; " + String.format("%.1f", iterations / nRuns) + "; "
+                + String.format("%.2f", score / nRuns) + "; " + String.format("%.2f", wins / nRuns) + "; "
+                + String.format("%.1f", ticks / nRuns));
+    }
+
+    /**
+     * Plays a run of the game on its forward model, asking the agent for an action every game step
+     * with the same time it has in the competition.
+     */
+    private static RunResult playRun(String gameFile, String levelFile, int randomSeed, int maxTicks, int nThreads, Boolean treeParallel) {
+        Game game = GameCache.getGame(gameFile);
+        game.buildLevel(levelFile, randomSeed);
+        StateObservation state = game.getObservation();
+
+        ParallelMCTSPlayer.setNSearchThreads(nThreads);
+        ElapsedCpuTimer creationTimer = new ElapsedCpuTimer();
+        creationTimer.setMaxTimeMillis(CompetitionParameters.INITIALIZATION_TIME);
+        WinningAndScoreHeuristic heuristic = new WinningAndScoreHeuristic();
+        Agent agent;
+        if (treeParallel == null) {
+            agent = new Agent(state.copy(), creationTimer, heuristic);
+        } else if (treeParallel) {
+            agent = new TreeParallelAgent(state.copy(), creationTimer, heuristic);
+        } else {
+            agent = new RootParallelAgent(state.copy(), creationTimer, heuristic);
+        }
+        agent.setRandomSeed(new Random(randomSeed).nextInt());
+
+        long decisionNanos = 0;
+        while (!state.isGameOver() && state.getGameTick() < maxTicks) {
+            ElapsedCpuTimer actionTimer = new ElapsedCpuTimer();
+            actionTimer.setMaxTimeMillis(CompetitionParameters.ACTION_TIME);
+            long start = System.nanoTime();
+            Types.ACTIONS action = agent.act(state.copy(), actionTimer);
+            decisionNanos += System.nanoTime() - start;
+            state.advance(action);
+        }
+
+        SingleMCTSPlayer player = agent.getMctsPlayer();
+        RunResult result = new RunResult();
+        result.iterationsPerDecision = player.getAvgIterationsPerDecision();
+        result.iterationsPerSecond = (decisionNanos == 0) ? 0 : player.getAvgIterationsPerDecision() * player.getNDecisions() / (decisionNanos / 1e9);
+        result.score = state.getGameScore();
+        result.win = state.getGameWinner() == Types.WINNER.PLAYER_WINS;
+        result.ticks = state.getGameTick();
+        return result;
+    }
+
+    private static class RunResult {
+        double iterationsPerSecond;
+        double iterationsPerDecision;
+        double score;
+        boolean win;
+        int ticks;
+    }
+}
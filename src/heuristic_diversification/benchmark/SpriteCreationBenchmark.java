@@ -0,0 +1,79 @@
+package heuristic_diversification.benchmark;
+
+import java.util.Iterator;
+
+import core.game.Game;
+import core.vgdl.GameCache;
+import core.vgdl.SpriteImages;
+import core.vgdl.VGDLRegistry;
+import core.vgdl.VGDLSprite;
+import heuristic_diversification.config.Games;
+
+/**
+ * Measures how many sprites are created per second when building the levels of the games
+ * of the experiments, which creates all the sprites of the level from scratch (the game is
+ * reset, so no sprites are copied from those created in previous builds). Three modes:
+ * without the image cache (it is emptied before every build, so images are read from disk
+ * as they were before having the cache), with the image cache, and in headless mode, where
+ * no images are loaded. Run from the root folder of the project, where the examples folder is.
+ * Optional argument: number of level builds per game and mode.
+ */
+public class SpriteCreationBenchmark {
+
+    private enum Mode { NO_CACHE, CACHE, HEADLESS }
+
+    public static void main(String[] args) {
+        int nBuilds = (args.length > 0) ? Integer.parseInt(args[0]) : 200;
+        int levelId = 0;
+
+        System.out.println("Sprite creation (" + nBuilds + " level builds)");
+        System.out.println("game; mode; sprites/level; sprites/s; level builds/s");
+
+        for (Games game : Games.values()) {
+            for (Mode mode : Mode.values()) {
+                SpriteImages.setHeadless(mode == Mode.HEADLESS);
+                SpriteImages.clear();
+
+                // Warm up
+                buildLevels(game, levelId, nBuilds / 4, mode);
+
+                long start = System.nanoTime();
+                long nSprites = buildLevels(game, levelId, nBuilds, mode);
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                System.out.println(game.getGameName() + "; " + mode + "; " + (nSprites / nBuilds) + "; "
+                        + String.format("%.0f", nSprites / seconds) + "; " + String.format("%.1f", nBuilds / seconds));
+            }
+        }
+        SpriteImages.setHeadless(false);
+    }
+
+    /**
+     * Builds the level the number of times given.
+     * @return number of sprites created
+     */
+    private static long buildLevels(Games game, int levelId, int nBuilds, Mode mode) {
+        long nSprites = 0;
+        for (int i = 0; i < nBuilds; i++) {
+            if (mode == Mode.NO_CACHE) {
+                SpriteImages.clear();
+            }
+            Game toPlay = GameCache.getGame(game.game());
+            toPlay.buildLevel(game.level(levelId), i);
+            nSprites += countSprites(toPlay);
+        }
+        return nSprites;
+    }
+
+    private static int countSprites(Game game) {
+        int nSprites = 0;
+        for (int itype = 0; itype < VGDLRegistry.GetInstance().numSpriteTypes(); itype++) {
+            Iterator<VGDLSprite> sprites = game.getSpriteGroup(itype);
+            while (sprites != null && sprites.hasNext()) {
+                sprites.next();
+                nSprites++;
+            }
+        }
+        return nSprites;
+    }
+}
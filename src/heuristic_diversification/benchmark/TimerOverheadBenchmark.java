@@ -0,0 +1,117 @@
+package heuristic_diversification.benchmark;
+
+import core.competition.CompetitionParameters;
+import core.game.Game;
+import core.game.StateObservation;
+import core.vgdl.GameCache;
+import heuristic_diversification.config.Games;
+import heuristic_diversification.controllers.sampleMCTS.Agent;
+import heuristic_diversification.controllers.sampleMCTS.SingleMCTSPlayer;
+import heuristic_diversification.heuristics.WinningAndScoreHeuristic;
+import ontology.Types;
+import tools.CpuBudgetClock;
+import tools.ElapsedCpuTimer;
+
+/**
+ * Measures the cost of checking the time budget of a decision, compared with the cost of an
+ * MCTS iteration. Before CpuBudgetClock, every MCTS iteration created an ElapsedCpuTimer to
+ * measure itself, read its elapsed time and read the time left of the decision: three readings
+ * of the CPU time of the thread. Now it reads System.nanoTime() twice and asks the clock, which
+ * reads the CPU time only every few milliseconds.
+ * Each timer operation is repeated after a warm up, and the MCTS iteration is the average of
+ * the decisions of the MCTS agent in a run of each game of the experiments (first level).
+ * Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: calls per timer operation, maximum game ticks per run.
+ */
+public class TimerOverheadBenchmark {
+
+    private static final int WARM_UP_ROUNDS = 3;
+
+    // Results of the operations measured, so they are not optimised away
+    private static long sink;
+
+    public static void main(String[] args) {
+        int nCalls = (args.length > 0) ? Integer.parseInt(args[0]) : 1000000;
+        int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : 100;
+
+        ElapsedCpuTimer budgetTimer = new ElapsedCpuTimer();
+        budgetTimer.setMaxTimeMillis(Long.MAX_VALUE / 2000000);
+        CpuBudgetClock budgetClock = new CpuBudgetClock(budgetTimer);
+
+        double nanoTime = measure(nCalls, () -> sink += System.nanoTime());
+        double remainingCpu = measure(nCalls, () -> sink += budgetTimer.remainingTimeMillis());
+        double iterationTimer = measure(nCalls, () -> sink += new ElapsedCpuTimer().elapsedMillis());
+        double remainingClock = measure(nCalls, () -> sink += budgetClock.remainingTimeNanos());
+
+        System.out.println("Timer operations (" + nCalls + " calls each)");
+        System.out.println("operation; ns/call");
+        System.out.println("System.nanoTime(); " + String.format("%.1f", nanoTime));
+        System.out.println("ElapsedCpuTimer.remainingTimeMillis(); " + String.format("%.1f", remainingCpu));
+        System.out.println("new ElapsedCpuTimer().elapsedMillis(); " + String.format("%.1f", iterationTimer));
+        System.out.println("CpuBudgetClock.remainingTimeNanos(); " + String.format("%.1f", remainingClock));
+
+        double timerBefore = iterationTimer + remainingCpu;
+        double timerNow = 2 * nanoTime + remainingClock;
+
+        System.out.println();
+        System.out.println("MCTS iterations (up to " + maxTicks + " ticks)");
+        System.out.println("game; ns/iteration; timer ns/iteration before; timer % before; timer ns/iteration now; timer % now");
+        for (Games game : Games.values()) {
+            double iteration = nanosPerIteration(game.game(), game.level(0), maxTicks);
+            System.out.println(game.getGameName() + "; " + String.format("%.0f", iteration) + "; "
+                    + String.format("%.1f", timerBefore) + "; " + String.format("%.3f", 100 * timerBefore / iteration) + "; "
+                    + String.format("%.1f", timerNow) + "; " + String.format("%.3f", 100 * timerNow / iteration));
+        }
+
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * @return average time (ns) of a call to the operation, after warming it up
+     */
+    private static double measure(int nCalls, Runnable operation) {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            for (int i = 0; i < nCalls; i++) {
+                operation.run();
+            }
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < nCalls; i++) {
+            operation.run();
+        }
+        return (double) (System.nanoTime() - start) / nCalls;
+    }
+
+    /**
+     * Plays a run of the game with the MCTS agent, with the time of the competition to decide
+     * every game step.
+     * @return average time (ns) of an iteration
+     */
+    private static double nanosPerIteration(String gameFile, String levelFile, int maxTicks) {
+        Game game = GameCache.getGame(gameFile);
+        game.buildLevel(levelFile, 0);
+        StateObservation state = game.getObservation();
+
+        ElapsedCpuTimer creationTimer = new ElapsedCpuTimer();
+        creationTimer.setMaxTimeMillis(CompetitionParameters.INITIALIZATION_TIME);
+        Agent agent = new Agent(state.copy(), creationTimer, new WinningAndScoreHeuristic());
+        agent.setRandomSeed(0);
+
+        long decisionNanos = 0;
+        while (!state.isGameOver() && state.getGameTick() < maxTicks) {
+            ElapsedCpuTimer actionTimer = new ElapsedCpuTimer();
+            actionTimer.setMaxTimeMillis(CompetitionParameters.ACTION_TIME);
+            long start = System.nanoTime();
+            Types.ACTIONS action = agent.act(state.copy(), actionTimer);
+            decisionNanos += System.nanoTime() - start;
+            state.advance(action);
+        }
+
+        SingleMCTSPlayer player = agent.getMctsPlayer();
+        double iterations = player.getAvgIterationsPerDecision() * player.getNDecisions();
+        return (iterations == 0) ? 0 : decisionNanos / iterations;
+    }
+}
@@ -0,0 +1,96 @@
+package heuristic_diversification.benchmark;
+
+import core.competition.CompetitionParameters;
+import core.game.Game;
+import core.game.StateObservation;
+import core.vgdl.GameCache;
+import heuristic_diversification.config.Games;
+import heuristic_diversification.controllers.sampleMCTS.Agent;
+import heuristic_diversification.controllers.sampleMCTS.SingleMCTSPlayer;
+import heuristic_diversification.controllers.sampleMCTS.TreeReuseAgent;
+import heuristic_diversification.heuristics.WinningAndScoreHeuristic;
+import ontology.Types;
+import tools.ElapsedCpuTimer;
+
+/**
+ * Compares the MCTS agent starting the search from scratch every game step with the one
+ * reusing the tree of the previous decision, on the games of the experiments, maximising
+ * the score (WinningAndScoreHeuristic). For each one it reports the iterations run per
+ * decision, the visits of the root when deciding (which include the ones kept from the
+ * previous decision), how many decisions reused the tree, and the score, wins and game
+ * ticks reached. Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: number of runs per game and agent, maximum game ticks per run.
+ */
+public class TreeReuseBenchmark {
+
+    public static void main(String[] args) {
+        int nRuns = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : 300;
+        int levelId = 0;
+
+        System.out.println("MCTS tree reuse (" + nRuns + " runs, up to " + maxTicks + " ticks each)");
+        System.out.println("game; agent; iterations/decision; root visits/decision; reused trees %; score; wins; ticks");
+
+        for (Games game : Games.values()) {
+            for (boolean reuseTree : new boolean[]{false, true}) {
+                double iterations = 0, rootVisits = 0, reused = 0, score = 0, wins = 0, ticks = 0;
+                for (int run = 0; run < nRuns; run++) {
+                    RunResult result = playRun(game.game(), game.level(levelId), run, maxTicks, reuseTree);
+                    iterations += result.iterationsPerDecision;
+                    rootVisits += result.rootVisitsPerDecision;
+                    reused += result.reusedTreesPercentage;
+                    score += result.score;
+                    wins += result.win ? 1 : 0;
+                    ticks += result.ticks;
+                }
+
+                System.out.println(game.getGameName() + "; " + (reuseTree ? "reuse" : "no reuse") + "; "
+                        + String.format("%.1f", iterations / nRuns) + "; " + String.format("%.1f", rootVisits / nRuns) + "; "
+                        + String.format("%.1f", reused / nRuns) + "; " + String.format("%.2f", score / nRuns) + "; "
+                        + String.format("%.2f", wins / nRuns) + "; " + String.format("%.1f", ticks / nRuns));
+            }
+        }
+    }
+
+    /**
+     * Plays a run of the game on its forward model, asking the agent for an action every game step
+     * with the same time it has in the competition.
+     */
+    private static RunResult playRun(String gameFile, String levelFile, int randomSeed, int maxTicks, boolean reuseTree) {
+        Game game = GameCache.getGame(gameFile);
+        game.buildLevel(levelFile, randomSeed);
+        StateObservation state = game.getObservation();
+
+        ElapsedCpuTimer creationTimer = new ElapsedCpuTimer();
+        creationTimer.setMaxTimeMillis(CompetitionParameters.INITIALIZATION_TIME);
+        WinningAndScoreHeuristic heuristic = new WinningAndScoreHeuristic();
+        Agent agent = reuseTree ? new TreeReuseAgent(state.copy(), creationTimer, heuristic)
+                                : new Agent(state.copy(), creationTimer, heuristic);
+
+        while (!state.isGameOver() && state.getGameTick() < maxTicks) {
+            ElapsedCpuTimer actionTimer = new ElapsedCpuTimer();
+            actionTimer.setMaxTimeMillis(CompetitionParameters.ACTION_TIME);
+            Types.ACTIONS action = agent.act(state.copy(), actionTimer);
+            state.advance(action);
+        }
+
+        SingleMCTSPlayer player = agent.getMctsPlayer();
+        RunResult result = new RunResult();
+        result.iterationsPerDecision = player.getAvgIterationsPerDecision();
+        result.rootVisitsPerDecision = player.getAvgRootVisitsPerDecision();
+        result.reusedTreesPercentage = (player.getNDecisions() == 0) ? 0 : 100.0 * player.getNReusedTrees() / player.getNDecisions();
+        result.score = state.getGameScore();
+        result.win = state.getGameWinner() == Types.WINNER.PLAYER_WINS;
+        result.ticks = state.getGameTick();
+        return result;
+    }
+
+    private static class RunResult {
+        double iterationsPerDecision;
+        double rootVisitsPerDecision;
+        double reusedTreesPercentage;
+        double score;
+        boolean win;
+        int ticks;
+    }
+}
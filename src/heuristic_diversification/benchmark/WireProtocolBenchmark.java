@@ -0,0 +1,225 @@
+package heuristic_diversification.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.Scanner;
+
+import core.game.Game;
+import core.game.SerializableStateObservation;
+import core.game.StateObservation;
+import core.vgdl.GameCache;
+import heuristic_diversification.config.Games;
+import ontology.Types;
+import tools.com.google.gson.Gson;
+import tracks.singleLearning.utils.BinaryObservationCodec;
+
+/**
+ * Compares the round trip of the observations sent to the learning client with the text
+ * protocol (a JSON line per observation) and with the binary one (see BinaryObservationCodec).
+ * Every game step of a run with random actions, the observation is sent to a client through a
+ * loopback socket with each protocol, and the time until the client's action is received back
+ * is measured. The clients decode the observation as the Java client does, and answer with the
+ * action. Run from the root folder of the project, where the examples folder is.
+ * Optional arguments: number of runs per game, maximum game ticks per run.
+ */
+public class WireProtocolBenchmark {
+
+    private static final String TOKEN_SEP = "#";
+
+    public static void main(String[] args) throws Exception {
+        int nRuns = (args.length > 0) ? Integer.parseInt(args[0]) : 3;
+        int maxTicks = (args.length > 1) ? Integer.parseInt(args[1]) : 500;
+        int levelId = 0;
+
+        System.out.println("Learning client round trip (" + nRuns + " runs, up to " + maxTicks + " ticks each)");
+        System.out.println("game; protocol; bytes/message; round trip us");
+
+        for (Games game : Games.values()) {
+            ProtocolResult json = new ProtocolResult();
+            ProtocolResult binary = new ProtocolResult();
+            for (int run = 0; run < nRuns; run++) {
+                playRun(game.game(), game.level(levelId), run, maxTicks, json, binary);
+            }
+            System.out.println(game.getGameName() + "; JSON; " + json.bytesPerMessage() + "; " + json.microsPerRoundTrip());
+            System.out.println(game.getGameName() + "; binary; " + binary.bytesPerMessage() + "; " + binary.microsPerRoundTrip());
+        }
+    }
+
+    /**
+     * Plays a run of the game with random actions, sending the observation of every game step
+     * with both protocols.
+     */
+    private static void playRun(String gameFile, String levelFile, int randomSeed, int maxTicks,
+                                ProtocolResult json, ProtocolResult binary) throws Exception {
+        Game game = GameCache.getGame(gameFile);
+        game.buildLevel(levelFile, randomSeed);
+        StateObservation state = game.getObservation();
+        Random random = new Random(randomSeed);
+
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            Thread jsonClient = startClient(serverSocket.getLocalPort(), false);
+            Socket jsonSocket = serverSocket.accept();
+            Thread binaryClient = startClient(serverSocket.getLocalPort(), true);
+            Socket binarySocket = serverSocket.accept();
+            // As in SocketComm and the client.
+            jsonSocket.setTcpNoDelay(true);
+            binarySocket.setTcpNoDelay(true);
+
+            CountingOutputStream jsonCount = new CountingOutputStream(jsonSocket.getOutputStream());
+            PrintStream jsonOut = new PrintStream(jsonCount);
+            Scanner jsonIn = new Scanner(jsonSocket.getInputStream());
+
+            CountingOutputStream binaryCount = new CountingOutputStream(new BufferedOutputStream(binarySocket.getOutputStream()));
+            DataOutputStream binaryOut = new DataOutputStream(binaryCount);
+            DataInputStream binaryIn = new DataInputStream(new BufferedInputStream(binarySocket.getInputStream()));
+            BinaryObservationCodec codec = new BinaryObservationCodec();
+
+            long messageId = 0;
+            state.currentGameState = Types.GAMESTATES.INIT_STATE;
+            while (!state.isGameOver() && state.getGameTick() < maxTicks) {
+                SerializableStateObservation sso = new SerializableStateObservation(state);
+
+                long start = System.nanoTime();
+                jsonOut.print(messageId + TOKEN_SEP + sso.serialize(null) + "\n");
+                jsonOut.flush();
+                jsonIn.nextLine();
+                json.add(System.nanoTime() - start, jsonCount.reset());
+
+                start = System.nanoTime();
+                codec.writeObservationFrame(binaryOut, messageId, sso);
+                BinaryObservationCodec.readTextFrame(binaryIn);
+                binary.add(System.nanoTime() - start, binaryCount.reset());
+
+                messageId++;
+                ArrayList<Types.ACTIONS> actions = state.getAvailableActions();
+                state.advance(actions.get(random.nextInt(actions.size())));
+                state.currentGameState = Types.GAMESTATES.ACT_STATE;
+            }
+
+            // Closing the connections ends the clients.
+            jsonSocket.close();
+            binarySocket.close();
+            jsonClient.join();
+            binaryClient.join();
+        }
+    }
+
+    /**
+     * Starts a client that decodes the observations received and answers with an action,
+     * until the connection is closed.
+     */
+    private static Thread startClient(int port, boolean binaryProtocol) {
+        Thread client = new Thread(() -> {
+            try (Socket socket = new Socket("localhost", port)) {
+                socket.setTcpNoDelay(true);
+                if (binaryProtocol) {
+                    runBinaryClient(socket);
+                } else {
+                    runJsonClient(socket);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+                System.exit(1);
+            }
+        });
+        client.setDaemon(true);
+        client.start();
+        return client;
+    }
+
+    private static void runJsonClient(Socket socket) throws IOException {
+        Scanner in = new Scanner(socket.getInputStream());
+        PrintStream out = new PrintStream(socket.getOutputStream());
+        Gson gson = new Gson();
+        while (in.hasNextLine()) {
+            String[] message = in.nextLine().split(TOKEN_SEP);
+            SerializableStateObservation sso = gson.fromJson(message[1], SerializableStateObservation.class);
+            out.print(message[0] + TOKEN_SEP + action(sso) + TOKEN_SEP + "JSON\n");
+            out.flush();
+        }
+    }
+
+    private static void runBinaryClient(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        BinaryObservationCodec codec = new BinaryObservationCodec();
+        try {
+            while (true) {
+                SerializableStateObservation sso = codec.readObservationFrame(in);
+                BinaryObservationCodec.writeTextFrame(out, sso.gameTick + TOKEN_SEP + action(sso) + TOKEN_SEP + "JSON");
+            }
+        } catch (EOFException e) {
+            // Connection closed.
+        }
+    }
+
+    /**
+     * Action of the client, using the observation so it is not optimised away.
+     */
+    private static Types.ACTIONS action(SerializableStateObservation sso) {
+        return sso.availableActions.get(Math.floorMod(sso.gameTick, sso.availableActions.size()));
+    }
+
+    private static class ProtocolResult {
+        long nanos;
+        long bytes;
+        long messages;
+
+        void add(long messageNanos, long messageBytes) {
+            nanos += messageNanos;
+            bytes += messageBytes;
+            messages++;
+        }
+
+        long bytesPerMessage() {
+            return (messages == 0) ? 0 : bytes / messages;
+        }
+
+        String microsPerRoundTrip() {
+            return String.format("%.1f", (messages == 0) ? 0 : nanos / 1e3 / messages);
+        }
+    }
+
+    /**
+     * Counts the bytes written through it.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        /**
+         * @return bytes written since the last reset
+         */
+        long reset() {
+            long written = count;
+            count = 0;
+            return written;
+        }
+    }
+}
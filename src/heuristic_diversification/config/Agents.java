@@ -8,7 +8,10 @@ package heuristic_diversification.config;
 public enum Agents {
 
     OSLA("sampleonesteplookahead.Agent"),
-    MCTS("sampleMCTS.Agent");
+    MCTS("sampleMCTS.Agent"),
+    MCTS_TREE_REUSE("sampleMCTS.TreeReuseAgent"),
+    MCTS_ROOT_PARALLEL("sampleMCTS.RootParallelAgent"),
+    MCTS_TREE_PARALLEL("sampleMCTS.TreeParallelAgent");
 
     String fileName;
 
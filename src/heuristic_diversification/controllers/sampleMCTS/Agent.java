@@ -51,6 +51,18 @@ public class Agent extends AbstractHeuristicPlayer {
         return new SingleMCTSPlayer(new Random(), num_actions, actions, heuristic);
     }
 
+    /**
+     * @return the MCTS player used to decide the actions, with the statistics of the search.
+     */
+    public SingleMCTSPlayer getMctsPlayer() {
+        return mctsPlayer;
+    }
+
+    @Override
+    public void setRandomSeed(int randomSeed) {
+        mctsPlayer.m_rnd.setSeed(randomSeed);
+    }
+
 
     /**
      * Picks an action. This function is called every game step to request an
@@ -0,0 +1,370 @@
+package heuristic_diversification.controllers.sampleMCTS;
+
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.game.Game;
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import core.vgdl.VGDLContext;
+import heuristic_diversification.model.GameStats;
+import ontology.Types;
+import tools.ElapsedCpuTimer;
+
+/**
+ * MCTS searching with several threads at the same time, in one of two ways:
+ * - Root parallelisation: each thread searches its own tree from the current state. When the time
+ *   is over, the statistics of the children of all the roots are merged to decide the action.
+ * - Tree parallelisation: all the threads search the same tree, with virtual loss (see SharedTreeNode).
+ *
+ * The heuristic keeps data of the future states explored and of its own evaluations, so each thread
+ * uses its own copy of it, updated with the states of the game like the one of the player. Each thread
+ * also has its own random generator, seeded from the one of the player every decision.
+ *
+ * The time of the decision is the CPU time of the thread playing the game, which is idle while the
+ * others search, so the time remaining when the search starts is given to the threads as wall time.
+ */
+public class ParallelMCTSPlayer extends SingleMCTSPlayer
+{
+    /**
+     * Threads searching for every decision, for the players created from now on.
+     */
+    private static int nSearchThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Threads of all the players searching. They are daemon threads, so they do not keep the process alive.
+     */
+    private static ExecutorService searchPool;
+
+    /**
+     * Time (ms) left unused at the end of the search, as in the search of a single thread.
+     */
+    private static final int REMAINING_LIMIT = 5;
+
+    private final int nThreads;
+    private final boolean treeParallel;
+
+    /**
+     * Heuristic and random generator of each thread.
+     */
+    private final StateHeuristic[] threadHeuristics;
+    private final Random[] threadRandoms;
+
+    /**
+     * Roots searched: one per thread, or the one shared by all of them in tree parallelisation.
+     */
+    private SingleTreeNode[] roots;
+
+    /**
+     * Heuristic and random generator of the shared tree, which use those of the thread searching.
+     */
+    private ThreadContextHeuristic sharedHeuristic;
+    private ThreadContextRandom sharedRandom;
+
+    /**
+     * @param a_rnd random generator of the player.
+     * @param num_actions number of actions available.
+     * @param actions actions available.
+     * @param heuristic heuristic of the player.
+     * @param stateObs initial state of the game, to initialise the heuristics of the threads.
+     * @param nThreads number of threads searching.
+     * @param treeParallel true for tree parallelisation, false for root parallelisation.
+     */
+    public ParallelMCTSPlayer(Random a_rnd, int num_actions, Types.ACTIONS[] actions, StateHeuristic heuristic,
+                              StateObservation stateObs, int nThreads, boolean treeParallel)
+    {
+        super(a_rnd, num_actions, actions, heuristic);
+        this.nThreads = Math.max(1, nThreads);
+        this.treeParallel = treeParallel;
+
+        threadHeuristics = new StateHeuristic[this.nThreads];
+        threadRandoms = new Random[this.nThreads];
+        for (int i = 0; i < this.nThreads; i++) {
+            threadHeuristics[i] = heuristic.copy();
+            threadHeuristics[i].initHeuristicInternalInformation(stateObs);
+        }
+
+        if (treeParallel) {
+            sharedHeuristic = new ThreadContextHeuristic(heuristic);
+            sharedRandom = new ThreadContextRandom(m_rnd);
+        }
+    }
+
+    public static int getNSearchThreads()
+    {
+        return nSearchThreads;
+    }
+
+    public static void setNSearchThreads(int nThreads)
+    {
+        nSearchThreads = nThreads;
+    }
+
+    /**
+     * Inits the trees with the new observation state in their roots.
+     * @param a_gameState current state of the game.
+     */
+    @Override
+    public void init(StateObservation a_gameState)
+    {
+        heuristic.updateHeuristicInternalInformation(a_gameState);
+        for (int i = 0; i < nThreads; i++) {
+            threadHeuristics[i].updateHeuristicInternalInformation(a_gameState);
+            threadRandoms[i] = new Random(m_rnd.nextLong());
+        }
+
+        if (treeParallel) {
+            roots = new SingleTreeNode[]{new SharedTreeNode(sharedRandom, num_actions, actions, sharedHeuristic)};
+        } else {
+            roots = new SingleTreeNode[nThreads];
+            for (int i = 0; i < nThreads; i++) {
+                roots[i] = new SingleTreeNode(threadRandoms[i], num_actions, actions, threadHeuristics[i]);
+            }
+        }
+        for (SingleTreeNode root : roots) {
+            root.rootState = a_gameState;
+        }
+        m_root = roots[0];
+    }
+
+    /**
+     * Runs MCTS in all the threads to decide the action to take.
+     * @param elapsedTimer Timer when the action returned is due.
+     * @return the action to execute in the game.
+     */
+    @Override
+    public int run(ElapsedCpuTimer elapsedTimer)
+    {
+        long deadline = System.nanoTime() + (elapsedTimer.remainingTimeMillis() - REMAINING_LIMIT) * 1000000L;
+
+        // The threads continue the game with the registry and logger of this one, and each of them
+        // searches from its own copy of the state
+        VGDLContext context = VGDLContext.current();
+        StateObservation rootState = m_root.rootState;
+        ArrayList<Future<Integer>> searches = new ArrayList<Future<Integer>>();
+        for (int i = 0; i < nThreads; i++) {
+            int threadId = i;
+            StateObservation threadState = rootState.copy();
+            searches.add(getSearchPool().submit(() -> search(threadId, threadState, context, deadline)));
+        }
+
+        int iterations = 0;
+        for (Future<Integer> search : searches) {
+            try {
+                iterations += search.get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Exception in the MCTS search:");
+                e.printStackTrace();
+                System.exit(1);
+            }
+        }
+
+        int action;
+        int rootVisits = 0;
+        if (treeParallel) {
+            action = m_root.mostVisitedAction();
+            rootVisits = m_root.nVisits;
+        } else {
+            action = mergedMostVisitedAction();
+            for (SingleTreeNode root : roots) {
+                rootVisits += root.nVisits;
+            }
+        }
+
+        recordDecision(action, rootState.getGameTick(), iterations, rootVisits);
+        return action;
+    }
+
+    /**
+     * Runs MCTS iterations in a thread until the deadline.
+     * @return number of iterations done.
+     */
+    private int search(int threadId, StateObservation threadState, VGDLContext context, long deadline)
+    {
+        context.bind();
+        SingleTreeNode root = treeParallel ? roots[0] : roots[threadId];
+        StateHeuristic threadHeuristic = threadHeuristics[threadId];
+        if (treeParallel) {
+            sharedHeuristic.setThreadHeuristic(threadHeuristic);
+            sharedRandom.setThreadRandom(threadRandoms[threadId]);
+        }
+
+        try {
+            double avgTimeTaken = 0;
+            double acumTimeTaken = 0;
+            long remaining = deadline - System.nanoTime();
+            int numIters = 0;
+
+            while (remaining > 2 * avgTimeTaken && remaining > 0) {
+                long iterationStart = System.nanoTime();
+
+                StateObservation state = threadState.copy();
+                threadHeuristic.restartFutureStateData(state);
+
+                SingleTreeNode selected = root.treePolicy(state);
+                double delta = selected.rollOut(state);
+                root.backUp(selected, delta);
+
+                numIters++;
+                acumTimeTaken += System.nanoTime() - iterationStart;
+                avgTimeTaken = acumTimeTaken / numIters;
+                remaining = deadline - System.nanoTime();
+            }
+            return numIters;
+        } finally {
+            if (treeParallel) {
+                sharedHeuristic.setThreadHeuristic(null);
+                sharedRandom.setThreadRandom(null);
+            }
+        }
+    }
+
+    /**
+     * Merges the statistics of the children of all the roots and selects the action visited the
+     * most times. Ties are broken by the best average value.
+     * @return the action selected.
+     */
+    private int mergedMostVisitedAction()
+    {
+        int selected = -1;
+        int bestVisits = -1;
+        double bestValue = -Double.MAX_VALUE;
+
+        for (int i = 0; i < num_actions; i++) {
+            int visits = 0;
+            double totValue = 0;
+            for (SingleTreeNode root : roots) {
+                if (root.children[i] != null) {
+                    visits += root.children[i].nVisits;
+                    totValue += root.children[i].totValue;
+                }
+            }
+            if (visits == 0) {
+                continue;
+            }
+
+            double value = totValue / visits;
+            if (visits > bestVisits || (visits == bestVisits && value > bestValue)) {
+                selected = i;
+                bestVisits = visits;
+                bestValue = value;
+            }
+        }
+
+        if (selected == -1) {
+            System.out.println("Unexpected selection!");
+            selected = 0;
+        }
+        return selected;
+    }
+
+    private static synchronized ExecutorService getSearchPool()
+    {
+        if (searchPool == null) {
+            searchPool = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "mcts-search");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return searchPool;
+    }
+
+    /**
+     * Random generator giving the numbers of the generator of the thread searching, or of the
+     * default one outside the search.
+     */
+    private static class ThreadContextRandom extends Random
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final transient ThreadLocal<Random> threadRandom = new ThreadLocal<Random>();
+        private final Random defaultRandom;
+
+        ThreadContextRandom(Random defaultRandom)
+        {
+            this.defaultRandom = defaultRandom;
+        }
+
+        void setThreadRandom(Random random)
+        {
+            threadRandom.set(random);
+        }
+
+        @Override
+        protected int next(int bits)
+        {
+            Random random = threadRandom.get();
+            if (random == null) {
+                random = defaultRandom;
+            }
+            // nextInt(bound) requires 31 bits or less, which is what it requests
+            return (bits == 32) ? random.nextInt() : (random.nextInt() >>> (32 - bits));
+        }
+    }
+
+    /**
+     * Heuristic using the heuristic of the thread searching, or the default one outside the search.
+     */
+    private static class ThreadContextHeuristic extends StateHeuristic
+    {
+        private final ThreadLocal<StateHeuristic> threadHeuristic = new ThreadLocal<StateHeuristic>();
+        private final StateHeuristic defaultHeuristic;
+
+        ThreadContextHeuristic(StateHeuristic defaultHeuristic)
+        {
+            this.defaultHeuristic = defaultHeuristic;
+        }
+
+        void setThreadHeuristic(StateHeuristic heuristic)
+        {
+            threadHeuristic.set(heuristic);
+        }
+
+        private StateHeuristic current()
+        {
+            StateHeuristic heuristic = threadHeuristic.get();
+            return (heuristic == null) ? defaultHeuristic : heuristic;
+        }
+
+        @Override
+        public void restartFutureStateData(StateObservation stateObs) {
+            current().restartFutureStateData(stateObs);
+        }
+
+        @Override
+        public void updateFutureStateData(StateObservation stateObs) {
+            current().updateFutureStateData(stateObs);
+        }
+
+        @Override
+        public double evaluateState(StateObservation stateObs) {
+            return current().evaluateState(stateObs);
+        }
+
+        @Override
+        public String relevantInfoStr(StateObservation stateObs) {
+            return current().relevantInfoStr(stateObs);
+        }
+
+        @Override
+        public void recordDataOnFile(Game played, String fileName, int randomSeed, int[] recordIds) {
+            current().recordDataOnFile(played, fileName, randomSeed, recordIds);
+        }
+
+        @Override
+        public void drawInScreen(Graphics2D g) {
+            current().drawInScreen(g);
+        }
+
+        @Override
+        public void recordGameStats(Game game, GameStats gameStats) {
+            current().recordGameStats(game, gameStats);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package heuristic_diversification.controllers.sampleMCTS;
+
+import java.util.Random;
+
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import tools.ElapsedCpuTimer;
+
+/**
+ * MCTS UCT searching with several threads, each of them in its own tree from the current state.
+ * The statistics of the actions in all the trees are merged to decide the action to take (see ParallelMCTSPlayer).
+ * The number of threads is ParallelMCTSPlayer.getNSearchThreads() when the agent is created.
+ */
+public class RootParallelAgent extends Agent {
+
+    /**
+     * Public constructor with state observation and time due.
+     * @param stateObs state observation of the current game.
+     * @param elapsedTimer Timer for the controller creation.
+     * @param heuristic Instance of the heuristic to use for evaluation.
+     */
+    public RootParallelAgent(StateObservation stateObs, ElapsedCpuTimer elapsedTimer, StateHeuristic heuristic)
+    {
+        super(stateObs, elapsedTimer, heuristic);
+    }
+
+    @Override
+    public SingleMCTSPlayer getPlayer(StateObservation so, ElapsedCpuTimer elapsedTimer) {
+        return new ParallelMCTSPlayer(new Random(), num_actions, actions, heuristic, so,
+                ParallelMCTSPlayer.getNSearchThreads(), false);
+    }
+}
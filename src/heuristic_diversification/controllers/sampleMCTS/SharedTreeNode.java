@@ -0,0 +1,86 @@
+package heuristic_diversification.controllers.sampleMCTS;
+
+import java.util.Random;
+
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import ontology.Types;
+
+/**
+ * Node of a tree searched by several threads at the same time (tree parallelisation).
+ *
+ * The statistics and children of all the nodes of the tree are guarded by a single lock, held
+ * only to select the next node and to back up the result of an iteration. The expensive part of
+ * an iteration, advancing the states and evaluating them, is done without it. Every node selected
+ * keeps a virtual loss until the result of its iteration is backed up, so the other threads
+ * are driven away from the nodes already being explored.
+ *
+ * The random generator and heuristic of the nodes are shared by all the threads, so they must
+ * give each thread its own context (see ParallelMCTSPlayer).
+ */
+public class SharedTreeNode extends SingleTreeNode
+{
+    /**
+     * Lock of the whole tree.
+     */
+    private final Object treeLock;
+
+    public SharedTreeNode(Random rnd, int num_actions, Types.ACTIONS[] actions, StateHeuristic heuristic) {
+        super(rnd, num_actions, actions, heuristic);
+        this.treeLock = new Object();
+    }
+
+    private SharedTreeNode(SharedTreeNode parent, int childIdx) {
+        super(parent, childIdx, parent.m_rnd, parent.num_actions, parent.actions, parent.heuristic);
+        this.treeLock = parent.treeLock;
+    }
+
+    @Override
+    public SingleTreeNode treePolicy(StateObservation state) {
+
+        SingleTreeNode cur = this;
+
+        while (!state.isGameOver() && cur.m_depth < ROLLOUT_DEPTH)
+        {
+            SingleTreeNode next;
+            boolean expanded;
+            synchronized (treeLock) {
+                expanded = cur.notFullyExpanded();
+                next = expanded ? cur.expandChild() : cur.uctChild();
+                next.virtualLoss++;
+            }
+
+            //Roll the state
+            advanceState(state, actions[next.childIdx]);
+            cur = next;
+
+            if (expanded) {
+                return cur;
+            }
+        }
+
+        return cur;
+    }
+
+    @Override
+    protected SingleTreeNode createChild(int childIdx) {
+        return new SharedTreeNode(this, childIdx);
+    }
+
+    @Override
+    protected void updateBounds(double delta) {
+        synchronized (treeLock) {
+            super.updateBounds(delta);
+        }
+    }
+
+    @Override
+    public void backUp(SingleTreeNode node, double result) {
+        synchronized (treeLock) {
+            super.backUp(node, result);
+            for (SingleTreeNode n = node; n != this; n = n.parent) {
+                n.virtualLoss--;
+            }
+        }
+    }
+}
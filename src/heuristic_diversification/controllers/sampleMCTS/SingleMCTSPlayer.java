@@ -30,13 +30,38 @@ public class SingleMCTSPlayer
     public int num_actions;
     public Types.ACTIONS[] actions;
 
-    private StateHeuristic heuristic;
+    protected StateHeuristic heuristic;
+
+    /**
+     * If true, the subtree of the action taken is kept as the tree of the next decision.
+     */
+    private boolean reuseTree;
+
+    /**
+     * Action decided in the last call to run(), and game tick of the state it was decided in.
+     */
+    private int lastAction = -1;
+    private int lastActionTick = -1;
+
+    /**
+     * Statistics of the search, for all the decisions taken so far.
+     */
+    private int nDecisions;
+    private long nIterations;
+    private long nRootVisits;
+    private int nReusedTrees;
 
     public SingleMCTSPlayer(Random a_rnd, int num_actions, Types.ACTIONS[] actions, StateHeuristic heuristic)
+    {
+        this(a_rnd, num_actions, actions, heuristic, false);
+    }
+
+    public SingleMCTSPlayer(Random a_rnd, int num_actions, Types.ACTIONS[] actions, StateHeuristic heuristic, boolean reuseTree)
     {
         this.num_actions = num_actions;
         this.actions = actions;
         this.heuristic = heuristic;
+        this.reuseTree = reuseTree;
         m_rnd = a_rnd;
     }
 
@@ -49,12 +74,37 @@ public class SingleMCTSPlayer
         // Update the information the heuristic contains about the game if needed
         heuristic.updateHeuristicInternalInformation(a_gameState);
         
-        //Set the game observation to a newly root node.
-        //System.out.println("learning_style = " + learning_style);
-        m_root = new SingleTreeNode(m_rnd, num_actions, actions, heuristic);
+        if (reuseTree && canReuseTree(a_gameState)) {
+            //The node of the action taken becomes the root, keeping its statistics.
+            m_root = m_root.children[lastAction];
+            m_root.makeRoot();
+            nReusedTrees++;
+        } else {
+            //Set the game observation to a newly root node.
+            //System.out.println("learning_style = " + learning_style);
+            m_root = new SingleTreeNode(m_rnd, num_actions, actions, heuristic);
+        }
         m_root.rootState = a_gameState;
     }
 
+    /**
+     * Checks if the state received follows the one of the last decision, after applying the
+     * action decided, so the subtree of that action can be used to search from it.
+     * @param a_gameState current state of the game.
+     * @return true if the subtree of the last action taken can be reused.
+     */
+    private boolean canReuseTree(StateObservation a_gameState)
+    {
+        if (m_root == null || lastAction < 0 || m_root.children[lastAction] == null)
+            return false;
+
+        // Exactly one tick after the last decision, with the action decided
+        // (it is not, for example, if the controller ran out of time).
+        return !a_gameState.isGameOver()
+                && a_gameState.getGameTick() == lastActionTick + 1
+                && a_gameState.getAvatarLastAction() == actions[lastAction];
+    }
+
     /**
      * Runs MCTS to decide the action to take. It does not reset the tree.
      * @param elapsedTimer Timer when the action returned is due.
@@ -63,12 +113,63 @@ public class SingleMCTSPlayer
     public int run(ElapsedCpuTimer elapsedTimer)
     {
         //Do the search within the available time.
-        m_root.mctsSearch(elapsedTimer);
+        int iterations = m_root.mctsSearch(elapsedTimer);
 
         //Determine the best action to take and return it.
         int action = m_root.mostVisitedAction();
         //int action = m_root.bestAction();
+
+        recordDecision(action, m_root.rootState.getGameTick(), iterations, m_root.nVisits);
         return action;
     }
 
+    /**
+     * Keeps the action decided and the statistics of the search.
+     * @param action action decided.
+     * @param gameTick game tick of the state the action was decided in.
+     * @param iterations iterations run for the decision.
+     * @param rootVisits visits of the root (or roots) when deciding.
+     */
+    protected void recordDecision(int action, int gameTick, int iterations, int rootVisits)
+    {
+        lastAction = action;
+        lastActionTick = gameTick;
+
+        nDecisions++;
+        nIterations += iterations;
+        nRootVisits += rootVisits;
+    }
+
+    /**
+     * @return average number of MCTS iterations run per decision.
+     */
+    public double getAvgIterationsPerDecision()
+    {
+        return (nDecisions == 0) ? 0 : (double) nIterations / nDecisions;
+    }
+
+    /**
+     * @return average number of visits of the root when deciding, including those kept from previous decisions.
+     */
+    public double getAvgRootVisitsPerDecision()
+    {
+        return (nDecisions == 0) ? 0 : (double) nRootVisits / nDecisions;
+    }
+
+    /**
+     * @return number of decisions taken reusing the tree of the previous one.
+     */
+    public int getNReusedTrees()
+    {
+        return nReusedTrees;
+    }
+
+    /**
+     * @return number of decisions taken.
+     */
+    public int getNDecisions()
+    {
+        return nDecisions;
+    }
+
 }
@@ -1,10 +1,12 @@
 package heuristic_diversification.controllers.sampleMCTS;
 
+import java.util.ArrayDeque;
 import java.util.Random;
 
 import core.game.StateObservation;
 import core.heuristic.StateHeuristic;
 import ontology.Types;
+import tools.CpuBudgetClock;
 import tools.ElapsedCpuTimer;
 import tools.Utils;
 
@@ -21,13 +23,19 @@ public class SingleTreeNode
     protected double[] bounds = new double[]{Double.MAX_VALUE, -Double.MAX_VALUE};
     public int childIdx;
 
+    /**
+     * Searches in progress through this node, when several threads search the same tree
+     * (see SharedTreeNode). Each of them counts as a visit with the worst value seen.
+     */
+    public int virtualLoss;
+
     public int num_actions;
     Types.ACTIONS[] actions;
     public int ROLLOUT_DEPTH = 10;
     public double K = Math.sqrt(2);
 
     public StateObservation rootState;
-    private StateHeuristic heuristic;
+    protected StateHeuristic heuristic;
 
     public SingleTreeNode(Random rnd, int num_actions, Types.ACTIONS[] actions, StateHeuristic heuristic) {
         this(null, -1, rnd, num_actions, actions, heuristic);
@@ -50,14 +58,22 @@ public class SingleTreeNode
     }
 
 
-    public void mctsSearch(ElapsedCpuTimer elapsedTimer) {
+    /**
+     * Runs MCTS iterations from this node while there is time left.
+     * @param elapsedTimer Timer when the search is due.
+     * @return number of iterations done.
+     */
+    public int mctsSearch(ElapsedCpuTimer elapsedTimer) {
 
+        // The times are in nanoseconds. The CPU time left is not read every iteration (see CpuBudgetClock),
+        // and the iterations are measured in wall time, which is never less than their CPU time
+        CpuBudgetClock budget = new CpuBudgetClock(elapsedTimer);
         double avgTimeTaken = 0;
         double acumTimeTaken = 0;
-        long remaining = elapsedTimer.remainingTimeMillis();
+        long remaining = budget.remainingTimeNanos();
         int numIters = 0;
 
-        int remainingLimit = 5;
+        long remainingLimit = 5000000;
         while(remaining > 2*avgTimeTaken && remaining > remainingLimit){
         //while(numIters < Agent.MCTS_ITERATIONS){
 
@@ -68,17 +84,19 @@ public class SingleTreeNode
                 System.out.println("ROOT game tick: " + state.getGameTick() + "\n");
             }
 
-            ElapsedCpuTimer elapsedTimerIteration = new ElapsedCpuTimer();
+            long iterationStart = System.nanoTime();
             SingleTreeNode selected = treePolicy(state);
             double delta = selected.rollOut(state);
             backUp(selected, delta);
 
             numIters++;
-            acumTimeTaken += (elapsedTimerIteration.elapsedMillis()) ;
-            //System.out.println(elapsedTimerIteration.elapsedMillis() + " --> " + acumTimeTaken + " (" + remaining + ")");
+            acumTimeTaken += System.nanoTime() - iterationStart;
+            //System.out.println((System.nanoTime() - iterationStart) + " --> " + acumTimeTaken + " (" + remaining + ")");
             avgTimeTaken  = acumTimeTaken/numIters;
-            remaining = elapsedTimer.remainingTimeMillis();
+            remaining = budget.remainingTimeNanos();
         }
+
+        return numIters;
     }
 
     public SingleTreeNode treePolicy(StateObservation state) {
@@ -101,6 +119,18 @@ public class SingleTreeNode
 
 
     public SingleTreeNode expand(StateObservation state) {
+        SingleTreeNode tn = expandChild();
+
+        //Roll the state
+        advanceState(state, actions[tn.childIdx]);
+        return tn;
+    }
+
+    /**
+     * Creates the child of a random action not expanded yet.
+     * @return the new child.
+     */
+    protected SingleTreeNode expandChild() {
 
         int bestAction = 0;
         double bestValue = -1;
@@ -113,28 +143,48 @@ public class SingleTreeNode
             }
         }
 
-        //Roll the state
-        advanceState(state, actions[bestAction]);
-
-        SingleTreeNode tn = new SingleTreeNode(this,bestAction,this.m_rnd,num_actions, actions, heuristic);
+        SingleTreeNode tn = createChild(bestAction);
         children[bestAction] = tn;
         return tn;
     }
 
+    protected SingleTreeNode createChild(int childIdx) {
+        return new SingleTreeNode(this,childIdx,this.m_rnd,num_actions, actions, heuristic);
+    }
+
     public SingleTreeNode uct(StateObservation state) {
+        SingleTreeNode selected = uctChild();
+
+        //Roll the state:
+        advanceState(state, actions[selected.childIdx]);
+
+        return selected;
+    }
+
+    /**
+     * Selects the child with the best UCT value.
+     * @return the child selected.
+     */
+    protected SingleTreeNode uctChild() {
 
         SingleTreeNode selected = null;
         double bestValue = -Double.MAX_VALUE;
         for (SingleTreeNode child : this.children)
         {
             double hvVal = child.totValue;
-            double childValue =  hvVal / (child.nVisits + this.epsilon);
+            double childVisits = child.nVisits;
+            if (child.virtualLoss > 0) {
+                double worstValue = (bounds[0] <= bounds[1]) ? bounds[0] : 0;
+                hvVal += child.virtualLoss * worstValue;
+                childVisits += child.virtualLoss;
+            }
+            double childValue =  hvVal / (childVisits + this.epsilon);
 
             childValue = Utils.normalise(childValue, bounds[0], bounds[1]);
             //System.out.println("norm child value: " + childValue);
 
             double uctValue = childValue +
-                    K * Math.sqrt(Math.log(this.nVisits + 1) / (child.nVisits + this.epsilon));
+                    K * Math.sqrt(Math.log(this.nVisits + 1) / (childVisits + this.epsilon));
 
             uctValue = Utils.noise(uctValue, this.epsilon, this.m_rnd.nextDouble());     //break ties randomly
 
@@ -150,9 +200,6 @@ public class SingleTreeNode
             + bounds[0] + " " + bounds[1]);
         }
 
-        //Roll the state:
-        advanceState(state, actions[selected.childIdx]);
-
         return selected;
     }
 
@@ -170,15 +217,18 @@ public class SingleTreeNode
 
 
         double delta = value(state);
+        updateBounds(delta);
+
+        //double normDelta = utils.normalise(delta ,lastBounds[0], lastBounds[1]);
 
+        return delta;
+    }
+
+    protected void updateBounds(double delta) {
         if(delta < bounds[0])
             bounds[0] = delta;
         if(delta > bounds[1])
             bounds[1] = delta;
-
-        //double normDelta = utils.normalise(delta ,lastBounds[0], lastBounds[1]);
-
-        return delta;
     }
 
     public double value(StateObservation a_gameState) {
@@ -293,6 +343,32 @@ public class SingleTreeNode
     }
 
 
+    /**
+     * Makes this node the root of the tree, detaching it from its parent, so the search
+     * continues from it keeping the statistics of its subtree.
+     */
+    public void makeRoot() {
+        if (parent != null) {
+            parent.children[childIdx] = null;
+        }
+        parent = null;
+        childIdx = -1;
+
+        // Depths are relative to the root
+        int depthDecrease = m_depth;
+        ArrayDeque<SingleTreeNode> pending = new ArrayDeque<SingleTreeNode>();
+        pending.add(this);
+        while (!pending.isEmpty()) {
+            SingleTreeNode node = pending.poll();
+            node.m_depth -= depthDecrease;
+            for (SingleTreeNode child : node.children) {
+                if (child != null) {
+                    pending.add(child);
+                }
+            }
+        }
+    }
+
     public boolean notFullyExpanded() {
         for (SingleTreeNode tn : children) {
             if (tn == null) {
@@ -303,7 +379,7 @@ public class SingleTreeNode
         return false;
     }
 
-    private void advanceState(StateObservation state, Types.ACTIONS action) {
+    protected void advanceState(StateObservation state, Types.ACTIONS action) {
         state.advance(action);
         heuristic.updateFutureStateData(state);
         
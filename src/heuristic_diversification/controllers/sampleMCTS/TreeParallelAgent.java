@@ -0,0 +1,32 @@
+package heuristic_diversification.controllers.sampleMCTS;
+
+import java.util.Random;
+
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import tools.ElapsedCpuTimer;
+
+/**
+ * MCTS UCT searching with several threads in the same tree, with virtual loss to spread them
+ * through it (see ParallelMCTSPlayer and SharedTreeNode).
+ * The number of threads is ParallelMCTSPlayer.getNSearchThreads() when the agent is created.
+ */
+public class TreeParallelAgent extends Agent {
+
+    /**
+     * Public constructor with state observation and time due.
+     * @param stateObs state observation of the current game.
+     * @param elapsedTimer Timer for the controller creation.
+     * @param heuristic Instance of the heuristic to use for evaluation.
+     */
+    public TreeParallelAgent(StateObservation stateObs, ElapsedCpuTimer elapsedTimer, StateHeuristic heuristic)
+    {
+        super(stateObs, elapsedTimer, heuristic);
+    }
+
+    @Override
+    public SingleMCTSPlayer getPlayer(StateObservation so, ElapsedCpuTimer elapsedTimer) {
+        return new ParallelMCTSPlayer(new Random(), num_actions, actions, heuristic, so,
+                ParallelMCTSPlayer.getNSearchThreads(), true);
+    }
+}
@@ -0,0 +1,30 @@
+package heuristic_diversification.controllers.sampleMCTS;
+
+import java.util.Random;
+
+import core.game.StateObservation;
+import core.heuristic.StateHeuristic;
+import tools.ElapsedCpuTimer;
+
+/**
+ * MCTS UCT that keeps, from one decision to the next, the subtree of the action taken,
+ * instead of starting the search from scratch every game step.
+ */
+public class TreeReuseAgent extends Agent {
+
+    /**
+     * Public constructor with state observation and time due.
+     * @param stateObs state observation of the current game.
+     * @param elapsedTimer Timer for the controller creation.
+     * @param heuristic Instance of the heuristic to use for evaluation.
+     */
+    public TreeReuseAgent(StateObservation stateObs, ElapsedCpuTimer elapsedTimer, StateHeuristic heuristic)
+    {
+        super(stateObs, elapsedTimer, heuristic);
+    }
+
+    @Override
+    public SingleMCTSPlayer getPlayer(StateObservation so, ElapsedCpuTimer elapsedTimer) {
+        return new SingleMCTSPlayer(new Random(), num_actions, actions, heuristic, true);
+    }
+}
@@ -26,6 +26,11 @@ public class Agent extends AbstractHeuristicPlayer {
         m_rnd = new Random();
     }
 
+    @Override
+    public void setRandomSeed(int randomSeed) {
+        m_rnd.setSeed(randomSeed);
+    }
+
     /**
      *
      * Very simple one step lookahead agent.
@@ -7,8 +7,13 @@ package heuristic_diversification.framework;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import core.competition.CompetitionParameters;
 import core.game.Game;
@@ -18,8 +23,7 @@ import core.heuristic.StateHeuristic;
 import core.player.AbstractHeuristicPlayer;
 import core.player.AbstractMultiPlayer;
 import core.player.Player;
-import core.vgdl.VGDLFactory;
-import core.vgdl.VGDLParser;
+import core.vgdl.GameCache;
 import core.vgdl.VGDLRegistry;
 import heuristic_diversification.model.GameStats;
 import tools.ElapsedCpuTimer;
@@ -34,6 +38,9 @@ import tracks.ArcadeMachine;
 public class ArcadeMachineHeuristic {
     public static final boolean VERBOSE = false;
 
+    // Threads playing game runs in parallel, shared by all the evaluations: a pool per number of runs
+    private static HashMap<Integer, ExecutorService> runsPools = new HashMap<Integer, ExecutorService>();
+
     /**
      * createPlayer adapted for the modifications related to heuristic diversification
      * This modifications only cover single player.
@@ -60,8 +67,10 @@ public class ArcadeMachineHeuristic {
         try {
             // create the controller.
             player = (AbstractHeuristicPlayer) createHeuristicController(playerName, 0, stateObs, heuristic);
-            if (player != null)
+            if (player != null) {
                 player.setup(actionFile, randomSeed, false);
+                player.setRandomSeed(randomSeed);
+            }
             // else System.out.println("No controller created.");
 
         } catch (Exception e) {
@@ -274,9 +283,6 @@ public class ArcadeMachineHeuristic {
 	public static double[] runOneGameUsingHeuristic(String game_file, String level_file, boolean visuals, String agentNames,
 													String actionFile, int randomSeed, StateHeuristic heuristic, String heuristicFile,
 													int[] recordIds) {
-		VGDLFactory.GetInstance().init(); // This always first thing to do.
-		VGDLRegistry.GetInstance().init();
-
 		if (VERBOSE)
 			System.out.println(" ** Playing game " + game_file + ", level " + level_file + " **");
 
@@ -285,8 +291,8 @@ public class ArcadeMachineHeuristic {
 			System.out.println(" * WARNING: Time limitations based on WALL TIME on Windows * ");
 		}
 
-		// First, we create the game to be played..
-		Game toPlay = new VGDLParser().parseGame(game_file);
+		// First, we create the game to be played (parsed only the first time)
+		Game toPlay = GameCache.getGame(game_file);
 		toPlay.buildLevel(level_file, randomSeed);
 
 		// Warm the game up.
@@ -344,15 +350,26 @@ public class ArcadeMachineHeuristic {
 
     public static void runGameAndGetStats(GameStats gameStats, String game_file, String level_file, boolean visuals, String agentName,
                                           String actionFile, StateHeuristic heuristic, int nGames) {
-        VGDLFactory.GetInstance().init();
-        VGDLRegistry.GetInstance().init();
-        
+        runGameAndGetStats(gameStats, game_file, level_file, visuals, agentName, actionFile, heuristic, newRandomSeeds(nGames));
+    }
+
+    /**
+     * Same as runGameAndGetStats, but playing a run with each of the seeds provided instead of
+     * random ones. The seed of each run is used both for the game and for the player, so the runs
+     * can be repeated.
+     *
+     * @param randomSeeds
+     *            seeds of the runs to play.
+     */
+    public static void runGameAndGetStats(GameStats gameStats, String game_file, String level_file, boolean visuals, String agentName,
+                                          String actionFile, StateHeuristic heuristic, int[] randomSeeds) {
+        int nGames = randomSeeds.length;
         if (VERBOSE) {
             System.out.println(" ** Playing game " + game_file + ", level " + level_file + " **");
         }
         
-        // Create the game to be played
-        Game toPlay = new VGDLParser().parseGame(game_file);
+        // Create the game to be played (parsed only the first time)
+        Game toPlay = GameCache.getGame(game_file);
 
         // Create the player
 		String[] names = agentName.split(" ");
@@ -368,7 +385,7 @@ public class ArcadeMachineHeuristic {
 		int playerId = 0;
         
         for (int i = 0; i < nGames; i++) {
-            int randomSeed = new Random().nextInt();
+            int randomSeed = randomSeeds[i];
             System.out.println(i + " with seed " + randomSeed);
             toPlay.buildLevel(level_file, randomSeed);
 
@@ -411,12 +428,138 @@ public class ArcadeMachineHeuristic {
         }
     }
 
+    /**
+     * Same as runGameAndGetStats, but up to nParallelRuns of the nGames are played at the same time.
+     * Each run plays its own game, with its own player and a copy of the heuristic provided. The seeds
+     * are decided beforehand and the stats of the runs are added to gameStats in the order of the seeds,
+     * so the result is the same as playing them one after the other.
+     * Graphics are only supported when playing the runs one after the other.
+     *
+     * @param nParallelRuns
+     *            maximum number of runs played at the same time.
+     */
+    public static void runGameAndGetStats(GameStats gameStats, String game_file, String level_file, boolean visuals, String agentName,
+                                          String actionFile, StateHeuristic heuristic, int nGames, int nParallelRuns) {
+        runGameAndGetStats(gameStats, game_file, level_file, visuals, agentName, actionFile, heuristic, newRandomSeeds(nGames), nParallelRuns);
+    }
+
+    /**
+     * Same as runGameAndGetStats with nParallelRuns, but playing a run with each of the seeds provided.
+     *
+     * @param randomSeeds
+     *            seeds of the runs to play.
+     * @param nParallelRuns
+     *            maximum number of runs played at the same time.
+     */
+    public static void runGameAndGetStats(GameStats gameStats, String game_file, String level_file, boolean visuals, String agentName,
+                                          String actionFile, StateHeuristic heuristic, int[] randomSeeds, int nParallelRuns) {
+        int nGames = randomSeeds.length;
+        if ((nParallelRuns <= 1) || (nGames <= 1) || visuals) {
+            runGameAndGetStats(gameStats, game_file, level_file, visuals, agentName, actionFile, heuristic, randomSeeds);
+            return;
+        }
+
+        ExecutorService runsPool = getRunsPool(nParallelRuns);
+        ArrayList<Future<GameStats>> runs = new ArrayList<Future<GameStats>>();
+        for (int i = 0; i < nGames; i++) {
+            int runId = i;
+            GameStats runStats = gameStats.createEmptyStats();
+            StateHeuristic runHeuristic = heuristic.copy();
+
+            // When played one after the other, the action file ends up with the actions of the last run
+            String runActionFile = (i == (nGames - 1)) ? actionFile : null;
+
+            runs.add(runsPool.submit(() -> runOneGameAndGetStats(runStats, game_file, level_file, agentName, runActionFile, runHeuristic, runId, randomSeeds[runId])));
+        }
+
+        for (Future<GameStats> run : runs) {
+            try {
+                gameStats.addRunsData(run.get());
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println("Exception playing game " + game_file + ":");
+                e.printStackTrace();
+                System.exit(1);
+            }
+        }
+    }
+
+    /**
+     * Seeds for runs that do not need to be repeated.
+     */
+    private static int[] newRandomSeeds(int nGames) {
+        Random seedGenerator = new Random();
+        int[] randomSeeds = new int[nGames];
+        for (int i = 0; i < nGames; i++) {
+            randomSeeds[i] = seedGenerator.nextInt();
+        }
+        return randomSeeds;
+    }
+
+    /**
+     * The threads playing the runs are kept for each number of runs requested, so each of them reuses
+     * the games it already parsed (see GameCache). A pool is never shut down, as other evaluations may
+     * still be submitting runs to it; they are daemon threads so they do not keep the process alive.
+     */
+    private static synchronized ExecutorService getRunsPool(int nParallelRuns) {
+        ExecutorService runsPool = runsPools.get(nParallelRuns);
+        if (runsPool == null) {
+            runsPool = Executors.newFixedThreadPool(nParallelRuns, runnable -> {
+                Thread thread = new Thread(runnable, "game-runs");
+                thread.setDaemon(true);
+                return thread;
+            });
+            runsPools.put(nParallelRuns, runsPool);
+        }
+        return runsPool;
+    }
+
+    /**
+     * Plays one run of the game without graphics and records its stats. The game is the one cached
+     * for the current thread, so runs in different threads do not share any of the game objects.
+     * @return gameStats with the stats of the run recorded
+     */
+    private static GameStats runOneGameAndGetStats(GameStats gameStats, String game_file, String level_file, String agentName,
+                                                   String actionFile, StateHeuristic heuristic, int runId, int randomSeed) {
+        Game toPlay = GameCache.getGame(game_file);
+        if (toPlay.no_players > 1) {
+            System.out.println("Error: Only single player supported in this mode");
+            return gameStats;
+        }
+
+        System.out.println(runId + " with seed " + randomSeed);
+        toPlay.buildLevel(level_file, randomSeed);
+
+        // Warm the game up.
+        ArcadeMachine.warmUp(toPlay, CompetitionParameters.WARMUP_TIME);
+
+        // single player
+        AbstractHeuristicPlayer[] players = new AbstractHeuristicPlayer[1];
+        players[0] = createHeuristicPlayer(agentName.split(" ")[0], actionFile, toPlay.getObservation(), randomSeed, heuristic);
+
+        if (players[0] == null) {
+            // Something went wrong in the constructor, controller disqualified
+            toPlay.disqualify();
+            toPlay.handleResult();
+            toPlay.printResult();
+            return gameStats;
+        }
+
+        toPlay.runGame(players, randomSeed);
+        ArcadeMachine.tearPlayerDown(toPlay, players, actionFile, randomSeed, true);
+
+        // Add stats of the run to the stats class
+        players[0].recordGameStats(toPlay, gameStats);
+
+        toPlay.handleResult();
+        toPlay.printResult();
+
+        return gameStats;
+    }
+
     public static HashMap<Integer, String> getGameStypesInfo(String gameFile) {
         HashMap<Integer, String> spritesInfo = new HashMap<Integer, String>();
-        VGDLFactory.GetInstance().init();
-        VGDLRegistry.GetInstance().init();
-
-        Game toPlay = new VGDLParser().parseGame(gameFile);
+        // The registry is the one the game was parsed with
+        GameCache.getGame(gameFile);
 
         int nSpritesGame = VGDLRegistry.GetInstance().numSpriteTypes();
         int spriteId = 0;
@@ -430,10 +573,8 @@ public class ArcadeMachineHeuristic {
     }
 
     public static void printGameStypes(String gameFile) {
-        VGDLFactory.GetInstance().init();
-        VGDLRegistry.GetInstance().init();
-
-        Game toPlay = new VGDLParser().parseGame(gameFile);
+        // The registry is the one the game was parsed with
+        GameCache.getGame(gameFile);
 
         int nSpritesGame = VGDLRegistry.GetInstance().numSpriteTypes();
         int spriteId = 0;
@@ -65,38 +65,33 @@ public class MapDimensionsManager {
     }
 
     /**
-     * Generate the key formed by the coordinates for the mFutureExploredPositions
-     * hashmap
+     * Get the index of the position in a flat array representing the grid, row by row.
      * 
-     * @return String in the form "x y"
+     * @return the index, y * gridWidth + x
      */
-    public String getPositionKey(Vector2d position) {
+    public int getPositionIndex(Vector2d position) {
         int x = getXFromVector(position);
         int y = getYFromVector(position);
 
-        return x + " " + y;
+        return y * mGridWidth + x;
     }
 
     /**
-     * Get the x coordinate from the key used for the mFutureExploredPositions
-     * hashmap
+     * Get the x coordinate from the index of a position in a flat array representing the grid
      * 
      * @return the x coordinate
      */
-    public int getXFromKey(String positionKey) {
-        String[] coordinates = positionKey.split(" +");
-        return Integer.parseInt(coordinates[0]);
+    public int getXFromIndex(int positionIndex) {
+        return positionIndex % mGridWidth;
     }
     
     /**
-     * Get the y coordinate from the key used for the mFutureExploredPositions
-     * hashmap
+     * Get the y coordinate from the index of a position in a flat array representing the grid
      * 
      * @return the y coordinate
      */
-    public int getYFromKey(String positionKey) {
-        String[] coordinates = positionKey.split(" +");
-        return Integer.parseInt(coordinates[1]);
+    public int getYFromIndex(int positionIndex) {
+        return positionIndex / mGridWidth;
     }
 
     /**
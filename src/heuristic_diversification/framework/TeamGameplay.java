@@ -5,7 +5,11 @@
 
 package heuristic_diversification.framework;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import heuristic_diversification.config.Games;
 import heuristic_diversification.heuristics.TeamBehavioursHeuristic;
@@ -22,12 +26,41 @@ import heuristic_diversification.model.GameStats;
  */
 public class TeamGameplay {
 
+    // Maximum number of sets of weights whose stats are kept; the least recently used ones are dropped
+    private static final int MAX_PLAYED_STATS = 500;
+
     private TeamBehavioursHeuristic teamBehaviouHeuristic;
     FrameworkConfig frameworkConfig;
 
+    // Seeds of the runs played for every set of weights. When null, new random seeds are used every time
+    private int[] gameRunSeeds;
+
+    // Stats of the runs already played for each set of weights, so they are not played again
+    // As every set of weights plays the same seeds, the stats would be the same
+    // Access to it is synchronized on the map
+    private LinkedHashMap<String, CompletableFuture<GameStats>> playedStats;
+
     public TeamGameplay(TeamBehavioursHeuristic teamBehaviouHeuristic, FrameworkConfig frameworkConfig) {
+        this(teamBehaviouHeuristic, frameworkConfig, null);
+    }
+
+    /**
+     * Every gameplay for the map elites plays a run with each of the seeds provided, so the stats
+     * of the same weights are always the same and are only calculated once.
+     * @param teamBehaviouHeuristic team heuristic
+     * @param frameworkConfig framework configuration
+     * @param gameRunSeeds seeds of the runs of each gameplay
+     */
+    public TeamGameplay(TeamBehavioursHeuristic teamBehaviouHeuristic, FrameworkConfig frameworkConfig, int[] gameRunSeeds) {
         this.teamBehaviouHeuristic = teamBehaviouHeuristic;
         this.frameworkConfig = frameworkConfig;
+        this.gameRunSeeds = gameRunSeeds;
+        this.playedStats = new LinkedHashMap<String, CompletableFuture<GameStats>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<GameStats>> eldest) {
+                return size() > MAX_PLAYED_STATS;
+            }
+        };
     }
 
     public HashMap<Integer, String> getSpriteDetails() {
@@ -42,18 +75,80 @@ public class TeamGameplay {
         int levelId = frameworkConfig.level;
     
         GameStats gameStats = new GameStats(gameInfo.levelNavigationSize(levelId));
-        ArcadeMachineHeuristic.runGameAndGetStats(gameStats, gameInfo.game(), gameInfo.level(levelId), frameworkConfig.visuals, controller, frameworkConfig.actionFile(), teamBehaviouHeuristic, frameworkConfig.nGameRuns);
+        ArcadeMachineHeuristic.runGameAndGetStats(gameStats, gameInfo.game(), gameInfo.level(levelId), frameworkConfig.visuals, controller, frameworkConfig.actionFile(), teamBehaviouHeuristic, frameworkConfig.nGameRuns, frameworkConfig.nParallelGameRuns);
         gameStats.calculateStats();
         return gameStats;
     }
 
     public GameStats createMapEliteStatsFromGameplay(String controller, Performance performance, Features[] features) {
+        return createMapEliteStatsFromGameplay(controller, teamBehaviouHeuristic, performance, features);
+    }
+
+    /**
+     * Same as createMapEliteStatsFromGameplay but the team plays with its own heuristic, created for
+     * the weights provided. As nothing is shared with other calls, it allows evaluating different weights
+     * at the same time.
+     * @param controller agent to play the game
+     * @param heuristicsWeightList weights of the team heuristic
+     * @param performance performance criteria
+     * @param features features of the map
+     * @return the game stats of the gameplay
+     */
+    public GameStats createMapEliteStatsFromGameplay(String controller, Double[] heuristicsWeightList, Performance performance, Features[] features) {
+        if (gameRunSeeds == null) {
+            TeamBehavioursHeuristic teamHeuristic = TeamManager.createTeamBehaviourHeuristic(heuristicsWeightList.clone());
+            return createMapEliteStatsFromGameplay(controller, teamHeuristic, performance, features);
+        }
+
+        String key = playedStatsKey(controller, heuristicsWeightList);
+        CompletableFuture<GameStats> played = new CompletableFuture<GameStats>();
+        CompletableFuture<GameStats> alreadyPlayed;
+        synchronized (playedStats) {
+            alreadyPlayed = playedStats.putIfAbsent(key, played);
+        }
+        if (alreadyPlayed == null) {
+            try {
+                TeamBehavioursHeuristic teamHeuristic = TeamManager.createTeamBehaviourHeuristic(heuristicsWeightList.clone());
+                played.complete(playGameplay(controller, teamHeuristic));
+            } catch (RuntimeException | Error e) {
+                // The callers waiting for these weights get the error, and later ones play them again
+                synchronized (playedStats) {
+                    playedStats.remove(key, played);
+                }
+                played.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            // It may be still playing, if the same weights are being evaluated at the same time
+            played = alreadyPlayed;
+        }
+
+        // Each call gets its own copy, as the stats calculated are stored in it
+        return calculateMapEliteStats(played.join().copy(), performance, features);
+    }
+
+    private GameStats createMapEliteStatsFromGameplay(String controller, TeamBehavioursHeuristic teamHeuristic, Performance performance, Features[] features) {
+        return calculateMapEliteStats(playGameplay(controller, teamHeuristic), performance, features);
+    }
+
+    private GameStats playGameplay(String controller, TeamBehavioursHeuristic teamHeuristic) {
         Games gameInfo = frameworkConfig.game;
         int levelId = frameworkConfig.level;
     
         GameStats gameStats = new GameStats(gameInfo.levelNavigationSize(levelId));
-        ArcadeMachineHeuristic.runGameAndGetStats(gameStats, gameInfo.game(), gameInfo.level(levelId), frameworkConfig.visuals, controller, frameworkConfig.actionFile(), teamBehaviouHeuristic, frameworkConfig.nGameRuns);
-        
+        if (gameRunSeeds == null) {
+            ArcadeMachineHeuristic.runGameAndGetStats(gameStats, gameInfo.game(), gameInfo.level(levelId), frameworkConfig.visuals, controller, frameworkConfig.actionFile(), teamHeuristic, frameworkConfig.nGameRuns, frameworkConfig.nParallelGameRuns);
+        } else {
+            ArcadeMachineHeuristic.runGameAndGetStats(gameStats, gameInfo.game(), gameInfo.level(levelId), frameworkConfig.visuals, controller, frameworkConfig.actionFile(), teamHeuristic, gameRunSeeds, frameworkConfig.nParallelGameRuns);
+        }
+        return gameStats;
+    }
+
+    private String playedStatsKey(String controller, Double[] heuristicsWeightList) {
+        return frameworkConfig.game + "#" + frameworkConfig.level + "#" + controller + "#" + Arrays.toString(heuristicsWeightList) + "#" + Arrays.toString(gameRunSeeds);
+    }
+
+    private GameStats calculateMapEliteStats(GameStats gameStats, Performance performance, Features[] features) {
         // For the map elited algorithm iteration, only the stats of the performance and features fields are needed so we only calculate those for now
         performance.calculatePerfomanceStat(gameStats);
         for (Features feature : features) {
@@ -12,6 +12,18 @@ public class TeamMember {
         this.enabled = behaviour.isEnabled();
     }
 
+    private TeamMember(StateHeuristic heuristic, boolean enabled) {
+        this.heuristic = heuristic;
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return a new team member with the same behaviour, with its own heuristic
+     */
+    public TeamMember copy() {
+        return new TeamMember(heuristic.copy(), enabled);
+    }
+
     public boolean isEnabled() {
         return enabled;
     }
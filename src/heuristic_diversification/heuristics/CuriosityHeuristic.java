@@ -33,7 +33,8 @@ public class CuriosityHeuristic extends KnowledgeHeuristic {
         super.initHeuristicInternalInformation(stateObs);
 
         // Curiosity uses the information in KnowledgeHeuristic, no need to
-        // do further initialisations
+        // do further initialisations. The future data is created again for the new game
+        mFutureInteractions = null;
     }
 
     @Override
@@ -46,7 +47,12 @@ public class CuriosityHeuristic extends KnowledgeHeuristic {
 
     @Override
     public void restartFutureStateData(StateObservation stateObs) {
-        mFutureInteractions = new SpritesData(stateObs);
+        // The future data is reused from one rollout to the next
+        if (mFutureInteractions == null) {
+            mFutureInteractions = new SpritesData(stateObs);
+        } else {
+            mFutureInteractions.restart();
+        }
 
         // Restart future data
         super.restartFutureStateData(stateObs);
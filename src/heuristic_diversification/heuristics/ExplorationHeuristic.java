@@ -11,8 +11,7 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import core.game.Game;
 import core.game.StateObservation;
@@ -34,13 +33,23 @@ public class ExplorationHeuristic extends StateHeuristic {
     };
     private MapDimensionsManager mapDimensions;
     private int[][] mExplorationMatrix;
-    private HashMap<String, Integer> mFutureExploredPositions;
     private int mMaxExplorationMatrixValue;
 
+    // Positions visited in the future states, indexed as in MapDimensionsManager.getPositionIndex.
+    // A position counts as visited only if its generation is the current one, so restarting the
+    // future data does not need to clear the arrays.
+    private int[] mFutureVisits;
+    private int[] mFutureVisitsGeneration;
+    private int mFutureGeneration;
+    private int[] mFutureExploredPositions;
+    private int mNFutureExploredPositions;
+
     private int mLastDiscoveryTick = 0;
 
     public ExplorationHeuristic() {
-        mFutureExploredPositions = new HashMap<String, Integer>();
+        mFutureVisits = new int[0];
+        mFutureVisitsGeneration = new int[0];
+        mFutureExploredPositions = new int[0];
     }
 
     @Override
@@ -54,6 +63,13 @@ public class ExplorationHeuristic extends StateHeuristic {
         mExplorationMatrix = new int[mapDimensions.gridHeight()][mapDimensions.gridWith()];
         mMaxExplorationMatrixValue = 0;
 
+        int mapSize = mapDimensions.getMapSize();
+        mFutureVisits = new int[mapSize];
+        mFutureVisitsGeneration = new int[mapSize];
+        mFutureGeneration = 1;
+        mFutureExploredPositions = new int[mapSize];
+        mNFutureExploredPositions = 0;
+
         visitCurrentPosition(stateObs);
     }
 
@@ -72,7 +88,13 @@ public class ExplorationHeuristic extends StateHeuristic {
 
     @Override
     public void restartFutureStateData(StateObservation stateObs) {
-        mFutureExploredPositions.clear();
+        mNFutureExploredPositions = 0;
+        mFutureGeneration += 1;
+        if (mFutureGeneration == 0) {
+            // The generation counter overflowed, forget the previous ones
+            Arrays.fill(mFutureVisitsGeneration, 0);
+            mFutureGeneration = 1;
+        }
 
         // Restart future data
         super.restartFutureStateData(stateObs);
@@ -87,14 +109,16 @@ public class ExplorationHeuristic extends StateHeuristic {
             return;
         }
 
-        String avatarPositionKey = mapDimensions.getPositionKey(avatarPosition);
+        int avatarPositionIndex = mapDimensions.getPositionIndex(avatarPosition);
 
-        if (!mFutureExploredPositions.containsKey(avatarPositionKey)) {
-            mFutureExploredPositions.put(avatarPositionKey, 1);
+        if (mFutureVisitsGeneration[avatarPositionIndex] != mFutureGeneration) {
+            mFutureVisitsGeneration[avatarPositionIndex] = mFutureGeneration;
+            mFutureVisits[avatarPositionIndex] = 1;
+            mFutureExploredPositions[mNFutureExploredPositions] = avatarPositionIndex;
+            mNFutureExploredPositions += 1;
         } else {
             // A position has been visited more than once
-            int oldValue = mFutureExploredPositions.get(avatarPositionKey);
-            mFutureExploredPositions.put(avatarPositionKey, oldValue + 1);
+            mFutureVisits[avatarPositionIndex] += 1;
         }
 
         // Update future data
@@ -129,12 +153,13 @@ public class ExplorationHeuristic extends StateHeuristic {
             }
         }
 
-        for (Map.Entry<String, Integer> visitedPosition : mFutureExploredPositions.entrySet()) {
-            int x = mapDimensions.getXFromKey(visitedPosition.getKey());
-            int y = mapDimensions.getYFromKey(visitedPosition.getKey());
+        for (int i = 0; i < mNFutureExploredPositions; i++) {
+            int visitedPosition = mFutureExploredPositions[i];
+            int x = mapDimensions.getXFromIndex(visitedPosition);
+            int y = mapDimensions.getYFromIndex(visitedPosition);
 
             if(DEBUG) {
-                System.out.println("visited " + visitedPosition.getKey() + " times: " + visitedPosition.getValue() + " + " + getNumberVisits(x, y));
+                System.out.println("visited " + x + " " + y + " times: " + mFutureVisits[visitedPosition] + " + " + getNumberVisits(x, y));
             }
 
             if (!hasBeenVisited(x, y)) {
@@ -143,7 +168,7 @@ public class ExplorationHeuristic extends StateHeuristic {
             } else {
                 // If the agent has already visited a position, reward those they have been the
                 // less number of times
-                int nVisits = visitedPosition.getValue() * getNumberVisits(x, y);
+                int nVisits = mFutureVisits[visitedPosition] * getNumberVisits(x, y);
                 h += (-1 * nVisits);
             }
         }
@@ -161,7 +186,7 @@ public class ExplorationHeuristic extends StateHeuristic {
 
     @Override
     public String relevantInfoStr(StateObservation stateObs) {
-        return mNFutureStates + " future states (max: " + mMaxFutureStates +"). Future exploration: " + mFutureExploredPositions.size();
+        return mNFutureStates + " future states (max: " + mMaxFutureStates +"). Future exploration: " + mNFutureExploredPositions;
     }
 
 
@@ -29,6 +29,7 @@ public class KillingHeuristic extends KnowledgeHeuristic {
 
         // Killing needs to keep track of the sprites that correspond to NPCs.
         mNPCSprites = new ArrayList<Integer>();
+        mFutureInteractions = null;
     }
 
     @Override
@@ -41,7 +42,12 @@ public class KillingHeuristic extends KnowledgeHeuristic {
 
     @Override
     public void restartFutureStateData(StateObservation stateObs) {
-        mFutureInteractions = new SpritesData(stateObs);
+        // The future data is reused from one rollout to the next
+        if (mFutureInteractions == null) {
+            mFutureInteractions = new SpritesData(stateObs);
+        } else {
+            mFutureInteractions.restart();
+        }
         mFutureNPCSprites = new ArrayList<Integer>(mNPCSprites);
 
         // Restart future data
@@ -7,19 +7,19 @@ package heuristic_diversification.heuristics;
 
 import java.awt.Graphics2D;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.TreeSet;
 
-import core.game.Event;
 import core.game.Game;
 import core.game.StateObservation;
 import core.heuristic.StateHeuristic;
 import heuristic_diversification.model.GameStats;
 
 public class KnowledgeHeuristic extends StateHeuristic {
-    protected static SpritesData mSpritesData;
+    protected SpritesData mSpritesData;
     protected boolean updateSpritesData;
 
+    // Heuristic in charge of updating the SpritesData this heuristic reads from
+    private KnowledgeHeuristic mKnowledgeSource;
+
     public KnowledgeHeuristic() {
         this.updateSpritesData = false;
     }
@@ -28,6 +28,24 @@ public class KnowledgeHeuristic extends StateHeuristic {
         this.updateSpritesData = true;
     }
 
+    /**
+     * The SpritesData is shared with the heuristic provided, which is the one keeping it up
+     * to date. This way the knowledge is only shared among the heuristics of the same team.
+     * @param knowledgeSource heuristic that updates the SpritesData
+     */
+    public void setKnowledgeSource(KnowledgeHeuristic knowledgeSource) {
+        this.mKnowledgeSource = knowledgeSource;
+    }
+
+    @Override
+    public StateHeuristic copy() {
+        // The copy keeps its role regarding the SpritesData. A copy reading from a source is
+        // linked to the copy of the source by its team.
+        KnowledgeHeuristic heuristic = (KnowledgeHeuristic) super.copy();
+        heuristic.updateSpritesData = this.updateSpritesData;
+        return heuristic;
+    }
+
     @Override
     public void initHeuristicInternalInformation(StateObservation stateObs) {
         super.initHeuristicInternalInformation(stateObs);
@@ -35,6 +53,9 @@ public class KnowledgeHeuristic extends StateHeuristic {
         // Initialisations related to the KnowledgeHeuristic
         if (updateSpritesData) {
             mSpritesData = new SpritesData(stateObs);
+        } else if (mKnowledgeSource != null) {
+            // the source is initialised first, so its SpritesData is the one of the current game
+            mSpritesData = mKnowledgeSource.mSpritesData;
         }
     }
 
@@ -105,19 +126,11 @@ public class KnowledgeHeuristic extends StateHeuristic {
     }
 
     protected void updateInteractionHistory(SpritesData spritesData, StateObservation stateObs) {
-        TreeSet<Event> eventsHistory = stateObs.getEventsHistory();
-    
         // We are interested on events that just occured, so they happen in the previous gameTick
         int gameTick = stateObs.getGameTick() - 1;
 
-        // We are only interested in the events that occurred in the current state
-        Iterator<Event> eventsIterator = eventsHistory.descendingSet().iterator();
-        while (eventsIterator.hasNext()){
-            Event event = (Event) eventsIterator.next();
-            if (event.gameStep != gameTick){
-                // the next events are from previous states so no need to keep iterating
-                break;
-            }
+        // We are only interested in the events that occurred in the current state, latest first
+        stateObs.forEachEventAt(gameTick, event -> {
             //System.out.println("Event: "+gameTick);
             if (event.fromAvatar) {
                 // the interaction is indirect: it is a hit
@@ -128,23 +141,15 @@ public class KnowledgeHeuristic extends StateHeuristic {
                 //System.out.println("COLLISION");
                 spritesData.updateCollisionHistory(event, gameTick);
             }
-        }
+        });
     }
 
     protected void updateInteractionHistoryOfSpritesInList(SpritesData spritesData, StateObservation stateObs, ArrayList<Integer> spritesList) {
-        TreeSet<Event> eventsHistory = stateObs.getEventsHistory();
-    
         // We are interested on events that just occured, so they happen in the previous gameTick
         int gameTick = stateObs.getGameTick() - 1;
 
-        // We are only interested in the events that occurred in the current state
-        Iterator<Event> eventsIterator = eventsHistory.descendingSet().iterator();
-        while (eventsIterator.hasNext()){
-            Event event = (Event) eventsIterator.next();
-            if (event.gameStep != gameTick){
-                // the next events are from previous states so no need to keep iterating
-                break;
-            }
+        // We are only interested in the events that occurred in the current state, latest first
+        stateObs.forEachEventAt(gameTick, event -> {
             // We include it to the history if the stype is in the list.
             if (spritesList.contains(event.passiveTypeId)) {
                 if (event.fromAvatar) {
@@ -155,7 +160,7 @@ public class KnowledgeHeuristic extends StateHeuristic {
                     spritesData.updateCollisionHistory(event, gameTick);
                 }
             }
-        }
+        });
     }
 
     @Override
@@ -6,37 +6,69 @@
 package heuristic_diversification.heuristics;
 
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map.Entry;
+import java.util.Arrays;
 
 import core.game.Event;
 import core.game.Observation;
 import core.game.StateObservation;
 import heuristic_diversification.framework.MapDimensionsManager;
 import heuristic_diversification.model.JSONManager;
-import tools.Vector2d;
+import tools.GridCellSet;
 
+/**
+ * Knowledge of the sprites of the game: the sprites discovered, and the history of the interactions
+ * with them.
+ *
+ * The interaction histories are kept in arrays indexed by sprite type, along with the counters of
+ * interactions, so recording an event and reading the totals take constant time, regardless of how
+ * long the game has been running. The sprite types interacted with are also listed, so comparing
+ * with another SpritesData only goes through the interactions recorded.
+ * A SpritesData can be restarted, keeping its memory, to be reused for the future states of the
+ * next rollout.
+ */
 public class SpritesData {
     private MapDimensionsManager mapDimensions;
     private ArrayList<Integer> mGameSprites;   // sprites in the game discovered
     private ArrayList<Integer> mPlayerSprites; // sprites created from the player discoevered
-    private HashMap<Integer, InteractionHistory> mStypesCollisions; // information related to the stypes of the sprites the player has collided with
-    private HashMap<Integer, HashMap<Integer, InteractionHistory>> mStypesHits; // information related to the stypes of the sprites the player has hit with a sprite
+    private InteractionHistory[] mStypesCollisions; // information related to the stypes of the sprites the player has collided with, by stype
+    private InteractionHistory[][] mStypesHits; // information related to the stypes of the sprites the player has hit with a sprite, by stype hit and stype used
     private int mLastNewSpriteDiscovered;
     private int mLastNewCollisionTick;
     private int mLastNewHitTick;
     private int mLastCuriosityTick; // curiosity is described as an interaction (collision or hit) in a new position of the map
 
+    // Stypes collided with, stypes hit and (stype hit, stype used) pairs, in the order they were first recorded
+    private int[] mCollidedStypes;
+    private int mNCollidedStypes;
+    private int[] mHitStypes;
+    private int mNHitStypes;
+    private int[] mHitPairs; // packed with hitPair()
+    private int mNHitPairs;
+
+    // Totals of the hits to each stype hit, whichever the stype used
+    private int[] mNHitsToStype;
+    private int[] mLastHitToStype;
+
+    // Totals of all the interactions recorded
+    private int mNCollisions;
+    private int mNHits;
+    private int mNCollisionCuriosityInteractions;
+    private int mNHitCuriosityInteractions;
+
     private class InteractionHistory {
         private int lastInteractionTick;
-        private int nInteractions;
-        private ArrayList<Vector2d> interactionPositionsList;
+        private int nInteractions; // 0 if there has been no interaction since the last restart
+        private GridCellSet interactionPositions; // cells of the grid where the interaction happened
+
+        InteractionHistory() {
+            nInteractions = 0;
+            lastInteractionTick = 0;
+            interactionPositions = new GridCellSet();
+        }
 
-        InteractionHistory(int gameTick) {
+        public void firstInteraction(int gameTick) {
             nInteractions = 1;
             lastInteractionTick = gameTick;
-            interactionPositionsList = new ArrayList<Vector2d>();
         }
 
         public void increaseInteractionCounter(int gameTick) {
@@ -44,12 +76,12 @@ public class SpritesData {
             lastInteractionTick = gameTick;
         }
 
-        public boolean addInteractionAtPosition(Vector2d position) {
-            if (!interactionPositionsList.contains(position)) {
-                interactionPositionsList.add(position);
-                return true;
-            }
-            return false;
+        public boolean addInteractionAtPosition(int x, int y) {
+            return interactionPositions.add(x, y);
+        }
+
+        public boolean hasInteractions() {
+            return nInteractions > 0;
         }
 
         public int getNInteractions() {
@@ -61,21 +93,21 @@ public class SpritesData {
         }
 
         public int getNCuriosityInteractions() {
-            return interactionPositionsList.size();
-        } 
+            return interactionPositions.size();
+        }
 
-        public ArrayList<Vector2d> getCuriosityInteractions() {
-            return interactionPositionsList;
+        public GridCellSet getCuriosityInteractions() {
+            return interactionPositions;
         }
 
-        public int nInteractionsNotFoundInReferenceList(ArrayList<Vector2d> positionListReference) {
-            int newPosition = 0;
-            for (Vector2d position : interactionPositionsList) {
-                if (!positionListReference.contains(position)) {
-                    newPosition++;
-                }
-            }
-            return newPosition;
+        public int nInteractionsNotFoundInReferenceList(GridCellSet positionsReference) {
+            return interactionPositions.countNotIn(positionsReference);
+        }
+
+        public void restart() {
+            nInteractions = 0;
+            lastInteractionTick = 0;
+            interactionPositions.clear();
         }
     }
 
@@ -84,15 +116,53 @@ public class SpritesData {
         this.mLastNewCollisionTick = 0;
         this.mLastNewHitTick = 0;
         this.mLastCuriosityTick = 0;
-        
+
         this.mGameSprites = new ArrayList<Integer>();
         this.mPlayerSprites = new ArrayList<Integer>();
-        this.mStypesCollisions = new HashMap<Integer, InteractionHistory>();
-        this.mStypesHits = new HashMap<Integer, HashMap<Integer, InteractionHistory>>();
-        
+        this.mStypesCollisions = new InteractionHistory[0];
+        this.mStypesHits = new InteractionHistory[0][];
+
+        this.mCollidedStypes = new int[0];
+        this.mHitStypes = new int[0];
+        this.mHitPairs = new int[0];
+        this.mNHitsToStype = new int[0];
+        this.mLastHitToStype = new int[0];
+
         this.mapDimensions = new MapDimensionsManager(stateObs);
     }
 
+    /**
+     * Forget all the knowledge, keeping the memory used to reuse it for the same game.
+     */
+    public void restart() {
+        mLastNewSpriteDiscovered = 0;
+        mLastNewCollisionTick = 0;
+        mLastNewHitTick = 0;
+        mLastCuriosityTick = 0;
+
+        mGameSprites.clear();
+        mPlayerSprites.clear();
+
+        for (int i = 0; i < mNCollidedStypes; i++) {
+            mStypesCollisions[mCollidedStypes[i]].restart();
+        }
+        for (int i = 0; i < mNHitPairs; i++) {
+            mStypesHits[hitPairStype(mHitPairs[i])][hitPairStypeUsed(mHitPairs[i])].restart();
+        }
+        for (int i = 0; i < mNHitStypes; i++) {
+            mNHitsToStype[mHitStypes[i]] = 0;
+            mLastHitToStype[mHitStypes[i]] = 0;
+        }
+        mNCollidedStypes = 0;
+        mNHitStypes = 0;
+        mNHitPairs = 0;
+
+        mNCollisions = 0;
+        mNHits = 0;
+        mNCollisionCuriosityInteractions = 0;
+        mNHitCuriosityInteractions = 0;
+    }
+
     public final ArrayList<Integer> getSpritesDiscovered() {
         ArrayList<Integer> allSpritesDiscovered = new ArrayList<Integer>();
         allSpritesDiscovered.addAll(mGameSprites);
@@ -108,20 +178,37 @@ public class SpritesData {
         return mPlayerSprites;
     }
 
-    public final HashMap<Integer, InteractionHistory> getCollisionSpriteHistory() {
-        return mStypesCollisions;
-    }
-
-    public final HashMap<Integer, HashMap<Integer, InteractionHistory>> getHitsSpriteHistory() {
-        return mStypesHits;
+    /**
+     * @param stype sprite type collided with
+     * @return history of the collisions with the sprite type, null if there has been none
+     */
+    private InteractionHistory getCollisionHistory(int stype) {
+        if (stype < 0 || stype >= mStypesCollisions.length) {
+            return null;
+        }
+        InteractionHistory history = mStypesCollisions[stype];
+        return (history != null && history.hasInteractions()) ? history : null;
     }
 
-    public final HashMap<Integer, InteractionHistory> getHitSpriteHistory(int stype) {
-        if (mStypesHits != null) {
-            return mStypesHits.get(stype);
+    /**
+     * @param stype sprite type hit
+     * @param stypeUsed sprite type that hit it
+     * @return history of the hits with the sprite type, null if there has been none
+     */
+    private InteractionHistory getHitHistory(int stype, int stypeUsed) {
+        if (!hasBeenHit(stype) || stypeUsed < 0 || stypeUsed >= mStypesHits[stype].length) {
+            return null;
         }
+        InteractionHistory history = mStypesHits[stype][stypeUsed];
+        return (history != null && history.hasInteractions()) ? history : null;
+    }
 
-        return null;
+    /**
+     * @param stype sprite type
+     * @return if the sprite type has been hit, with any sprite
+     */
+    private boolean hasBeenHit(int stype) {
+        return stype >= 0 && stype < mNHitsToStype.length && mNHitsToStype[stype] > 0;
     }
 
     public final int getLastNewDiscovery() {
@@ -188,20 +275,29 @@ public class SpritesData {
     public void updateCollisionHistory(Event event, int gameTick) {
         int stypeCollidedWith = event.passiveTypeId;
 
-        InteractionHistory spriteCollisionHistory;
+        InteractionHistory spriteCollisionHistory = getCollisionHistory(stypeCollidedWith);
         // Add sprite collided with to list
-        if (!mStypesCollisions.containsKey(stypeCollidedWith)) {
-            spriteCollisionHistory = new InteractionHistory(gameTick);
+        if (spriteCollisionHistory == null) {
+            if (stypeCollidedWith >= mStypesCollisions.length) {
+                mStypesCollisions = Arrays.copyOf(mStypesCollisions, grownLength(mStypesCollisions.length, stypeCollidedWith));
+            }
+            if (mStypesCollisions[stypeCollidedWith] == null) {
+                mStypesCollisions[stypeCollidedWith] = new InteractionHistory();
+            }
+            spriteCollisionHistory = mStypesCollisions[stypeCollidedWith];
+            spriteCollisionHistory.firstInteraction(gameTick);
 
-            mStypesCollisions.put(stypeCollidedWith, spriteCollisionHistory);
+            mCollidedStypes = append(mCollidedStypes, mNCollidedStypes++, stypeCollidedWith);
             mLastNewCollisionTick = gameTick;
         } else {
-            spriteCollisionHistory = mStypesCollisions.get(stypeCollidedWith);
             spriteCollisionHistory.increaseInteractionCounter(gameTick);
         }
+        mNCollisions++;
 
         // Record where the collision happened
-        recordInteractionCoordinates(event, spriteCollisionHistory, gameTick);
+        if (recordInteractionCoordinates(event, spriteCollisionHistory, gameTick)) {
+            mNCollisionCuriosityInteractions++;
+        }
     }
 
     /**
@@ -217,32 +313,44 @@ public class SpritesData {
         int stypeHit = event.passiveTypeId;
         int stypeUsed = event.activeTypeId;
 
-        InteractionHistory spriteHitHistory;
-        HashMap<Integer, InteractionHistory> mStypeHitsInformation;
-
         // Add sprite hit to list. As the avatar could create different sprites, we need to make a distinction between each of the possible sprites
-        if (!mStypesHits.containsKey(stypeHit)) {
-            spriteHitHistory = new InteractionHistory(gameTick);
-            mStypeHitsInformation = new HashMap<Integer, InteractionHistory>();
-            mStypeHitsInformation.put(stypeUsed, spriteHitHistory);
+        if (!hasBeenHit(stypeHit)) {
+            if (stypeHit >= mStypesHits.length) {
+                int length = grownLength(mStypesHits.length, stypeHit);
+                mStypesHits = Arrays.copyOf(mStypesHits, length);
+                mNHitsToStype = Arrays.copyOf(mNHitsToStype, length);
+                mLastHitToStype = Arrays.copyOf(mLastHitToStype, length);
+            }
+            mHitStypes = append(mHitStypes, mNHitStypes++, stypeHit);
+        }
+
+        InteractionHistory spriteHitHistory = getHitHistory(stypeHit, stypeUsed);
+        if (spriteHitHistory == null) {
+            InteractionHistory[] stypeHitsInformation = mStypesHits[stypeHit];
+            if (stypeHitsInformation == null || stypeUsed >= stypeHitsInformation.length) {
+                int length = (stypeHitsInformation == null) ? stypeUsed + 1 : grownLength(stypeHitsInformation.length, stypeUsed);
+                stypeHitsInformation = (stypeHitsInformation == null) ? new InteractionHistory[length] : Arrays.copyOf(stypeHitsInformation, length);
+                mStypesHits[stypeHit] = stypeHitsInformation;
+            }
+            if (stypeHitsInformation[stypeUsed] == null) {
+                stypeHitsInformation[stypeUsed] = new InteractionHistory();
+            }
+            spriteHitHistory = stypeHitsInformation[stypeUsed];
+            spriteHitHistory.firstInteraction(gameTick);
 
-            mStypesHits.put(stypeHit, mStypeHitsInformation);
+            mHitPairs = append(mHitPairs, mNHitPairs++, hitPair(stypeHit, stypeUsed));
             mLastNewHitTick = gameTick;
         } else {
-            mStypeHitsInformation = mStypesHits.get(stypeHit);
-            if (!mStypeHitsInformation.containsKey(stypeUsed)) {
-                spriteHitHistory = new InteractionHistory(gameTick);
-
-                mStypeHitsInformation.put(stypeUsed, spriteHitHistory);
-                mLastNewHitTick = gameTick;
-            } else {
-                spriteHitHistory = mStypeHitsInformation.get(stypeUsed);
-                spriteHitHistory.increaseInteractionCounter(gameTick);
-            }
+            spriteHitHistory.increaseInteractionCounter(gameTick);
         }
+        mNHitsToStype[stypeHit]++;
+        mLastHitToStype[stypeHit] = Math.max(mLastHitToStype[stypeHit], gameTick);
+        mNHits++;
 
         // Record where the hit happened
-        recordInteractionCoordinates(event, spriteHitHistory, gameTick);
+        if (recordInteractionCoordinates(event, spriteHitHistory, gameTick)) {
+            mNHitCuriosityInteractions++;
+        }
     }
 
     /**
@@ -275,22 +383,22 @@ public class SpritesData {
 
     /**
      * Record the position where the interaction happened. If the interaction has not happened in that
-     * position before, it is considered a new curiosity event. 
+     * position before, it is considered a new curiosity event.
      * @param event interaction event to record
-     * @param interactionHistory 
+     * @param interactionHistory
      * @param gameTick the game tick when the interaction happened
+     * @return if it is a new curiosity event
      */
-    private void recordInteractionCoordinates(Event event, InteractionHistory interactionHistory, int gameTick) {
-        Vector2d interactionPosition = event.position.copy();
-
+    private boolean recordInteractionCoordinates(Event event, InteractionHistory interactionHistory, int gameTick) {
         // The position of the interaction must be comverted to coordinates of a matrix
-        int x = mapDimensions.getXFromVector(interactionPosition);
-        int y = mapDimensions.getYFromVector(interactionPosition);
-        Vector2d interactionCoordinates = new Vector2d(x, y);
+        int x = mapDimensions.getXFromVector(event.position);
+        int y = mapDimensions.getYFromVector(event.position);
 
-        if (interactionHistory.addInteractionAtPosition(interactionCoordinates)) {
+        if (interactionHistory.addInteractionAtPosition(x, y)) {
             mLastCuriosityTick = gameTick;
+            return true;
         }
+        return false;
     }
 
     /**
@@ -304,7 +412,7 @@ public class SpritesData {
     }
 
     /**
-     * Return the number of sprites of spritesData that are not present in referenceSpritesData. This number would 
+     * Return the number of sprites of spritesData that are not present in referenceSpritesData. This number would
      * represent the number of new sprites discovered.
      * @param spritesData
      * @param referenceSpritesData
@@ -321,7 +429,7 @@ public class SpritesData {
     }
 
     /**
-     * Number of sprites not present in the interaction history in the sprites data object provided 
+     * Number of sprites not present in the interaction history in the sprites data object provided
      * as reference.
      * Interactions include both collisions and hits.
      * @param referenceSpritesData object taken as reference for comparison
@@ -332,7 +440,7 @@ public class SpritesData {
     }
 
     /**
-     * Number of locations for each sprite (curiosity events) that are not present in the interaction history 
+     * Number of locations for each sprite (curiosity events) that are not present in the interaction history
      * in the sprites data object provided as reference.
      * Interactions include both collisions and hits.
      * @param referenceSpritesData object taken as reference for comparison
@@ -357,7 +465,7 @@ public class SpritesData {
      * @return
      */
     public int nTotalCuriosityInteractions() {
-        return nCollisionCuriosityInteractions() + nHitCuriosityInteractions();
+        return mNCollisionCuriosityInteractions + mNHitCuriosityInteractions;
     }
 
     /**
@@ -366,53 +474,37 @@ public class SpritesData {
      * @return
      */
     private int nNewCollisions(final SpritesData referenceSpritesData) {
-        return nNewDistinctSprites(mStypesCollisions, referenceSpritesData.getCollisionSpriteHistory());
+        int nNewCollisions = 0;
+        for (int i = 0; i < mNCollidedStypes; i++) {
+            if (referenceSpritesData.getCollisionHistory(mCollidedStypes[i]) == null) {
+                nNewCollisions++;
+            }
+        }
+        return nNewCollisions;
     }
 
     /**
      * Returns the number of hits of sprites in SpritesData that can't be found in the object taken as reference.
+     * A hit is new if the sprite hit has not been hit with the same sprite in the reference.
      * @param referenceSpritesData
      * @return
      */
     private int nNewHits(final SpritesData referenceSpritesData) {
         int nNewHits = 0;
-        for (Entry<Integer, HashMap<Integer, InteractionHistory>> stypeHit : mStypesHits.entrySet()) {
-            HashMap<Integer, InteractionHistory> referenceHitSpriteHistory = referenceSpritesData.getHitSpriteHistory(stypeHit.getKey());
-            if (referenceHitSpriteHistory != null) {
-                nNewHits += nNewDistinctSprites(stypeHit.getValue(), referenceHitSpriteHistory);
-            } else {
-                nNewHits += stypeHit.getValue().size();
+        for (int i = 0; i < mNHitPairs; i++) {
+            if (referenceSpritesData.getHitHistory(hitPairStype(mHitPairs[i]), hitPairStypeUsed(mHitPairs[i])) == null) {
+                nNewHits++;
             }
         }
         return nNewHits;
     }
 
-    /**
-     * Obtains the number of keys present in the first hashmap but not in the second.
-     * To solve this, it is created a set containing the keys in both maps (union). When removing
-     * the keys from the union that exist in the reference, those that are only in the first map
-     * remain. We get the size of the final set.
-     * @param spritesHistory
-     * @param spritesHistoryReference
-     * @return
-     */
-    private int nNewDistinctSprites(HashMap<Integer, InteractionHistory> spritesHistory, HashMap<Integer, InteractionHistory> spritesHistoryReference) {
-        // Get the union of sprites of both history hashmap
-        HashSet<Integer> spritesUnion = new HashSet<>(spritesHistory.keySet());
-        spritesUnion.addAll(spritesHistoryReference.keySet());
-
-        // Remove the reference sprites to obtain the unique ones (new ones) in spritesHistory
-        spritesUnion.removeAll(spritesHistoryReference.keySet());
-
-        return spritesUnion.size();
-    }
-
     /**
      * Total of interactions of the collision type
      * @return
      */
     public int nCollisions() {
-        return nInteractions(mStypesCollisions);
+        return mNCollisions;
     }
 
     /**
@@ -420,11 +512,7 @@ public class SpritesData {
      * @return
      */
     public int nHits() {
-        int nHits = 0;
-        for (HashMap<Integer, InteractionHistory> spritesHit : mStypesHits.values()) {
-            nHits += nInteractions(spritesHit);
-        }
-        return nHits;
+        return mNHits;
     }
 
     /**
@@ -432,24 +520,22 @@ public class SpritesData {
      * @return
      */
     public int getNStypesInteractedWith() {
-        int nStypesCollisions = mStypesCollisions.size();
-        int nStypesHits = mStypesHits.size();
-
-        return nStypesCollisions + nStypesHits;
+        return mNCollidedStypes + mNHitStypes;
     }
 
     /**
      * Number of total collisions with the sprites of the type provided in the list
      * @param spritesList
-     * @return 
+     * @return
      */
     public Integer nCollisionsToSprites(ArrayList<Integer> spritesList) {
-        Integer nCollisionsWithSprites = 0;
-        
-        for (Integer stype : spritesList) {
+        int nCollisionsWithSprites = 0;
+
+        for (int i = 0; i < spritesList.size(); i++) {
             // collisions with spritesList
-            if (mStypesCollisions.containsKey(stype)) {
-                nCollisionsWithSprites += mStypesCollisions.get(stype).getNInteractions();
+            InteractionHistory collisionHistory = getCollisionHistory(spritesList.get(i));
+            if (collisionHistory != null) {
+                nCollisionsWithSprites += collisionHistory.getNInteractions();
             }
         }
 
@@ -459,17 +545,18 @@ public class SpritesData {
     /**
      * Number of total hits with the sprites of the type provided in the list
      * @param spritesList
-     * @return 
+     * @return
      */
     public Integer nHitsToSprites(ArrayList<Integer> spritesList) {
-        Integer nHitsWithSprites = 0;
-        
-        for (Integer stype : spritesList) {
-             // hits to spritesList
-             if (mStypesHits.containsKey(stype)) {
+        int nHitsWithSprites = 0;
+
+        for (int i = 0; i < spritesList.size(); i++) {
+            // hits to spritesList
+            int stype = spritesList.get(i);
+            if (hasBeenHit(stype)) {
                 // we are interested in all the hits, independently of the sprite that hit it
-                nHitsWithSprites += nInteractions(mStypesHits.get(stype));
-             }
+                nHitsWithSprites += mNHitsToStype[stype];
+            }
         }
 
         return nHitsWithSprites;
@@ -478,15 +565,16 @@ public class SpritesData {
     /**
      * Last interaction tick for the collisions with sprites of the type provided in the list
      * @param spritesList
-     * @return 
+     * @return
      */
     public Integer getLastCollisionToSprites(ArrayList<Integer> spritesList) {
-        Integer lastCollisionTick = 0;
-        
-        for (Integer stype : spritesList) {
+        int lastCollisionTick = 0;
+
+        for (int i = 0; i < spritesList.size(); i++) {
             // collisions with spritesList
-            if (mStypesCollisions.containsKey(stype)) {
-                int collisionTick = mStypesCollisions.get(stype).getLastInteractionTick();
+            InteractionHistory collisionHistory = getCollisionHistory(spritesList.get(i));
+            if (collisionHistory != null) {
+                int collisionTick = collisionHistory.getLastInteractionTick();
                 if (collisionTick > lastCollisionTick) {
                     lastCollisionTick = collisionTick;
                 }
@@ -499,22 +587,20 @@ public class SpritesData {
     /**
      * Last interaction tick for the hits to sprites of the type provided in the list
      * @param spritesList
-     * @return 
+     * @return
      */
     public Integer getLastHitToSprites(ArrayList<Integer> spritesList) {
-        Integer lastHitTick = 0;
-        
-        for (Integer stype : spritesList) {
-             // hits to spritesList
-             if (mStypesHits.containsKey(stype)) {
+        int lastHitTick = 0;
+
+        for (int i = 0; i < spritesList.size(); i++) {
+            // hits to spritesList
+            int stype = spritesList.get(i);
+            if (hasBeenHit(stype)) {
                 // we are interested in all the hits, independently of the sprite that hit it
-                for (InteractionHistory interactionHistory: mStypesHits.get(stype).values()) {
-                    int hitTick = interactionHistory.getLastInteractionTick();
-                    if (hitTick > lastHitTick) {
-                        lastHitTick = hitTick;
-                    }
+                if (mLastHitToStype[stype] > lastHitTick) {
+                    lastHitTick = mLastHitToStype[stype];
                 }
-             }
+            }
         }
 
         return lastHitTick;
@@ -530,12 +616,12 @@ public class SpritesData {
 
         for (Integer stype : spritesList) {
             // collisions with spritesList
-            if (mStypesCollisions.containsKey(stype)) {
+            if (getCollisionHistory(stype) != null) {
                 spritesCollisions.add(stype);
             }
         }
 
-        return spritesCollisions;    
+        return spritesCollisions;
     }
 
     /**
@@ -548,111 +634,93 @@ public class SpritesData {
 
         for (Integer stype : spritesList) {
             // hits to spritesList
-            if (mStypesHits.containsKey(stype)) {
+            if (hasBeenHit(stype)) {
                // we are only in the stypes hit so no need to go deeper on the object
                spritesHits.add(stype);
             }
         }
 
-        return spritesHits;    
-    }
-
-    /**
-     * Sums the number of interactions for each sprite in the given spritesHistory to obtain the number of total of interactions.
-     * @param spritesHistory Hashmap form by stype and the interaction history for each of them
-     * @return total interactions
-     */
-    private int nInteractions(HashMap<Integer, InteractionHistory> spritesHistory) {
-        int nInteractions = 0;
-        for (InteractionHistory interactionHistory : spritesHistory.values()) {
-            nInteractions += interactionHistory.getNInteractions();
-        }
-        return nInteractions;
+        return spritesHits;
     }
 
     /**
      * Gets the numner of new collision curiosities present in SpritesData taking as reference another object.
+     * Those for sprites not present in the reference are all new.
      * @param referenceSpritesData
      * @return
      */
     private int nNewCollisionCuriosityInteractions(final SpritesData referenceSpritesData) {
-        return nNewDistinctCuriosityInteractions(mStypesCollisions, referenceSpritesData.getCollisionSpriteHistory());
+        int nNewCuriosityInteractions = 0;
+        for (int i = 0; i < mNCollidedStypes; i++) {
+            int stype = mCollidedStypes[i];
+            nNewCuriosityInteractions += nNewDistinctCuriosityInteractions(mStypesCollisions[stype], referenceSpritesData.getCollisionHistory(stype));
+        }
+        return nNewCuriosityInteractions;
     }
 
     /**
      * Gets the numner of new hit curiosities present in SpritesData taking as reference another object.
+     * Those for pairs of sprites not present in the reference are all new.
      * @param referenceSpritesData
      * @return
      */
     private int nNewHitCuriosityInteractions(final SpritesData referenceSpritesData) {
         int nNewHitCuriosityInteractions = 0;
-        for (Entry<Integer, HashMap<Integer, InteractionHistory>> stypeHit : mStypesHits.entrySet()) {
-            HashMap<Integer, InteractionHistory> referenceHitSpriteHistory = referenceSpritesData.getHitSpriteHistory(stypeHit.getKey());
-            if (referenceHitSpriteHistory != null) {
-                nNewHitCuriosityInteractions += nNewDistinctCuriosityInteractions(stypeHit.getValue(), referenceHitSpriteHistory);
-            } else {
-                nNewHitCuriosityInteractions += nCuriosityInteractions(stypeHit.getValue());
-            }
+        for (int i = 0; i < mNHitPairs; i++) {
+            int stype = hitPairStype(mHitPairs[i]);
+            int stypeUsed = hitPairStypeUsed(mHitPairs[i]);
+            nNewHitCuriosityInteractions += nNewDistinctCuriosityInteractions(mStypesHits[stype][stypeUsed], referenceSpritesData.getHitHistory(stype, stypeUsed));
         }
         return nNewHitCuriosityInteractions;
     }
 
     /**
-     * Counts those curiosity interactions that are present in the first hashmap and not in the second one, 
+     * Counts those curiosity interactions that are present in the first history and not in the second one,
      * which is taken as reference.
-     * @param spritesHistory
-     * @param spritesHistoryReference
+     * @param spriteHistory
+     * @param spriteHistoryReference history of the same sprites in the reference, null if there is none
      * @return
      */
-    private int nNewDistinctCuriosityInteractions(HashMap<Integer, InteractionHistory> spritesHistory, HashMap<Integer, InteractionHistory> spritesHistoryReference) {
-        int nNewCuriosityInteractions = 0;
-        for (Entry<Integer, InteractionHistory> stypeHistory : spritesHistory.entrySet()) {
-            int stype = stypeHistory.getKey();
-            if (spritesHistoryReference.containsKey(stype)) {
-                // We need to count only the different ones
-                ArrayList<Vector2d> curiosityReferences = spritesHistoryReference.get(stype).getCuriosityInteractions();
-                nNewCuriosityInteractions += stypeHistory.getValue().nInteractionsNotFoundInReferenceList(curiosityReferences);
-            } else {
-                // the sprite is not present in the reference, all curiosity is new
-                nNewCuriosityInteractions += stypeHistory.getValue().getNCuriosityInteractions();
-            }
+    private int nNewDistinctCuriosityInteractions(InteractionHistory spriteHistory, InteractionHistory spriteHistoryReference) {
+        if (spriteHistoryReference != null) {
+            // We need to count only the different ones
+            return spriteHistory.nInteractionsNotFoundInReferenceList(spriteHistoryReference.getCuriosityInteractions());
         }
-        return nNewCuriosityInteractions;
+        // the sprite is not present in the reference, all curiosity is new
+        return spriteHistory.getNCuriosityInteractions();
     }
 
     /**
-     * Total of curiosities of the collision type
-     * @return
+     * Packs the pair of a sprite type hit and the sprite type used to hit it in an int.
      */
-    private int nCollisionCuriosityInteractions() {
-        return nCuriosityInteractions(mStypesCollisions);
+    private static int hitPair(int stype, int stypeUsed) {
+        return (stype << 16) | stypeUsed;
+    }
+
+    private static int hitPairStype(int hitPair) {
+        return hitPair >>> 16;
+    }
+
+    private static int hitPairStypeUsed(int hitPair) {
+        return hitPair & 0xFFFF;
     }
 
     /**
-     * Total of curiosities of the hit type
-     * @return
+     * @return the array with the value at the index given, grown if needed
      */
-    private int nHitCuriosityInteractions() {
-        int nHitCuriosityInteractions = 0;
-        for (HashMap<Integer, InteractionHistory> spritesHit : mStypesHits.values()) {
-            nHitCuriosityInteractions += nCuriosityInteractions(spritesHit);
+    private static int[] append(int[] array, int index, int value) {
+        if (index >= array.length) {
+            array = Arrays.copyOf(array, grownLength(array.length, index));
         }
-
-        return nHitCuriosityInteractions;
+        array[index] = value;
+        return array;
     }
 
     /**
-     * Sums the number of different locations where the interaction with each sprite has taken place (curiosity) to obtain the total 
-     * for the given spritesHistory.
-     * @param spritesHistory
-     * @return
+     * @return length of an array of the length given grown to fit the index
      */
-    private int nCuriosityInteractions(HashMap<Integer, InteractionHistory> spritesHistory) {
-        int nCuriosityInteractions = 0;
-        for (InteractionHistory interactionHistory : spritesHistory.values()) {
-            nCuriosityInteractions += interactionHistory.getNCuriosityInteractions();
-        }
-        return nCuriosityInteractions;
+    private static int grownLength(int length, int index) {
+        return Math.max(index + 1, 2 * length);
     }
 
     /**
@@ -676,8 +744,8 @@ public class SpritesData {
      * @return
      */
     private boolean hasBeenUpdated(int gameTick) {
-        return ((gameTick == mLastNewSpriteDiscovered) 
-             || (gameTick == mLastNewCollisionTick) 
+        return ((gameTick == mLastNewSpriteDiscovered)
+             || (gameTick == mLastNewCollisionTick)
              || (gameTick == mLastNewHitTick)
              || (gameTick == mLastCuriosityTick));
     }
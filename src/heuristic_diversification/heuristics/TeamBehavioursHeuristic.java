@@ -23,6 +23,22 @@ public class TeamBehavioursHeuristic extends StateHeuristic {
         // those heuristics that extend from KnowledgeHeuristic have the data available
         knowledgeHeuristic = new KnowledgeHeuristic();
         knowledgeHeuristic.setUpdateSpritesData();
+
+        for (TeamMember teamMember : mHeuristics) {
+            if (teamMember.heuristic instanceof KnowledgeHeuristic) {
+                ((KnowledgeHeuristic) teamMember.heuristic).setKnowledgeSource(knowledgeHeuristic);
+            }
+        }
+    }
+
+    @Override
+    public StateHeuristic copy() {
+        TeamMember[] heuristics = new TeamMember[mHeuristics.length];
+        for (int i = 0; i < mHeuristics.length; i++) {
+            heuristics[i] = mHeuristics[i].copy();
+        }
+
+        return new TeamBehavioursHeuristic(heuristics, mHeuristicsWeights.clone());
     }
 
     @Override
@@ -12,6 +12,7 @@ import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Properties;
+import java.util.Random;
 
 import heuristic_diversification.config.Agents;
 import heuristic_diversification.config.Games;
@@ -23,14 +24,19 @@ public class Config {
     private static final String LEVEL_KEY = "level";
     private static final String AGENT_KEY = "agentName";
     private static final String N_GAME_RUNS_KEY = "nGameRuns";
+    private static final String N_PARALLEL_GAME_RUNS_KEY = "nParallelGameRuns";
+    private static final String N_SEARCH_THREADS_KEY = "nSearchThreads";
     private static final String VISUALS_KEY = "withVisuals";
     private static final String ACTION_FILE_KEY = "saveActionFile";
+    private static final String RANDOM_SEED_KEY = "randomSeed";
 
     private static final String PERFORMANCE_CRITERIA_KEY = "perfomanceCriteria";
     private static final String FEATURE_X_KEY = "featureX";
     private static final String FEATURE_Y_KEY = "featureY";
     private static final String N_MAP_INITIALISATION_KEY = "nRandomInitialisations";
     private static final String N_ALGORITHM_ITERATIONS_KEY = "nAlgorithmIterations";
+    private static final String N_EVALUATION_WORKERS_KEY = "nEvaluationWorkers";
+    private static final String EVALUATION_BATCH_SIZE_KEY = "evaluationBatchSize";
 
     private final String experimentId; 
     private FrameworkConfig frameworkConfig;
@@ -41,16 +47,39 @@ public class Config {
         public final int level;
         public final Agents agent;
         public final int nGameRuns;
+        public final int nParallelGameRuns;
+        public final int nSearchThreads;
         public final boolean visuals;
         private final boolean saveActionFile;
+        private long randomSeed;
 
-        private FrameworkConfig(Properties configProperties) {
+        private FrameworkConfig(Properties configProperties, int nEvaluationWorkers) {
             this.game = Games.valueOf(configProperties.getProperty(GAME_KEY));
             this.level = Integer.parseInt(configProperties.getProperty(LEVEL_KEY));
             this.agent = Agents.valueOf(configProperties.getProperty(AGENT_KEY));
             this.nGameRuns = Integer.valueOf(configProperties.getProperty(N_GAME_RUNS_KEY));
+            // By default the game runs are played one after the other
+            this.nParallelGameRuns = readPositiveInt(configProperties, N_PARALLEL_GAME_RUNS_KEY, 1);
+            // Threads of the parallel MCTS agents. By default the processors are shared by all the game runs played at the
+            // same time: each evaluation worker plays its own runs
+            int defaultSearchThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / (nEvaluationWorkers * nParallelGameRuns));
+            this.nSearchThreads = readPositiveInt(configProperties, N_SEARCH_THREADS_KEY, defaultSearchThreads);
             this.visuals = Boolean.valueOf(configProperties.getProperty(VISUALS_KEY));
             this.saveActionFile = Boolean.valueOf(configProperties.getProperty(ACTION_FILE_KEY));
+            // Master seed of the experiment. If not provided, a random one is used; it is saved with the
+            // rest of the config in the results so the experiment can be repeated
+            this.randomSeed = Long.parseLong(configProperties.getProperty(RANDOM_SEED_KEY, String.valueOf(new Random().nextLong())));
+        }
+
+        public long getRandomSeed() {
+            return randomSeed;
+        }
+
+        /**
+         * When a run is resumed, its seed is used instead of the one in the config
+         */
+        public void setRandomSeed(long randomSeed) {
+            this.randomSeed = randomSeed;
         }
 
         public String actionFile() {
@@ -68,6 +97,8 @@ public class Config {
         public final Features featureY;
         public final int nRandomInitialisations;
         public final int nMapElitesIterations;
+        public final int nEvaluationWorkers;
+        public final int evaluationBatchSize;
 
         private MapElitesConfig(Properties configProperties) {
             this.performanceCriteria = Performance.valueOf(configProperties.getProperty(PERFORMANCE_CRITERIA_KEY));
@@ -75,6 +106,10 @@ public class Config {
             this.featureY = Features.valueOf(configProperties.getProperty(FEATURE_Y_KEY));
             this.nRandomInitialisations = Integer.parseInt(configProperties.getProperty(N_MAP_INITIALISATION_KEY));
             this.nMapElitesIterations = Integer.parseInt(configProperties.getProperty(N_ALGORITHM_ITERATIONS_KEY));
+
+            // Parallel evaluation is optional: by default the candidates are evaluated one at a time
+            this.nEvaluationWorkers = readPositiveInt(configProperties, N_EVALUATION_WORKERS_KEY, 1);
+            this.evaluationBatchSize = readPositiveInt(configProperties, EVALUATION_BATCH_SIZE_KEY, nEvaluationWorkers);
         }
     }
 
@@ -92,8 +127,20 @@ public class Config {
         }
 
         experimentId = configProperties.getProperty(EXPERIMENT_KEY);
-        frameworkConfig = new FrameworkConfig(configProperties);
         mapElitesConfig = new MapElitesConfig(configProperties);
+        frameworkConfig = new FrameworkConfig(configProperties, mapElitesConfig.nEvaluationWorkers);
+    }
+
+    /**
+     * Reads a number of threads or runs, which must be at least 1
+     */
+    private static int readPositiveInt(Properties configProperties, String key, int defaultValue) {
+        int value = Integer.parseInt(configProperties.getProperty(key, String.valueOf(defaultValue)));
+        if (value < 1) {
+            System.out.println("Error: " + key + " must be at least 1 (found " + value + ")");
+            System.exit(1);
+        }
+        return value;
     }
 
     public FrameworkConfig getFrameworkConfig() {
@@ -175,13 +222,18 @@ public class Config {
             writer.write(LEVEL_KEY + "=0/1/2...\n");
             writer.write(AGENT_KEY + "=" + agentValuesString() + "\n");
             writer.write(N_GAME_RUNS_KEY + "=1/2/3...\n");
+            writer.write(N_PARALLEL_GAME_RUNS_KEY + "=1/2/3...\n");
+            writer.write(N_SEARCH_THREADS_KEY + "=1/2/3...\n");
             writer.write(VISUALS_KEY + "=true/false\n");
             writer.write(ACTION_FILE_KEY + "=true/false\n");
+            writer.write(RANDOM_SEED_KEY + "=1/2/3...\n");
             writer.write(PERFORMANCE_CRITERIA_KEY + "=" + performanceValuesString() + "\n");
             writer.write(FEATURE_X_KEY + "=" + featureValuesString() + "\n");
             writer.write(FEATURE_Y_KEY + "=" + featureValuesString() + "\n");
             writer.write(N_MAP_INITIALISATION_KEY + "=1/2/3...\n");
             writer.write(N_ALGORITHM_ITERATIONS_KEY + "=1/2/3...\n");
+            writer.write(N_EVALUATION_WORKERS_KEY + "=1/2/3...\n");
+            writer.write(EVALUATION_BATCH_SIZE_KEY + "=1/2/3...\n");
 
             writer.close();
         } catch (IOException e) {
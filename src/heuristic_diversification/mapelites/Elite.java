@@ -15,27 +15,48 @@ import heuristic_diversification.model.GameStats;
 /**
  * Class containing the information stored in each cell of the MAP-Elites
  * 
- * Returns the feature id and performance of the elite using its stats
+ * The feature ids and performance of the elite are calculated from its stats when it is created,
+ * as they are requested every time an elite is compared with the one in its cell
  */
 public class Elite {
     private String agentName;
     private Double heuristicsWeightList[];
     private double performance;
     private Double[] featureValues; 
+    transient private int[] featureIdx;
     private GameStats gameStats;
 
-    public Elite(String agentName, final Double weightList[], GameStats gameStats) {
+    /**
+     * @param agentName agent of the elite
+     * @param weightList weights of the heuristics of the agent
+     * @param gameStats stats of the gameplay of the agent
+     * @param performance performance criteria of the map
+     * @param features features of the map, in the order of the map dimensions
+     */
+    public Elite(String agentName, final Double weightList[], GameStats gameStats, Performance performance, Features[] features) {
         this.agentName = agentName;
         this.heuristicsWeightList = weightList.clone();
         this.gameStats = gameStats;
+
+        this.performance = performance.getPerformanceValue(gameStats);
+        this.featureValues = new Double[features.length];
+        this.featureIdx = new int[features.length];
+        for (int i = 0; i < features.length; i++) {
+            this.featureValues[i] = features[i].getFeatureValue(gameStats);
+            this.featureIdx[i] = features[i].getBucketIdx(featureValues[i]);
+        }
     }
 
-    public int getFeatureIdx(Features feature) {
-        return feature.getBucketIdx(gameStats);
+    /**
+     * @param dimension dimension of the map, in the order of the features provided when created
+     * @return id of the feature of the elite in that dimension
+     */
+    public int getFeatureIdx(int dimension) {
+        return featureIdx[dimension];
     }
 
-    public double getPerformance(Performance performance) {
-        return performance.getPerformanceValue(gameStats);
+    public double getPerformance() {
+        return performance;
     }
 
     public void copyWeightsListValues(Double[] weightsList) {
@@ -48,14 +69,6 @@ public class Elite {
         gameStats.calculateStats();
     }
 
-    public void setDataForSerialisation(Performance performance, Features[] features) {
-        this.performance = performance.getPerformanceValue(gameStats);
-        this.featureValues = new Double[features.length];
-        for (int i = 0; i < features.length; i++) {
-            this.featureValues[i] = features[i].getFeatureValue(gameStats);
-        }
-    }
-
     public String printWeights() {
         return "[" + weightsString(", ") + "]";
     }
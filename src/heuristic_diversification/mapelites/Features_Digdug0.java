@@ -5,34 +5,31 @@
 
 package heuristic_diversification.mapelites;
 
-import java.lang.reflect.Field;
-
-import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
-
 import heuristic_diversification.model.GameStats;
+import heuristic_diversification.model.GameStats.Metric;
 
 public enum Features_Digdug0 {
-    WINS("win", 0, 100, 10, true), 
-    SCORE("score", 0, 50, 5, false), 
-    EXPLORATION_PERCENTAGE("percentageExplored", 0, 100, 5, true),
-    EXPLORATION_NUMBER("nExplored", 0, 405, 20, false),
-    DISCOVERY("nSpritesDiscovered", 0, 7, 1, false),
-    SPRITES_INTERACTION("nUniqueSpriteInteractions", 0, 10, 1, false),
-    CURIOSITY("nCuriosityInteractions", 0, 450, 25, false),
-    INTERACTIONS("nTotalInteractions", 0, 1000, 50, false),
-    COLLISIONS("nTotalCollisions", 0, 1000, 50, false),
-    HITS("nTotalHits", 0, 1000, 50, false),
-    KILLS("nTotalKills", 0, 27, 3, false),
-    ITEMS("nTotalItemsCollected", 0, 27, 3, false);
-
-    String statName;
+    WINS(Metric.WIN, 0, 100, 10, true), 
+    SCORE(Metric.SCORE, 0, 50, 5, false), 
+    EXPLORATION_PERCENTAGE(Metric.PERCENTAGE_EXPLORED, 0, 100, 5, true),
+    EXPLORATION_NUMBER(Metric.N_EXPLORED, 0, 405, 20, false),
+    DISCOVERY(Metric.N_SPRITES_DISCOVERED, 0, 7, 1, false),
+    SPRITES_INTERACTION(Metric.N_UNIQUE_SPRITE_INTERACTIONS, 0, 10, 1, false),
+    CURIOSITY(Metric.N_CURIOSITY_INTERACTIONS, 0, 450, 25, false),
+    INTERACTIONS(Metric.N_TOTAL_INTERACTIONS, 0, 1000, 50, false),
+    COLLISIONS(Metric.N_TOTAL_COLLISIONS, 0, 1000, 50, false),
+    HITS(Metric.N_TOTAL_HITS, 0, 1000, 50, false),
+    KILLS(Metric.N_TOTAL_KILLS, 0, 27, 3, false),
+    ITEMS(Metric.N_TOTAL_ITEMS_COLLECTED, 0, 27, 3, false);
+
+    Metric metric;
     Integer minValue;
     Integer maxValue;
     Integer bucketSize;
     boolean percentage;
 
-    Features_Digdug0(String statName, Integer min, Integer max, Integer bucketSize, boolean percentage) {
-        this.statName = statName;
+    Features_Digdug0(Metric metric, Integer min, Integer max, Integer bucketSize, boolean percentage) {
+        this.metric = metric;
         this.minValue = min;
         this.maxValue = max;
         this.bucketSize = bucketSize;
@@ -60,36 +57,24 @@ public enum Features_Digdug0 {
     }
 
     public void calculateFeatureStat(GameStats gameStats) {
-        gameStats.calculateFieldStats(statName);
+        gameStats.calculateMetricStats(metric);
     }
  
     public double getFeatureValue(GameStats gameStats) {
-        double featureValue = 0.0;
-
-        try {
-
-            Field statsField;
-            statsField = GameStats.class.getField(statName + "Stats");
-            StatisticalSummaryValues stats =  (StatisticalSummaryValues) statsField.get(gameStats);
-
-            featureValue = stats.getMean();
-            if(percentage) {
-                // For stats in percentage, the result is in range [0, 1], we need to multiply by 100 to get the right bucket
-                featureValue *= 100;
-            }
-
-        } catch (NoSuchFieldException | IllegalArgumentException | IllegalAccessException e) { 
-            System.err.println("Exception retrieving " + statName + "Stats in gameStats");
-            e.printStackTrace();
-            System.exit(1);
+        double featureValue = gameStats.getMetricMean(metric);
+        if (percentage) {
+            // For stats in percentage, the result is in range [0, 1], we need to multiply by 100 to get the right bucket
+            featureValue *= 100;
         }
-
         return featureValue;
     }
 
     public int getBucketIdx(GameStats gameStats) {
-        double featureStatsValue = getFeatureValue(gameStats);
-        return Buckets.getMapIdx(featureStatsValue, minValue, maxValue, bucketSize);
+        return getBucketIdx(getFeatureValue(gameStats));
+    }
+
+    public int getBucketIdx(double featureValue) {
+        return Buckets.getMapIdx(featureValue, minValue, maxValue, bucketSize);
     }
 
     public String[] featureArrayInfo() {
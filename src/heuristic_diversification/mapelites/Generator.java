@@ -5,13 +5,70 @@
 
 package heuristic_diversification.mapelites;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Random;
 
 /**
  * Randomising and evolutionary methods
+ * All the random values are drawn from the same generator, so the whole sequence is
+ * reproduced when it is given the same seed (see setSeed)
  */
 public class Generator {
+    private static Random randomGenerator = new Random();
+
+    /**
+     * Sets the seed of the generator all the random values are drawn from
+     * @param seed master seed of the experiment
+     */
+    public static void setSeed(long seed) {
+        randomGenerator = new Random(seed);
+    }
+
+    /**
+     * @return state of the generator, to continue the same sequence of random values later (see setState)
+     */
+    public static String getState() {
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(state)) {
+            out.writeObject(randomGenerator);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+        return Base64.getEncoder().encodeToString(state.toByteArray());
+    }
+
+    /**
+     * Sets the state of the generator, so the random values continue the sequence it was taken from
+     * @param state state returned by getState
+     */
+    public static void setState(String state) {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(state)))) {
+            randomGenerator = (Random) in.readObject();
+        } catch (IOException | ClassNotFoundException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Generates the seeds for the given number of game runs
+     * @param nSeeds number of seeds
+     * @return list of random seeds
+     */
+    public static int[] generateSeeds(int nSeeds) {
+        int[] seeds = new int[nSeeds];
+        for (int i = 0; i < nSeeds; i++) {
+            seeds[i] = randomGenerator.nextInt();
+        }
+        return seeds;
+    }
     
     /**
      * Returns a random element from the arraylist provided
@@ -49,7 +106,6 @@ public class Generator {
      * @return
      */
     private static int generateRandomInteger(int max) {
-        Random randomGenerator = new Random();
         return randomGenerator.nextInt(max);
     }
 
@@ -67,7 +123,6 @@ public class Generator {
      * @return
      */
     private static Double generateRandomDouble() {
-        Random randomGenerator = new Random();
         return randomGenerator.nextDouble();
     }
 
@@ -76,7 +131,6 @@ public class Generator {
      * @return
      */
     private static Double generateRandomTwoDecimalDouble() {
-        Random randomGenerator = new Random();
         int randomInt = randomGenerator.nextInt(101);
         return (double) randomInt / 100.0;
     }
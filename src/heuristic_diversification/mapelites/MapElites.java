@@ -5,11 +5,16 @@
 
 package heuristic_diversification.mapelites;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import heuristic_diversification.framework.TeamGameplay;
+import heuristic_diversification.mapelites.MapElitesCheckpoint.PlacedElite;
 import heuristic_diversification.model.GameStats;
-import heuristic_diversification.model.JSONManager;
 
 /**
  * Contains the definition of the MAP-Elites as well as the methos required to
@@ -20,14 +25,25 @@ import heuristic_diversification.model.JSONManager;
  * performance and features information is retrieved from the stats of the game.
  * The specifics of the elements to consider for these will depend on the
  * configuration set when running the algorithm
+ * 
+ * The candidates can be evaluated one at a time (default) or several at the same time
+ * in a pool of workers. In the latter, evaluationBatchSize candidates are generated from
+ * the archive and kept in evaluation; every time one of them is finished it is added to
+ * the map and a new candidate is generated from the updated archive. The candidates are added
+ * to the map in the order they were created, not in the order they finish, so with the same
+ * seed and batch size the run is the same whatever the number of workers.
+ * 
+ * When a checkpoint is provided, every elite placed in the map and every iteration finished are
+ * recorded in it, so the run can be resumed from the last iteration finished (see MapElitesCheckpoint)
  */
 public class MapElites {
-    transient private static final int ITERATION_BACKUP = 25;
-
     // Map elites config
     private Performance performanceCriteria;
     private Features featureInfoX;
     private Features featureInfoY;
+    transient private Features[] mapFeatures;
+    private static final int FEATURE_X_DIMENSION = 0;
+    private static final int FEATURE_Y_DIMENSION = 1;
 
     transient private TeamGameplay gameplayFramework;
 
@@ -37,6 +53,15 @@ public class MapElites {
     transient private Double heuristicsWeightList[];
     transient private String controller;
 
+    // Parallel evaluation
+    transient private int nEvaluationWorkers;
+    transient private int evaluationBatchSize;
+    transient private ExecutorService evaluationPool;
+
+    // Checkpoint to resume the run
+    transient private MapElitesCheckpoint checkpoint;
+    transient private int nIterationsFinished;
+
     private class EliteIdx {
         int x;
         int y;
@@ -48,22 +73,69 @@ public class MapElites {
     }
 
     public MapElites(Performance performance, Features featureX, Features featureY, TeamGameplay gameplayFramework, String controller, Double heuristicsWeightList[], int nRandomInitialisations) {
+        this(performance, featureX, featureY, gameplayFramework, controller, heuristicsWeightList, nRandomInitialisations, 1, 1);
+    }
+
+    public MapElites(Performance performance, Features featureX, Features featureY, TeamGameplay gameplayFramework, String controller, Double heuristicsWeightList[], int nRandomInitialisations, int nEvaluationWorkers, int evaluationBatchSize) {
+        this(performance, featureX, featureY, gameplayFramework, controller, heuristicsWeightList, nRandomInitialisations, nEvaluationWorkers, evaluationBatchSize, null);
+    }
+
+    /**
+     * If the checkpoint continues a previous run, the map is restored from it instead of initialised
+     */
+    public MapElites(Performance performance, Features featureX, Features featureY, TeamGameplay gameplayFramework, String controller, Double heuristicsWeightList[], int nRandomInitialisations, int nEvaluationWorkers, int evaluationBatchSize, MapElitesCheckpoint checkpoint) {
         mapElites = new Elite[featureX.featureArraySize()][featureY.featureArraySize()];
         occupiedCellsIdx = new ArrayList<EliteIdx>();
         
         this.performanceCriteria = performance;
         this.featureInfoX = featureX;
         this.featureInfoY = featureY;
+        this.mapFeatures = new Features[]{featureX, featureY};
         this.gameplayFramework = gameplayFramework;
         this.controller = controller;
         this.heuristicsWeightList = heuristicsWeightList;
+        this.nEvaluationWorkers = Math.max(1, nEvaluationWorkers);
+        this.evaluationBatchSize = Math.max(1, evaluationBatchSize);
+        this.checkpoint = checkpoint;
+        this.nIterationsFinished = 0;
+
+        if (isParallelEvaluation()) {
+            // Daemon threads, so a run that stops with an error does not keep the process alive
+            evaluationPool = Executors.newFixedThreadPool(this.nEvaluationWorkers, runnable -> {
+                Thread thread = new Thread(runnable, "map-elites-evaluation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
 
-        initialiseMap(nRandomInitialisations);
+        if ((checkpoint != null) && checkpoint.isResumed()) {
+            restoreMap();
+        } else {
+            if (isParallelEvaluation()) {
+                initialiseMapInParallel(nRandomInitialisations);
+            } else {
+                initialiseMap(nRandomInitialisations);
+            }
+            recordIterationFinished(0);
+        }
+    }
 
-        // Backup map elites after initialisation for temp data 
-        if (ITERATION_BACKUP != 0){
-            backUpTempResults(0);
+    /**
+     * Restore the map of the run in the checkpoint: place its elites in the same order they were placed
+     * and continue the random generator from the last iteration finished
+     */
+    private void restoreMap() {
+        for (PlacedElite placedElite : checkpoint.getPlacedElites()) {
+            Elite elite = placedElite.elite;
+            if (mapElites[placedElite.x][placedElite.y] == null) {
+                occupiedCellsIdx.add(new EliteIdx(placedElite.x, placedElite.y));
+            }
+            mapElites[placedElite.x][placedElite.y] = elite;
         }
+        Generator.setState(checkpoint.getGeneratorState());
+        nIterationsFinished = checkpoint.getLastIteration();
+
+        System.out.println("MAPElites restored: " + getNCellsOccupied() + " cells occupied, " + nIterationsFinished + " iterations finished\n");
     }
 
     /**
@@ -99,6 +171,42 @@ public class MapElites {
         System.out.println("MAPElites initialised: " + getNCellsOccupied() + " cells occupied\n");
     }
 
+    /**
+     * Same initialisation as initialiseMap, but the elites are evaluated at the same time in the
+     * pool of workers. The elites are added to the map in the same order they were created.
+     * @param nRandomInitialisations number of random initialisations requested
+     */
+    private void initialiseMapInParallel(int nRandomInitialisations) {
+        ArrayList<Future<Elite>> initialElites = new ArrayList<Future<Elite>>();
+
+        // Create an elite with only one of each of the behaviours, set to 1.0 and the others to 0.0
+        for (int i = 0; i < heuristicsWeightList.length; i++) {
+            System.out.println("MAPELites initialisation with behaviour for weight in " + i);
+            Double[] weightList = new Double[heuristicsWeightList.length];
+            for (int j = 0; j < weightList.length; j++) {
+                weightList[j] = 0.0;
+            }
+            weightList[i] = 1.0;
+
+            initialElites.add(evaluationPool.submit(() -> createGameplayElite(weightList)));
+        }
+
+        // Random initialisations
+        for (int i = 1; i < (nRandomInitialisations + 1); i++) {
+            System.out.println("MAPELites initialisation iteration " + i);
+            Double[] weightList = new Double[heuristicsWeightList.length];
+            Generator.setRandomWeights(weightList);
+
+            initialElites.add(evaluationPool.submit(() -> createGameplayElite(weightList)));
+        }
+
+        for (Future<Elite> elite : initialElites) {
+            addEliteToMap(getEvaluatedElite(elite));
+        }
+
+        System.out.println("MAPElites initialised: " + getNCellsOccupied() + " cells occupied\n");
+    }
+
     /**
      * MAP elites algorithm - iterate nIterations times
      * 1) get random elite from map
@@ -108,7 +216,12 @@ public class MapElites {
      * @param nTotalIterations number of iterations of the map elites algorithm
      */
     public void runAlgorithm(int nTotalIterations) {
-        int nIterations = 1;
+        if (isParallelEvaluation()) {
+            runAlgorithmInParallel(nTotalIterations);
+            return;
+        }
+
+        int nIterations = nIterationsFinished + 1;
         while(nIterations <= nTotalIterations) {
             System.out.println("MAPELites algorithm iteration " + nIterations);
             
@@ -122,11 +235,7 @@ public class MapElites {
             // Create new possible elite and add to map
             Elite newElite = createGameplayElite();
             addEliteToMap(newElite);
-
-            // Backup map elites current state for temp data
-            if ((ITERATION_BACKUP != 0) && ((nIterations % ITERATION_BACKUP) == 0)) {
-                backUpTempResults(nIterations);
-            }
+            recordIterationFinished(nIterations);
             
             nIterations++;
         }
@@ -135,14 +244,95 @@ public class MapElites {
         processMapElitesData();
     }
 
-    private void backUpTempResults(int algorithmIteration) {
-        System.out.println("Iteration number " +  algorithmIteration + ". Backing up map elite results...");
+    /**
+     * Asynchronous version of the MAP elites algorithm - iterate nIterations times
+     * 1) keep evaluationBatchSize candidates being evaluated in the pool of workers. Each of them
+     *    is created from the weights of a random elite from the map, evolved.
+     * 2) when the oldest candidate is evaluated, add it to the map (same rules as the serial algorithm)
+     * 3) create a new candidate from the updated map to replace the one finished
+     * Each candidate added to the map counts as one iteration of the algorithm.
+     * As the candidates are added in the order they were created, the map and the candidates drawn
+     * from it do not depend on which evaluations finish first.
+     * @param nTotalIterations number of iterations of the map elites algorithm
+     */
+    private void runAlgorithmInParallel(int nTotalIterations) {
+        try {
+            ArrayDeque<Future<Elite>> evaluations = new ArrayDeque<Future<Elite>>();
+
+            int nCandidatesSubmitted = nIterationsFinished;
+            while (nCandidatesSubmitted < Math.min(nIterationsFinished + evaluationBatchSize, nTotalIterations)) {
+                submitCandidateElite(evaluations);
+                nCandidatesSubmitted++;
+            }
+
+            int nIterations = nIterationsFinished + 1;
+            while(nIterations <= nTotalIterations) {
+                // wait for the oldest candidate to finish its evaluation and add it to the map
+                Elite newElite = getEvaluatedElite(evaluations.poll());
+                System.out.println("MAPELites algorithm iteration " + nIterations);
+                addEliteToMap(newElite);
+
+                // keep the workers busy with a new candidate created from the updated map
+                if (nCandidatesSubmitted < nTotalIterations) {
+                    submitCandidateElite(evaluations);
+                    nCandidatesSubmitted++;
+                }
+
+                // Recorded once the new candidate is drawn, so a resumed run does not draw the same one again
+                recordIterationFinished(nIterations);
+
+                nIterations++;
+            }
+        } finally {
+            evaluationPool.shutdown();
+        }
+
+        // When the algorithm is over, we need to make sure the final elites have all the data available
         processMapElitesData();
-        JSONManager.backupMapElitesGameplay(this, algorithmIteration);
     }
 
     /**
-     * Make all the data of the elites available: calculate all stats and set the data needed for serialisation.
+     * Create a new candidate from the weights of a random elite from the map, evolved, and send it
+     * to be evaluated. The candidate has its own list of weights so it is independent from the rest.
+     * @param evaluations candidates in evaluation, in the order they were created
+     */
+    private void submitCandidateElite(ArrayDeque<Future<Elite>> evaluations) {
+        Double[] candidateWeightList = new Double[heuristicsWeightList.length];
+
+        // get random cell elite and a copy of its weights
+        Elite randomElite = getRandomEliteFromMap();
+        randomElite.copyWeightsListValues(candidateWeightList);
+
+        // evol weights
+        evolveHeuristicsWeights(candidateWeightList);
+
+        evaluations.add(evaluationPool.submit(() -> createGameplayElite(candidateWeightList)));
+    }
+
+    private Elite getEvaluatedElite(Future<Elite> evaluation) {
+        try {
+            return evaluation.get();
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Exception evaluating MAP Elites candidate:");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        return null;
+    }
+
+    private boolean isParallelEvaluation() {
+        return (nEvaluationWorkers > 1) || (evaluationBatchSize > 1);
+    }
+
+    private void recordIterationFinished(int algorithmIteration) {
+        nIterationsFinished = algorithmIteration;
+        if (checkpoint != null) {
+            checkpoint.recordIteration(algorithmIteration);
+        }
+    }
+
+    /**
+     * Make all the data of the elites available: calculate all stats.
      * While the algorithm is running, not all gameStats data is being calculated so it is needed to got through
      * all the occupied cells in the map to process all the data of the elite so it is available when their
      * information is printed or serialised.
@@ -151,7 +341,6 @@ public class MapElites {
         for (EliteIdx eliteIdx : occupiedCellsIdx) {
             Elite elite = mapElites[eliteIdx.x][eliteIdx.y];
             elite.calculateAllStats();
-            elite.setDataForSerialisation(performanceCriteria, new Features[]{featureInfoX, featureInfoY});
         }
     }
 
@@ -171,35 +360,47 @@ public class MapElites {
     private Elite createGameplayElite() {
         // Get the game stats needed for the calculations for the map for current controller and weights. 
         // During the iteration of the algorithm, only the stats involved in performance and features are needed
-        GameStats gameStats = gameplayFramework.createMapEliteStatsFromGameplay(controller, performanceCriteria, new Features[]{featureInfoX, featureInfoY});
+        // The weights are provided so weights already played are not played again
+        return createGameplayElite(heuristicsWeightList);
+    }
+
+    private Elite createGameplayElite(Double[] weightList) {
+        // Each candidate plays with its own heuristic so candidates can be evaluated at the same time
+        GameStats gameStats = gameplayFramework.createMapEliteStatsFromGameplay(controller, weightList, performanceCriteria, mapFeatures);
 
         // Create elite with information and results
-        return new Elite(controller, heuristicsWeightList, gameStats);
+        return new Elite(controller, weightList, gameStats, performanceCriteria, mapFeatures);
     }
 
     private void addEliteToMap(Elite elite) {
-        int featureX = elite.getFeatureIdx(featureInfoX);
-        int featureY = elite.getFeatureIdx(featureInfoY);
+        int featureX = elite.getFeatureIdx(FEATURE_X_DIMENSION);
+        int featureY = elite.getFeatureIdx(FEATURE_Y_DIMENSION);
 
         Elite currentElite = mapElites[featureX][featureY];
 
         System.out.println("New elite w/ weights: " + elite.printWeights() + " --> Cell ("+ featureX + ", " + featureY + ")");
         if (currentElite == null) {
-            elite.setDataForSerialisation(performanceCriteria, new Features[]{featureInfoX, featureInfoY});
             mapElites[featureX][featureY] = elite;
             occupiedCellsIdx.add(new EliteIdx(featureX, featureY));
+            recordPlacedElite(featureX, featureY, elite);
         } else {
-            System.out.println("Cell occupied by elite w/ weights: " + currentElite.printWeights()+ ". Performances: " + elite.getPerformance(performanceCriteria) + " vs " + currentElite.getPerformance(performanceCriteria));
+            System.out.println("Cell occupied by elite w/ weights: " + currentElite.printWeights()+ ". Performances: " + elite.getPerformance() + " vs " + currentElite.getPerformance());
             // substitute the current elite only if thew new one has better performance
-            if (Double.compare(elite.getPerformance(performanceCriteria), currentElite.getPerformance(performanceCriteria)) > 0) {
+            if (Double.compare(elite.getPerformance(), currentElite.getPerformance()) > 0) {
                 System.out.println("New elite has better performance; replace");
-                elite.setDataForSerialisation(performanceCriteria, new Features[]{featureInfoX, featureInfoY});
                 mapElites[featureX][featureY] = elite;
+                recordPlacedElite(featureX, featureY, elite);
             }
         }
         System.out.println("\n");
     }
 
+    private void recordPlacedElite(int featureX, int featureY, Elite elite) {
+        if (checkpoint != null) {
+            checkpoint.recordPlacedElite(featureX, featureY, elite);
+        }
+    }
+
     public void printMapElitesInfo(String statsResultsFileName) {
         System.out.println("MAP Elites cells X: "+ featureInfoX.name()+ " (vertical); Y: " + featureInfoY.name() + " (horizontal)\n");
         for (int x = 0; x < mapElites.length; x++) {
@@ -0,0 +1,312 @@
+package heuristic_diversification.mapelites;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
+
+import heuristic_diversification.model.MetricValues;
+import tools.com.google.gson.ExclusionStrategy;
+import tools.com.google.gson.FieldAttributes;
+import tools.com.google.gson.Gson;
+import tools.com.google.gson.GsonBuilder;
+import tools.com.google.gson.JsonArray;
+import tools.com.google.gson.JsonDeserializationContext;
+import tools.com.google.gson.JsonDeserializer;
+import tools.com.google.gson.JsonElement;
+import tools.com.google.gson.JsonObject;
+import tools.com.google.gson.JsonParseException;
+import tools.com.google.gson.JsonSerializationContext;
+import tools.com.google.gson.JsonSerializer;
+
+/**
+ * Checkpoint of a MAP-Elites run, so it can be resumed if it stops before finishing.
+ *
+ * The checkpoint is a file where a line (JSON) is appended every time an elite is placed in a cell of
+ * the map, with the stats of all its runs, and every time an iteration of the algorithm finishes, with
+ * the state of the random generator. Only the changes are written, so the cost of keeping it does not
+ * grow with the size of the map. The first line records the seed of the experiment.
+ *
+ * When resumed, the map is rebuilt from the elites placed up to the last iteration finished, and the
+ * lines written after it are discarded. The candidates being evaluated at that moment are lost, which
+ * is one candidate when they are evaluated one at a time or up to a batch when evaluated in parallel.
+ */
+public class MapElitesCheckpoint {
+    private String fileName;
+    private BufferedWriter writer;
+    private Gson gson;
+
+    // State of the run resumed
+    private boolean resumed;
+    private long randomSeed;
+    private int lastIteration;
+    private String generatorState;
+    private ArrayList<PlacedElite> placedElites;
+
+    /**
+     * Line of the checkpoint. Only the fields of its kind of line are set
+     */
+    private static class Record {
+        // first line
+        Long randomSeed;
+
+        // elite placed in a cell
+        Integer x;
+        Integer y;
+        Elite elite;
+
+        // iteration finished
+        Integer iteration;
+        String generatorState;
+    }
+
+    /**
+     * Elite placed in a cell of the map, in a previous run
+     */
+    public static class PlacedElite {
+        public final int x;
+        public final int y;
+        public final Elite elite;
+
+        private PlacedElite(int x, int y, Elite elite) {
+            this.x = x;
+            this.y = y;
+            this.elite = elite;
+        }
+    }
+
+    /**
+     * A file with a previous run is only started again when it is resumed (and has no iteration finished)
+     * or when it is overwritten explicitly, so a run is not lost by forgetting to resume it.
+     * @param fileName file of the checkpoint
+     * @param resume true to continue the run in the file, if there is any iteration finished in it.
+     *               Otherwise the file is started again
+     * @param overwrite true to start the file again, even if it has a previous run, when it is not resumed
+     * @param randomSeed seed of the experiment, recorded when the file is started again
+     */
+    public MapElitesCheckpoint(String fileName, boolean resume, boolean overwrite, long randomSeed) {
+        this.fileName = fileName;
+        this.placedElites = new ArrayList<PlacedElite>();
+        this.gson = new GsonBuilder()
+            // The values of the runs are transient in the stats, as they are not part of the results
+            .excludeFieldsWithModifiers(Modifier.STATIC)
+            .setExclusionStrategies(new CalculatedStatsExclusion())
+            .registerTypeAdapter(MetricValues.class, new MetricValuesAdapter())
+            .serializeSpecialFloatingPointValues()
+            .create();
+
+        File file = new File(fileName);
+        if (!resume && !overwrite && (file.length() > 0)) {
+            System.out.println("Error: checkpoint " + fileName + " has a previous run. Resume it, or start it again explicitly to overwrite it");
+            System.exit(1);
+        }
+
+        if (resume && file.exists()) {
+            load();
+        }
+
+        try {
+            writer = new BufferedWriter(new FileWriter(file, resumed));
+            if (!resumed) {
+                Record record = new Record();
+                record.randomSeed = randomSeed;
+                writeRecord(record);
+                writer.flush();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        if (resumed) {
+            System.out.println("Resuming MAP Elites run from iteration " + lastIteration + ": " + placedElites.size() + " elites placed");
+        } else {
+            this.randomSeed = randomSeed;
+        }
+    }
+
+    /**
+     * @return true if the checkpoint continues a previous run
+     */
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * @return seed of the experiment of the checkpoint
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * @return last iteration finished in the run resumed (0 if only the initialisation finished)
+     */
+    public int getLastIteration() {
+        return lastIteration;
+    }
+
+    /**
+     * @return state of the random generator at the end of the last iteration of the run resumed
+     */
+    public String getGeneratorState() {
+        return generatorState;
+    }
+
+    /**
+     * @return elites placed in the map in the run resumed, in the order they were placed
+     */
+    public ArrayList<PlacedElite> getPlacedElites() {
+        return placedElites;
+    }
+
+    public void recordPlacedElite(int x, int y, Elite elite) {
+        Record record = new Record();
+        record.x = x;
+        record.y = y;
+        record.elite = elite;
+        writeRecord(record);
+    }
+
+    /**
+     * Records that an iteration finished (0 for the initialisation). Everything recorded until now is
+     * written to the file, so the run can be resumed from this point
+     * @param iteration iteration finished
+     */
+    public void recordIteration(int iteration) {
+        Record record = new Record();
+        record.iteration = iteration;
+        record.generatorState = Generator.getState();
+        writeRecord(record);
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeRecord(Record record) {
+        try {
+            writer.write(gson.toJson(record));
+            writer.write("\n");
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Reads the file up to the last iteration finished and discards the rest, which may be incomplete
+     */
+    private void load() {
+        ArrayList<PlacedElite> elitesOfIteration = new ArrayList<PlacedElite>();
+        long finishedLength = 0;
+        long length = 0;
+        boolean seedRead = false;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(fileName))) {
+            String line = reader.readLine();
+            while (line != null) {
+                Record record;
+                try {
+                    record = gson.fromJson(line, Record.class);
+                } catch (JsonParseException e) {
+                    // Last line, not fully written
+                    break;
+                }
+                length += line.getBytes(StandardCharsets.UTF_8).length + 1;
+
+                if (record.randomSeed != null) {
+                    randomSeed = record.randomSeed;
+                    seedRead = true;
+                } else if (record.elite != null) {
+                    elitesOfIteration.add(new PlacedElite(record.x, record.y, record.elite));
+                } else if (record.iteration != null) {
+                    placedElites.addAll(elitesOfIteration);
+                    elitesOfIteration.clear();
+                    lastIteration = record.iteration;
+                    generatorState = record.generatorState;
+                    finishedLength = length;
+                    resumed = seedRead;
+                }
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+
+        if (!resumed) {
+            System.out.println("No iteration finished in " + fileName + ", starting again");
+            placedElites.clear();
+            return;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(fileName, "rw")) {
+            file.setLength(finishedLength);
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The stats calculated are not recorded, they are calculated again from the values of the runs
+     */
+    private static class CalculatedStatsExclusion implements ExclusionStrategy {
+        @Override
+        public boolean shouldSkipField(FieldAttributes f) {
+            return false;
+        }
+
+        @Override
+        public boolean shouldSkipClass(Class<?> clazz) {
+            return clazz == StatisticalSummaryValues.class;
+        }
+    }
+
+    /**
+     * Records only the values of a metric, its statistics are calculated again when read
+     */
+    private static class MetricValuesAdapter implements JsonSerializer<MetricValues>, JsonDeserializer<MetricValues> {
+        @Override
+        public JsonElement serialize(MetricValues metric, Type type, JsonSerializationContext context) {
+            JsonArray values = new JsonArray();
+            for (int i = 0; i < metric.size(); i++) {
+                values.add(metric.get(i));
+            }
+            JsonObject json = new JsonObject();
+            json.addProperty("integerValues", metric.isIntegerValues());
+            json.add("values", values);
+            return json;
+        }
+
+        @Override
+        public MetricValues deserialize(JsonElement json, Type type, JsonDeserializationContext context) {
+            JsonObject object = json.getAsJsonObject();
+            MetricValues metric = new MetricValues(object.get("integerValues").getAsBoolean());
+            for (JsonElement value : object.getAsJsonArray("values")) {
+                metric.add(value.getAsDouble());
+            }
+            return metric;
+        }
+    }
+}
@@ -5,43 +5,27 @@
 
 package heuristic_diversification.mapelites;
 
-import java.lang.reflect.Field;
-
-import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
-
 import heuristic_diversification.model.GameStats;
+import heuristic_diversification.model.GameStats.Metric;
 
 public enum Performance {
-    FAST("gameOverTick", true),
-    SLOW("gameOverTick", false);
+    FAST(Metric.GAME_OVER_TICK, true),
+    SLOW(Metric.GAME_OVER_TICK, false);
 
-    String statName;
+    Metric metric;
     boolean invertedStat; // If true, a lower value is better
 
-    Performance(String statName, boolean invertedStat) {
-        this.statName = statName;
+    Performance(Metric metric, boolean invertedStat) {
+        this.metric = metric;
         this.invertedStat = invertedStat;
     }
 
     public void calculatePerfomanceStat(GameStats gameStats) {
-        gameStats.calculateFieldStats(statName);
+        gameStats.calculateMetricStats(metric);
     }
  
     public double getPerformanceValue(GameStats gameStats) {
-        double performance = 0.0;
-
-        try {
-
-            Field statsField;
-            statsField = GameStats.class.getField(statName + "Stats");
-            StatisticalSummaryValues stats =  (StatisticalSummaryValues) statsField.get(gameStats);
-            performance = stats.getMean();
-
-        } catch (NoSuchFieldException | IllegalArgumentException | IllegalAccessException e) { 
-            System.err.println("Exception retrieving " + statName + "Stats in gameStats");
-            e.printStackTrace();
-            System.exit(1);
-        }
+        double performance = gameStats.getMetricMean(metric);
 
         if (invertedStat) {
             return (-1) * performance;
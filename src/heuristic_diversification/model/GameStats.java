@@ -9,36 +9,35 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
-import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
 
 public class GameStats {
-    transient private ArrayList<Integer> gameOverTick;
+    transient private MetricValues gameOverTick;
     public StatisticalSummaryValues gameOverTickStats;
 
     // winner
-    transient private ArrayList<Integer> win; // 1 win, 0 lose
+    transient private MetricValues win; // 1 win, 0 lose
     public StatisticalSummaryValues winStats;
 
     // record breaker
-    transient private ArrayList<Double> score;
-    transient private ArrayList<Integer> lastScoreChangeTick;
-    transient private ArrayList<Integer> lastPositiveScoreChangeTick;
+    transient private MetricValues score;
+    transient private MetricValues lastScoreChangeTick;
+    transient private MetricValues lastPositiveScoreChangeTick;
     public StatisticalSummaryValues scoreStats;
     public StatisticalSummaryValues lastScoreChangeTickStats;
     public StatisticalSummaryValues lastPositiveScoreChangeTickStats;
 
     // explorer
     private int mapSize;
-    transient private ArrayList<Integer> nExplored;
-    transient private ArrayList<int[][]> heatMapExplorationMatrix;
-    transient private ArrayList<Integer> lastNewExplorationTick;
+    transient private MetricValues nExplored;
+    transient private MetricValues percentageExplored;
+    transient private double[][] heatMapExplorationMatrixSum; // sum of the exploration matrices of all runs
+    transient private int nHeatMapExplorationMatrices;
+    transient private MetricValues lastNewExplorationTick;
     private double[][] heatMapExplorationMatrixAvg;
     public StatisticalSummaryValues nExploredStats;
     public StatisticalSummaryValues percentageExploredStats;
@@ -46,19 +45,20 @@ public class GameStats {
 
     // discovery
     private ArrayList<Integer> finalStypesDiscovered; // this contains the final list of sprites discovered in any of the runs
-    transient private ArrayList<Integer> nSpritesDiscovered;
-    transient private ArrayList<Integer> lastDiscoveryTick;
+    transient private MetricValues nSpritesDiscovered;
+    transient private MetricValues lastDiscoveryTick;
     public StatisticalSummaryValues nSpritesDiscoveredStats;
     public StatisticalSummaryValues lastDiscoveryTickStats;
 
     // curious
-    transient private ArrayList<Integer> nUniqueSpriteInteractions;
-    transient private ArrayList<Integer> nCuriosityInteractions;
-    transient private ArrayList<Integer> nTotalCollisions;
-    transient private ArrayList<Integer> nTotalHits;
-    transient private ArrayList<Integer> lastNewCollisionTick;
-    transient private ArrayList<Integer> lastNewHitTick;
-    transient private ArrayList<Integer> lastCuriosityTick;
+    transient private MetricValues nUniqueSpriteInteractions;
+    transient private MetricValues nCuriosityInteractions;
+    transient private MetricValues nTotalCollisions;
+    transient private MetricValues nTotalHits;
+    transient private MetricValues nTotalInteractions; // collisions + hits
+    transient private MetricValues lastNewCollisionTick;
+    transient private MetricValues lastNewHitTick;
+    transient private MetricValues lastCuriosityTick;
     public StatisticalSummaryValues nUniqueSpriteInteractionsStats;
     public StatisticalSummaryValues nCuriosityInteractionsStats;
     public StatisticalSummaryValues nTotalInteractionsStats;
@@ -70,59 +70,99 @@ public class GameStats {
     
     // killer
     private ArrayList<Integer> finalStypesKilled;
-    transient private ArrayList<Integer> nTotalKills;
-    transient private ArrayList<Integer> lastKillTick;
+    transient private MetricValues nTotalKills;
+    transient private MetricValues lastKillTick;
     public StatisticalSummaryValues nTotalKillsStats;
     public StatisticalSummaryValues lastKillTickStats;
 
     // collector
     private ArrayList<Integer> finalStypesCollected;
-    transient private ArrayList<Integer> nTotalItemsCollected;
-    transient private ArrayList<Integer> lastCollectionTick;
+    transient private MetricValues nTotalItemsCollected;
+    transient private MetricValues lastCollectionTick;
     public StatisticalSummaryValues nTotalItemsCollectedStats;
     public StatisticalSummaryValues lastCollectionTickStats;
 
+    /**
+     * Metrics recorded in every run. Each of them gives access to its values and to the field of its
+     * stats, so they can be used by name (e.g. as features of the MAP-Elites) without reflection
+     */
+    public enum Metric {
+        GAME_OVER_TICK(s -> s.gameOverTick, (s, stats) -> s.gameOverTickStats = stats),
+        WIN(s -> s.win, (s, stats) -> s.winStats = stats),
+        SCORE(s -> s.score, (s, stats) -> s.scoreStats = stats),
+        LAST_SCORE_CHANGE_TICK(s -> s.lastScoreChangeTick, (s, stats) -> s.lastScoreChangeTickStats = stats),
+        LAST_POSITIVE_SCORE_CHANGE_TICK(s -> s.lastPositiveScoreChangeTick, (s, stats) -> s.lastPositiveScoreChangeTickStats = stats),
+        N_EXPLORED(s -> s.nExplored, (s, stats) -> s.nExploredStats = stats),
+        PERCENTAGE_EXPLORED(s -> s.percentageExplored, (s, stats) -> s.percentageExploredStats = stats),
+        LAST_NEW_EXPLORATION_TICK(s -> s.lastNewExplorationTick, (s, stats) -> s.lastNewExplorationTickStats = stats),
+        N_SPRITES_DISCOVERED(s -> s.nSpritesDiscovered, (s, stats) -> s.nSpritesDiscoveredStats = stats),
+        LAST_DISCOVERY_TICK(s -> s.lastDiscoveryTick, (s, stats) -> s.lastDiscoveryTickStats = stats),
+        N_UNIQUE_SPRITE_INTERACTIONS(s -> s.nUniqueSpriteInteractions, (s, stats) -> s.nUniqueSpriteInteractionsStats = stats),
+        N_CURIOSITY_INTERACTIONS(s -> s.nCuriosityInteractions, (s, stats) -> s.nCuriosityInteractionsStats = stats),
+        N_TOTAL_INTERACTIONS(s -> s.nTotalInteractions, (s, stats) -> s.nTotalInteractionsStats = stats),
+        N_TOTAL_COLLISIONS(s -> s.nTotalCollisions, (s, stats) -> s.nTotalCollisionsStats = stats),
+        N_TOTAL_HITS(s -> s.nTotalHits, (s, stats) -> s.nTotalHitsStats = stats),
+        LAST_NEW_COLLISION_TICK(s -> s.lastNewCollisionTick, (s, stats) -> s.lastNewCollisionTickStats = stats),
+        LAST_NEW_HIT_TICK(s -> s.lastNewHitTick, (s, stats) -> s.lastNewHitTickStats = stats),
+        LAST_CURIOSITY_TICK(s -> s.lastCuriosityTick, (s, stats) -> s.lastCuriosityTickStats = stats),
+        N_TOTAL_KILLS(s -> s.nTotalKills, (s, stats) -> s.nTotalKillsStats = stats),
+        LAST_KILL_TICK(s -> s.lastKillTick, (s, stats) -> s.lastKillTickStats = stats),
+        N_TOTAL_ITEMS_COLLECTED(s -> s.nTotalItemsCollected, (s, stats) -> s.nTotalItemsCollectedStats = stats),
+        LAST_COLLECTION_TICK(s -> s.lastCollectionTick, (s, stats) -> s.lastCollectionTickStats = stats);
+
+        private final Function<GameStats, MetricValues> values;
+        private final BiConsumer<GameStats, StatisticalSummaryValues> stats;
+
+        Metric(Function<GameStats, MetricValues> values, BiConsumer<GameStats, StatisticalSummaryValues> stats) {
+            this.values = values;
+            this.stats = stats;
+        }
+    }
+
     public GameStats(int mapSize) {
         this.mapSize = mapSize;
 
-        gameOverTick = new ArrayList<Integer>();
+        gameOverTick = new MetricValues(true);
 
         // winner
-        win = new ArrayList<Integer>();
+        win = new MetricValues(true);
 
         // record breaker
-        score = new ArrayList<Double>();
-        lastScoreChangeTick = new ArrayList<Integer>();
-        lastPositiveScoreChangeTick = new ArrayList<Integer>();
+        score = new MetricValues(false);
+        lastScoreChangeTick = new MetricValues(true);
+        lastPositiveScoreChangeTick = new MetricValues(true);
 
         // explorer
-        nExplored = new ArrayList<Integer>();
-        heatMapExplorationMatrix = new ArrayList<int[][]>();
-        lastNewExplorationTick = new ArrayList<Integer>();
+        nExplored = new MetricValues(true);
+        percentageExplored = new MetricValues(false);
+        heatMapExplorationMatrixSum = null;
+        nHeatMapExplorationMatrices = 0;
+        lastNewExplorationTick = new MetricValues(true);
 
         // discovery
         finalStypesDiscovered = new ArrayList<Integer>();
-        nSpritesDiscovered = new ArrayList<Integer>();
-        lastDiscoveryTick = new ArrayList<Integer>();
+        nSpritesDiscovered = new MetricValues(true);
+        lastDiscoveryTick = new MetricValues(true);
 
         // curious
-        nUniqueSpriteInteractions = new ArrayList<Integer>();
-        nCuriosityInteractions = new ArrayList<Integer>();
-        nTotalCollisions = new ArrayList<Integer>();
-        nTotalHits = new ArrayList<Integer>();
-        lastNewCollisionTick = new ArrayList<Integer>();
-        lastNewHitTick = new ArrayList<Integer>();
-        lastCuriosityTick = new ArrayList<Integer>();
+        nUniqueSpriteInteractions = new MetricValues(true);
+        nCuriosityInteractions = new MetricValues(true);
+        nTotalCollisions = new MetricValues(true);
+        nTotalHits = new MetricValues(true);
+        nTotalInteractions = new MetricValues(true);
+        lastNewCollisionTick = new MetricValues(true);
+        lastNewHitTick = new MetricValues(true);
+        lastCuriosityTick = new MetricValues(true);
 
         // killer
         finalStypesKilled = new ArrayList<Integer>();
-        nTotalKills = new ArrayList<Integer>();
-        lastKillTick = new ArrayList<Integer>();
+        nTotalKills = new MetricValues(true);
+        lastKillTick = new MetricValues(true);
 
         // collector
         finalStypesCollected = new ArrayList<Integer>();
-        nTotalItemsCollected = new ArrayList<Integer>();
-        lastCollectionTick = new ArrayList<Integer>();
+        nTotalItemsCollected = new MetricValues(true);
+        lastCollectionTick = new MetricValues(true);
     }
 
     public void addGeneralData(int gameOverTick) {
@@ -141,10 +181,25 @@ public class GameStats {
 
     public void addExplorerFinalData(int nExplored, int[][] explorationMatrix, int lastNewExploration) {
         this.nExplored.add(nExplored);
+        if (mapSize > 0) {
+            this.percentageExplored.add((double) nExplored / mapSize);
+        }
         this.lastNewExplorationTick.add(lastNewExploration);
 
-        int[][] matrixCopy = Arrays.stream(explorationMatrix).map(int[]::clone).toArray(int[][]::new);
-        this.heatMapExplorationMatrix.add(matrixCopy);
+        addToHeatMapExplorationMatrixSum(explorationMatrix);
+    }
+
+    private void addToHeatMapExplorationMatrixSum(int[][] explorationMatrix) {
+        if (heatMapExplorationMatrixSum == null) {
+            heatMapExplorationMatrixSum = new double[explorationMatrix.length][explorationMatrix[0].length];
+        }
+
+        for (int y = 0; y < explorationMatrix.length; y++) {
+            for (int x = 0; x < explorationMatrix[y].length; x++) {
+                heatMapExplorationMatrixSum[y][x] += explorationMatrix[y][x];
+            }
+        }
+        nHeatMapExplorationMatrices++;
     }
 
     public void addDiscoveryFinalData(ArrayList<Integer> stypesDiscovered, int nSprites, int lastSpriteDiscovery) {
@@ -159,6 +214,7 @@ public class GameStats {
         this.nCuriosityInteractions.add(nCuriosity); 
         this.nTotalCollisions.add(nCollisions);
         this.nTotalHits.add(nHits);
+        this.nTotalInteractions.add(nCollisions + nHits);
         this.lastNewCollisionTick.add(lastNewCollision); 
         this.lastNewHitTick.add(lastNewHit);
         this.lastCuriosityTick.add(lastCuriosity);
@@ -178,6 +234,72 @@ public class GameStats {
         this.lastCollectionTick.add(lastCollection);
     }
 
+    /**
+     * Adds the data of the runs recorded in another GameStats, in the same order they were recorded there.
+     * Used to merge the stats of runs played separately as if they were played one after the other.
+     * @param runStats stats of the runs to add
+     */
+    public void addRunsData(GameStats runStats) {
+        this.gameOverTick.addAll(runStats.gameOverTick);
+        this.win.addAll(runStats.win);
+
+        this.score.addAll(runStats.score);
+        this.lastScoreChangeTick.addAll(runStats.lastScoreChangeTick);
+        this.lastPositiveScoreChangeTick.addAll(runStats.lastPositiveScoreChangeTick);
+
+        this.nExplored.addAll(runStats.nExplored);
+        this.percentageExplored.addAll(runStats.percentageExplored);
+        if (runStats.heatMapExplorationMatrixSum != null) {
+            if (this.heatMapExplorationMatrixSum == null) {
+                this.heatMapExplorationMatrixSum = new double[runStats.heatMapExplorationMatrixSum.length][runStats.heatMapExplorationMatrixSum[0].length];
+            }
+            for (int y = 0; y < heatMapExplorationMatrixSum.length; y++) {
+                for (int x = 0; x < heatMapExplorationMatrixSum[y].length; x++) {
+                    this.heatMapExplorationMatrixSum[y][x] += runStats.heatMapExplorationMatrixSum[y][x];
+                }
+            }
+            this.nHeatMapExplorationMatrices += runStats.nHeatMapExplorationMatrices;
+        }
+        this.lastNewExplorationTick.addAll(runStats.lastNewExplorationTick);
+
+        addStypesToFinalStypes(runStats.finalStypesDiscovered, this.finalStypesDiscovered);
+        this.nSpritesDiscovered.addAll(runStats.nSpritesDiscovered);
+        this.lastDiscoveryTick.addAll(runStats.lastDiscoveryTick);
+
+        this.nUniqueSpriteInteractions.addAll(runStats.nUniqueSpriteInteractions);
+        this.nCuriosityInteractions.addAll(runStats.nCuriosityInteractions);
+        this.nTotalCollisions.addAll(runStats.nTotalCollisions);
+        this.nTotalHits.addAll(runStats.nTotalHits);
+        this.nTotalInteractions.addAll(runStats.nTotalInteractions);
+        this.lastNewCollisionTick.addAll(runStats.lastNewCollisionTick);
+        this.lastNewHitTick.addAll(runStats.lastNewHitTick);
+        this.lastCuriosityTick.addAll(runStats.lastCuriosityTick);
+
+        addStypesToFinalStypes(runStats.finalStypesKilled, this.finalStypesKilled);
+        this.nTotalKills.addAll(runStats.nTotalKills);
+        this.lastKillTick.addAll(runStats.lastKillTick);
+
+        addStypesToFinalStypes(runStats.finalStypesCollected, this.finalStypesCollected);
+        this.nTotalItemsCollected.addAll(runStats.nTotalItemsCollected);
+        this.lastCollectionTick.addAll(runStats.lastCollectionTick);
+    }
+
+    /**
+     * @return empty GameStats for the same level, to record runs to be added later with addRunsData
+     */
+    public GameStats createEmptyStats() {
+        return new GameStats(mapSize);
+    }
+
+    /**
+     * @return GameStats with the same runs recorded, without the stats calculated
+     */
+    public GameStats copy() {
+        GameStats copy = createEmptyStats();
+        copy.addRunsData(this);
+        return copy;
+    }
+
     private void addStypesToFinalStypes(ArrayList<Integer> stypes, ArrayList<Integer> finalStypes) {
         if (!finalStypes.equals(stypes)) {
             for (Integer stype : stypes) {
@@ -191,7 +313,7 @@ public class GameStats {
     private void printGeneralStats(BufferedWriter writer) throws IOException {
         writer.write("== Game ==\n");
         for (int i = 0; i < gameOverTick.size(); i++) {
-            writer.write(gameOverTick.get(i).toString() + " ");
+            writer.write(gameOverTick.valueString(i) + " ");
         }
         writer.write("\n");
     }
@@ -199,7 +321,7 @@ public class GameStats {
     private void printWinnerStats(BufferedWriter writer) throws IOException {
         writer.write("== Winner ==\n");
         for (int i = 0; i < win.size(); i++) {
-            writer.write(win.get(i).toString() + " ");
+            writer.write(win.valueString(i) + " ");
         }
         writer.write("\n");
     }
@@ -207,9 +329,9 @@ public class GameStats {
     private void printRecordBreakerStats(BufferedWriter writer) throws IOException {
         writer.write("== Record breaker==\n");
         for (int i = 0; i < score.size(); i++) {
-            writer.write(score.get(i).toString() + " ");
-            writer.write(lastScoreChangeTick.get(i).toString() + " ");
-            writer.write(lastPositiveScoreChangeTick.get(i).toString() + " ");
+            writer.write(score.valueString(i) + " ");
+            writer.write(lastScoreChangeTick.valueString(i) + " ");
+            writer.write(lastPositiveScoreChangeTick.valueString(i) + " ");
             writer.write("\n");
         }
     }
@@ -217,27 +339,10 @@ public class GameStats {
     private void printExplorerStats(BufferedWriter writer) throws IOException {
         writer.write("== Explorer ==\n");
         for (int i = 0; i < nExplored.size(); i++) {
-            writer.write(nExplored.get(i).toString() + " ");
-            writer.write(lastNewExplorationTick.get(i).toString() + " ");
+            writer.write(nExplored.valueString(i) + " ");
+            writer.write(lastNewExplorationTick.valueString(i) + " ");
             writer.write("\n");
         }
-        writer.write("== Exploration Matrix ==\n");
-        for (int i = 0; i < heatMapExplorationMatrix.size(); i++) {
-            for (int y = 0; y < heatMapExplorationMatrix.get(i).length; y++) {
-                for (int x = 0; x < heatMapExplorationMatrix.get(i)[y].length; x++) {
-                    int nVisits = heatMapExplorationMatrix.get(i)[y][x];
-                    if (nVisits < 10) {
-                        writer.write(nVisits + "   ");
-                    } else if (nVisits < 100) {
-                        writer.write(nVisits + "  ");
-                    } else {
-                        writer.write(nVisits + " ");
-                    }
-                }
-                writer.write("\n");
-            }
-            writer.write("\n\n");
-        }
         writer.write("== Average exploration Matrix ==\n");
         if (heatMapExplorationMatrixAvg != null) {
             for (int y = 0; y < heatMapExplorationMatrixAvg.length; y++) {
@@ -260,8 +365,8 @@ public class GameStats {
         writer.write(" == Discovery ==\n");
         writer.write("stype discovered: " + finalStypesDiscovered.toString() + "\n");
         for (int i = 0; i < nSpritesDiscovered.size(); i++) {
-            writer.write(nSpritesDiscovered.get(i).toString() + " ");
-            writer.write(lastDiscoveryTick.get(i).toString() + " ");
+            writer.write(nSpritesDiscovered.valueString(i) + " ");
+            writer.write(lastDiscoveryTick.valueString(i) + " ");
             writer.write("\n");
         }
     }
@@ -269,13 +374,13 @@ public class GameStats {
     private void printCuriosityStats(BufferedWriter writer) throws IOException {
         writer.write("== Curious ==\n");
         for (int i = 0; i < nUniqueSpriteInteractions.size(); i++) {
-            writer.write(nUniqueSpriteInteractions.get(i).toString() + " ");
-            writer.write(nCuriosityInteractions.get(i).toString() + " ");
-            writer.write(nTotalCollisions.get(i).toString() + " ");
-            writer.write(nTotalHits.get(i).toString() + " ");
-            writer.write(lastNewCollisionTick.get(i).toString() + " ");
-            writer.write(lastNewHitTick.get(i).toString() + " ");
-            writer.write(lastCuriosityTick.get(i).toString() + " ");
+            writer.write(nUniqueSpriteInteractions.valueString(i) + " ");
+            writer.write(nCuriosityInteractions.valueString(i) + " ");
+            writer.write(nTotalCollisions.valueString(i) + " ");
+            writer.write(nTotalHits.valueString(i) + " ");
+            writer.write(lastNewCollisionTick.valueString(i) + " ");
+            writer.write(lastNewHitTick.valueString(i) + " ");
+            writer.write(lastCuriosityTick.valueString(i) + " ");
             writer.write("\n");
         }
     }
@@ -284,8 +389,8 @@ public class GameStats {
         writer.write("== Killer ==\n");
         writer.write("stype killed: " + finalStypesKilled.toString() + "\n");
         for (int i = 0; i < nTotalKills.size(); i++) {
-            writer.write(nTotalKills.get(i).toString() + " ");
-            writer.write(lastKillTick.get(i).toString() + " ");
+            writer.write(nTotalKills.valueString(i) + " ");
+            writer.write(lastKillTick.valueString(i) + " ");
             writer.write("\n");
         }
     }
@@ -294,8 +399,8 @@ public class GameStats {
         writer.write("== Collector ==\n");
         writer.write("stype collected: " + finalStypesCollected.toString() + "\n");
         for (int i = 0; i < nTotalItemsCollected.size(); i++) {
-            writer.write(nTotalItemsCollected.get(i).toString() + " ");
-            writer.write(lastCollectionTick.get(i).toString() + " ");
+            writer.write(nTotalItemsCollected.valueString(i) + " ");
+            writer.write(lastCollectionTick.valueString(i) + " ");
             writer.write("\n");
         }
     }
@@ -321,79 +426,51 @@ public class GameStats {
     }
 
     /**
-     * Allow calculating only the stats for the field provided. This method is helpful in cases where
+     * Allow calculating only the stats of the metric provided. This method is helpful in cases where
      * only one stat value is necessary to avoid spending time calculating all of them.
-     * @param statName name of the variable of the stat without the trailing "Stat" at the end.
+     * @param metric metric to calculate the stats of
      */
-    public void calculateFieldStats(String statName) {
-        try {
-            StatisticalSummaryValues stats = null;
-            Field dataList;
-
-            // not all field stats are calculated the same way, we include the exceptions
-            switch(statName) {
-                case "percentageExplored":
-                    // stats calculated with percentage from nExplored
-                    stats = calculatePercentageStatsFromIntegerList(nExplored, mapSize);
-                    break;
-                case "nTotalInteractions":
-                    // stats calculated as the sum of two lists: collisions + hits
-                    ArrayList<Integer> bothInteractions = (ArrayList<Integer>) IntStream.range(0, nTotalCollisions.size())
-                        .mapToObj(i -> nTotalCollisions.get(i) + nTotalHits.get(i))
-                        .collect(Collectors.toList());
-                    stats = calculateStatsFromIntegerList(bothInteractions);
-                    break;
-                case "score":
-                    // type ArrayList<Double>
-                    dataList = this.getClass().getDeclaredField(statName);
-                    ArrayList<Double> doubleDataList = (ArrayList<Double>) dataList.get(this);
-                    stats = calculateStatsFromDoubleList(doubleDataList);
-                    break;
-                default:
-                    // most common stat type ArrayList<Integer> not percentage
-                    dataList = this.getClass().getDeclaredField(statName);
-                    ArrayList<Integer> integerDataList = (ArrayList<Integer>) dataList.get(this);
-                    stats = calculateStatsFromIntegerList(integerDataList);
-                    break;
-            }
+    public void calculateMetricStats(Metric metric) {
+        metric.stats.accept(this, calculateStats(metric.values.apply(this)));
+    }
 
-            Field statsField = this.getClass().getDeclaredField(statName + "Stats");
-            statsField.set(this, stats); 
-        } catch (NoSuchFieldException | SecurityException | IllegalArgumentException | IllegalAccessException e) {
-            e.printStackTrace();
-        }
-        
+    /**
+     * @param metric metric of the runs
+     * @return mean of the values of the metric in all the runs
+     */
+    public double getMetricMean(Metric metric) {
+        return metric.values.apply(this).getMean();
     }
 
     public void calculateStats() {
         // game ticks
         System.out.println("Game ticks");
-        gameOverTickStats = calculateStatsFromIntegerList(gameOverTick);
+        gameOverTickStats = calculateStats(gameOverTick);
 
         // win
         System.out.println("Win");
-        winStats = calculateStatsFromIntegerList(win);
+        winStats = calculateStats(win);
 
         // score
         System.out.println("Score");
-        scoreStats = calculateStatsFromDoubleList(score);
+        scoreStats = calculateStats(score);
 
         // last score change
         System.out.println("Tick last score change");
-        lastScoreChangeTickStats = calculateStatsFromIntegerList(lastScoreChangeTick);
+        lastScoreChangeTickStats = calculateStats(lastScoreChangeTick);
 
         // last positive score change
         System.out.println("Tick last positive score change");
-        lastPositiveScoreChangeTickStats = calculateStatsFromIntegerList(lastPositiveScoreChangeTick);
+        lastPositiveScoreChangeTickStats = calculateStats(lastPositiveScoreChangeTick);
 
         // exploration
         System.out.println("Exploration");
-        nExploredStats = calculateStatsFromIntegerList(nExplored);
+        nExploredStats = calculateStats(nExplored);
 
         // exploration percentage
         if (mapSize > 0) {
             System.out.println("Exploration percentage");
-            percentageExploredStats = calculatePercentageStatsFromIntegerList(nExplored, mapSize);
+            percentageExploredStats = calculateStats(percentageExplored);
         }
 
         // exploration heatmap average
@@ -402,135 +479,78 @@ public class GameStats {
 
         // last new exploration
         System.out.println("Tick last new exploration");
-        lastNewExplorationTickStats = calculateStatsFromIntegerList(lastNewExplorationTick);
+        lastNewExplorationTickStats = calculateStats(lastNewExplorationTick);
 
         // discovery
         System.out.println("Sprites discovered");
-        nSpritesDiscoveredStats = calculateStatsFromIntegerList(nSpritesDiscovered);
+        nSpritesDiscoveredStats = calculateStats(nSpritesDiscovered);
         
         // last discovery
         System.out.println("Tick last discovery");
-        lastDiscoveryTickStats = calculateStatsFromIntegerList(lastDiscoveryTick);
+        lastDiscoveryTickStats = calculateStats(lastDiscoveryTick);
 
         // unique interactions
         System.out.println("Unique interactions");
-        nUniqueSpriteInteractionsStats = calculateStatsFromIntegerList(nUniqueSpriteInteractions);
+        nUniqueSpriteInteractionsStats = calculateStats(nUniqueSpriteInteractions);
 
         // curiosity
         System.out.println("Curiosity interactions");
-        nCuriosityInteractionsStats = calculateStatsFromIntegerList(nCuriosityInteractions);
+        nCuriosityInteractionsStats = calculateStats(nCuriosityInteractions);
 
         System.out.println("Tick last curiosity");
-        lastCuriosityTickStats = calculateStatsFromIntegerList(lastCuriosityTick);
+        lastCuriosityTickStats = calculateStats(lastCuriosityTick);
         
         // total interactions
         System.out.println("Total interactions");
-        ArrayList<Integer> bothInteractions = (ArrayList<Integer>) IntStream.range(0, nTotalCollisions.size())
-                                                .mapToObj(i -> nTotalCollisions.get(i) + nTotalHits.get(i))
-                                                .collect(Collectors.toList());
-        nTotalInteractionsStats = calculateStatsFromIntegerList(bothInteractions);
+        nTotalInteractionsStats = calculateStats(nTotalInteractions);
 
         // collisions
         System.out.println("Total collisions");
-        nTotalCollisionsStats = calculateStatsFromIntegerList(nTotalCollisions);
+        nTotalCollisionsStats = calculateStats(nTotalCollisions);
 
         System.out.println("Tick last new collision");
-        lastNewCollisionTickStats = calculateStatsFromIntegerList(lastNewCollisionTick);
+        lastNewCollisionTickStats = calculateStats(lastNewCollisionTick);
         
         // hits
         System.out.println("Total hits");
-        nTotalHitsStats = calculateStatsFromIntegerList(nTotalHits);
+        nTotalHitsStats = calculateStats(nTotalHits);
 
         System.out.println("Tick last new hit");
-        lastNewHitTickStats = calculateStatsFromIntegerList(lastNewHitTick);
+        lastNewHitTickStats = calculateStats(lastNewHitTick);
 
         // kills
         System.out.println("Total kills");
-        nTotalKillsStats = calculateStatsFromIntegerList(nTotalKills);
+        nTotalKillsStats = calculateStats(nTotalKills);
 
         System.out.println("Tick last kill");
-        lastKillTickStats = calculateStatsFromIntegerList(lastKillTick);
+        lastKillTickStats = calculateStats(lastKillTick);
 
         // items collected
         System.out.println("Total items collected");
-        nTotalItemsCollectedStats = calculateStatsFromIntegerList(nTotalItemsCollected);
+        nTotalItemsCollectedStats = calculateStats(nTotalItemsCollected);
 
         System.out.println("Tick last collection");
-        lastCollectionTickStats = calculateStatsFromIntegerList(lastCollectionTick);
-    }
-
-    private StatisticalSummaryValues calculateStatsFromIntegerList(ArrayList<Integer> integerDataList) {
-        if (integerDataList.size() == 0) {
-            return null;
-        }
-
-        SummaryStatistics stats = new SummaryStatistics();
-        for (Integer data : integerDataList) {
-            stats.addValue((double) data);
-        }
-
-        StatisticalSummaryValues statsVariable = (StatisticalSummaryValues) stats.getSummary();
-        System.out.println(statsVariable.toString());
-
-        return statsVariable;
+        lastCollectionTickStats = calculateStats(lastCollectionTick);
     }
 
-    private StatisticalSummaryValues calculatePercentageStatsFromIntegerList(ArrayList<Integer> integerDataList, int total) {
-        if ((integerDataList.size() == 0) || (total <= 0)) {
-            return null;
-        }
-
-        SummaryStatistics stats = new SummaryStatistics();
-        for (double data : integerDataList) {
-            double percentageData = data / total;
-            stats.addValue(percentageData);
-        }
-
-        StatisticalSummaryValues statsVariable = (StatisticalSummaryValues) stats.getSummary();
-        System.out.println(statsVariable.toString());
-
-        return statsVariable;
-    }
-
-    private StatisticalSummaryValues calculateStatsFromDoubleList(ArrayList<Double> doubleDataList) {
-        if (doubleDataList.size() == 0) {
-            return null;
-        }
-
-        SummaryStatistics stats = new SummaryStatistics();
-        for (Double data : doubleDataList) {
-            stats.addValue(data);
+    private StatisticalSummaryValues calculateStats(MetricValues metric) {
+        StatisticalSummaryValues statsVariable = metric.getSummary();
+        if (statsVariable != null) {
+            System.out.println(statsVariable.toString());
         }
 
-        StatisticalSummaryValues statsVariable = (StatisticalSummaryValues) stats.getSummary();
-        System.out.println(statsVariable.toString());
-
         return statsVariable;
     }
 
     private double[][] calculateAverageExplorationHeatMap() {
-        if (heatMapExplorationMatrix.size() == 0) {
+        if (nHeatMapExplorationMatrices == 0) {
             return null;
         }
 
-        // get first element to set the correct size to the matrix
-        int[][] firstElement = heatMapExplorationMatrix.get(0);
-        double[][] avgMatrix = new double[firstElement.length][firstElement[0].length];
-    
-        for (int i = 0; i < heatMapExplorationMatrix.size(); i++) {
-            for (int y = 0; y < heatMapExplorationMatrix.get(i).length; y++) {
-                for (int x = 0; x < heatMapExplorationMatrix.get(i)[y].length; x++) {
-                    int nVisits = heatMapExplorationMatrix.get(i)[y][x];
-                    avgMatrix[y][x] += (double) nVisits;
-                }
-            }
-        }
-
-        int nElements = heatMapExplorationMatrix.size();
+        double[][] avgMatrix = new double[heatMapExplorationMatrixSum.length][heatMapExplorationMatrixSum[0].length];
         for (int y = 0; y < avgMatrix.length; y++) {
             for (int x = 0; x < avgMatrix[y].length; x++) {
-                double nVisits = avgMatrix[y][x];
-                avgMatrix[y][x] = (nVisits / nElements);
+                avgMatrix[y][x] = (heatMapExplorationMatrixSum[y][x] / nHeatMapExplorationMatrices);
             }
         }
 
@@ -82,20 +82,6 @@ public class JSONManager {
         writeToFile(jsonString, "MapElitesGameplay_temp_general_info.json");
     }
 
-    public static void backupMapElitesGameplay(MapElites mapElitesGameplay, int algorithmIteration) {
-        Gson gson = new GsonBuilder().disableHtmlEscaping().create();
-        
-        JsonObject jsonObject = new JsonObject();
-        JsonElement mapElitesJson = gson.toJsonTree(mapElitesGameplay);
-        JsonElement iterationJson = gson.toJsonTree(algorithmIteration);
-        
-        jsonObject.add("iteration", iterationJson);
-        jsonObject.add("resultTemp", mapElitesJson);
-
-        String jsonString = gson.toJson(jsonObject);
-        writeToFile(jsonString, "MapElitesGameplay_temp_"+ algorithmIteration +".json");
-    }
-
     public static void prinObjectAsJson(Object object, String fileName) {
         Gson gson = new Gson();
 
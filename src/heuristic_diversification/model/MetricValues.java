@@ -0,0 +1,91 @@
+package heuristic_diversification.model;
+
+import java.util.Arrays;
+
+import org.apache.commons.math3.stat.descriptive.StatisticalSummaryValues;
+import org.apache.commons.math3.stat.descriptive.SummaryStatistics;
+
+/**
+ * Values of a metric recorded in each of the runs of a game, stored as primitives, and the
+ * statistics of those values updated every time a value is added (SummaryStatistics keeps
+ * the mean and variance with a streaming update), so they don't need to be calculated from
+ * all the values when requested.
+ */
+public class MetricValues {
+    private boolean integerValues;
+    private double[] values;
+    private int size;
+    private SummaryStatistics stats;
+
+    /**
+     * @param integerValues true if the values of the metric are integers, so they are printed as integers
+     */
+    public MetricValues(boolean integerValues) {
+        this.integerValues = integerValues;
+        this.values = new double[8];
+        this.size = 0;
+        this.stats = new SummaryStatistics();
+    }
+
+    public void add(double value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = value;
+        size++;
+        stats.addValue(value);
+    }
+
+    /**
+     * Adds all the values of another metric, in the same order they were added there
+     * @param other metric with the values to add
+     */
+    public void addAll(MetricValues other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.values[i]);
+        }
+    }
+
+    /**
+     * @return true if the values of the metric are integers
+     */
+    public boolean isIntegerValues() {
+        return integerValues;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double get(int i) {
+        return values[i];
+    }
+
+    /**
+     * @return mean of the values added, NaN if there are no values
+     */
+    public double getMean() {
+        return stats.getMean();
+    }
+
+    /**
+     * @param i index of the value
+     * @return the value as it is printed in the stats files
+     */
+    public String valueString(int i) {
+        if (integerValues) {
+            return Integer.toString((int) values[i]);
+        }
+        return Double.toString(values[i]);
+    }
+
+    /**
+     * @return summary of the statistics of the values added, null if there are no values
+     */
+    public StatisticalSummaryValues getSummary() {
+        if (size == 0) {
+            return null;
+        }
+        return (StatisticalSummaryValues) stats.getSummary();
+    }
+}
@@ -0,0 +1,205 @@
+package heuristic_diversification.test.mapelites;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import heuristic_diversification.mapelites.Elite;
+import heuristic_diversification.mapelites.Features;
+import heuristic_diversification.mapelites.Generator;
+import heuristic_diversification.mapelites.MapElites;
+import heuristic_diversification.mapelites.MapElitesCheckpoint;
+import heuristic_diversification.mapelites.MapElitesCheckpoint.PlacedElite;
+import heuristic_diversification.mapelites.Performance;
+import heuristic_diversification.model.GameStats;
+import heuristic_diversification.model.GameStats.Metric;
+
+public class MapElitesCheckpointTest {
+    private static final long SEED = 1234;
+    private static final Performance PERFORMANCE = Performance.FAST;
+    private static final Features[] FEATURES = new Features[]{Features.WINS, Features.SCORE};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String fileName;
+    private Elite eliteA;
+    private Elite eliteB;
+    private Elite eliteC;
+    private int[] expectedDraws;
+
+    /**
+     * Writes a run with two iterations finished (the initialisation and iteration 1), and a third one
+     * stopped while it was being recorded: an elite placed and the line of another one not fully written
+     */
+    private void writeInterruptedRun() throws IOException {
+        fileName = new File(folder.getRoot(), "checkpoint.txt").getPath();
+        Generator.setSeed(SEED);
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(fileName, false, false, SEED);
+        assertFalse(checkpoint.isResumed());
+
+        eliteA = createElite(new Double[]{0.1, 0.9}, new int[]{120, 80}, new int[]{1, 0}, new double[]{3, 4});
+        eliteB = createElite(new Double[]{0.5, 0.5}, new int[]{300, 310}, new int[]{1, 1}, new double[]{6, Double.NaN});
+        // Same cell as A, with better performance
+        eliteC = createElite(new Double[]{0.3, 0.7}, new int[]{60, 40}, new int[]{0, 1}, new double[]{4, 3});
+        Elite eliteD = createElite(new Double[]{1.0, 0.0}, new int[]{500, 500}, new int[]{0, 0}, new double[]{0, 0});
+
+        Generator.generateSeeds(3);
+        place(checkpoint, eliteA);
+        place(checkpoint, eliteB);
+        checkpoint.recordIteration(0);
+
+        Generator.generateSeeds(3);
+        place(checkpoint, eliteC);
+        checkpoint.recordIteration(1);
+        expectedDraws = Generator.generateSeeds(5);
+
+        place(checkpoint, eliteD);
+        checkpoint.close();
+        try (FileWriter writer = new FileWriter(fileName, true)) {
+            writer.write("{\"x\":2,\"y\":3,\"elite\":{\"agentName\":\"ag");
+        }
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        writeInterruptedRun();
+
+        Generator.setSeed(99);
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(fileName, true, false, 99);
+        assertTrue(checkpoint.isResumed());
+        assertEquals(SEED, checkpoint.getRandomSeed());
+        assertEquals(1, checkpoint.getLastIteration());
+
+        // The elites of the iteration not finished are discarded
+        ArrayList<PlacedElite> placedElites = checkpoint.getPlacedElites();
+        assertEquals(3, placedElites.size());
+        assertPlacedElite(eliteA, placedElites.get(0));
+        assertPlacedElite(eliteB, placedElites.get(1));
+        assertPlacedElite(eliteC, placedElites.get(2));
+
+        Generator.setState(checkpoint.getGeneratorState());
+        assertArrayEquals(expectedDraws, Generator.generateSeeds(5));
+        checkpoint.close();
+    }
+
+    @Test
+    public void testResumeTwice() throws IOException {
+        writeInterruptedRun();
+
+        // The run resumed continues recording after the last iteration finished
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(fileName, true, false, SEED);
+        Elite eliteE = createElite(new Double[]{0.8, 0.2}, new int[]{200, 200}, new int[]{0, 0}, new double[]{1, 1});
+        place(checkpoint, eliteE);
+        checkpoint.recordIteration(2);
+        checkpoint.close();
+
+        checkpoint = new MapElitesCheckpoint(fileName, true, false, SEED);
+        assertTrue(checkpoint.isResumed());
+        assertEquals(SEED, checkpoint.getRandomSeed());
+        assertEquals(2, checkpoint.getLastIteration());
+        assertEquals(4, checkpoint.getPlacedElites().size());
+        assertPlacedElite(eliteC, checkpoint.getPlacedElites().get(2));
+        assertPlacedElite(eliteE, checkpoint.getPlacedElites().get(3));
+        checkpoint.close();
+    }
+
+    @Test
+    public void testResumeWithoutIterationFinished() throws IOException {
+        fileName = new File(folder.getRoot(), "checkpoint.txt").getPath();
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(fileName, false, false, SEED);
+        place(checkpoint, createElite(new Double[]{0.1, 0.9}, new int[]{120}, new int[]{1}, new double[]{3}));
+        checkpoint.close();
+
+        // Nothing to resume: the run starts again with the seed provided
+        checkpoint = new MapElitesCheckpoint(fileName, true, false, 42);
+        assertFalse(checkpoint.isResumed());
+        assertEquals(42, checkpoint.getRandomSeed());
+        assertEquals(0, checkpoint.getPlacedElites().size());
+        checkpoint.close();
+    }
+
+    @Test
+    public void testRestoreMap() throws IOException {
+        writeInterruptedRun();
+
+        Generator.setSeed(99);
+        MapElitesCheckpoint checkpoint = new MapElitesCheckpoint(fileName, true, false, 99);
+        MapElites mapElites = new MapElites(PERFORMANCE, FEATURES[0], FEATURES[1], null, "agent", new Double[2], 1, 1, 1, checkpoint);
+
+        // The random generator continues from the last iteration finished
+        assertArrayEquals(expectedDraws, Generator.generateSeeds(5));
+
+        // Only the last elite placed in each cell is in the map
+        String restoredPrefix = new File(folder.getRoot(), "restored").getPath();
+        mapElites.printMapElitesInfo(restoredPrefix);
+        assertEquals(info(eliteB, "expectedB"), readInfo(restoredPrefix, eliteB));
+        assertEquals(info(eliteC, "expectedC"), readInfo(restoredPrefix, eliteC));
+        assertFalse(new File(restoredPrefix + "_" + weights(eliteA) + ".txt").exists());
+        checkpoint.close();
+    }
+
+    private static Elite createElite(Double[] weights, int[] ticks, int[] wins, double[] scores) {
+        GameStats gameStats = new GameStats(50);
+        for (int i = 0; i < ticks.length; i++) {
+            gameStats.addGeneralData(ticks[i]);
+            gameStats.addWinnerData(wins[i]);
+            gameStats.addRecordBreakerData(scores[i], ticks[i] / 2, ticks[i] / 3);
+            gameStats.addExplorerFinalData(10 + i, new int[][]{{i, 1}, {0, 2}}, ticks[i] - 1);
+            gameStats.addDiscoveryFinalData(new ArrayList<Integer>(Arrays.asList(3, i + 4)), 2, 7);
+            gameStats.addCuriousFinalData(2, 5 + i, 3, 1, 9, 11, 13);
+            gameStats.addKillerFinalData(new ArrayList<Integer>(Arrays.asList(5)), 1, 15);
+            gameStats.addCollectorFinalData(new ArrayList<Integer>(), 0, 0);
+        }
+        // Stats calculated are not recorded, they are calculated again from the values
+        gameStats.calculateMetricStats(Metric.GAME_OVER_TICK);
+        return new Elite("agent", weights, gameStats, PERFORMANCE, FEATURES);
+    }
+
+    private static void place(MapElitesCheckpoint checkpoint, Elite elite) {
+        checkpoint.recordPlacedElite(elite.getFeatureIdx(0), elite.getFeatureIdx(1), elite);
+    }
+
+    private void assertPlacedElite(Elite expected, PlacedElite placed) throws IOException {
+        assertEquals(expected.getFeatureIdx(0), placed.x);
+        assertEquals(expected.getFeatureIdx(1), placed.y);
+        assertEquals(expected.getFeatureIdx(0), placed.elite.getFeatureIdx(0));
+        assertEquals(expected.getFeatureIdx(1), placed.elite.getFeatureIdx(1));
+        assertEquals(expected.getPerformance(), placed.elite.getPerformance(), 0);
+        assertEquals(expected.printWeights(), placed.elite.printWeights());
+
+        // The info printed includes the values of all the runs of the elite
+        assertEquals(info(expected, "expected"), info(placed.elite, "placed"));
+    }
+
+    private String info(Elite elite, String name) throws IOException {
+        String prefix = new File(folder.getRoot(), name).getPath();
+        elite.printInfo(prefix);
+        String info = readInfo(prefix, elite);
+        new File(prefix + "_" + weights(elite) + ".txt").delete();
+        return info;
+    }
+
+    private static String readInfo(String prefix, Elite elite) throws IOException {
+        File file = new File(prefix + "_" + weights(elite) + ".txt");
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private static String weights(Elite elite) {
+        String weights = elite.printWeights();
+        return weights.substring(1, weights.length() - 1).replace(", ", "_");
+    }
+}
@@ -0,0 +1,288 @@
+package heuristic_diversification.test.singleLearning;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import org.junit.Test;
+
+import core.game.Observation;
+import core.game.SerializableStateObservation;
+import core.game.SerializableStateObservation.Phase;
+import ontology.Types;
+import tools.Vector2d;
+import tracks.singleLearning.utils.BinaryObservationCodec;
+
+public class BinaryObservationCodecTest {
+
+    // Each side of the connection keeps its own codec, with the grid of the previous observation
+    private BinaryObservationCodec encoder = new BinaryObservationCodec();
+    private BinaryObservationCodec decoder = new BinaryObservationCodec();
+    private int lastFrameLength;
+
+    @Test
+    public void testFullObservation() throws IOException {
+        SerializableStateObservation sso = createObservation(Phase.INIT, 4, 3);
+        SerializableStateObservation received = roundTrip(7, sso);
+
+        assertObservationEquals(sso, received);
+    }
+
+    @Test
+    public void testGridChanges() throws IOException {
+        SerializableStateObservation first = createObservation(Phase.INIT, 5, 4);
+        roundTrip(1, first);
+        int fullFrameLength = lastFrameLength;
+        SerializableStateObservation firstReceived = decodedCopy(first);
+
+        // A few cells change, some of them updating the observations of the previous grid
+        SerializableStateObservation next = createObservation(Phase.ACT, 5, 4);
+        next.observationGrid[1][2][0].position = new Vector2d(30, 50);
+        next.observationGrid[3][0] = null;
+        next.observationGrid[4][3] = new Observation[]{observation(9, 99, 1.0, 2.0)};
+        SerializableStateObservation received = roundTrip(2, next);
+
+        assertObservationEquals(next, received);
+        assertTrue("Only the cells changed are sent", lastFrameLength < fullFrameLength);
+        assertGridEquals(firstReceived.observationGrid[0][0], received.observationGrid[0][0]);
+
+        // The observations of the grid sent can be updated afterwards: the changes are still found
+        next.observationGrid[0][1][0].sqDist = 12.5;
+        SerializableStateObservation updated = roundTrip(3, next);
+        assertObservationEquals(next, updated);
+
+        // Unchanged cells are kept from the previous grid received
+        SerializableStateObservation unchanged = roundTrip(4, next);
+        assertObservationEquals(next, unchanged);
+        assertSame(updated.observationGrid[2][2], unchanged.observationGrid[2][2]);
+    }
+
+    @Test
+    public void testGridSizeChange() throws IOException {
+        roundTrip(1, createObservation(Phase.INIT, 5, 4));
+        roundTrip(2, createObservation(Phase.ACT, 5, 4));
+
+        SerializableStateObservation resized = createObservation(Phase.ACT, 3, 6);
+        SerializableStateObservation received = roundTrip(3, resized);
+
+        assertObservationEquals(resized, received);
+        assertEquals(3, received.observationGrid.length);
+        assertEquals(6, received.observationGrid[0].length);
+    }
+
+    @Test
+    public void testNullValues() throws IOException {
+        SerializableStateObservation sso = new SerializableStateObservation();
+        SerializableStateObservation received = roundTrip(1, sso);
+
+        assertNull(received.phase);
+        assertNull(received.gameWinner);
+        assertNull(received.avatarLastAction);
+        assertNull(received.worldDimension);
+        assertNull(received.availableActions);
+        assertNull(received.avatarResources);
+        assertNull(received.imageArray);
+        assertNull(received.observationGrid);
+        assertNull(received.NPCPositions);
+
+        // After an observation without grid, the next grid is sent complete
+        SerializableStateObservation next = createObservation(Phase.ACT, 2, 2);
+        assertObservationEquals(next, roundTrip(2, next));
+    }
+
+    @Test
+    public void testEnumEncoding() throws IOException {
+        // Enums are sent by their ordinal, and null as -1: the phase is the first byte of an observation
+        SerializableStateObservation sso = new SerializableStateObservation();
+        assertEquals(-1, encode(sso)[0]);
+
+        for (Phase phase : Phase.values()) {
+            sso.phase = phase;
+            assertEquals(phase.ordinal(), encode(sso)[0]);
+        }
+
+        for (Types.WINNER winner : Types.WINNER.values()) {
+            for (Types.ACTIONS action : Types.ACTIONS.values()) {
+                SerializableStateObservation withEnums = new SerializableStateObservation();
+                withEnums.gameWinner = winner;
+                withEnums.avatarLastAction = action;
+                withEnums.availableActions = new ArrayList<Types.ACTIONS>(Arrays.asList(action, null));
+                SerializableStateObservation received = roundTrip(1, withEnums);
+
+                assertEquals(winner, received.gameWinner);
+                assertEquals(action, received.avatarLastAction);
+                assertEquals(withEnums.availableActions, received.availableActions);
+            }
+        }
+    }
+
+    private SerializableStateObservation roundTrip(long messageId, SerializableStateObservation sso) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        encoder.writeObservationFrame(new DataOutputStream(bytes), messageId, sso);
+        lastFrameLength = bytes.size();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        SerializableStateObservation received = decoder.readObservationFrame(in);
+        assertEquals("The whole frame is read", 0, in.available());
+        return received;
+    }
+
+    private static byte[] encode(SerializableStateObservation sso) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new BinaryObservationCodec().writeObservation(new DataOutputStream(bytes), sso);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Copy of the observation as received, before its grid is modified by the test
+     */
+    private static SerializableStateObservation decodedCopy(SerializableStateObservation sso) throws IOException {
+        BinaryObservationCodec codec = new BinaryObservationCodec();
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(encode(sso)));
+        return codec.readObservation(in);
+    }
+
+    private static SerializableStateObservation createObservation(Phase phase, int width, int height) {
+        SerializableStateObservation sso = new SerializableStateObservation();
+        sso.phase = phase;
+        sso.isValidation = true;
+        sso.gameScore = 12.5f;
+        sso.gameTick = 42;
+        sso.gameWinner = Types.WINNER.NO_WINNER;
+        sso.isGameOver = false;
+        sso.worldDimension = new double[]{width * 10, height * 10};
+        sso.blockSize = 10;
+        sso.noOfPlayers = 1;
+        sso.avatarSpeed = 1.5f;
+        sso.avatarOrientation = new double[]{0, -1};
+        sso.avatarPosition = new double[]{20, 10};
+        sso.avatarLastAction = Types.ACTIONS.ACTION_LEFT;
+        sso.avatarType = 3;
+        sso.avatarHealthPoints = 5;
+        sso.avatarMaxHealthPoints = 10;
+        sso.avatarLimitHealthPoints = 20;
+        sso.isAvatarAlive = true;
+        sso.availableActions = new ArrayList<Types.ACTIONS>(Arrays.asList(Types.ACTIONS.ACTION_USE, Types.ACTIONS.ACTION_LEFT));
+        sso.avatarResources = new HashMap<Integer, Integer>();
+        sso.avatarResources.put(4, 2);
+        sso.avatarResources.put(6, 1);
+        sso.imageArray = new byte[]{1, 2, 3, -4};
+
+        sso.observationGrid = new Observation[width][height][];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if ((x + y) % 3 == 0) {
+                    sso.observationGrid[x][y] = new Observation[]{observation(x, y, x * 10, y * 10), observation(1, x * height + y, x * 10, y * 10)};
+                } else if ((x + y) % 3 == 1) {
+                    sso.observationGrid[x][y] = new Observation[]{observation(2, x * height + y, x * 10, y * 10)};
+                }
+            }
+        }
+
+        Observation withoutPosition = observation(5, 50, 0, 0);
+        withoutPosition.position = null;
+        withoutPosition.reference = null;
+        sso.NPCPositions = new Observation[][]{{observation(7, 70, 10, 20), withoutPosition}, null, {null}};
+        sso.immovablePositions = new Observation[][]{{observation(0, 1, 0, 0)}};
+        sso.movablePositions = new Observation[0][];
+        return sso;
+    }
+
+    private static Observation observation(int itype, int id, double x, double y) {
+        Observation obs = new Observation(itype, id, new Vector2d(x, y), new Vector2d(5, 5), itype % 4);
+        obs.sqDist = x * x + y * y;
+        return obs;
+    }
+
+    private static void assertObservationEquals(SerializableStateObservation expected, SerializableStateObservation actual) {
+        assertEquals(expected.phase, actual.phase);
+        assertEquals(expected.isValidation, actual.isValidation);
+        assertEquals(expected.gameScore, actual.gameScore, 0);
+        assertEquals(expected.gameTick, actual.gameTick);
+        assertEquals(expected.gameWinner, actual.gameWinner);
+        assertEquals(expected.isGameOver, actual.isGameOver);
+        assertArrayEquals(expected.worldDimension, actual.worldDimension, 0);
+        assertEquals(expected.blockSize, actual.blockSize);
+        assertEquals(expected.noOfPlayers, actual.noOfPlayers);
+        assertEquals(expected.avatarSpeed, actual.avatarSpeed, 0);
+        assertArrayEquals(expected.avatarOrientation, actual.avatarOrientation, 0);
+        assertArrayEquals(expected.avatarPosition, actual.avatarPosition, 0);
+        assertEquals(expected.avatarLastAction, actual.avatarLastAction);
+        assertEquals(expected.avatarType, actual.avatarType);
+        assertEquals(expected.avatarHealthPoints, actual.avatarHealthPoints);
+        assertEquals(expected.avatarMaxHealthPoints, actual.avatarMaxHealthPoints);
+        assertEquals(expected.avatarLimitHealthPoints, actual.avatarLimitHealthPoints);
+        assertEquals(expected.isAvatarAlive, actual.isAvatarAlive);
+        assertEquals(expected.availableActions, actual.availableActions);
+        assertEquals(expected.avatarResources, actual.avatarResources);
+        assertArrayEquals(expected.imageArray, actual.imageArray);
+
+        if (expected.observationGrid == null) {
+            assertNull(actual.observationGrid);
+        } else {
+            assertNotNull(actual.observationGrid);
+            assertEquals(expected.observationGrid.length, actual.observationGrid.length);
+            for (int x = 0; x < expected.observationGrid.length; x++) {
+                assertEquals(expected.observationGrid[x].length, actual.observationGrid[x].length);
+                for (int y = 0; y < expected.observationGrid[x].length; y++) {
+                    assertGridEquals(expected.observationGrid[x][y], actual.observationGrid[x][y]);
+                }
+            }
+        }
+
+        assertObservationsEquals(expected.NPCPositions, actual.NPCPositions);
+        assertObservationsEquals(expected.immovablePositions, actual.immovablePositions);
+        assertObservationsEquals(expected.movablePositions, actual.movablePositions);
+        assertObservationsEquals(expected.resourcesPositions, actual.resourcesPositions);
+        assertObservationsEquals(expected.portalsPositions, actual.portalsPositions);
+        assertObservationsEquals(expected.fromAvatarSpritesPositions, actual.fromAvatarSpritesPositions);
+    }
+
+    private static void assertObservationsEquals(Observation[][] expected, Observation[][] actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertGridEquals(expected[i], actual[i]);
+        }
+    }
+
+    /**
+     * Compares the observations of a cell (or a row of observations)
+     */
+    private static void assertGridEquals(Observation[] expected, Observation[] actual) {
+        if (expected == null) {
+            assertNull(actual);
+            return;
+        }
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            Observation e = expected[i];
+            Observation a = actual[i];
+            if (e == null) {
+                assertNull(a);
+                continue;
+            }
+            assertEquals(e.category, a.category);
+            assertEquals(e.itype, a.itype);
+            assertEquals(e.obsID, a.obsID);
+            assertEquals(e.position, a.position);
+            assertEquals(e.reference, a.reference);
+            assertEquals(e.sqDist, a.sqDist, 0);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package heuristic_diversification.test.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+
+import org.junit.Test;
+
+import tools.GridCellSet;
+
+public class GridCellSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        GridCellSet cells = new GridCellSet();
+        assertTrue(cells.isEmpty());
+
+        assertTrue(cells.add(1, 2));
+        assertTrue(cells.add(2, 1));
+        assertTrue(cells.add(0, 0));
+        assertTrue(cells.add(-1, -1));
+        assertEquals(4, cells.size());
+
+        assertTrue(cells.contains(1, 2));
+        assertTrue(cells.contains(2, 1));
+        assertTrue(cells.contains(0, 0));
+        assertTrue(cells.contains(-1, -1));
+        assertFalse(cells.contains(1, 1));
+        assertFalse(cells.contains(-1, 0));
+    }
+
+    @Test
+    public void testCellCoordinates() {
+        int[] coordinates = {0, 1, -1, 17, -300, 32767, -32768};
+        for (int x : coordinates) {
+            for (int y : coordinates) {
+                int cell = GridCellSet.cell(x, y);
+                assertEquals(x, GridCellSet.cellX(cell));
+                assertEquals(y, GridCellSet.cellY(cell));
+            }
+        }
+    }
+
+    @Test
+    public void testDuplicates() {
+        GridCellSet cells = new GridCellSet();
+        assertTrue(cells.add(3, 5));
+        assertFalse(cells.add(3, 5));
+        assertFalse(cells.addCell(GridCellSet.cell(3, 5)));
+        assertEquals(1, cells.size());
+    }
+
+    @Test
+    public void testGrowth() {
+        // Many more cells than expected: the table is rehashed several times
+        GridCellSet cells = new GridCellSet(2);
+        for (int x = 0; x < 40; x++) {
+            for (int y = 0; y < 30; y++) {
+                assertTrue(cells.add(x, y));
+            }
+        }
+        assertEquals(40 * 30, cells.size());
+        for (int x = -1; x <= 40; x++) {
+            for (int y = -1; y <= 30; y++) {
+                assertEquals(x >= 0 && x < 40 && y >= 0 && y < 30, cells.contains(x, y));
+            }
+        }
+
+        HashSet<Integer> found = new HashSet<Integer>();
+        cells.forEachCell(cell -> assertTrue(found.add(cell)));
+        assertEquals(40 * 30, found.size());
+    }
+
+    @Test
+    public void testCellOfFreeSlots() {
+        // This cell is packed as the value of the free slots of the table
+        int freeCell = GridCellSet.cell(-32768, 0);
+        assertEquals(Integer.MIN_VALUE, freeCell);
+
+        GridCellSet cells = new GridCellSet();
+        assertFalse(cells.containsCell(freeCell));
+        assertTrue(cells.addCell(freeCell));
+        assertFalse(cells.addCell(freeCell));
+        assertTrue(cells.contains(-32768, 0));
+        assertEquals(1, cells.size());
+
+        // It is kept across rehashes, and given with the other cells
+        for (int x = 0; x < 100; x++) {
+            cells.add(x, x);
+        }
+        assertTrue(cells.containsCell(freeCell));
+        assertEquals(101, cells.size());
+        HashSet<Integer> found = new HashSet<Integer>();
+        cells.forEachCell(found::add);
+        assertEquals(101, found.size());
+        assertTrue(found.contains(freeCell));
+
+        GridCellSet reference = new GridCellSet();
+        assertEquals(101, cells.countNotIn(reference));
+        reference.addCell(freeCell);
+        assertEquals(100, cells.countNotIn(reference));
+        assertEquals(0, reference.countNotIn(cells));
+
+        cells.clear();
+        assertFalse(cells.containsCell(freeCell));
+        assertTrue(cells.isEmpty());
+    }
+
+    @Test
+    public void testCountNotIn() {
+        GridCellSet cells = new GridCellSet();
+        GridCellSet reference = new GridCellSet();
+        for (int x = 0; x < 10; x++) {
+            cells.add(x, 0);
+            if (x % 2 == 0) {
+                reference.add(x, 0);
+            }
+        }
+        reference.add(20, 20);
+
+        assertEquals(5, cells.countNotIn(reference));
+        assertEquals(1, reference.countNotIn(cells));
+        assertEquals(0, cells.countNotIn(cells));
+    }
+
+    @Test
+    public void testClear() {
+        GridCellSet cells = new GridCellSet();
+        for (int x = 0; x < 50; x++) {
+            cells.add(x, 1);
+        }
+        cells.clear();
+
+        assertTrue(cells.isEmpty());
+        assertFalse(cells.contains(3, 1));
+
+        // The set can be used again
+        assertTrue(cells.add(3, 1));
+        assertEquals(1, cells.size());
+    }
+}
@@ -0,0 +1,98 @@
+package heuristic_diversification.test.tools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import tools.TypePairSet;
+
+public class TypePairSetTest {
+
+    @Test
+    public void testAddAndContains() {
+        TypePairSet pairs = new TypePairSet(4);
+        assertTrue(pairs.isEmpty());
+
+        assertTrue(pairs.add(1, 2));
+        assertTrue(pairs.add(2, 1));
+        assertTrue(pairs.add(0, 0));
+        assertEquals(3, pairs.size());
+
+        assertTrue(pairs.contains(1, 2));
+        assertTrue(pairs.contains(2, 1));
+        assertTrue(pairs.contains(0, 0));
+        assertFalse(pairs.contains(1, 1));
+        assertFalse(pairs.contains(3, 2));
+
+        // Types never added, or not valid
+        assertFalse(pairs.contains(100, 2));
+        assertFalse(pairs.contains(1, 100));
+        assertFalse(pairs.contains(-1, 2));
+        assertFalse(pairs.contains(1, -2));
+    }
+
+    @Test
+    public void testDuplicates() {
+        TypePairSet pairs = new TypePairSet();
+        assertTrue(pairs.add(3, 5));
+        assertFalse(pairs.add(3, 5));
+        assertFalse(pairs.add(3, 5));
+        assertEquals(1, pairs.size());
+        assertTrue(pairs.contains(3, 5));
+    }
+
+    @Test
+    public void testGrowth() {
+        // More types than expected: the rows are added and grown when needed
+        TypePairSet pairs = new TypePairSet(2);
+        for (int first = 0; first < 70; first++) {
+            for (int second = 0; second < 200; second += 7) {
+                assertTrue(pairs.add(first, second));
+            }
+        }
+        assertEquals(70 * 29, pairs.size());
+        for (int first = 0; first < 70; first++) {
+            for (int second = 0; second < 200; second++) {
+                assertEquals(second % 7 == 0, pairs.contains(first, second));
+            }
+        }
+    }
+
+    @Test
+    public void testTypesInDifferentWords() {
+        // Types 64 apart have the same bit in different words of the row
+        TypePairSet pairs = new TypePairSet(1);
+        assertTrue(pairs.add(0, 64));
+        assertFalse(pairs.contains(0, 0));
+        assertFalse(pairs.contains(0, 128));
+        assertTrue(pairs.add(0, 0));
+        assertTrue(pairs.add(0, 128));
+        assertEquals(3, pairs.size());
+        assertTrue(pairs.contains(0, 0));
+        assertTrue(pairs.contains(0, 64));
+        assertTrue(pairs.contains(0, 128));
+    }
+
+    @Test
+    public void testClear() {
+        TypePairSet pairs = new TypePairSet(3);
+        pairs.add(1, 2);
+        pairs.add(2, 70);
+        pairs.clear();
+
+        assertTrue(pairs.isEmpty());
+        assertFalse(pairs.contains(1, 2));
+        assertFalse(pairs.contains(2, 70));
+
+        // The set can be used again
+        assertTrue(pairs.add(2, 70));
+        assertEquals(1, pairs.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeType() {
+        new TypePairSet().add(-1, 0);
+    }
+}
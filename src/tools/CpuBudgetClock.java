@@ -0,0 +1,63 @@
+package tools;
+
+/**
+ * Time left of the CPU time budget of an ElapsedCpuTimer, cheap enough to be checked every
+ * iteration of a search.
+ *
+ * Reading the CPU time of the thread is a call to the JVM management, much slower than reading
+ * System.nanoTime(). The clock reads the CPU time left only when created and every resync period,
+ * and in between it subtracts the wall time passed since the last reading. The thread cannot use
+ * more CPU time than the wall time passed, so the time left is never overestimated. The time the
+ * thread was not running, underestimated in between, is given back in the next reading.
+ *
+ * Like ElapsedCpuTimer, it is meant to be used by the thread whose time is measured.
+ */
+public class CpuBudgetClock {
+
+    /**
+     * Wall time between two readings of the CPU time, by default.
+     */
+    public static final long DEFAULT_RESYNC_NANOS = 2000000;
+
+    private final ElapsedCpuTimer timer;
+    private final long resyncNanos;
+
+    // Last reading of the CPU time left, and when it was read
+    private long syncRemainingNanos;
+    private long syncWallNanos;
+
+    public CpuBudgetClock(ElapsedCpuTimer timer) {
+        this(timer, DEFAULT_RESYNC_NANOS);
+    }
+
+    /**
+     * @param timer timer of the budget, with its max time set.
+     * @param resyncNanos wall time between two readings of the CPU time.
+     */
+    public CpuBudgetClock(ElapsedCpuTimer timer, long resyncNanos) {
+        this.timer = timer;
+        this.resyncNanos = resyncNanos;
+        resync();
+    }
+
+    public long remainingTimeNanos() {
+        long wallElapsed = System.nanoTime() - syncWallNanos;
+        if (wallElapsed >= resyncNanos) {
+            resync();
+            return syncRemainingNanos;
+        }
+        return syncRemainingNanos - wallElapsed;
+    }
+
+    public long remainingTimeMillis() {
+        return remainingTimeNanos() / 1000000;
+    }
+
+    /**
+     * Reads the CPU time left
+     */
+    private void resync() {
+        syncRemainingNanos = timer.remainingTimeNanos();
+        syncWallNanos = System.nanoTime();
+    }
+}
@@ -12,7 +12,9 @@ import java.lang.management.ThreadMXBean;
 public class ElapsedCpuTimer {
 
     // allows for easy reporting of elapsed time
-    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    static final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    // it does not change while running, so it is only asked once
+    static final boolean cpuTimeSupported = bean.isCurrentThreadCpuTimeSupported();
     long oldTime;
     long maxTime;
 
@@ -26,7 +28,6 @@ public class ElapsedCpuTimer {
         ElapsedCpuTimer newCpuTimer = new ElapsedCpuTimer();
         newCpuTimer.maxTime = this.maxTime;
         newCpuTimer.oldTime = this.oldTime;
-        newCpuTimer.bean = this.bean;
         return newCpuTimer;
     }
 
@@ -74,7 +75,7 @@ public class ElapsedCpuTimer {
         if(CompetitionParameters.OS_WIN)
             return System.nanoTime();
 
-        if (bean.isCurrentThreadCpuTimeSupported()) {
+        if (cpuTimeSupported) {
             return bean.getCurrentThreadCpuTime();
         } else {
             throw new RuntimeException("CpuTime NOT Supported");
@@ -93,6 +94,11 @@ public class ElapsedCpuTimer {
         return (long) (diff / 1000000.0);
     }
 
+    public long remainingTimeNanos()
+    {
+        return maxTime - elapsed();
+    }
+
     public boolean exceededMaxTime() {
         if (elapsed() > maxTime) {
             return true;
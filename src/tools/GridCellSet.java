@@ -0,0 +1,179 @@
+package tools;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of cells of the grid of a game, each one kept as an int packing its coordinates (see cell()),
+ * in an open addressing hash table. Adding and finding a cell is O(1) and does not allocate, unlike
+ * a list of Vector2d, and the cells of a set not found in another one are counted in O(size).
+ * clear() keeps the table, so a set can be reused without allocating.
+ */
+public class GridCellSet {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    // Value of the free slots of the table. The cell with this value is kept apart
+    private static final int FREE = Integer.MIN_VALUE;
+
+    private int[] table;
+    private int size;
+    private boolean containsFree;
+
+    public GridCellSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedCells number of cells expected, to size the table up front.
+     */
+    public GridCellSet(int expectedCells) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < 2 * expectedCells) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        Arrays.fill(table, FREE);
+        size = 0;
+        containsFree = false;
+    }
+
+    /**
+     * Packs the coordinates of a cell of the grid in an int, 16 bits each, which is enough for
+     * any grid of a game (and the cells just out of it).
+     */
+    public static int cell(int x, int y) {
+        return (x << 16) | (y & 0xFFFF);
+    }
+
+    public static int cellX(int cell) {
+        return cell >> 16;
+    }
+
+    public static int cellY(int cell) {
+        return (short) cell;
+    }
+
+    public boolean add(int x, int y) {
+        return addCell(cell(x, y));
+    }
+
+    public boolean contains(int x, int y) {
+        return containsCell(cell(x, y));
+    }
+
+    /**
+     * Adds the cell, packed with cell().
+     * @return if the cell was not in the set before.
+     */
+    public boolean addCell(int cell) {
+        if (cell == FREE) {
+            if (containsFree) {
+                return false;
+            }
+            containsFree = true;
+            size++;
+            return true;
+        }
+
+        int mask = table.length - 1;
+        int slot = slot(cell, mask);
+        while (table[slot] != FREE) {
+            if (table[slot] == cell) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = cell;
+        size++;
+        if (2 * size > table.length) {
+            rehash(2 * table.length);
+        }
+        return true;
+    }
+
+    public boolean containsCell(int cell) {
+        if (cell == FREE) {
+            return containsFree;
+        }
+
+        int mask = table.length - 1;
+        int slot = slot(cell, mask);
+        while (table[slot] != FREE) {
+            if (table[slot] == cell) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * @return number of different cells in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Number of cells of this set that are not in the one provided.
+     * @param reference set to look the cells up in.
+     */
+    public int countNotIn(GridCellSet reference) {
+        int count = (containsFree && !reference.containsFree) ? 1 : 0;
+        for (int cell : table) {
+            if (cell != FREE && !reference.containsCell(cell)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gives each cell of the set, packed with cell(), in no particular order.
+     */
+    public void forEachCell(IntConsumer action) {
+        if (containsFree) {
+            action.accept(FREE);
+        }
+        for (int cell : table) {
+            if (cell != FREE) {
+                action.accept(cell);
+            }
+        }
+    }
+
+    /**
+     * Removes all the cells, keeping the memory of the table to reuse it.
+     */
+    public void clear() {
+        Arrays.fill(table, FREE);
+        size = 0;
+        containsFree = false;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = table;
+        table = new int[capacity];
+        Arrays.fill(table, FREE);
+        int mask = capacity - 1;
+        for (int cell : old) {
+            if (cell != FREE) {
+                int slot = slot(cell, mask);
+                while (table[slot] != FREE) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = cell;
+            }
+        }
+    }
+
+    private static int slot(int cell, int mask) {
+        // Spread the coordinates over the table, as neighbouring cells differ in few bits
+        int h = cell * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
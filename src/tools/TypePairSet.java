@@ -0,0 +1,104 @@
+package tools;
+
+import java.util.Arrays;
+
+/**
+ * Set of pairs of sprite types, like the (active, passive) types of the events of a game, kept
+ * as a bitset: a row of bits per first type, with a bit per second type.
+ *
+ * The sprite types are the small, consecutive ids of the VGDLRegistry, so the rows are short. A row
+ * is created the first time a pair of its type is added, and adding a pair does not allocate after
+ * that. clear() keeps the rows, so a set can be reused to count the pairs of many games without
+ * allocating.
+ */
+public class TypePairSet {
+
+    // rows[first] has the bit (second % 64) of its word (second / 64) set for each pair
+    private long[][] rows;
+    // Length of the rows when they are created
+    private int rowWords;
+    private int size;
+
+    public TypePairSet() {
+        this(0);
+    }
+
+    /**
+     * @param nTypes number of sprite types expected, to size the rows up front.
+     */
+    public TypePairSet(int nTypes) {
+        rows = new long[nTypes][];
+        rowWords = Math.max(1, (nTypes + 63) >>> 6);
+        size = 0;
+    }
+
+    /**
+     * Adds the pair of types.
+     * @return if the pair was not in the set before.
+     */
+    public boolean add(int first, int second) {
+        long[] row = row(first, second);
+        int word = second >>> 6;
+        long bit = 1L << second;
+        if ((row[word] & bit) != 0) {
+            return false;
+        }
+        row[word] |= bit;
+        size++;
+        return true;
+    }
+
+    public boolean contains(int first, int second) {
+        if (first < 0 || first >= rows.length || second < 0) {
+            return false;
+        }
+        long[] row = rows[first];
+        int word = second >>> 6;
+        return row != null && word < row.length && (row[word] & (1L << second)) != 0;
+    }
+
+    /**
+     * @return number of different pairs in the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all the pairs, keeping the memory of the rows to reuse it.
+     */
+    public void clear() {
+        for (long[] row : rows) {
+            if (row != null) {
+                Arrays.fill(row, 0);
+            }
+        }
+        size = 0;
+    }
+
+    /**
+     * @return row of the first type, grown to fit the second type.
+     */
+    private long[] row(int first, int second) {
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Negative sprite type: " + first + ", " + second);
+        }
+        if (first >= rows.length) {
+            rows = Arrays.copyOf(rows, Math.max(first + 1, 2 * rows.length));
+        }
+        long[] row = rows[first];
+        int word = second >>> 6;
+        if (row == null) {
+            row = new long[Math.max(word + 1, rowWords)];
+            rows[first] = row;
+        } else if (word >= row.length) {
+            row = Arrays.copyOf(row, Math.max(word + 1, 2 * row.length));
+            rows[first] = row;
+        }
+        return row;
+    }
+}
@@ -10,12 +10,14 @@ import core.game.GameDescription.SpriteData;
 import core.game.GameDescription.TerminationData;
 import core.game.StateObservation;
 import core.player.AbstractPlayer;
+import core.vgdl.VGDLRegistry;
 import tracks.levelGeneration.constraints.CombinedConstraints;
 import ontology.Types;
 import ontology.Types.WINNER;
 import tools.ElapsedCpuTimer;
 import tools.LevelMapping;
 import tools.StepController;
+import tools.TypePairSet;
 
 public class Chromosome implements Comparable<Chromosome>{
 
@@ -412,7 +414,10 @@ public class Chromosome implements Comparable<Chromosome>{
 		
 		LevelMapping levelMapping = getLevelMapping();
 		String levelString = getLevelString(levelMapping);
-		stateObs = SharedData.gameDescription.testLevel(levelString, levelMapping.getCharMapping());
+		//the level is built on the game of the description, shared by the chromosomes evaluated at the same time
+		synchronized(SharedData.gameDescription){
+			stateObs = SharedData.gameDescription.testLevel(levelString, levelMapping.getCharMapping());
+		}
 		return stateObs;
 	}
 	
@@ -499,15 +504,11 @@ public class Chromosome implements Comparable<Chromosome>{
 	 * @return			near 1 when its near to minUniqueRule
 	 */
 	private double getUniqueRuleScore(StateObservation gameState, double minUniqueRule){
-		double unique = 0;
-		HashMap<Integer, Boolean> uniqueEvents = new HashMap<Integer, Boolean>();
+		TypePairSet uniqueEvents = new TypePairSet(VGDLRegistry.GetInstance().numSpriteTypes());
 		for(Event e:gameState.getEventsHistory()){
-			int code = e.activeTypeId + 10000 * e.passiveTypeId;
-			if(!uniqueEvents.containsKey(code)){
-				unique += 1;
-				uniqueEvents.put(code, true);
-			}
+			uniqueEvents.add(e.activeTypeId, e.passiveTypeId);
 		}
+		double unique = uniqueEvents.size();
 		
 
 		/**
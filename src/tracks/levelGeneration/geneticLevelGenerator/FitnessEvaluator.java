@@ -0,0 +1,106 @@
+package tracks.levelGeneration.geneticLevelGenerator;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import core.vgdl.VGDLContext;
+import tools.ElapsedWallTimer;
+
+/**
+ * Calculates the fitness of all the chromosomes of a generation at the same time, using a pool
+ * of worker threads.
+ *
+ * Every chromosome already has its own agents and state observation of its level, built when
+ * the chromosome is created, so the evaluations do not share state among them. The workers use
+ * the sprite registry and logger of the thread generating the level, where the game was parsed.
+ * The evaluation time of a chromosome is measured in the CPU time of the worker playing it, as
+ * when they were evaluated one after the other.
+ *
+ * The thread generating the level is idle while it waits for the workers, so its CPU time does
+ * not count the time of the evaluations. The wall time it waits is kept, so the time budget of
+ * the generation can take it into account.
+ */
+public class FitnessEvaluator {
+	/**
+	 * worker threads evaluating the chromosomes
+	 */
+	private ExecutorService workers;
+	/**
+	 * number of worker threads
+	 */
+	private int numberOfWorkers;
+	/**
+	 * wall time (ms) waited for the evaluations until now
+	 */
+	private long waitedTime;
+
+	/**
+	 * initialize the evaluator
+	 * @param numberOfWorkers	number of chromosomes evaluated at the same time
+	 */
+	public FitnessEvaluator(int numberOfWorkers){
+		this.numberOfWorkers = Math.max(1, numberOfWorkers);
+		this.waitedTime = 0;
+		this.workers = Executors.newFixedThreadPool(this.numberOfWorkers, runnable -> {
+			Thread thread = new Thread(runnable, "level-fitness");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Calculate the fitness of all the chromosomes, and wait until all of them finish
+	 * @param chromosomes	chromosomes to evaluate
+	 * @param time			amount of time to evaluate each chromosome
+	 */
+	public void calculateFitness(ArrayList<Chromosome> chromosomes, long time){
+		ElapsedWallTimer timer = new ElapsedWallTimer();
+		VGDLContext context = VGDLContext.current();
+
+		ArrayList<Future<?>> evaluations = new ArrayList<Future<?>>();
+		for(Chromosome chromosome:chromosomes){
+			evaluations.add(workers.submit(() -> {
+				context.bind();
+				chromosome.calculateFitness(time);
+			}));
+		}
+
+		for(Future<?> evaluation:evaluations){
+			try{
+				evaluation.get();
+			}
+			catch(InterruptedException | ExecutionException e){
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+
+		waitedTime += timer.elapsedMillis();
+	}
+
+	/**
+	 * Get the number of chromosomes evaluated at the same time
+	 * @return	number of worker threads
+	 */
+	public int getNumberOfWorkers(){
+		return numberOfWorkers;
+	}
+
+	/**
+	 * Get the wall time waited for the evaluations until now
+	 * @return	time in milliseconds
+	 */
+	public long getWaitedTime(){
+		return waitedTime;
+	}
+
+	/**
+	 * Stop the worker threads
+	 */
+	public void shutdown(){
+		workers.shutdown();
+	}
+}
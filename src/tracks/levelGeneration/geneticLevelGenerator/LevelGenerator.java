@@ -8,6 +8,7 @@ import java.util.Random;
 import core.game.GameDescription;
 import core.generator.AbstractLevelGenerator;
 import tools.ElapsedCpuTimer;
+import tools.ElapsedWallTimer;
 import tools.GameAnalyzer;
 import tools.LevelMapping;
 
@@ -29,6 +30,10 @@ public class LevelGenerator extends AbstractLevelGenerator{
 	 * number of infeasible chromosomes across generations
 	 */
 	private ArrayList<Integer> numOfInFeasible;
+	/**
+	 * evaluates the fitness of the chromosomes of a generation at the same time
+	 */
+	private FitnessEvaluator fitnessEvaluator;
 	
 	/**
 	 * Initializing the level generator
@@ -125,8 +130,8 @@ public class LevelGenerator extends AbstractLevelGenerator{
 		
 
 		//calculate fitness of the new population chromosomes 
+		fitnessEvaluator.calculateFitness(newPopulation, SharedData.EVALUATION_TIME);
 		for(int i=0;i<newPopulation.size();i++){
-			newPopulation.get(i).calculateFitness(SharedData.EVALUATION_TIME);
 			if(newPopulation.get(i).getConstrainFitness() < 1){
 				System.out.println("\tChromosome #" + (i+1) + " Constrain Fitness: " + newPopulation.get(i).getConstrainFitness());
 			}
@@ -250,9 +255,10 @@ public class LevelGenerator extends AbstractLevelGenerator{
 		width = (int)Math.min(width, SharedData.MAX_SIZE + size);
 		height = (int)Math.min(height, SharedData.MAX_SIZE + size);
 		
+		fitnessEvaluator = new FitnessEvaluator(SharedData.EVALUATION_WORKERS);
+
 		System.out.println("Generation #1: ");
-		ArrayList<Chromosome> fChromosomes = new ArrayList<Chromosome>();
-		ArrayList<Chromosome> iChromosomes = new ArrayList<Chromosome>();
+		ArrayList<Chromosome> chromosomes = new ArrayList<Chromosome>();
 		for(int i =0; i < SharedData.POPULATION_SIZE; i++){
 
 			//initialize the population using either randomly or using contructive level generator
@@ -263,10 +269,16 @@ public class LevelGenerator extends AbstractLevelGenerator{
 			else{
 				chromosome.InitializeRandom();
 			}
+			chromosomes.add(chromosome);
+		}
 
-			//calculate the fitness for all the chromosomes and add them to the correct population
-			//either the feasible or the infeasible one
-			chromosome.calculateFitness(SharedData.EVALUATION_TIME);
+		//calculate the fitness for all the chromosomes and add them to the correct population
+		//either the feasible or the infeasible one
+		fitnessEvaluator.calculateFitness(chromosomes, SharedData.EVALUATION_TIME);
+		ArrayList<Chromosome> fChromosomes = new ArrayList<Chromosome>();
+		ArrayList<Chromosome> iChromosomes = new ArrayList<Chromosome>();
+		for(int i =0; i < chromosomes.size(); i++){
+			Chromosome chromosome = chromosomes.get(i);
 			if(chromosome.getConstrainFitness() < 1){
 				iChromosomes.add(chromosome);
 				System.out.println("\tChromosome #" + (i+1) + " Constrain Fitness: " + chromosome.getConstrainFitness());
@@ -279,21 +291,24 @@ public class LevelGenerator extends AbstractLevelGenerator{
 		
 
 		//some variables to make sure not getting out of time
-		double worstTime = SharedData.EVALUATION_TIME * SharedData.POPULATION_SIZE;
+		//the chromosomes are evaluated in groups of the number of workers, and the time waited
+		//for them is not part of the cpu time of this thread, so it is discounted from the remaining time
+		int evaluationRounds = (int)Math.ceil((double)SharedData.POPULATION_SIZE / fitnessEvaluator.getNumberOfWorkers());
+		double worstTime = SharedData.EVALUATION_TIME * evaluationRounds;
 		double avgTime = worstTime;
 		double totalTime = 0;
 		int numberOfIterations = 0;
 
-		System.out.println(elapsedTimer.remainingTimeMillis() + " " + avgTime + " " + worstTime);
-		while(elapsedTimer.remainingTimeMillis() > 2 * avgTime &&
-				elapsedTimer.remainingTimeMillis() > worstTime){
-			ElapsedCpuTimer timer = new ElapsedCpuTimer();
+		System.out.println(getRemainingTime(elapsedTimer) + " " + avgTime + " " + worstTime);
+		while(getRemainingTime(elapsedTimer) > 2 * avgTime &&
+				getRemainingTime(elapsedTimer) > worstTime){
+			ElapsedWallTimer timer = new ElapsedWallTimer();
 			
 			System.out.println("Generation #" + (numberOfIterations + 2) + ": ");
 			
 
 			//get the new population and split it to a the feasible and infeasible populations
-			ArrayList<Chromosome> chromosomes = getNextPopulation(fChromosomes, iChromosomes);
+			chromosomes = getNextPopulation(fChromosomes, iChromosomes);
 			fChromosomes.clear();
 			iChromosomes.clear();
 			for(Chromosome c:chromosomes){
@@ -309,6 +324,7 @@ public class LevelGenerator extends AbstractLevelGenerator{
 			totalTime += timer.elapsedMillis();
 			avgTime = totalTime / numberOfIterations;
 		}
+		fitnessEvaluator.shutdown();
 		
 
 		//return the best infeasible chromosome
@@ -337,6 +353,15 @@ public class LevelGenerator extends AbstractLevelGenerator{
 	}
 
 
+	/**
+	 * Get the remaining time of the generation, discounting the time waited for the evaluations
+	 * @param elapsedTimer	the amount of time allowed for generation
+	 * @return				remaining time in milliseconds
+	 */
+	private long getRemainingTime(ElapsedCpuTimer elapsedTimer){
+		return elapsedTimer.remainingTimeMillis() - fitnessEvaluator.getWaitedTime();
+	}
+
 	/**
 	 * get the current used level mapping to create the level string
 	 * @return	the level mapping used to create the level string
@@ -19,6 +19,10 @@ public class SharedData {
 	 * the amount of time to evaluate a single level
 	 */
 	public static final long EVALUATION_TIME = 30000;
+	/**
+	 * number of chromosomes evaluated at the same time
+	 */
+	public static final int EVALUATION_WORKERS = Runtime.getRuntime().availableProcessors();
 	/**
 	 * The amount of time given for each time step
 	 */
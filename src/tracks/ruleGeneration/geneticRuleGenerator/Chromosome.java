@@ -7,14 +7,20 @@ import core.game.Event;
 import core.game.GameDescription.SpriteData;
 import core.game.Observation;
 import core.player.AbstractPlayer;
+import core.vgdl.VGDLContext;
+import core.vgdl.VGDLRegistry;
 import ontology.Types;
 import tools.ElapsedCpuTimer;
 import tools.LevelAnalyzer;
+import tools.TypePairSet;
 import tools.Vector2d;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import java.util.Arrays;
@@ -674,10 +680,12 @@ public class Chromosome implements Comparable<Chromosome>{
 		constrainFitness += (0.5) * 1.0 / (errorCount + 1.0);	
 		if(constrainFitness >= 0.5) {
 			doNothingLength = Integer.MAX_VALUE;
-			for(int i = 0; i < SharedData.REPETITION_AMOUNT; i++) {
-				int temp = this.getAgentResult(state.copy(), FEASIBILITY_STEP_LIMIT, SharedData.doNothingAgent);
-				if(temp < doNothingLength){
-					doNothingLength = temp;
+			ArrayList<Simulation> doNothingSimulations = playSimulations(SharedData.REPETITION_AMOUNT, 
+					(i, agents) -> playSimulation(state.copy(), FEASIBILITY_STEP_LIMIT, agents.doNothingAgent));
+			for(Simulation simulation : doNothingSimulations) {
+				this.badFrames += simulation.badFrames;
+				if(simulation.steps < doNothingLength){
+					doNothingLength = simulation.steps;
 				}
 			}
 			constrainFitness += 0.2 * (doNothingLength / (40.0));
@@ -687,18 +695,29 @@ public class Chromosome implements Comparable<Chromosome>{
 		}
 		return state;
 	}
-	
-	
 	/**
 	 * calculates the fitness, by comparing the scores of a naiveAI and a smart AI
+	 * The game simulations of each agent are played at the same time. The ruleset is
+	 * evaluated only once: the fitness of a ruleset already evaluated is reused
 	 * @param time	how much time to evaluate the chromosome
 	 */
 	public void calculateFitness(long time) {
+		String rulesetKey = getCanonicalRuleset();
+		double[] cachedFitness;
+		synchronized(SharedData.fitnessCache) {
+			cachedFitness = SharedData.fitnessCache.get(rulesetKey);
+		}
+		if(cachedFitness != null) {
+			this.constrainFitness = cachedFitness[0];
+			this.fitness.set(0, cachedFitness[1]);
+			this.fitness.set(1, cachedFitness[2]);
+			return;
+		}
 		
 		// reset bad frames
 		this.badFrames = 0;
-		// unique events that occurred in all the game simulations
-		Set<String> events = new HashSet<String>();
+		// unique events that occurred in all the game simulations, as (active, passive) sprite type pairs
+		TypePairSet events = new TypePairSet(VGDLRegistry.GetInstance().numSpriteTypes());
 		StateObservation stateObs = feasibilityTest();
 		if(constrainFitness < 0.7) {
 			// failed feasibility
@@ -707,7 +726,6 @@ public class Chromosome implements Comparable<Chromosome>{
 		else {					
 			//Play the game using the best agent
 			double score = -200;
-			ArrayList<Vector2d> SOs = new ArrayList<>();
 			// protects the fitness evaluation from looping forever
 	
 			// big vars
@@ -718,17 +736,20 @@ public class Chromosome implements Comparable<Chromosome>{
 			double automatedScoreSum = 0.0;
 			double automatedWinSum = 0.0;
 			int bestSolutionSize = 0;
-			for(int i=0; i<SharedData.REPETITION_AMOUNT; i++){
-				StateObservation tempState = stateObs.copy();
-				cleanOpenloopAgents();
-				int temp = getAgentResult(tempState, SharedData.EVALUATION_STEP_COUNT, SharedData.automatedAgent);
+			ArrayList<Simulation> automatedSimulations = playSimulations(SharedData.REPETITION_AMOUNT, (i, agents) -> {
+				agents.cleanOpenloopAgents();
+				return playSimulation(stateObs.copy(), SharedData.EVALUATION_STEP_COUNT, agents.automatedAgent);
+			});
+			for(Simulation simulation : automatedSimulations){
+				StateObservation tempState = simulation.state;
 				// add temp to framesCount
-				frameCount += temp;
+				frameCount += simulation.steps;
+				this.badFrames += simulation.badFrames;
 				
 				if(tempState.getGameScore() > agentBestScore) {
 					agentBestScore = tempState.getGameScore();
 					bestState = tempState;
-					bestSolutionSize = temp;
+					bestSolutionSize = simulation.steps;
 				}
 				
 				score = tempState.getGameScore();
@@ -739,14 +760,16 @@ public class Chromosome implements Comparable<Chromosome>{
 					automatedWinSum += 0.5;
 				}
 				
-				TreeSet s1 = tempState.getEventsHistory();
-				Iterator<Event> iter1 = s1.iterator();
-				while(iter1.hasNext()) {
-					Event e = iter1.next();
-					events.add(e.activeTypeId + "" + e.passiveTypeId);
-				}
+				addEvents(events, tempState);
 				score = -200;
 			}
+			
+			// The random and naive agents play as many steps as the best game of the best agent,
+			// so their simulations are played together once the ones of the best agent finished
+			int solutionSize = bestSolutionSize;
+			ArrayList<Simulation> randomAndNaiveSimulations = playSimulations(2 * SharedData.REPETITION_AMOUNT, 
+					(i, agents) -> playSimulation(stateObs.copy(), solutionSize, 
+							(i < SharedData.REPETITION_AMOUNT) ? agents.randomAgent : agents.naiveAgent));
 			 
 			// Random Agent
 			score = -200;
@@ -755,11 +778,11 @@ public class Chromosome implements Comparable<Chromosome>{
 			double randomWinSum = 0.0;
 			StateObservation randomState = null;
 			for(int i=0; i<SharedData.REPETITION_AMOUNT; i++){
-				StateObservation tempState = stateObs.copy();
-				int temp = getAgentResult(tempState, bestSolutionSize, SharedData.randomAgent);
+				Simulation simulation = randomAndNaiveSimulations.get(i);
 				// add temp to framesCount
-				frameCount += temp;
-				randomState = tempState;
+				frameCount += simulation.steps;
+				this.badFrames += simulation.badFrames;
+				randomState = simulation.state;
 				
 				score = randomState.getGameScore();
 				
@@ -771,12 +794,7 @@ public class Chromosome implements Comparable<Chromosome>{
 				}
 				
 				// gather all unique interactions between objects in the naive agent
-				TreeSet s1 = randomState.getEventsHistory();
-				Iterator<Event> iter1 = s1.iterator();
-				while(iter1.hasNext()) {
-					Event e = iter1.next();
-					events.add(e.activeTypeId + "" + e.passiveTypeId);
-				}
+				addEvents(events, randomState);
 				score = -200;
 			}
 			
@@ -787,11 +805,11 @@ public class Chromosome implements Comparable<Chromosome>{
 			double naiveWinSum = 0.0;
 			//playing the game using the naive agent
 			for(int i=0; i<SharedData.REPETITION_AMOUNT; i++){
-				StateObservation tempState = stateObs.copy();
-				int temp = getAgentResult(tempState, bestSolutionSize, SharedData.naiveAgent);
+				Simulation simulation = randomAndNaiveSimulations.get(SharedData.REPETITION_AMOUNT + i);
 				// add temp to framesCount
-				frameCount += temp;
-				naiveState = tempState;
+				frameCount += simulation.steps;
+				this.badFrames += simulation.badFrames;
+				naiveState = simulation.state;
 				
 				score = naiveState.getGameScore();
 				if(score > -100) {
@@ -804,12 +822,7 @@ public class Chromosome implements Comparable<Chromosome>{
 				}
 				
 				// gather all unique interactions between objects in the best agent
-				TreeSet s1 = naiveState.getEventsHistory();
-				Iterator<Event> iter1 = s1.iterator();
-				while(iter1.hasNext()) {
-					Event e = iter1.next();
-					events.add(e.activeTypeId + "" + e.passiveTypeId);
-					}
+				addEvents(events, naiveState);
 				score = -200;
 			}
 			double badFramePercent = badFrames / (1.0 * frameCount);
@@ -858,15 +871,20 @@ public class Chromosome implements Comparable<Chromosome>{
 				this.fitness.set(0, constrainFitness);
 				this.fitness.set(1, fitness);
 		} 
+		
+		synchronized(SharedData.fitnessCache) {
+			SharedData.fitnessCache.put(rulesetKey, 
+					new double[]{constrainFitness, this.fitness.get(0), this.fitness.get(1)});
+		}
 	}
 	/**
 	 * Play the current level using the naive player
 	 * @param stateObs	the current stateObservation object that represent the level
 	 * @param steps		the maximum amount of steps that it shouldn't exceed it
 	 * @param agent		current agent to play the level
-	 * @return			the number of steps that the agent stops playing after (<= steps)
+	 * @return			the simulation played, with the number of steps that the agent stops playing after (<= steps)
 	 */
-	private int getAgentResult(StateObservation stateObs, int steps, AbstractPlayer agent){
+	private Simulation playSimulation(StateObservation stateObs, int steps, AbstractPlayer agent){
 		int i =0;
 		int k = 0;
 		for(i=0;i<steps;i++){
@@ -880,11 +898,91 @@ public class Chromosome implements Comparable<Chromosome>{
 			k += checkIfOffScreen(stateObs);
 
 		}
-		if(k > 0) {
-			// add k to global var keeping track of this
-			this.badFrames += k;
+		return new Simulation(stateObs, i, k);
+	}
+
+	/**
+	 * Play game simulations at the same time, each one with a set of agents for itself
+	 * @param amount		number of simulations
+	 * @param simulation	plays the simulation with the index given, with the agents given
+	 * @return				the simulations played, in order
+	 */
+	private ArrayList<Simulation> playSimulations(int amount, BiFunction<Integer, EvaluationAgents, Simulation> simulation){
+		// the workers continue the games built in this thread, so they use its sprite registry
+		VGDLContext context = VGDLContext.current();
+		ArrayList<Future<Simulation>> simulations = new ArrayList<Future<Simulation>>();
+		for(int i = 0; i < amount; i++) {
+			int index = i;
+			simulations.add(SharedData.evaluationWorkers.submit(() -> {
+				context.bind();
+				EvaluationAgents agents = SharedData.evaluationAgents.take();
+				try {
+					return simulation.apply(index, agents);
+				}
+				finally {
+					SharedData.evaluationAgents.put(agents);
+				}
+			}));
+		}
+		
+		ArrayList<Simulation> results = new ArrayList<Simulation>();
+		for(Future<Simulation> s : simulations) {
+			try {
+				results.add(s.get());
+			}
+			catch(InterruptedException | ExecutionException e) {
+				e.printStackTrace();
+				System.exit(1);
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * Add the unique interactions between sprites that happened in a game simulation
+	 * @param events	interactions found, as the active and passive sprite types
+	 * @param state		final state of the simulation
+	 */
+	private void addEvents(TypePairSet events, StateObservation state) {
+		for(Event e : state.getEventsHistory()) {
+			events.add(e.activeTypeId, e.passiveTypeId);
+		}
+	}
+	
+	/**
+	 * Get the ruleset in a canonical form, the same for the rulesets with the same rules in any order
+	 * @return	interaction and termination rules, sorted
+	 */
+	private String getCanonicalRuleset() {
+		String[] interactions = ruleset[0].clone();
+		String[] terminations = ruleset[1].clone();
+		Arrays.sort(interactions);
+		Arrays.sort(terminations);
+		return String.join("\n", interactions) + "\n#\n" + String.join("\n", terminations);
+	}
+	
+	/**
+	 * A game simulation played by an agent
+	 */
+	private static class Simulation {
+		/**
+		 * final state of the game
+		 */
+		StateObservation state;
+		/**
+		 * number of steps played
+		 */
+		int steps;
+		/**
+		 * number of steps with sprites out of the screen
+		 */
+		int badFrames;
+		
+		Simulation(StateObservation state, int steps, int badFrames) {
+			this.state = state;
+			this.steps = steps;
+			this.badFrames = badFrames;
 		}
-		return i;
 	}
 	
 	/**
@@ -988,12 +1086,6 @@ public class Chromosome implements Comparable<Chromosome>{
 	}
 
 	
-	private void cleanOpenloopAgents() {
-		((tracks.singlePlayer.advanced.olets.Agent)SharedData.automatedAgent).mctsPlayer = 
-			new tracks.singlePlayer.advanced.olets.SingleMCTSPlayer(new Random(), 
-				(tracks.singlePlayer.advanced.olets.Agent) SharedData.automatedAgent);
-	}
-	
 	/***
 	 * Checks to see if sprites are off screen
 	 * @param stateObs the temporary state observation of the game
@@ -0,0 +1,65 @@
+package tracks.ruleGeneration.geneticRuleGenerator;
+
+import java.lang.reflect.Constructor;
+import java.util.Random;
+
+import core.game.SLDescription;
+import core.game.StateObservation;
+import core.player.AbstractPlayer;
+import tools.ElapsedCpuTimer;
+
+/**
+ * The agents used to evaluate a chromosome. The game simulations of a chromosome are played
+ * at the same time, and each one takes a set of agents for itself while it plays
+ */
+public class EvaluationAgents {
+	/**
+	 * the best automated agent
+	 */
+	public AbstractPlayer automatedAgent;
+	/**
+	 * the naive automated agent
+	 */
+	public AbstractPlayer naiveAgent;
+	/**
+	 * the do nothing automated agent
+	 */
+	public AbstractPlayer doNothingAgent;
+	/**
+	 * the random agent
+	 */
+	public AbstractPlayer randomAgent;
+
+	/**
+	 * initialize the agents used during evaluating the chromosome
+	 * @param sl	the game description
+	 */
+	public EvaluationAgents(SLDescription sl){
+		automatedAgent = createAgent(SharedData.BEST_AGENT_NAME, sl);
+		naiveAgent = createAgent(SharedData.NAIVE_AGENT_NAME, sl);
+		doNothingAgent = createAgent(SharedData.DO_NOTHING_AGENT_NAME, sl);
+		randomAgent = createAgent(SharedData.RANDOM_AGENT_NAME, sl);
+	}
+
+	/**
+	 * restart the search of the automated agent, so a new game simulation does not use
+	 * the tree of the previous one
+	 */
+	public void cleanOpenloopAgents() {
+		((tracks.singlePlayer.advanced.olets.Agent)automatedAgent).mctsPlayer =
+			new tracks.singlePlayer.advanced.olets.SingleMCTSPlayer(new Random(),
+				(tracks.singlePlayer.advanced.olets.Agent)automatedAgent);
+	}
+
+	private static AbstractPlayer createAgent(String agentName, SLDescription sl){
+		try{
+			Class<?> agentClass = Class.forName(agentName);
+			Constructor<?> agentConst = agentClass.getConstructor(new Class<?>[]{StateObservation.class, ElapsedCpuTimer.class});
+			return (AbstractPlayer)agentConst.newInstance(sl.testRules(new String[]{}, new String[]{}), null);
+		}
+		catch(Exception e){
+			e.printStackTrace();
+			return null;
+		}
+	}
+}
@@ -3,12 +3,13 @@ package tracks.ruleGeneration.geneticRuleGenerator;
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
 
 import core.game.SLDescription;
-import core.game.StateObservation;
 import core.generator.AbstractRuleGenerator;
-import core.player.AbstractPlayer;
 import tools.ElapsedCpuTimer;
 import tools.LevelAnalyzer;
 
@@ -21,42 +22,12 @@ public class RuleGenerator extends AbstractRuleGenerator{
 	private ArrayList<Integer> numOfInFeasible;
 	
 	/**
-	 * initialize the agents used during evaluating the chromosome
+	 * initialize the agents used during evaluating the chromosomes
 	 */
-	private void constructAgent(SLDescription sl){
-		try{
-			Class agentClass = Class.forName(SharedData.BEST_AGENT_NAME);
-			Constructor agentConst = agentClass.getConstructor(new Class[]{StateObservation.class, ElapsedCpuTimer.class});
-			SharedData.automatedAgent = (AbstractPlayer)agentConst.newInstance(sl.testRules(new String[]{}, new String[]{}), null);
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		try{
-			Class agentClass = Class.forName(SharedData.NAIVE_AGENT_NAME);
-			Constructor agentConst = agentClass.getConstructor(new Class[]{StateObservation.class, ElapsedCpuTimer.class});
-			SharedData.naiveAgent = (AbstractPlayer)agentConst.newInstance(sl.testRules(new String[]{}, new String[]{}), null);
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-
-		try{
-			Class agentClass = Class.forName(SharedData.DO_NOTHING_AGENT_NAME);
-			Constructor agentConst = agentClass.getConstructor(new Class[]{StateObservation.class, ElapsedCpuTimer.class});
-			SharedData.doNothingAgent = (AbstractPlayer)agentConst.newInstance(sl.testRules(new String[]{}, new String[]{}), null);
-		}
-		catch(Exception e){
-			e.printStackTrace();
-		}
-		try{
-			Class agentClass = Class.forName(SharedData.RANDOM_AGENT_NAME);
-			Constructor agentConst = agentClass.getConstructor(new Class[]{StateObservation.class, ElapsedCpuTimer.class});
-			SharedData.randomAgent = (AbstractPlayer)agentConst.newInstance(sl.testRules(new String[]{}, new String[]{}), null);
-		}
-		catch(Exception e){
-			e.printStackTrace();
+	private void constructAgents(SLDescription sl){
+		SharedData.evaluationAgents = new ArrayBlockingQueue<EvaluationAgents>(SharedData.EVALUATION_WORKERS);
+		for(int i = 0; i < SharedData.EVALUATION_WORKERS; i++){
+			SharedData.evaluationAgents.add(new EvaluationAgents(sl));
 		}
 	}
 	
@@ -86,7 +57,8 @@ public class RuleGenerator extends AbstractRuleGenerator{
 			}
 		}
 		SharedData.usefulSprites.add("EOS");
-		constructAgent(sl);
+		SharedData.fitnessCache = new HashMap<String, double[]>();
+		constructAgents(sl);
 		SharedData.constGen = new tracks.ruleGeneration.constructiveRuleGenerator.RuleGenerator(sl, time);
 		SharedData.constGen.generateRules(sl, time);
 	}
@@ -263,6 +235,28 @@ public class RuleGenerator extends AbstractRuleGenerator{
 	 */
 	@Override
 	public String[][] generateRules(SLDescription sl, ElapsedCpuTimer time) {
+		//the workers only live while the rules are generated, so none are left behind
+		SharedData.evaluationWorkers = Executors.newFixedThreadPool(SharedData.EVALUATION_WORKERS, runnable -> {
+			Thread thread = new Thread(runnable, "rule-fitness");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try{
+			return evolveRules(sl, time);
+		}
+		finally{
+			SharedData.evaluationWorkers.shutdown();
+			SharedData.evaluationWorkers = null;
+		}
+	}
+
+	/**
+	 * Evolves the rules until the time is over
+	 * @param sl	the SL description
+	 * @param time	the time allowed for the generator to loop
+	 * @return	the rules of the best chromosome
+	 */
+	private String[][] evolveRules(SLDescription sl, ElapsedCpuTimer time) {
 		
 		//initialize the statistics objects
  		bestFitness = new ArrayList<Double>();
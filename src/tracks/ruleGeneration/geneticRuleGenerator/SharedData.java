@@ -1,9 +1,11 @@
 package tracks.ruleGeneration.geneticRuleGenerator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 
-import core.player.AbstractPlayer;
 import tools.LevelAnalyzer;
 
 public class SharedData {
@@ -145,21 +147,21 @@ public class SharedData {
 	public static final int PROTECTION_COUNTER = 3;
 	
 	/**
-	 * the best automated agent
+	 * number of game simulations of a chromosome played at the same time
 	 */
-	public static AbstractPlayer automatedAgent;
+	public static final int EVALUATION_WORKERS = Runtime.getRuntime().availableProcessors();
 	/**
-	 * the naive automated agent
+	 * worker threads playing the game simulations
 	 */
-	public static AbstractPlayer naiveAgent;
+	public static ExecutorService evaluationWorkers;
 	/**
-	 * the do nothing automated agent
+	 * agents of the workers, each game simulation takes a set of them while it plays
 	 */
-	public static AbstractPlayer doNothingAgent;
+	public static BlockingQueue<EvaluationAgents> evaluationAgents;
 	/**
-	 * the random agent
+	 * fitness of the rulesets already evaluated, by their canonical form (see Chromosome)
 	 */
-	public static AbstractPlayer randomAgent;
+	public static HashMap<String, double[]> fitnessCache;
 	
 	public static tracks.ruleGeneration.constructiveRuleGenerator.RuleGenerator constGen;
 	
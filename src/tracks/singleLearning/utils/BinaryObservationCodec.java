@@ -0,0 +1,565 @@
+package tracks.singleLearning.utils;
+
+import core.game.Observation;
+import core.game.SerializableStateObservation;
+import ontology.Types;
+import tools.Vector2d;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary protocol of the communication with the learning client, used instead of the text one
+ * (a JSON line per observation) when the client accepts it at the start (see Comm.startComm()).
+ *
+ * Every message is a frame: an int with the number of bytes that follow, a byte with the kind
+ * of frame, and its content. Text frames carry the same "id#message" lines of the text protocol,
+ * in UTF-8, and are used for all the messages but the observations. Observation frames carry the
+ * message id (long) and the fields of the SerializableStateObservation in a fixed order, as
+ * primitives. Enums are sent by their ordinal, so they must be declared in the same order by the
+ * client (-1 is null), and arrays and lists by their length (-1 is null) followed by their elements.
+ *
+ * The observation grid is sent complete in the first observation of a game (phase INIT), or if
+ * its size changes. Otherwise, only the cells that changed since the previous observation are sent,
+ * so the grid of the previous observation must be kept by both sides: use an instance of this class
+ * per connection and direction, and decode all the observations encoded.
+ */
+public class BinaryObservationCodec {
+
+    /**
+     * Kinds of frame.
+     */
+    public static final byte FRAME_TEXT = 0;
+    public static final byte FRAME_OBSERVATION = 1;
+
+    /**
+     * How the observation grid is sent: not at all (null), complete, or the cells changed.
+     */
+    private static final byte GRID_NONE = 0;
+    private static final byte GRID_FULL = 1;
+    private static final byte GRID_DELTA = 2;
+
+    /**
+     * Marks the end of the cells of a grid sent as changes.
+     */
+    private static final int END_OF_CELLS = -1;
+
+    /**
+     * Flags of an observation, telling which of its fields are not null.
+     */
+    private static final byte OBS_PRESENT = 1;
+    private static final byte OBS_POSITION = 2;
+    private static final byte OBS_REFERENCE = 4;
+
+    /**
+     * Values stored per observation in the snapshots of the grid cells.
+     */
+    private static final int OBS_VALUES = 9;
+
+    /**
+     * Values of the observations of each cell of the last grid sent or received, as they were
+     * then (observations may be updated afterwards), to find the cells that changed.
+     */
+    private double[][][] previousCells;
+
+    /**
+     * Last grid received, whose unchanged cells are kept in the next one.
+     */
+    private Observation[][][] previousGrid;
+
+    /**
+     * Buffer where observation frames are encoded, to know their length before sending them,
+     * and send each one with a single write.
+     */
+    private final FrameBuffer buffer = new FrameBuffer();
+    private final DataOutputStream bufferOut = new DataOutputStream(buffer);
+
+    /**
+     * Sends a frame with a line of text.
+     * @param out stream to write to.
+     * @param line line of the message, without line separator.
+     */
+    public static void writeTextFrame(DataOutputStream out, String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        byte[] frame = new byte[bytes.length + 5];
+        int length = bytes.length + 1;
+        frame[0] = (byte) (length >>> 24);
+        frame[1] = (byte) (length >>> 16);
+        frame[2] = (byte) (length >>> 8);
+        frame[3] = (byte) length;
+        frame[4] = FRAME_TEXT;
+        System.arraycopy(bytes, 0, frame, 5, bytes.length);
+        out.write(frame);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame with a line of text.
+     * @param in stream to read from.
+     * @return the line of the message.
+     * @throws IOException if the frame is not a text one, or the stream ends.
+     */
+    public static String readTextFrame(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        byte kind = in.readByte();
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        if (kind != FRAME_TEXT) {
+            throw new IOException("BinaryObservationCodec: text frame expected, received kind " + kind);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sends a frame with an observation.
+     * @param out stream to write to.
+     * @param messageId ID of the message.
+     * @param sso observation to send.
+     */
+    public void writeObservationFrame(DataOutputStream out, long messageId, SerializableStateObservation sso) throws IOException {
+        buffer.reset();
+        bufferOut.writeInt(0); // Length, set once known.
+        bufferOut.writeByte(FRAME_OBSERVATION);
+        bufferOut.writeLong(messageId);
+        writeObservation(bufferOut, sso);
+        bufferOut.flush();
+        buffer.setLength();
+
+        buffer.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * Reads a frame with an observation, as written by writeObservationFrame().
+     * @param in stream to read from.
+     * @return the observation received.
+     * @throws IOException if the frame is not an observation, or the stream ends.
+     */
+    public SerializableStateObservation readObservationFrame(DataInputStream in) throws IOException {
+        in.readInt();
+        byte kind = in.readByte();
+        if (kind != FRAME_OBSERVATION) {
+            throw new IOException("BinaryObservationCodec: observation frame expected, received kind " + kind);
+        }
+        in.readLong();
+        return readObservation(in);
+    }
+
+    /**
+     * Encodes an observation.
+     * @param out stream to write to.
+     * @param sso observation to encode.
+     */
+    public void writeObservation(DataOutputStream out, SerializableStateObservation sso) throws IOException {
+        out.writeByte(ordinal(sso.phase));
+        out.writeBoolean(sso.isValidation);
+        out.writeFloat(sso.gameScore);
+        out.writeInt(sso.gameTick);
+        out.writeByte(ordinal(sso.gameWinner));
+        out.writeBoolean(sso.isGameOver);
+        writeDoubles(out, sso.worldDimension);
+        out.writeInt(sso.blockSize);
+
+        out.writeInt(sso.noOfPlayers);
+        out.writeFloat(sso.avatarSpeed);
+        writeDoubles(out, sso.avatarOrientation);
+        writeDoubles(out, sso.avatarPosition);
+        out.writeByte(ordinal(sso.avatarLastAction));
+        out.writeInt(sso.avatarType);
+        out.writeInt(sso.avatarHealthPoints);
+        out.writeInt(sso.avatarMaxHealthPoints);
+        out.writeInt(sso.avatarLimitHealthPoints);
+        out.writeBoolean(sso.isAvatarAlive);
+
+        if (sso.availableActions == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(sso.availableActions.size());
+            for (Types.ACTIONS action : sso.availableActions) {
+                out.writeByte(ordinal(action));
+            }
+        }
+
+        if (sso.avatarResources == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(sso.avatarResources.size());
+            for (Map.Entry<Integer, Integer> resource : sso.avatarResources.entrySet()) {
+                out.writeInt(resource.getKey());
+                out.writeInt(resource.getValue());
+            }
+        }
+
+        if (sso.imageArray == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(sso.imageArray.length);
+            out.write(sso.imageArray);
+        }
+
+        writeGrid(out, sso.observationGrid, sso.phase == SerializableStateObservation.Phase.INIT);
+
+        writeObservations(out, sso.NPCPositions);
+        writeObservations(out, sso.immovablePositions);
+        writeObservations(out, sso.movablePositions);
+        writeObservations(out, sso.resourcesPositions);
+        writeObservations(out, sso.portalsPositions);
+        writeObservations(out, sso.fromAvatarSpritesPositions);
+    }
+
+    /**
+     * Decodes an observation encoded by writeObservation().
+     * @param in stream to read from.
+     * @return the observation decoded.
+     */
+    public SerializableStateObservation readObservation(DataInputStream in) throws IOException {
+        SerializableStateObservation sso = new SerializableStateObservation();
+        sso.phase = fromOrdinal(SerializableStateObservation.Phase.values(), in.readByte());
+        sso.isValidation = in.readBoolean();
+        sso.gameScore = in.readFloat();
+        sso.gameTick = in.readInt();
+        sso.gameWinner = fromOrdinal(Types.WINNER.values(), in.readByte());
+        sso.isGameOver = in.readBoolean();
+        sso.worldDimension = readDoubles(in);
+        sso.blockSize = in.readInt();
+
+        sso.noOfPlayers = in.readInt();
+        sso.avatarSpeed = in.readFloat();
+        sso.avatarOrientation = readDoubles(in);
+        sso.avatarPosition = readDoubles(in);
+        sso.avatarLastAction = fromOrdinal(Types.ACTIONS.values(), in.readByte());
+        sso.avatarType = in.readInt();
+        sso.avatarHealthPoints = in.readInt();
+        sso.avatarMaxHealthPoints = in.readInt();
+        sso.avatarLimitHealthPoints = in.readInt();
+        sso.isAvatarAlive = in.readBoolean();
+
+        int nActions = in.readInt();
+        if (nActions >= 0) {
+            sso.availableActions = new ArrayList<Types.ACTIONS>(nActions);
+            for (int i = 0; i < nActions; i++) {
+                sso.availableActions.add(fromOrdinal(Types.ACTIONS.values(), in.readByte()));
+            }
+        }
+
+        int nResources = in.readInt();
+        if (nResources >= 0) {
+            sso.avatarResources = new HashMap<Integer, Integer>();
+            for (int i = 0; i < nResources; i++) {
+                int resource = in.readInt();
+                sso.avatarResources.put(resource, in.readInt());
+            }
+        }
+
+        int imageLength = in.readInt();
+        if (imageLength >= 0) {
+            sso.imageArray = new byte[imageLength];
+            in.readFully(sso.imageArray);
+        }
+
+        sso.observationGrid = readGrid(in);
+
+        sso.NPCPositions = readObservations(in);
+        sso.immovablePositions = readObservations(in);
+        sso.movablePositions = readObservations(in);
+        sso.resourcesPositions = readObservations(in);
+        sso.portalsPositions = readObservations(in);
+        sso.fromAvatarSpritesPositions = readObservations(in);
+        return sso;
+    }
+
+    /**
+     * Encodes the observation grid, complete or only the cells changed since the previous one.
+     * @param keyframe true to send the grid complete.
+     */
+    private void writeGrid(DataOutputStream out, Observation[][][] grid, boolean keyframe) throws IOException {
+        if (grid == null) {
+            out.writeByte(GRID_NONE);
+            previousCells = null;
+            return;
+        }
+
+        int width = grid.length;
+        int height = (width > 0) ? grid[0].length : 0;
+        if (keyframe || previousCells == null || previousCells.length != width
+                || (width > 0 && previousCells[0].length != height)) {
+            out.writeByte(GRID_FULL);
+            out.writeInt(width);
+            out.writeInt(height);
+            previousCells = new double[width][height][];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    writeCell(out, grid[x][y]);
+                    previousCells[x][y] = snapshot(grid[x][y]);
+                }
+            }
+            return;
+        }
+
+        out.writeByte(GRID_DELTA);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (!sameCell(previousCells[x][y], grid[x][y])) {
+                    out.writeInt(x * height + y);
+                    writeCell(out, grid[x][y]);
+                    previousCells[x][y] = snapshot(grid[x][y]);
+                }
+            }
+        }
+        out.writeInt(END_OF_CELLS);
+    }
+
+    /**
+     * Decodes the observation grid. Cells not sent are those of the previous grid received
+     * (the same arrays of observations, which must not be modified).
+     */
+    private Observation[][][] readGrid(DataInputStream in) throws IOException {
+        byte mode = in.readByte();
+        if (mode == GRID_NONE) {
+            previousGrid = null;
+            return null;
+        }
+
+        Observation[][][] grid;
+        if (mode == GRID_FULL) {
+            int width = in.readInt();
+            int height = in.readInt();
+            grid = new Observation[width][height][];
+            for (int x = 0; x < width; x++) {
+                for (int y = 0; y < height; y++) {
+                    grid[x][y] = readCell(in);
+                }
+            }
+        } else {
+            if (previousGrid == null) {
+                throw new IOException("BinaryObservationCodec: grid changes received without a previous grid");
+            }
+            grid = new Observation[previousGrid.length][][];
+            for (int x = 0; x < grid.length; x++) {
+                grid[x] = previousGrid[x].clone();
+            }
+            int height = (grid.length > 0) ? grid[0].length : 0;
+            int cell = in.readInt();
+            while (cell != END_OF_CELLS) {
+                grid[cell / height][cell % height] = readCell(in);
+                cell = in.readInt();
+            }
+        }
+        previousGrid = grid;
+        return grid;
+    }
+
+    private static void writeCell(DataOutputStream out, Observation[] cell) throws IOException {
+        if (cell == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(cell.length);
+        for (Observation obs : cell) {
+            writeObs(out, obs);
+        }
+    }
+
+    private static Observation[] readCell(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        Observation[] cell = new Observation[length];
+        for (int i = 0; i < length; i++) {
+            cell[i] = readObs(in);
+        }
+        return cell;
+    }
+
+    private static void writeObservations(DataOutputStream out, Observation[][] observations) throws IOException {
+        if (observations == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(observations.length);
+        for (Observation[] row : observations) {
+            writeCell(out, row);
+        }
+    }
+
+    private static Observation[][] readObservations(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        Observation[][] observations = new Observation[length][];
+        for (int i = 0; i < length; i++) {
+            observations[i] = readCell(in);
+        }
+        return observations;
+    }
+
+    private static void writeObs(DataOutputStream out, Observation obs) throws IOException {
+        out.writeByte(flags(obs));
+        if (obs == null) {
+            return;
+        }
+        out.writeInt(obs.category);
+        out.writeInt(obs.itype);
+        out.writeInt(obs.obsID);
+        if (obs.position != null) {
+            out.writeDouble(obs.position.x);
+            out.writeDouble(obs.position.y);
+        }
+        if (obs.reference != null) {
+            out.writeDouble(obs.reference.x);
+            out.writeDouble(obs.reference.y);
+        }
+        out.writeDouble(obs.sqDist);
+    }
+
+    private static Observation readObs(DataInputStream in) throws IOException {
+        byte flags = in.readByte();
+        if ((flags & OBS_PRESENT) == 0) {
+            return null;
+        }
+        Observation obs = new Observation();
+        obs.category = in.readInt();
+        obs.itype = in.readInt();
+        obs.obsID = in.readInt();
+        obs.position = ((flags & OBS_POSITION) != 0) ? new Vector2d(in.readDouble(), in.readDouble()) : null;
+        obs.reference = ((flags & OBS_REFERENCE) != 0) ? new Vector2d(in.readDouble(), in.readDouble()) : null;
+        obs.sqDist = in.readDouble();
+        return obs;
+    }
+
+    private static byte flags(Observation obs) {
+        if (obs == null) {
+            return 0;
+        }
+        byte flags = OBS_PRESENT;
+        if (obs.position != null) flags |= OBS_POSITION;
+        if (obs.reference != null) flags |= OBS_REFERENCE;
+        return flags;
+    }
+
+    /**
+     * Copies the values of the observations of a cell, in the order they are compared by sameCell().
+     */
+    private static double[] snapshot(Observation[] cell) {
+        if (cell == null) {
+            return null;
+        }
+        double[] values = new double[cell.length * OBS_VALUES];
+        for (int i = 0; i < cell.length; i++) {
+            Observation obs = cell[i];
+            int v = i * OBS_VALUES;
+            values[v] = flags(obs);
+            if (obs == null) {
+                continue;
+            }
+            values[v + 1] = obs.category;
+            values[v + 2] = obs.itype;
+            values[v + 3] = obs.obsID;
+            if (obs.position != null) {
+                values[v + 4] = obs.position.x;
+                values[v + 5] = obs.position.y;
+            }
+            if (obs.reference != null) {
+                values[v + 6] = obs.reference.x;
+                values[v + 7] = obs.reference.y;
+            }
+            values[v + 8] = obs.sqDist;
+        }
+        return values;
+    }
+
+    /**
+     * Checks if the observations of a cell have the values of a snapshot of the cell.
+     */
+    private static boolean sameCell(double[] values, Observation[] cell) {
+        if (values == null || cell == null) {
+            return values == null && cell == null;
+        }
+        if (values.length != cell.length * OBS_VALUES) {
+            return false;
+        }
+        for (int i = 0; i < cell.length; i++) {
+            Observation obs = cell[i];
+            int v = i * OBS_VALUES;
+            if (values[v] != flags(obs)) {
+                return false;
+            }
+            if (obs == null) {
+                continue;
+            }
+            if (values[v + 1] != obs.category || values[v + 2] != obs.itype || values[v + 3] != obs.obsID
+                    || Double.compare(values[v + 8], obs.sqDist) != 0) {
+                return false;
+            }
+            if (obs.position != null && (Double.compare(values[v + 4], obs.position.x) != 0
+                    || Double.compare(values[v + 5], obs.position.y) != 0)) {
+                return false;
+            }
+            if (obs.reference != null && (Double.compare(values[v + 6], obs.reference.x) != 0
+                    || Double.compare(values[v + 7], obs.reference.y) != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static double[] readDoubles(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+
+    private static byte ordinal(Enum<?> value) {
+        return (byte) ((value == null) ? -1 : value.ordinal());
+    }
+
+    private static <T> T fromOrdinal(T[] values, byte ordinal) {
+        return (ordinal < 0) ? null : values[ordinal];
+    }
+
+    /**
+     * Buffer of a frame, starting by its length.
+     */
+    private static class FrameBuffer extends ByteArrayOutputStream {
+
+        FrameBuffer() {
+            super(1 << 16);
+        }
+
+        /**
+         * Sets the length at the start of the frame, that of the bytes written after it.
+         */
+        void setLength() {
+            int length = count - 4;
+            buf[0] = (byte) (length >>> 24);
+            buf[1] = (byte) (length >>> 16);
+            buf[2] = (byte) (length >>> 8);
+            buf[3] = (byte) length;
+        }
+    }
+}
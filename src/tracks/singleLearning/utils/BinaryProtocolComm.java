@@ -0,0 +1,20 @@
+package tracks.singleLearning.utils;
+
+import java.io.IOException;
+
+/**
+ * Communications that can switch to the binary protocol (see BinaryObservationCodec). Comm only
+ * offers it to the client when the communication implements this interface and supports it.
+ */
+public interface BinaryProtocolComm {
+
+    /**
+     * Indicates if the binary protocol can be offered to the client.
+     */
+    boolean supportsBinaryProtocol();
+
+    /**
+     * Switches to the binary protocol, once the client accepted it.
+     */
+    void startBinaryProtocol() throws IOException;
+}
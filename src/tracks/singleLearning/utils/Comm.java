@@ -29,6 +29,17 @@ public abstract class Comm extends Thread {
      */
     protected String TOKEN_SEP = "#";
 
+    /**
+     * Tag added to the START message to offer the binary protocol, and to the START_DONE
+     * response of the clients that accept it (see BinaryObservationCodec).
+     */
+    public static final String BINARY_PROTOCOL = "BINARY";
+
+    /**
+     * Set when a response of the client accepts the binary protocol.
+     */
+    protected boolean binaryProtocolAccepted = false;
+
     /**
      * Message ID
      */
@@ -66,7 +77,7 @@ public abstract class Comm extends Thread {
 
             SerializableStateObservation sso = new SerializableStateObservation(so);
 
-            commSend(sso.serialize(null));
+            commSend(sso);
 
             String response = commRecv();
 
@@ -107,7 +118,9 @@ public abstract class Comm extends Thread {
             if(!CompetitionParameters.USE_SOCKETS)
                 commRecv();
 
-            commSend("START");
+            BinaryProtocolComm binaryComm = (this instanceof BinaryProtocolComm) ? (BinaryProtocolComm) this : null;
+            boolean offerBinaryProtocol = (binaryComm != null) && binaryComm.supportsBinaryProtocol();
+            commSend(offerBinaryProtocol ? "START" + TOKEN_SEP + BINARY_PROTOCOL : "START");
             String response;
 
             response = commRecv();
@@ -120,6 +133,9 @@ public abstract class Comm extends Thread {
                 System.out.println("START_FAILED");
                 return false;
             } else if (response.equalsIgnoreCase("START_DONE")) {
+                //The client switches to the binary protocol after accepting it, and so do we.
+                if (offerBinaryProtocol && binaryProtocolAccepted)
+                    binaryComm.startBinaryProtocol();
                 return true;
             }
 
@@ -171,6 +187,15 @@ public abstract class Comm extends Thread {
      */
     public abstract void commSend(String msg) throws IOException;
 
+    /**
+     * Sends an observation to the client, serialized as JSON unless the binary protocol is used.
+     *
+     * @param sso observation to send.
+     */
+    public void commSend(SerializableStateObservation sso) throws IOException {
+        commSend(sso.serialize(null));
+    }
+
     public Types.LEARNING_SSO_TYPE getLastSsoType() {
         return this.lastSsoType;
     }
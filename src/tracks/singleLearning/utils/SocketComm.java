@@ -5,6 +5,7 @@ package tracks.singleLearning.utils;
  */
 
 import core.competition.CompetitionParameters;
+import core.game.SerializableStateObservation;
 import ontology.Types.LEARNING_SSO_TYPE;
 
 import java.io.*;
@@ -12,7 +13,7 @@ import java.net.ServerSocket;
 import java.net.Socket;
 import java.util.Scanner;
 
-public class SocketComm extends Comm {
+public class SocketComm extends Comm implements BinaryProtocolComm {
 
 
     public int port = CompetitionParameters.SOCKET_PORT; //default
@@ -20,6 +21,13 @@ public class SocketComm extends Comm {
     private Scanner in;
     private PrintStream out;
     private boolean end;
+
+    /**
+     * Streams and codec of the binary protocol, null until it is started.
+     */
+    private DataInputStream binaryIn;
+    private DataOutputStream binaryOut;
+    private BinaryObservationCodec codec;
     private static int THRESHOLD = 60000;
 
     /**
@@ -45,6 +53,9 @@ public class SocketComm extends Comm {
             }
 
 
+            //Messages are answered before the next one is sent: don't delay sending them.
+            socket.setTcpNoDelay(true);
+
             //Initialize input and output through socket.
             in = new Scanner(socket.getInputStream());
             out = new PrintStream(socket.getOutputStream());
@@ -86,12 +97,47 @@ public class SocketComm extends Comm {
      * @param msg message to send.
      */
     public void commSend(String msg) throws IOException {
-        String message = messageId + TOKEN_SEP + msg + lineSep;
-        out.format(message);
-        out.flush();
+        if (binaryOut != null) {
+            BinaryObservationCodec.writeTextFrame(binaryOut, messageId + TOKEN_SEP + msg);
+        } else {
+            String message = messageId + TOKEN_SEP + msg + lineSep;
+            out.format(message);
+            out.flush();
+        }
+        messageId++;
+    }
+
+    /**
+     * Sends an observation to the client, in a binary frame if the binary protocol is used.
+     *
+     * @param sso observation to send.
+     */
+    @Override
+    public void commSend(SerializableStateObservation sso) throws IOException {
+        if (binaryOut == null) {
+            super.commSend(sso);
+            return;
+        }
+        codec.writeObservationFrame(binaryOut, messageId, sso);
         messageId++;
     }
 
+    @Override
+    public boolean supportsBinaryProtocol() {
+        return CompetitionParameters.USE_BINARY_PROTOCOL;
+    }
+
+    /**
+     * Switches to the binary protocol. Messages alternate between server and client, so
+     * nothing else has been received after the START_DONE line when it is called.
+     */
+    @Override
+    public void startBinaryProtocol() throws IOException {
+        binaryIn = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        binaryOut = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        codec = new BinaryObservationCodec();
+    }
+
     /**
      * Receives a message from the client.
      *
@@ -152,7 +198,7 @@ public class SocketComm extends Comm {
      *
      * @return the response got from the client, or null if no response was received after due time.
      */
-    public String commRecv() {
+    public String commRecv() throws IOException {
         float timeout = 0;
         String response = null;
         while (timeout < THRESHOLD && response == null)
@@ -165,10 +211,10 @@ public class SocketComm extends Comm {
         return response;
     }
 
-    private String processCommRecv(){
+    private String processCommRecv() throws IOException {
         String ret = null;
-        if (in.hasNextLine()) {
-            ret = in.nextLine();
+        if (binaryIn != null || in.hasNextLine()) {
+            ret = (binaryIn != null) ? BinaryObservationCodec.readTextFrame(binaryIn) : in.nextLine();
             //System.out.println("Received in server: " + ret);
             if (ret != null && ret.trim().length() > 0) {
                 String messageParts[] = ret.split(TOKEN_SEP);
@@ -197,6 +243,10 @@ public class SocketComm extends Comm {
                     }
                 }
 
+                if (messageParts.length >= 4 && messageParts[3].equals(BINARY_PROTOCOL)) {
+                    this.binaryProtocolAccepted = true;
+                }
+
                 if (receivedID == (messageId - 1)) {
                     return msg.trim();
                 } else if (receivedID < (messageId - 1)) {
@@ -20,14 +20,24 @@ import tools.ElapsedCpuTimer;
  */
 public class Agent extends AbstractPlayer {
 
-    public static int NUM_ACTIONS;
     public static int ROLLOUT_DEPTH = 10;
     public static double K = Math.sqrt(2);
-    public static Types.ACTIONS[] actions;
-    public static UCBEquation ucb;
-    public static double[] parameters;
     public static double safetyMargin = 0;
 
+    /**
+     * UCB equation and parameters of the agents created by each thread, see bind().
+     */
+    private static final ThreadLocal<UCBEquation> boundUcb = new ThreadLocal<UCBEquation>();
+    private static final ThreadLocal<double[]> boundParameters = new ThreadLocal<double[]>();
+
+    public int numActions;
+    public Types.ACTIONS[] actions;
+    /**
+     * UCB equation used by the tree policy of this agent, with its parameters.
+     */
+    public UCBEquation ucb;
+    public double[] parameters;
+
     /**
      * Random generator for the agent.
      */
@@ -40,17 +50,45 @@ public class Agent extends AbstractPlayer {
      */
     public Agent(StateObservation so, ElapsedCpuTimer elapsedTimer)
     {
-        //Get the actions in a static array.
+        this(so, elapsedTimer, boundUcb.get(), boundParameters.get());
+    }
+
+    /**
+     * Public constructor with state observation and time due.
+     * @param so state observation of the current game.
+     * @param elapsedTimer Timer for the controller creation.
+     * @param ucb UCB equation used by the tree policy.
+     * @param parameters parameters of the UCB equation.
+     */
+    public Agent(StateObservation so, ElapsedCpuTimer elapsedTimer, UCBEquation ucb, double[] parameters)
+    {
+        this.ucb = ucb;
+        this.parameters = parameters;
+
+        //Get the actions in an array.
         ArrayList<Types.ACTIONS> act = so.getAvailableActions();
         actions = new Types.ACTIONS[act.size()];
         for(int i = 0; i < actions.length; ++i)
         {
             actions[i] = act.get(i);
         }
-        NUM_ACTIONS = actions.length;
+        numActions = actions.length;
 
         //Create the player.
-        mctsPlayer = new SingleMCTSPlayer(new Random(UCBOptimization.RANDOM_OBJ));
+        mctsPlayer = new SingleMCTSPlayer(new Random(UCBOptimization.RANDOM_OBJ), this);
+    }
+
+    /**
+     * Sets the UCB equation and parameters of the agents created from now on by the current thread.
+     * The agents are created by the ArcadeMachine, which only passes them the state and the timer,
+     * so this way each thread can play games with different parameters at the same time.
+     * @param ucb UCB equation used by the tree policy.
+     * @param parameters parameters of the UCB equation.
+     */
+    public static void bind(UCBEquation ucb, double[] parameters)
+    {
+        boundUcb.set(ucb);
+        boundParameters.set(parameters);
     }
 
 
@@ -84,7 +122,7 @@ public class Agent extends AbstractPlayer {
      */
     public void result(StateObservation stateObservation, ElapsedCpuTimer elapsedCpuTimer)
     {
-//        System.out.println("MCTS avg iters: " + SingleMCTSPlayer.iters / SingleMCTSPlayer.num);
+//        System.out.println("MCTS avg iters: " + mctsPlayer.iters / mctsPlayer.num);
         //Include your code here to know how it all ended.
         //System.out.println("Game over? " + stateObservation.isGameOver());
     }
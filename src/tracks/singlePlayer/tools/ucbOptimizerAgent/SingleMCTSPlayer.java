@@ -23,16 +23,23 @@ public class SingleMCTSPlayer
      */
     public Random m_rnd;
 
-    public static int iters = 0, num = 0;
+    /**
+     * Agent playing, with the UCB equation of the tree policy.
+     */
+    public Agent m_agent;
+
+    public int iters = 0, num = 0;
 
     /**
      * Creates the MCTS player with a sampleRandom generator object.
      * @param a_rnd sampleRandom generator object.
+     * @param agent agent playing.
      */
-    public SingleMCTSPlayer(Random a_rnd)
+    public SingleMCTSPlayer(Random a_rnd, Agent agent)
     {
         m_rnd = a_rnd;
-        m_root = new SingleTreeNode(a_rnd, null);
+        m_agent = agent;
+        m_root = new SingleTreeNode(a_rnd, null, agent);
     }
 
     /**
@@ -43,7 +50,7 @@ public class SingleMCTSPlayer
     {
         //Set the game observation to a newly root node.
         m_root = new SingleTreeNode(m_rnd, 
-        		new int[a_gameState.getObservationGrid().length][a_gameState.getObservationGrid()[0].length]);
+        		new int[a_gameState.getObservationGrid().length][a_gameState.getObservationGrid()[0].length], m_agent);
         m_root.state = a_gameState;
     }
 
@@ -57,7 +64,7 @@ public class SingleMCTSPlayer
         //Do the search within the available time.
         m_root.mctsSearch(elapsedTimer);
 
-        iters += SingleTreeNode.totalIters;
+        iters += m_root.totalIters;
         num ++;
 
         //Determine the best action to take and return it.
@@ -20,25 +20,30 @@ public class SingleTreeNode
     public double maxValue;
     public int nVisits;
 	public int[][] visitedTiles;
-    public static Random m_rnd;
+    public Random m_rnd;
     private int m_depth;
-    protected static double[] bounds = new double[]{Double.MAX_VALUE, -Double.MAX_VALUE};
-    public SingleTreeNode(Random rnd, int[][] visSpace) {
-        this(null, null, rnd, visSpace);
+    protected double[] bounds;
+    // Agent of the tree, with the actions and the UCB equation
+    private Agent agent;
+    public SingleTreeNode(Random rnd, int[][] visSpace, Agent agent) {
+        this(null, null, rnd, visSpace, agent);
     }
 
-    public static int totalIters = 0;
+    public int totalIters = 0;
 
-    public SingleTreeNode(StateObservation state, SingleTreeNode parent, Random rnd, int[][] visSpace) {
+    public SingleTreeNode(StateObservation state, SingleTreeNode parent, Random rnd, int[][] visSpace, Agent agent) {
         this.state = state;
         this.parent = parent;
         this.m_rnd = rnd;
+        this.agent = agent;
+        // the bounds are shared by all the nodes of the tree
+        this.bounds = (parent != null) ? parent.bounds : new double[]{Double.MAX_VALUE, -Double.MAX_VALUE};
         this.visitedTiles = visSpace;
         if(state != null){
 	        this.visitedTiles = Helper.updateTilesValue(visSpace, (int)(state.getAvatarPosition().x / state.getBlockSize()), 
 	        		(int)(state.getAvatarPosition().y / state.getBlockSize()));
         }
-        children = new SingleTreeNode[Agent.NUM_ACTIONS];
+        children = new SingleTreeNode[agent.numActions];
         totValue = 0.0;
         maxValue = 0.0;
         if(parent != null)
@@ -112,7 +117,7 @@ public class SingleTreeNode
     	while(node != null){
     		int currentAction = getCurrentAction(node);
     		if(previousAction != -1 && currentAction != -1){
-    			if(Helper.isOpposite(Agent.actions[previousAction], Agent.actions[currentAction])){
+    			if(Helper.isOpposite(agent.actions[previousAction], agent.actions[currentAction])){
     				result += 1;
     			}
     		}
@@ -149,7 +154,7 @@ public class SingleTreeNode
     	
     	while(node != null){
     		int currentAction = getCurrentAction(node);
-    		if(currentAction != -1 && Agent.actions[currentAction] != Types.ACTIONS.ACTION_USE){
+    		if(currentAction != -1 && agent.actions[currentAction] != Types.ACTIONS.ACTION_USE){
     			if(isUselessMove(node.parent.state, node.state)){
     				result += 1;
     			}
@@ -188,9 +193,9 @@ public class SingleTreeNode
         }
 
         StateObservation nextState = state.copy();
-        nextState.advance(Agent.actions[bestAction]);
+        nextState.advance(agent.actions[bestAction]);
 
-        SingleTreeNode tn = new SingleTreeNode(nextState, this, this.m_rnd, visitedTiles);
+        SingleTreeNode tn = new SingleTreeNode(nextState, this, this.m_rnd, visitedTiles, agent);
         children[bestAction] = tn;
         return tn;
 
@@ -271,7 +276,7 @@ public class SingleTreeNode
         	values[Helper.GRID_WIDTH] = state.getObservationGrid()[0].length;
         	values[Helper.GRID_HEIGHT] = state.getObservationGrid().length;
         	
-            double uctValue = Agent.ucb.evaluate(values, Agent.parameters);
+            double uctValue = agent.ucb.evaluate(values, agent.parameters);
 
             // small sampleRandom numbers: break ties in unexpanded nodes
             uctValue = Utils.noise(uctValue, this.epsilon, this.m_rnd.nextDouble());     //break ties randomly
@@ -333,8 +338,8 @@ public class SingleTreeNode
 
         while (!finishRollout(rollerState,thisDepth)) {
 
-            int action = m_rnd.nextInt(Agent.NUM_ACTIONS);
-            rollerState.advance(Agent.actions[action]);
+            int action = m_rnd.nextInt(agent.numActions);
+            rollerState.advance(agent.actions[action]);
             thisDepth++;
         }
 